@@ -0,0 +1,17 @@
+package com.curso.proyectobasico.persistence;
+
+import java.util.List;
+
+/*
+ * Conversion entidad <-> campos CSV. Cada repositorio define el suyo.
+ * La primera columna es siempre el id.
+ */
+public interface EntityCodec<T> {
+    String header();
+
+    String id(T entity);
+
+    List<String> toFields(T entity);
+
+    T fromFields(List<String> fields);
+}
@@ -0,0 +1,211 @@
+package com.curso.proyectobasico.repository;
+
+import com.curso.proyectobasico.persistence.CsvUtils;
+import com.curso.proyectobasico.persistence.EntityCodec;
+import com.curso.proyectobasico.persistence.FileStorage;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ * Base comun de los repositorios CSV (load + persist + CRUD), segura entre hilos.
+ * Cada repositorio solo aporta su EntityCodec.
+ *
+ * - findById: sin bloqueos (ConcurrentHashMap).
+ * - save/update/delete: cerrojo por id (64 ReentrantLock repartidos por hash del id);
+ *   ids distintos se modifican a la vez.
+ * - findAll y persist: cerrojo exclusivo, la lista o el fichero son siempre una foto completa.
+ * - Orden de findAll: el de insercion (numero de secuencia por entidad).
+ * - Lotes: entre beginBatch() y commitBatch() los cambios (de cualquier hilo) solo se hacen
+ *   en memoria; commitBatch() reescribe el fichero una vez. Sin lote, cada cambio lo reescribe.
+ */
+public abstract class ConcurrentCsvRepository<T> implements Repository<T> {
+    private static final int STRIPES = 64;
+
+    private final Path file;
+    private final EntityCodec<T> codec;
+    private final ConcurrentHashMap<String, Slot<T>> data = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Slot<T>> order = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final ReentrantReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+
+    // * Lote abierto (anidable) y cambios sin guardar
+    private final Object batchLock = new Object();
+    private int batchDepth;
+    private int pendingChanges;
+    private long flushes;
+    private long flushedChanges;
+
+    private static final class Slot<T> {
+        final long seq;
+        volatile T value;
+
+        Slot(long seq, T value) {
+            this.seq = seq;
+            this.value = value;
+        }
+    }
+
+    protected ConcurrentCsvRepository(Path file, EntityCodec<T> codec) {
+        this.file = file;
+        this.codec = codec;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        load();
+    }
+
+    private void load() {
+        List<String> lines = FileStorage.readAllLines(file);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (i == 0 && line.startsWith("id;")) continue;
+            if (line.trim().isEmpty()) continue;
+            put(codec.fromFields(CsvUtils.parseCsvLine(line)));
+        }
+    }
+
+    // * Reescribe el fichero completo con una foto consistente del repositorio
+    private void persist() {
+        snapshotLock.writeLock().lock();
+        try {
+            List<String> lines = new ArrayList<>(order.size() + 1);
+            lines.add(codec.header());
+            for (Slot<T> s : order.values()) {
+                lines.add(CsvUtils.toCsvLine(codec.toFields(s.value)));
+            }
+            FileStorage.writeLines(file, lines);
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<T> findAll() {
+        snapshotLock.writeLock().lock();
+        try {
+            List<T> list = new ArrayList<>(order.size());
+            for (Slot<T> s : order.values()) {
+                list.add(s.value);
+            }
+            return list;
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<T> findById(String id) {
+        Slot<T> s = id == null ? null : data.get(id);
+        return s == null ? Optional.empty() : Optional.ofNullable(s.value);
+    }
+
+    @Override
+    public T save(T entity) {
+        return upsert(entity);
+    }
+
+    @Override
+    public T update(T entity) {
+        return upsert(entity);
+    }
+
+    @Override
+    public boolean delete(String id) {
+        boolean removed;
+        ReentrantLock stripe = stripe(id);
+        snapshotLock.readLock().lock();
+        stripe.lock();
+        try {
+            Slot<T> s = data.remove(id);
+            removed = s != null;
+            if (removed) order.remove(s.seq);
+        } finally {
+            stripe.unlock();
+            snapshotLock.readLock().unlock();
+        }
+        // ? Fuera del cerrojo compartido: persist() necesita el exclusivo
+        if (removed) changed();
+        return removed;
+    }
+
+    private T upsert(T entity) {
+        ReentrantLock stripe = stripe(codec.id(entity));
+        snapshotLock.readLock().lock();
+        stripe.lock();
+        try {
+            put(entity);
+        } finally {
+            stripe.unlock();
+            snapshotLock.readLock().unlock();
+        }
+        changed();
+        return entity;
+    }
+
+    @Override
+    public void beginBatch() {
+        synchronized (batchLock) {
+            batchDepth++;
+        }
+    }
+
+    @Override
+    public int commitBatch() {
+        synchronized (batchLock) {
+            if (batchDepth == 0) throw new IllegalStateException("commitBatch() sin beginBatch()");
+            if (--batchDepth > 0) return 0;
+            return flush();
+        }
+    }
+
+    // * Cuantos cambios se han juntado por escritura del fichero
+    public String batchStats() {
+        synchronized (batchLock) {
+            return flushes + " escrituras, " + flushedChanges + " cambios ("
+                    + (flushes == 0 ? 0 : flushedChanges / flushes) + " por escritura)";
+        }
+    }
+
+    private void changed() {
+        synchronized (batchLock) {
+            pendingChanges++;
+            if (batchDepth == 0) flush();
+        }
+    }
+
+    private int flush() {
+        int n = pendingChanges;
+        if (n == 0) return 0;
+        persist();
+        pendingChanges = 0;
+        flushes++;
+        flushedChanges += n;
+        return n;
+    }
+
+    private void put(T entity) {
+        String id = codec.id(entity);
+        Slot<T> s = data.get(id);
+        if (s == null) {
+            s = new Slot<>(sequence.incrementAndGet(), entity);
+            data.put(id, s);
+            order.put(s.seq, s);
+        } else {
+            s.value = entity;
+        }
+    }
+
+    private ReentrantLock stripe(String id) {
+        int h = id.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+}
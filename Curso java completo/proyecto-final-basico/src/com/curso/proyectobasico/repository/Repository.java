@@ -16,5 +16,14 @@ public interface Repository<T> {
     T update(T entity);
 
     boolean delete(String id);
+
+    // * Lote: entre beginBatch() y commitBatch() no se guarda el fichero; commitBatch() lo guarda una vez
+    // * y devuelve cuantos cambios se han juntado. Por defecto no hace nada.
+    default void beginBatch() {
+    }
+
+    default int commitBatch() {
+        return 0;
+    }
 }
 
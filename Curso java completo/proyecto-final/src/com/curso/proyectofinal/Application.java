@@ -8,7 +8,7 @@
  * - Orquesta la navegación (Vista ConsoleView) y delega la lógica en Controladores.
  *
  * 🔄 Flujo
- * - run(): bucle principal → submenús (Alumnos, Cursos, Matrículas) → acciones.
+ * - run(): bucle principal → submenús (Alumnos, Cursos, Matrículas, Estadísticas) → acciones.
  *
  * 🧠 Contrato (resumen)
  * - Entradas: texto por consola (ids, fechas, etc.).
@@ -29,15 +29,21 @@ package com.curso.proyectofinal;
 
 import com.curso.proyectofinal.controller.AlumnoController;
 import com.curso.proyectofinal.controller.CursoController;
+import com.curso.proyectofinal.controller.EstadisticasController;
 import com.curso.proyectofinal.controller.MatriculaController;
 import com.curso.proyectofinal.model.Alumno;
 import com.curso.proyectofinal.model.Curso;
+import com.curso.proyectofinal.model.CursoTipo;
+import com.curso.proyectofinal.model.EstadoMatricula;
+import com.curso.proyectofinal.model.InformeMatriculas;
 import com.curso.proyectofinal.model.Matricula;
+import com.curso.proyectofinal.model.ResultadoMatricula;
 import com.curso.proyectofinal.repository.AlumnoRepository;
 import com.curso.proyectofinal.repository.CursoRepository;
 import com.curso.proyectofinal.repository.MatriculaRepository;
 import com.curso.proyectofinal.view.ConsoleView;
 
+import java.nio.file.Paths;
 import java.util.List;
 
 /**
@@ -52,6 +58,7 @@ public class Application {
     private final AlumnoController alumnoCtl = new AlumnoController(alumnoRepo);
     private final CursoController cursoCtl = new CursoController(cursoRepo);
     private final MatriculaController matriculaCtl = new MatriculaController(matriculaRepo, alumnoRepo, cursoRepo);
+    private final EstadisticasController estadisticasCtl = new EstadisticasController(matriculaRepo, cursoRepo);
 
     public static void main(String[] args) { new Application().run(); }
 
@@ -63,6 +70,7 @@ public class Application {
             view.line("1) Alumnos");
             view.line("2) Cursos");
             view.line("3) Matrículas");
+            view.line("4) Estadísticas");
             view.line("0) Salir");
             // ? Leemos la opción del usuario como texto. No usamos int para evitar NumberFormatException.
             // * Ejemplo: "1" para entrar en Alumnos.
@@ -72,6 +80,7 @@ public class Application {
                     case "1": menuAlumnos(); break;
                     case "2": menuCursos(); break;
                     case "3": menuMatriculas(); break;
+                    case "4": menuEstadisticas(); break;
                     case "0": return;
                     default: view.line("Opción inválida");
                 }
@@ -155,10 +164,15 @@ public class Application {
         List<Curso> list = cursoCtl.listar();
         view.line("-- Cursos --");
         // * Mostrar cada curso. Para tablas, usar ConsoleView.table() si la implementas.
-        for (Curso c : list) view.line(c.toString());
+        for (Curso c : list) {
+            view.line(c.toString());
+            view.line("   plazas ocupadas: " + matriculaCtl.plazasOcupadas(c.getId())
+                    + (c.getCapacidad() > 0 ? "/" + c.getCapacidad() : "")
+                    + ", en lista de espera: " + matriculaCtl.enEspera(c.getId()));
+        }
     }
 
-    // * Entradas: nombre, tipo (ONLINE/PRESENCIAL), fechas, precio
+    // * Entradas: nombre, tipo (ONLINE/PRESENCIAL), fechas, precio, capacidad (vacío = sin límite)
     // ? El parseo de precio utiliza Double.parseDouble (usa coma o punto gestionado en ConsoleView para doubles con default)
     private void crearCurso() {
         String nombre = view.prompt("Nombre");
@@ -168,7 +182,9 @@ public class Application {
         // ? Atención: parseDouble puede lanzar NumberFormatException si la entrada no es válida.
         // * Podrías usar view.promptDouble() para manejar decimales con coma/punto y valores por defecto.
         double precio = Double.parseDouble(view.prompt("Precio"));
-        Curso c = cursoCtl.crear(nombre, tipo, fIni, fFin, precio);
+        String cap = view.prompt("Capacidad (vacío = sin límite)");
+        int capacidad = cap.isBlank() ? 0 : Integer.parseInt(cap.trim());
+        Curso c = cursoCtl.crear(nombre, tipo, fIni, fFin, precio, capacidad);
         view.line("Creado: " + c.getId());
     }
 
@@ -178,13 +194,14 @@ public class Application {
         view.line(ok ? "Borrado" : "No existe");
     }
 
-    // * Submenú: Matrículas — listar/crear/anular
+    // * Submenú: Matrículas — listar/crear/anular/masiva
     private void menuMatriculas() {
         while (true) {
             view.title("Matrículas");
             view.line("1) Listar");
             view.line("2) Matricular alumno en curso");
             view.line("3) Anular matrícula");
+            view.line("4) Matrícula masiva desde CSV");
             view.line("0) Volver");
             String op = view.prompt("Opción");
             if (op.equals("0")) return;
@@ -193,6 +210,7 @@ public class Application {
                     case "1": listarMatriculas(); break;
                     case "2": crearMatricula(); break;
                     case "3": anularMatricula(); break;
+                    case "4": matriculaMasiva(); break;
                     default: view.line("Opción inválida");
                 }
             } catch (Exception e) { view.line("[ERROR] " + e.getMessage()); }
@@ -215,6 +233,20 @@ public class Application {
         String fecha = view.prompt("Fecha matrícula (yyyy-MM-dd, vacío=HOY)");
         Matricula m = matriculaCtl.matricular(alumnoId, cursoId, fecha);
         view.line("Creada: " + m.getId());
+        // ? Curso lleno: queda en lista de espera y pasará a ACTIVA cuando se libere una plaza
+        if (m.getEstado() == EstadoMatricula.EN_ESPERA)
+            view.line("Curso completo: en lista de espera (" + matriculaCtl.enEspera(cursoId) + " esperando)");
+    }
+
+    // * Entrada: ruta de un CSV "alumnoId;cursoId;fecha"; salida: resumen + filas rechazadas
+    private void matriculaMasiva() {
+        String ruta = view.prompt("Fichero CSV (alumnoId;cursoId;fecha)");
+        List<ResultadoMatricula> informe = matriculaCtl.matricularMasivo(Paths.get(ruta));
+        long aceptadas = informe.stream().filter(ResultadoMatricula::isAceptada).count();
+        long enEspera = informe.stream().filter(r -> r.isAceptada() && r.getMatricula().getEstado() == EstadoMatricula.EN_ESPERA).count();
+        view.line("Aceptadas: " + aceptadas + " (en lista de espera: " + enEspera + ") / Rechazadas: " + (informe.size() - aceptadas));
+        // ? Para no inundar la consola mostramos solo las primeras rechazadas
+        informe.stream().filter(r -> !r.isAceptada()).limit(20).forEach(r -> view.line(r.toString()));
     }
 
     private void anularMatricula() {
@@ -222,4 +254,46 @@ public class Application {
         boolean ok = matriculaCtl.anular(id);
         view.line(ok ? "Anulada" : "No existe");
     }
+
+    // * Submenú: Estadísticas — informe (contadores al día) y comprobación con recálculo completo
+    private void menuEstadisticas() {
+        while (true) {
+            view.title("Estadísticas");
+            view.line("1) Informe de matrículas");
+            view.line("2) Validar (recalcular desde cero y comparar)");
+            view.line("0) Volver");
+            String op = view.prompt("Opción");
+            if (op.equals("0")) return;
+            try {
+                switch (op) {
+                    case "1": informeMatriculas(); break;
+                    case "2": validarEstadisticas(); break;
+                    default: view.line("Opción inválida");
+                }
+            } catch (Exception e) { view.line("[ERROR] " + e.getMessage()); }
+            view.pause();
+        }
+    }
+
+    private void informeMatriculas() {
+        InformeMatriculas inf = estadisticasCtl.informe();
+        view.line("-- Matrículas: " + inf.total() + " --");
+        for (EstadoMatricula e : EstadoMatricula.values())
+            view.line(String.format("  %-10s %6d  (%.1f %%)", e, inf.getPorEstado().getOrDefault(e, 0L), inf.ratio(e) * 100));
+        view.line("-- Ingresos (matrículas ACTIVA) --");
+        for (CursoTipo t : CursoTipo.values()) view.line(String.format("  %-10s %12.2f", t, inf.getIngresos(t)));
+        view.line("-- Activas por curso --");
+        // ? Nombre del curso si sigue existiendo; si no, solo el id
+        inf.getActivasPorCurso().forEach((id, n) -> view.line(String.format("  %-40s %6d",
+                cursoRepo.findById(id).map(Curso::getNombre).orElse(id), n)));
+        view.line("-- Matrículas por mes --");
+        inf.getPorMes().forEach((mes, n) -> view.line(String.format("  %s %6d", mes, n)));
+    }
+
+    private void validarEstadisticas() {
+        List<String> diferencias = estadisticasCtl.validar();
+        view.line(diferencias.isEmpty() ? "OK: el cálculo incremental coincide con el recálculo completo"
+                : "Diferencias (" + diferencias.size() + "):");
+        diferencias.stream().limit(20).forEach(view::line);
+    }
 }
@@ -0,0 +1,117 @@
+/*
+ * ******************************************************************************************
+ * 📘 BatchBenchmark — Escrituras duraderas con y sin agrupar (group commit)
+ *
+ * Guarda N matrículas (por defecto 20.000) con fsync ALWAYS en cuatro escenarios:
+ *   1. sin lote, 1 hilo:       un write + force por cambio (lo de antes)
+ *   2. beginBatch/commitBatch: todo en una sola escritura
+ *   3. sin lote, 8 hilos:      cada save() espera a su force, que comparte con los que coinciden
+ *   4. group commit, 8 hilos:  -Dproyectofinal.groupCommit.size=256 / .ms=5
+ * y muestra cuántos cambios se juntaron por escritura (batchStats).
+ * Además comprueba que un lote abierto en un hilo no retrasa los save() de otro: cada uno ya
+ * está en el .log al volver. Sale con código 1 si no.
+ *
+ * Uso (tras build.bat):
+ *   java -cp bin com.curso.proyectofinal.benchmark.BatchBenchmark [matriculas]
+ * ******************************************************************************************
+ */
+package com.curso.proyectofinal.benchmark;
+
+import com.curso.proyectofinal.model.EstadoMatricula;
+import com.curso.proyectofinal.model.Matricula;
+import com.curso.proyectofinal.persistence.ChangeLog;
+import com.curso.proyectofinal.repository.MatriculaRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+public class BatchBenchmark {
+    private static final int HILOS = 8;
+
+    private interface Carga { void ejecutar(MatriculaRepository repo, int total) throws InterruptedException; }
+
+    public static void main(String[] args) throws Exception {
+        int total = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        System.setProperty("proyectofinal.fsync", "ALWAYS");
+
+        medir("sin lote, 1 hilo", total, (repo, n) -> {
+            for (int i = 0; i < n; i++) repo.save(matricula(i));
+        });
+        medir("un lote, 1 hilo", total, (repo, n) -> {
+            repo.beginBatch();
+            for (int i = 0; i < n; i++) repo.save(matricula(i));
+            repo.commitBatch();
+        });
+        medir("sin lote, " + HILOS + " hilos", total, BatchBenchmark::enHilos);
+        if (!loteDeOtroHilo()) {
+            System.out.println("¡Con un lote abierto en otro hilo, un save() volvió sin estar en el log!");
+            System.exit(1);
+        }
+        System.out.println("Lote abierto en otro hilo: los save() de los demás se escriben al momento");
+
+        System.setProperty("proyectofinal.groupCommit.size", "256");
+        System.setProperty("proyectofinal.groupCommit.ms", "5");
+        medir("group commit, " + HILOS + " hilos", total, BatchBenchmark::enHilos);
+    }
+
+    private static void medir(String nombre, int total, Carga carga) throws Exception {
+        Path dir = Files.createTempDirectory("batch-bench");
+        MatriculaRepository repo = new MatriculaRepository(dir.resolve("matriculas.csv"));
+        try {
+            long t0 = System.nanoTime();
+            carga.ejecutar(repo, total);
+            repo.close();  // * Escribe lo que quede pendiente
+            long ms = (System.nanoTime() - t0) / 1_000_000;
+            System.out.printf("%-26s %7d ms  %,10.0f cambios/s  %s%n", nombre, ms, total * 1000.0 / Math.max(1, ms), repo.batchStats());
+        } finally {
+            Temporales.borrar(dir);
+        }
+    }
+
+    // * Un hilo abre un lote largo; otro guarda fuera del lote y, al volver cada save(), su línea ya está en el .log
+    private static boolean loteDeOtroHilo() throws Exception {
+        Path dir = Files.createTempDirectory("batch-bench");
+        Path csv = dir.resolve("matriculas.csv");
+        MatriculaRepository repo = new MatriculaRepository(csv);
+        try {
+            repo.beginBatch();
+            for (int i = 0; i < 1_000; i++) repo.save(matricula(i));
+            boolean[] ok = { true };
+            Thread otro = new Thread(() -> {
+                for (int i = 1_000; i < 1_010; i++) {
+                    repo.save(matricula(i));
+                    try {
+                        ok[0] &= Files.readString(ChangeLog.besides(csv)).contains("U;M" + i + ";");
+                    } catch (IOException e) {
+                        ok[0] = false;
+                    }
+                }
+            });
+            otro.start();
+            otro.join();
+            repo.commitBatch();
+            return ok[0];
+        } finally {
+            repo.close();
+            Temporales.borrar(dir);
+        }
+    }
+
+    private static void enHilos(MatriculaRepository repo, int total) throws InterruptedException {
+        Thread[] ts = new Thread[HILOS];
+        for (int t = 0; t < HILOS; t++) {
+            int desde = t;
+            ts[t] = new Thread(() -> {
+                for (int i = desde; i < total; i += HILOS) repo.save(matricula(i));
+            });
+            ts[t].start();
+        }
+        for (Thread t : ts) t.join();
+    }
+
+    private static Matricula matricula(int i) {
+        return new Matricula("M" + i, "A" + (i % 1000), "C" + (i % 50), LocalDate.of(2024, 9, 1), EstadoMatricula.ACTIVA);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * ******************************************************************************************
+ * 📘 CargaBenchmark — Tiempo de arranque y memoria al cargar matriculas.csv
+ *
+ * Para cada tamaño (por defecto 1.000.000 y 10.000.000 filas) genera un CSV temporal y lo
+ * carga en un LinkedHashMap<id, Matricula> de tres formas:
+ *   - readAllLines: lo de antes (List<String> con todo el fichero y luego parseCsvLine)
+ *   - streaming:    CsvLoader.read (BufferedReader + CsvCodec)
+ *   - paralelo:     CsvLoader.readParallel (trozos mapeados en memoria en el ForkJoinPool)
+ * Muestra el tiempo y el pico de heap durante la carga (suma de picos de los pools de heap:
+ * aproximado, pero comparable entre modos) y lo que queda ocupado al terminar.
+ *
+ * Uso (tras build.bat; 10M filas necesitan heap de sobra para el modo readAllLines):
+ *   java -Xmx4g -cp bin com.curso.proyectofinal.benchmark.CargaBenchmark [filas...]
+ *
+ * ? El modo paralelo solo gana con varios núcleos: ver "núcleos" en la salida.
+ * ******************************************************************************************
+ */
+package com.curso.proyectofinal.benchmark;
+
+import com.curso.proyectofinal.model.EstadoMatricula;
+import com.curso.proyectofinal.model.Matricula;
+import com.curso.proyectofinal.persistence.CsvLoader;
+import com.curso.proyectofinal.persistence.CsvUtils;
+import com.curso.proyectofinal.persistence.FileStorage;
+import com.curso.proyectofinal.util.DateUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class CargaBenchmark {
+    private interface Carga { void cargar(Path file, Map<String, Matricula> data); }
+
+    public static void main(String[] args) throws IOException {
+        int[] tamanos = args.length > 0
+                ? java.util.Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[] { 1_000_000, 10_000_000 };
+        System.out.printf("núcleos: %d, heap máx: %d MB%n", ForkJoinPool.commonPool().getParallelism(),
+                Runtime.getRuntime().maxMemory() / (1024 * 1024));
+
+        for (int filas : tamanos) {
+            Path file = Files.createTempFile("carga-bench", ".csv");
+            try {
+                generar(file, filas);
+                System.out.printf("%n%,d filas (%,d MB):%n", filas, Files.size(file) / (1024 * 1024));
+                medir("readAllLines", file, (f, data) -> {
+                    List<String> lines = FileStorage.readAllLines(f);
+                    for (int i = 1; i < lines.size(); i++) put(data, fromFields(CsvUtils.parseCsvLine(lines.get(i))));
+                });
+                medir("streaming", file, (f, data) -> CsvLoader.read(f, r -> put(data, fromFields(r))));
+                medir("paralelo", file, (f, data) -> CsvLoader.readParallel(f, CargaBenchmark::fromFields, m -> put(data, m)));
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static void medir(String nombre, Path file, Carga carga) {
+        List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans();
+        System.gc();
+        long base = heapUsado(pools, false);
+        for (MemoryPoolMXBean p : pools) p.resetPeakUsage();
+
+        Map<String, Matricula> data = new LinkedHashMap<>();
+        long t0 = System.nanoTime();
+        try {
+            carga.cargar(file, data);
+        } catch (OutOfMemoryError e) {
+            data = null;
+            System.out.printf("  %-14s sin memoria (OutOfMemoryError)%n", nombre);
+            return;
+        }
+        long ms = (System.nanoTime() - t0) / 1_000_000;
+        long pico = heapUsado(pools, true) - base;
+        System.gc();
+        long retenido = heapUsado(pools, false) - base;
+        System.out.printf("  %-14s %7d ms   pico heap %,6d MB   retenido %,6d MB   (%,d matrículas)%n",
+                nombre, ms, pico / (1024 * 1024), retenido / (1024 * 1024), data.size());
+    }
+
+    private static long heapUsado(List<MemoryPoolMXBean> pools, boolean pico) {
+        long total = 0;
+        for (MemoryPoolMXBean p : pools) {
+            if (p.getType() == MemoryType.HEAP) total += (pico ? p.getPeakUsage() : p.getUsage()).getUsed();
+        }
+        return total;
+    }
+
+    private static void put(Map<String, Matricula> data, Matricula m) { data.put(m.getId(), m); }
+
+    // * Igual que MatriculaRepository.fromFields
+    private static Matricula fromFields(List<String> f) {
+        return new Matricula(f.get(0), f.get(1), f.get(2),
+                f.get(3).isEmpty() ? null : DateUtils.parse(f.get(3)),
+                f.get(4).isEmpty() ? EstadoMatricula.ACTIVA : EstadoMatricula.valueOf(f.get(4)));
+    }
+
+    private static void generar(Path file, int filas) throws IOException {
+        Random rnd = new Random(7);
+        EstadoMatricula[] estados = EstadoMatricula.values();
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("id;alumnoId;cursoId;fechaMatricula;estado\n");
+            for (int i = 0; i < filas; i++) {
+                out.write("M" + i + ";A" + rnd.nextInt(filas / 10 + 1) + ";C" + rnd.nextInt(100) + ";2024-09-"
+                        + (10 + rnd.nextInt(20)) + ";" + estados[rnd.nextInt(estados.length)] + "\n");
+            }
+        }
+    }
+}
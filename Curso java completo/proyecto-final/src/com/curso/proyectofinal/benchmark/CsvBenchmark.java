@@ -0,0 +1,185 @@
+/*
+ * ******************************************************************************************
+ * 📘 CsvBenchmark — CsvCodec frente al CsvUtils antiguo (split(";") / replace(";", ","))
+ *
+ * 1. Ida y vuelta: valores con ';', comillas, saltos de línea y campos vacíos al final.
+ *    El códec antiguo los corrompe; CsvCodec debe devolverlos exactamente iguales.
+ * 2. Lectura de un CSV temporal de N MB (por defecto 1024 = 1 GB) de matrículas:
+ *    - antiguo: BufferedReader.readLine() + split(";")
+ *    - CsvCodec sin Strings (el visitor solo suma longitudes)
+ *    - CsvCodec creando un String por campo (lo que hace la carga de repositorios)
+ * 3. Escritura de 1.000.000 de registros en memoria: toCsvLine antiguo vs CsvCodec.encode.
+ *
+ * Uso (tras build.bat):
+ *   java -cp bin com.curso.proyectofinal.benchmark.CsvBenchmark [MB]
+ * ******************************************************************************************
+ */
+package com.curso.proyectofinal.benchmark;
+
+import com.curso.proyectofinal.persistence.CsvCodec;
+import com.curso.proyectofinal.persistence.CsvUtils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+public class CsvBenchmark {
+    private static final int RONDAS = 3;
+    private static final int REGISTROS_ESCRITURA = 1_000_000;
+
+    public static void main(String[] args) throws IOException {
+        long mb = args.length > 0 ? Long.parseLong(args[0]) : 1024;
+
+        idaYVuelta();
+
+        Path file = Files.createTempFile("csv-bench", ".csv");
+        try {
+            long bytes = generar(file, mb * 1024 * 1024);
+            System.out.printf("%nLectura de %,d MB:%n", bytes / (1024 * 1024));
+            medirLectura("antiguo (readLine + split)", file, bytes, CsvBenchmark::leerAntiguo);
+            medirLectura("CsvCodec sin Strings", file, bytes, CsvBenchmark::leerSinStrings);
+            medirLectura("CsvCodec con Strings", file, bytes, CsvBenchmark::leerConStrings);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        medirEscritura();
+    }
+
+    // ============================== 1. Ida y vuelta ==============================
+
+    private static void idaYVuelta() {
+        List<List<String>> casos = Arrays.asList(
+                Arrays.asList("A1", "Pérez; Juan", "juan@curso.es", ""),
+                Arrays.asList("A2", "Ana \"la rápida\"", "ana@curso.es", "2001-02-03"),
+                Arrays.asList("A3", "línea 1\nlínea 2", "", ""),
+                Arrays.asList("A4", "\"", ";", "\r\n"),
+                Arrays.asList("", "", "", ""));
+        System.out.println("Ida y vuelta (toCsvLine → parseCsvLine):");
+        for (List<String> caso : casos) {
+            boolean antiguo = caso.equals(parseAntiguo(toCsvAntiguo(caso)));
+            boolean nuevo = caso.equals(CsvUtils.parseCsvLine(CsvUtils.toCsvLine(caso)));
+            System.out.printf("  %-45s antiguo: %-3s CsvCodec: %s%n",
+                    caso.toString().replace("\n", "\\n").replace("\r", "\\r"), antiguo ? "OK" : "MAL", nuevo ? "OK" : "MAL");
+        }
+    }
+
+    // ============================== 2. Lectura ==============================
+
+    private interface Lector { long leer(Path file) throws IOException; }
+
+    private static void medirLectura(String nombre, Path file, long bytes, Lector lector) throws IOException {
+        long mejor = Long.MAX_VALUE;
+        long campos = 0;
+        for (int r = 0; r < RONDAS; r++) {
+            long t0 = System.nanoTime();
+            campos = lector.leer(file);
+            mejor = Math.min(mejor, System.nanoTime() - t0);
+        }
+        System.out.printf("  %-28s %8d ms  %7.1f MB/s  (%,d campos)%n",
+                nombre, mejor / 1_000_000, bytes / 1048576.0 / (mejor / 1e9), campos);
+    }
+
+    private static long leerAntiguo(Path file) throws IOException {
+        long campos = 0;
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) campos += parseAntiguo(line).size();
+        }
+        return campos;
+    }
+
+    private static long leerSinStrings(Path file) throws IOException {
+        long[] total = new long[2];
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            CsvCodec.parse(in, (column, buf, start, end) -> {
+                total[0]++;
+                total[1] += end - start;
+            });
+        }
+        return total[0];
+    }
+
+    private static long leerConStrings(Path file) throws IOException {
+        long[] total = new long[1];
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            CsvCodec.parse(in, new CsvCodec.FieldVisitor() {
+                List<String> record = new ArrayList<>();
+
+                @Override
+                public void field(int column, char[] buf, int start, int end) {
+                    record.add(new String(buf, start, end - start));
+                }
+
+                @Override
+                public void endRecord(int columns) {
+                    total[0] += record.size();
+                    record = new ArrayList<>(columns);
+                }
+            });
+        }
+        return total[0];
+    }
+
+    // * Matrículas sintéticas (sin comillas: las dos implementaciones las leen igual)
+    private static long generar(Path file, long bytes) throws IOException {
+        Random rnd = new Random(7);
+        String[] estados = {"ACTIVA", "ANULADA", "FINALIZADA"};
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("id;alumnoId;cursoId;fechaMatricula;estado\n");
+            for (int i = 0; Files.size(file) < bytes; i++) {
+                for (int j = 0; j < 100_000; j++, i++) {
+                    out.write("M" + i + ";A" + rnd.nextInt(100_000) + ";C" + rnd.nextInt(100) + ";2024-09-"
+                            + (10 + rnd.nextInt(20)) + ";" + estados[rnd.nextInt(3)] + "\n");
+                }
+                out.flush();
+            }
+        }
+        return Files.size(file);
+    }
+
+    // ============================== 3. Escritura ==============================
+
+    private static void medirEscritura() {
+        List<List<String>> registros = new ArrayList<>(REGISTROS_ESCRITURA);
+        for (int i = 0; i < REGISTROS_ESCRITURA; i++) {
+            registros.add(Arrays.asList("A" + i, "Alumno " + i, "alumno" + i + "@curso.es", i % 3 == 0 ? "" : "2000-01-01"));
+        }
+        System.out.printf("%nEscritura de %,d registros:%n", REGISTROS_ESCRITURA);
+        long antiguo = Long.MAX_VALUE;
+        long nuevo = Long.MAX_VALUE;
+        long chars = 0;
+        for (int r = 0; r < RONDAS; r++) {
+            long t0 = System.nanoTime();
+            for (List<String> reg : registros) chars += toCsvAntiguo(reg).length();
+            antiguo = Math.min(antiguo, System.nanoTime() - t0);
+
+            t0 = System.nanoTime();
+            for (List<String> reg : registros) chars += CsvCodec.encode(reg).length();
+            nuevo = Math.min(nuevo, System.nanoTime() - t0);
+        }
+        System.out.printf("  %-28s %8d ms%n  %-28s %8d ms  (%,d caracteres por pasada)%n",
+                "antiguo (stream + replace)", antiguo / 1_000_000, "CsvCodec.encode", nuevo / 1_000_000, chars / (2 * RONDAS));
+    }
+
+    // ============================== Implementación antigua (referencia) ==============================
+
+    private static String toCsvAntiguo(List<String> fields) {
+        return fields.stream()
+                .map(v -> v == null ? "" : v.replace(";", ","))
+                .collect(Collectors.joining(";"));
+    }
+
+    private static List<String> parseAntiguo(String line) {
+        return Arrays.asList(line.split(";"));
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * ******************************************************************************************
+ * 📘 EstadisticasBenchmark — Estadísticas incrementales vs recálculo completo
+ *
+ * - Crea en un directorio temporal 200 cursos y N matrículas (por defecto 200.000) con
+ *   estados, fechas y precios variados, y registra EstadisticasController.
+ * - Varios hilos cambian los datos a la vez: altas, anulaciones, reactivaciones, borrados,
+ *   cambios de precio/tipo de curso y algún curso borrado y vuelto a crear.
+ * - Comprueba que informe() (contadores) coincide con recalcular() (parallel streams), y que
+ *   tras cerrar y reabrir los repositorios sale el mismo informe.
+ * - Mide cuánto tarda cada camino.
+ * Sale con código 1 si algo no coincide.
+ *
+ * Uso (tras build.bat):
+ *   java -cp bin com.curso.proyectofinal.benchmark.EstadisticasBenchmark [matriculas] [cambios por hilo]
+ * ******************************************************************************************
+ */
+package com.curso.proyectofinal.benchmark;
+
+import com.curso.proyectofinal.controller.EstadisticasController;
+import com.curso.proyectofinal.model.Curso;
+import com.curso.proyectofinal.model.CursoTipo;
+import com.curso.proyectofinal.model.EstadoMatricula;
+import com.curso.proyectofinal.model.InformeMatriculas;
+import com.curso.proyectofinal.model.Matricula;
+import com.curso.proyectofinal.repository.CursoRepository;
+import com.curso.proyectofinal.repository.MatriculaRepository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class EstadisticasBenchmark {
+    private static final int CURSOS = 200;
+    private static final int HILOS = 4;
+    private static final LocalDate DESDE = LocalDate.of(2023, 1, 1);
+    private static final EstadoMatricula[] ESTADOS = EstadoMatricula.values();
+    private static final CursoTipo[] TIPOS = CursoTipo.values();
+
+    public static void main(String[] args) throws Exception {
+        int total = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int cambios = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        System.setProperty("proyectofinal.fsync", "NEVER");
+        boolean ok = true;
+
+        Path dir = Files.createTempDirectory("stats-bench");
+        try {
+            CursoRepository cursos = new CursoRepository(dir.resolve("cursos.csv"));
+            MatriculaRepository matriculas = new MatriculaRepository(dir.resolve("matriculas.csv"));
+            Random rnd = new Random(3);
+            for (int i = 0; i < CURSOS; i++) cursos.save(curso(i, rnd));
+            matriculas.beginBatch();
+            for (int i = 0; i < total; i++) matriculas.save(matricula("M" + i, rnd));
+            matriculas.commitBatch();
+
+            long t0 = System.nanoTime();
+            EstadisticasController stats = new EstadisticasController(matriculas, cursos);
+            System.out.printf("%,d matrículas, %d cursos, núcleos %d; registrar estadísticas (carga inicial): %d ms%n",
+                    total, CURSOS, Runtime.getRuntime().availableProcessors(), (System.nanoTime() - t0) / 1_000_000);
+
+            // * Cambios concurrentes con las estadísticas enganchadas
+            AtomicInteger siguiente = new AtomicInteger(total);
+            Thread[] ts = new Thread[HILOS];
+            t0 = System.nanoTime();
+            for (int t = 0; t < HILOS; t++) {
+                ts[t] = new Thread(() -> {
+                    ThreadLocalRandom r = ThreadLocalRandom.current();
+                    for (int i = 0; i < cambios; i++) cambio(cursos, matriculas, siguiente, r);
+                });
+                ts[t].start();
+            }
+            for (Thread t : ts) t.join();
+            long ms = (System.nanoTime() - t0) / 1_000_000;
+            System.out.printf("%,d cambios en %d hilos: %d ms (%,.0f cambios/s)%n", cambios * HILOS, HILOS, ms,
+                    cambios * HILOS * 1000.0 / Math.max(1, ms));
+
+            // * Coste de cada camino
+            int repeticiones = 1_000;
+            t0 = System.nanoTime();
+            InformeMatriculas incremental = null;
+            for (int i = 0; i < repeticiones; i++) incremental = stats.informe();
+            double usInforme = (System.nanoTime() - t0) / 1_000.0 / repeticiones;
+            t0 = System.nanoTime();
+            long suma = 0;
+            for (int i = 0; i < repeticiones; i++) {
+                suma += stats.activas("C" + (i % CURSOS)) + stats.matriculasEnMes(YearMonth.of(2024, 1 + i % 12));
+            }
+            double usConsulta = (System.nanoTime() - t0) / 1_000.0 / repeticiones;
+            t0 = System.nanoTime();
+            InformeMatriculas completo = null;
+            for (int i = 0; i < 5; i++) completo = stats.recalcular();
+            double msRecalcular = (System.nanoTime() - t0) / 1_000_000.0 / 5;
+            System.out.printf("informe(): %.1f µs   activas()+matriculasEnMes(): %.2f µs   recalcular(): %.1f ms   (%d)%n",
+                    usInforme, usConsulta, msRecalcular, suma % 10);
+            System.out.println("  " + incremental);
+            System.out.printf("  ACTIVA %.1f %%, ANULADA %.1f %%, ingresos ONLINE %.2f, PRESENCIAL %.2f%n",
+                    stats.ratio(EstadoMatricula.ACTIVA) * 100, stats.ratio(EstadoMatricula.ANULADA) * 100,
+                    stats.ingresos(CursoTipo.ONLINE), stats.ingresos(CursoTipo.PRESENCIAL));
+
+            List<String> diferencias = incremental.diferencias(completo);
+            System.out.println(diferencias.isEmpty() ? "Incremental = recálculo completo" : "¡DIFERENCIAS! " + diferencias.size());
+            diferencias.stream().limit(10).forEach(d -> System.out.println("  " + d));
+            ok &= diferencias.isEmpty();
+
+            // * Reabrir: el informe sale igual desde CSV + log
+            cursos.close();
+            matriculas.close();
+            CursoRepository cursosReabiertos = new CursoRepository(dir.resolve("cursos.csv"));
+            MatriculaRepository matriculasReabiertas = new MatriculaRepository(dir.resolve("matriculas.csv"));
+            boolean igual = new EstadisticasController(matriculasReabiertas, cursosReabiertos).informe().equals(incremental);
+            System.out.println(igual ? "Tras reabrir: mismo informe" : "¡Tras reabrir el informe es distinto!");
+            ok &= igual;
+            cursosReabiertos.close();
+            matriculasReabiertas.close();
+        } finally {
+            Temporales.borrar(dir);
+        }
+        if (!ok) System.exit(1);
+    }
+
+    // * 40 % alta, 25 % anular, 10 % reactivar, 10 % borrar, 13 % precio/tipo de curso, 2 % borrar y recrear curso
+    private static void cambio(CursoRepository cursos, MatriculaRepository matriculas, AtomicInteger siguiente, ThreadLocalRandom r) {
+        int p = r.nextInt(100);
+        if (p < 40) {
+            matriculas.save(matricula("M" + siguiente.getAndIncrement(), r));
+        } else if (p < 85) {
+            Matricula m = matriculas.findById("M" + r.nextInt(siguiente.get())).orElse(null);
+            if (m == null) return;
+            if (p < 75) {
+                // ? Igual que MatriculaController.anular()/promover(): se modifica en el sitio y luego update()
+                synchronized (m) {
+                    m.setEstado(p < 65 ? EstadoMatricula.ANULADA : EstadoMatricula.ACTIVA);
+                }
+                matriculas.update(m);
+            } else {
+                matriculas.delete(m.getId());
+            }
+        } else {
+            int i = r.nextInt(CURSOS);
+            if (p < 98) {
+                Curso c = cursos.findById("C" + i).orElse(null);
+                if (c == null) return;
+                cursos.update(new Curso(c.getId(), c.getNombre(), TIPOS[r.nextInt(TIPOS.length)],
+                        c.getFechaInicio(), c.getFechaFin(), precio(r)));
+            } else {
+                cursos.delete("C" + i);
+                cursos.save(curso(i, r));
+            }
+        }
+    }
+
+    private static Curso curso(int i, Random rnd) {
+        return new Curso("C" + i, "Curso " + i, TIPOS[rnd.nextInt(TIPOS.length)], DESDE, DESDE.plusYears(3), precio(rnd));
+    }
+
+    // * Precios con céntimos (p. ej. 149.95)
+    private static double precio(Random rnd) { return (2_000 + rnd.nextInt(50_000)) / 100.0; }
+
+    private static Matricula matricula(String id, Random rnd) {
+        return new Matricula(id, "A" + rnd.nextInt(50_000), "C" + rnd.nextInt(CURSOS),
+                DESDE.plusDays(rnd.nextInt(3 * 365)), ESTADOS[rnd.nextInt(ESTADOS.length)]);
+    }
+}
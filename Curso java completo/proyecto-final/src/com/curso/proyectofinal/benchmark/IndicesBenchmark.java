@@ -0,0 +1,88 @@
+/*
+ * ******************************************************************************************
+ * 📘 IndicesBenchmark — Búsquedas por índice secundario vs recorrido lineal
+ *
+ * - Genera un matriculas.csv temporal con N matrículas (por defecto 1.000.000).
+ * - Mide la carga (incluye construir los índices) y las búsquedas:
+ *   findByAlumnoId, findByCursoId y existsActiva (índices) frente a recorrer findAll().
+ * - No toca resources/data: trabaja en un directorio temporal que se borra al acabar.
+ *
+ * Uso (tras build.bat):
+ *   java -Xmx2g -cp bin com.curso.proyectofinal.benchmark.IndicesBenchmark [matriculas]
+ * ******************************************************************************************
+ */
+package com.curso.proyectofinal.benchmark;
+
+import com.curso.proyectofinal.model.EstadoMatricula;
+import com.curso.proyectofinal.model.Matricula;
+import com.curso.proyectofinal.persistence.FileStorage;
+import com.curso.proyectofinal.repository.MatriculaRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+public class IndicesBenchmark {
+    private static final int CURSOS = 100;
+    private static final int RONDAS = 3;
+
+    public static void main(String[] args) throws IOException {
+        int total = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int alumnos = Math.max(1, total / 10);   // * 10 matrículas por alumno de media
+
+        Path dir = Files.createTempDirectory("indices-bench");
+        Path file = dir.resolve("matriculas.csv");
+        try {
+            escribirCsv(file, total, alumnos);
+
+            long t0 = System.nanoTime();
+            MatriculaRepository repo = new MatriculaRepository(file);
+            System.out.printf("Carga de %,d matrículas (con índices): %d ms%n", total, (System.nanoTime() - t0) / 1_000_000);
+
+            Random rnd = new Random(42);
+            medir("findByAlumnoId (índice)", 100_000, i -> !repo.findByAlumnoId("A" + rnd.nextInt(alumnos)).isEmpty());
+            medir("findByCursoId  (índice)", 1_000, i -> !repo.findByCursoId("C" + rnd.nextInt(CURSOS)).isEmpty());
+            medir("existsActiva   (índice)", 100_000, i -> repo.existsActiva("A" + rnd.nextInt(alumnos), "C" + rnd.nextInt(CURSOS)));
+
+            // * Referencia: lo que hacían antes findByAlumnoId/findByCursoId (recorrer todas)
+            List<Matricula> todas = repo.findAll();
+            medir("findByAlumnoId (lineal)", 20, i -> {
+                String alumnoId = "A" + rnd.nextInt(alumnos);
+                List<Matricula> list = new ArrayList<>();
+                for (Matricula m : todas) if (m.getAlumnoId().equals(alumnoId)) list.add(m);
+                return !list.isEmpty();
+            });
+        } finally {
+            Temporales.borrar(dir);
+        }
+    }
+
+    // * CSV sintético: alumno y curso al azar, 1 de cada 5 anulada
+    private static void escribirCsv(Path file, int total, int alumnos) {
+        Random rnd = new Random(7);
+        List<String> lines = new ArrayList<>(total + 1);
+        lines.add("id;alumnoId;cursoId;fechaMatricula;estado");
+        for (int i = 0; i < total; i++) {
+            EstadoMatricula estado = rnd.nextInt(5) == 0 ? EstadoMatricula.ANULADA : EstadoMatricula.ACTIVA;
+            lines.add("M" + i + ";A" + rnd.nextInt(alumnos) + ";C" + rnd.nextInt(CURSOS) + ";2024-09-01;" + estado.name());
+        }
+        FileStorage.writeLines(file, lines);
+    }
+
+    // * Repite la operación 'veces' en cada ronda y muestra el coste medio de la última
+    private static void medir(String nombre, int veces, IntPredicate op) {
+        long ns = 0;
+        int aciertos = 0;
+        for (int r = 0; r < RONDAS; r++) {
+            aciertos = 0;
+            long t0 = System.nanoTime();
+            for (int i = 0; i < veces; i++) if (op.test(i)) aciertos++;
+            ns = System.nanoTime() - t0;
+        }
+        System.out.printf("%-26s %,12.0f ns/op  (%d/%d con resultado)%n", nombre, (double) ns / veces, aciertos, veces);
+    }
+}
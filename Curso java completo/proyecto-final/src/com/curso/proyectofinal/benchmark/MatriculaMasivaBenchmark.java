@@ -0,0 +1,111 @@
+/*
+ * ******************************************************************************************
+ * 📘 MatriculaMasivaBenchmark — matricular() fila a fila vs matricularMasivo()
+ *
+ * - Crea en un directorio temporal 20.000 alumnos y 50 cursos (ventana de todo el curso escolar).
+ * - Genera N solicitudes (por defecto 100.000): la mayoría válidas, con un pequeño porcentaje
+ *   de alumno inexistente, fecha fuera de ventana, fecha mal escrita y pares repetidos.
+ * - Las procesa de dos formas sobre repositorios recién creados:
+ *   - fila a fila: matricular() por cada solicitud (una escritura al log por matrícula)
+ *   - masivo:      matricularMasivo(stream) (validación en paralelo + un único lote)
+ * - Comprueba que las dos dan las mismas aceptadas/rechazadas.
+ *
+ * Uso (tras build.bat):
+ *   java -cp bin com.curso.proyectofinal.benchmark.MatriculaMasivaBenchmark [solicitudes] [fsync]
+ *   fsync: ALWAYS | PERIODIC (defecto) | NEVER
+ * ******************************************************************************************
+ */
+package com.curso.proyectofinal.benchmark;
+
+import com.curso.proyectofinal.controller.MatriculaController;
+import com.curso.proyectofinal.model.Alumno;
+import com.curso.proyectofinal.model.Curso;
+import com.curso.proyectofinal.model.CursoTipo;
+import com.curso.proyectofinal.model.ResultadoMatricula;
+import com.curso.proyectofinal.model.SolicitudMatricula;
+import com.curso.proyectofinal.repository.AlumnoRepository;
+import com.curso.proyectofinal.repository.CursoRepository;
+import com.curso.proyectofinal.repository.MatriculaRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class MatriculaMasivaBenchmark {
+    private static final int ALUMNOS = 20_000;
+    private static final int CURSOS = 50;
+    private static final LocalDate INICIO = LocalDate.of(2024, 9, 1);
+    private static final LocalDate FIN = LocalDate.of(2025, 6, 30);
+
+    private interface Proceso { long[] ejecutar(MatriculaController ctl, List<SolicitudMatricula> solicitudes); }
+
+    public static void main(String[] args) throws IOException {
+        int total = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        System.setProperty("proyectofinal.fsync", args.length > 1 ? args[1] : "PERIODIC");
+        List<SolicitudMatricula> solicitudes = generar(total);
+        System.out.printf("%,d solicitudes, %,d alumnos, %d cursos, fsync %s, núcleos %d%n", total, ALUMNOS, CURSOS,
+                System.getProperty("proyectofinal.fsync"), Runtime.getRuntime().availableProcessors());
+
+        long[] filaAFila = medir("fila a fila", solicitudes, (ctl, sol) -> {
+            long ok = 0;
+            for (SolicitudMatricula s : sol) {
+                try {
+                    ctl.matricular(s.getAlumnoId(), s.getCursoId(), s.getFecha());
+                    ok++;
+                } catch (RuntimeException e) {
+                    // * Rechazada: se cuenta abajo
+                }
+            }
+            return new long[] { ok, sol.size() - ok };
+        });
+        long[] masivo = medir("masivo", solicitudes, (ctl, sol) -> {
+            List<ResultadoMatricula> informe = ctl.matricularMasivo(sol.stream());
+            long ok = informe.stream().filter(ResultadoMatricula::isAceptada).count();
+            return new long[] { ok, informe.size() - ok };
+        });
+        System.out.println(filaAFila[0] == masivo[0] && filaAFila[1] == masivo[1]
+                ? "Mismo resultado en ambos modos" : "¡RESULTADOS DISTINTOS!");
+    }
+
+    private static long[] medir(String nombre, List<SolicitudMatricula> solicitudes, Proceso proceso) throws IOException {
+        Path dir = Files.createTempDirectory("masiva-bench");
+        AlumnoRepository alumnos = new AlumnoRepository(dir.resolve("alumnos.csv"));
+        CursoRepository cursos = new CursoRepository(dir.resolve("cursos.csv"));
+        MatriculaRepository matriculas = new MatriculaRepository(dir.resolve("matriculas.csv"));
+        try {
+            for (int i = 0; i < ALUMNOS; i++) alumnos.save(new Alumno("A" + i, "Alumno " + i, "a" + i + "@curso.es", null));
+            for (int i = 0; i < CURSOS; i++) cursos.save(new Curso("C" + i, "Curso " + i, CursoTipo.ONLINE, INICIO, FIN, 100 + i));
+            MatriculaController ctl = new MatriculaController(matriculas, alumnos, cursos);
+
+            long t0 = System.nanoTime();
+            long[] r = proceso.ejecutar(ctl, solicitudes);
+            long ms = (System.nanoTime() - t0) / 1_000_000;
+            System.out.printf("  %-12s %7d ms  %,9.0f solicitudes/s  aceptadas %,d  rechazadas %,d%n    log: %s%n",
+                    nombre, ms, solicitudes.size() * 1000.0 / Math.max(1, ms), r[0], r[1], matriculas.batchStats());
+            return r;
+        } finally {
+            alumnos.close();
+            cursos.close();
+            matriculas.close();
+            Temporales.borrar(dir);
+        }
+    }
+
+    // * ~2 % alumno inexistente, ~1 % fuera de ventana, ~1 % fecha mal escrita; el resto, pares al azar (con repetidos)
+    private static List<SolicitudMatricula> generar(int total) {
+        Random rnd = new Random(11);
+        List<SolicitudMatricula> list = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            int p = rnd.nextInt(100);
+            String alumno = p < 2 ? "X" + i : "A" + rnd.nextInt(ALUMNOS);
+            String curso = "C" + rnd.nextInt(CURSOS);
+            String fecha = p == 2 ? "2024-01-01" : p == 3 ? "01/10/2024" : INICIO.plusDays(rnd.nextInt(200)).toString();
+            list.add(new SolicitudMatricula(i + 1, alumno, curso, fecha));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * ******************************************************************************************
+ * 📘 PlazasBenchmark — N hilos compiten a la vez por las plazas de un curso
+ *
+ * Por defecto 10.000 hilos y 30 plazas; todos arrancan a la vez (CountDownLatch).
+ * 1. Solo GestorPlazas: cada hilo llama una vez a reservar(); se repite varias rondas y se
+ *    comprueba que en todas hay exactamente 30 reservas.
+ * 2. Completo (MatriculaController sobre repositorios en un directorio temporal): cada hilo
+ *    matricula a un alumno distinto en el mismo curso. Se comprueba que:
+ *    - hay 30 ACTIVA y el resto EN_ESPERA, sin errores;
+ *    - al anular 10 ACTIVA pasan a ACTIVA las 10 primeras de la lista de espera (FIFO);
+ *    - al cerrar y volver a abrir, las plazas y la cola se reconstruyen igual.
+ * 3. Mismo alumno: en cada ronda 8 hilos matriculan a la vez al MISMO alumno en el mismo curso
+ *    (200 rondas); en todas debe quedar una sola matrícula y los demás hilos, rechazados.
+ * Sale con código 1 si alguna comprobación falla.
+ *
+ * Uso (tras build.bat):
+ *   java -cp bin com.curso.proyectofinal.benchmark.PlazasBenchmark [hilos] [plazas] [rondas]
+ * ******************************************************************************************
+ */
+package com.curso.proyectofinal.benchmark;
+
+import com.curso.proyectofinal.controller.GestorPlazas;
+import com.curso.proyectofinal.controller.MatriculaController;
+import com.curso.proyectofinal.model.Alumno;
+import com.curso.proyectofinal.model.Curso;
+import com.curso.proyectofinal.model.CursoTipo;
+import com.curso.proyectofinal.model.EstadoMatricula;
+import com.curso.proyectofinal.model.Matricula;
+import com.curso.proyectofinal.repository.AlumnoRepository;
+import com.curso.proyectofinal.repository.CursoRepository;
+import com.curso.proyectofinal.repository.MatriculaRepository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+public class PlazasBenchmark {
+    private static final int ANULAR = 10;
+    private static boolean ok = true;
+
+    private interface Tarea { void ejecutar(int hilo); }
+
+    public static void main(String[] args) throws Exception {
+        int hilos = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int plazas = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int rondas = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        System.setProperty("proyectofinal.fsync", "NEVER");
+        System.out.printf("%,d hilos, %d plazas, núcleos %d%n", hilos, plazas, Runtime.getRuntime().availableProcessors());
+
+        soloContador(hilos, plazas, rondas);
+        completo(hilos, plazas);
+        mismoAlumno(8, 200);
+
+        System.out.println(ok ? "Todas las comprobaciones OK" : "¡HAY COMPROBACIONES FALLIDAS!");
+        if (!ok) System.exit(1);
+    }
+
+    // * 1) reservar() a pelo: ninguna ronda puede dar más (ni menos) reservas que plazas
+    private static void soloContador(int hilos, int plazas, int rondas) throws InterruptedException {
+        long peor = 0, total = 0;
+        for (int r = 0; r < rondas; r++) {
+            GestorPlazas gestor = new GestorPlazas();
+            AtomicInteger reservas = new AtomicInteger();
+            long ms = aLaVez(hilos, h -> {
+                if (gestor.reservar("C", plazas)) reservas.incrementAndGet();
+            });
+            total += ms;
+            peor = Math.max(peor, ms);
+            comprobar(reservas.get() == plazas && gestor.ocupadas("C") == plazas,
+                    "ronda " + r + ": " + reservas.get() + " reservas, contador " + gestor.ocupadas("C"));
+        }
+        System.out.printf("GestorPlazas: %d rondas, media %d ms, peor %d ms (incluye arrancar los hilos)%n",
+                rondas, total / rondas, peor);
+    }
+
+    // * 2) Matrícula real: plazas, lista de espera, promoción al anular y reconstrucción al reabrir
+    private static void completo(int hilos, int plazas) throws Exception {
+        Path dir = Files.createTempDirectory("plazas-bench");
+        try {
+            AlumnoRepository alumnos = new AlumnoRepository(dir.resolve("alumnos.csv"));
+            CursoRepository cursos = new CursoRepository(dir.resolve("cursos.csv"));
+            MatriculaRepository matriculas = new MatriculaRepository(dir.resolve("matriculas.csv"));
+            for (int i = 0; i < hilos; i++) alumnos.save(new Alumno("A" + i, "Alumno " + i, "a" + i + "@curso.es", null));
+            cursos.save(new Curso("C", "Curso popular", CursoTipo.ONLINE,
+                    LocalDate.of(2024, 9, 1), LocalDate.of(2025, 6, 30), 100, plazas));
+            MatriculaController ctl = new MatriculaController(matriculas, alumnos, cursos);
+            MatriculaController concurrente = ctl;
+
+            AtomicInteger errores = new AtomicInteger();
+            long ms = aLaVez(hilos, h -> {
+                try {
+                    concurrente.matricular("A" + h, "C", "2024-09-01");
+                } catch (RuntimeException e) {
+                    errores.incrementAndGet();
+                }
+            });
+            List<Matricula> activas = porEstado(matriculas, EstadoMatricula.ACTIVA);
+            List<Matricula> espera = porEstado(matriculas, EstadoMatricula.EN_ESPERA);
+            System.out.printf("Matrícula: %d ms, %d ACTIVA, %,d EN_ESPERA, %d errores%n", ms, activas.size(), espera.size(), errores.get());
+            comprobar(errores.get() == 0, errores.get() + " errores al matricular");
+            comprobar(activas.size() == plazas && ctl.plazasOcupadas("C") == plazas,
+                    activas.size() + " ACTIVA, contador " + ctl.plazasOcupadas("C"));
+            comprobar(espera.size() == hilos - plazas && ctl.enEspera("C") == hilos - plazas,
+                    espera.size() + " EN_ESPERA, cola " + ctl.enEspera("C"));
+
+            // * Anular ANULAR activas: deben subir las ANULAR primeras de la cola (orden del repositorio)
+            int n = Math.min(ANULAR, Math.min(activas.size(), espera.size()));
+            List<String> esperadas = espera.subList(0, n).stream().map(Matricula::getId).collect(Collectors.toList());
+            for (int i = 0; i < n; i++) ctl.anular(activas.get(i).getId());
+            List<String> promovidas = new ArrayList<>();
+            for (String id : esperadas) {
+                if (matriculas.findById(id).get().getEstado() == EstadoMatricula.ACTIVA) promovidas.add(id);
+            }
+            System.out.printf("Anuladas %d ACTIVA: promovidas %d de las %d primeras en espera%n", n, promovidas.size(), n);
+            comprobar(promovidas.equals(esperadas), "no se promovió a las primeras de la cola");
+            comprobar(ctl.plazasOcupadas("C") == plazas, "contador tras anular: " + ctl.plazasOcupadas("C"));
+            String siguiente = espera.size() > n ? espera.get(n).getId() : null;
+
+            alumnos.close();
+            cursos.close();
+            matriculas.close();
+
+            // * Reabrir: contador y cola salen de matriculas.csv/.log
+            alumnos = new AlumnoRepository(dir.resolve("alumnos.csv"));
+            cursos = new CursoRepository(dir.resolve("cursos.csv"));
+            matriculas = new MatriculaRepository(dir.resolve("matriculas.csv"));
+            ctl = new MatriculaController(matriculas, alumnos, cursos);
+            System.out.printf("Reabierto: %d plazas ocupadas, %,d en espera%n", ctl.plazasOcupadas("C"), ctl.enEspera("C"));
+            comprobar(ctl.plazasOcupadas("C") == plazas, "contador tras reabrir: " + ctl.plazasOcupadas("C"));
+            comprobar(ctl.enEspera("C") == hilos - plazas - n, "cola tras reabrir: " + ctl.enEspera("C"));
+            if (siguiente != null) {
+                ctl.anular(porEstado(matriculas, EstadoMatricula.ACTIVA).get(0).getId());
+                comprobar(matriculas.findById(siguiente).get().getEstado() == EstadoMatricula.ACTIVA,
+                        "tras reabrir no se promovió al siguiente de la cola");
+            }
+            alumnos.close();
+            cursos.close();
+            matriculas.close();
+        } finally {
+            Temporales.borrar(dir);
+        }
+    }
+
+    // * 3) Doble clic / varias pestañas: el mismo par (alumno, curso) a la vez desde varios hilos
+    private static void mismoAlumno(int hilos, int rondas) throws Exception {
+        Path dir = Files.createTempDirectory("plazas-par");
+        AlumnoRepository alumnos = new AlumnoRepository(dir.resolve("alumnos.csv"));
+        CursoRepository cursos = new CursoRepository(dir.resolve("cursos.csv"));
+        MatriculaRepository matriculas = new MatriculaRepository(dir.resolve("matriculas.csv"));
+        try {
+            alumnos.save(new Alumno("A", "Alumno", "a@curso.es", null));
+            for (int r = 0; r < rondas; r++) {
+                cursos.save(new Curso("R" + r, "Ronda " + r, CursoTipo.ONLINE,
+                        LocalDate.of(2024, 9, 1), LocalDate.of(2025, 6, 30), 100, 30));
+            }
+            MatriculaController ctl = new MatriculaController(matriculas, alumnos, cursos);
+            int malas = 0;
+            for (int r = 0; r < rondas; r++) {
+                String cursoId = "R" + r;
+                AtomicInteger aceptadas = new AtomicInteger();
+                aLaVez(hilos, h -> {
+                    try {
+                        ctl.matricular("A", cursoId, "2024-09-01");
+                        aceptadas.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // * Rechazada por duplicado: lo esperado para todos menos uno
+                    }
+                });
+                if (aceptadas.get() != 1 || matriculas.findByCursoId(cursoId).size() != 1) malas++;
+            }
+            System.out.printf("Mismo alumno: %d hilos x %d rondas, rondas con duplicados: %d%n", hilos, rondas, malas);
+            comprobar(malas == 0, malas + " rondas con más de una matrícula del mismo alumno");
+        } finally {
+            alumnos.close();
+            cursos.close();
+            matriculas.close();
+            Temporales.borrar(dir);
+        }
+    }
+
+    // * Arranca un hilo por tarea, los suelta todos a la vez y espera; devuelve los ms transcurridos
+    private static long aLaVez(int hilos, Tarea tarea) throws InterruptedException {
+        CountDownLatch salida = new CountDownLatch(1);
+        Thread[] ts = new Thread[hilos];
+        for (int t = 0; t < hilos; t++) {
+            int h = t;
+            ts[t] = new Thread(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                tarea.ejecutar(h);
+            });
+            ts[t].start();
+        }
+        long t0 = System.nanoTime();
+        salida.countDown();
+        for (Thread t : ts) t.join();
+        return (System.nanoTime() - t0) / 1_000_000;
+    }
+
+    private static List<Matricula> porEstado(MatriculaRepository repo, EstadoMatricula estado) {
+        return repo.findByCursoId("C").stream().filter(m -> m.getEstado() == estado).collect(Collectors.toList());
+    }
+
+    private static void comprobar(boolean condicion, String detalle) {
+        if (condicion) return;
+        ok = false;
+        System.out.println("  FALLO: " + detalle);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * ******************************************************************************************
+ * 📘 RepositorioBenchmark — Rendimiento de AlumnoRepository con varios hilos a la vez
+ *
+ * - Carga N alumnos (por defecto 100.000) en un directorio temporal.
+ * - Para 1, 2, 4 y 8 hilos ejecuta durante unos segundos una mezcla de operaciones:
+ *   90 % findById al azar, 9 % update al azar, 1 % findByEmail.
+ * - Compara dos formas de usar el mismo repositorio:
+ *   - cerrojo global: cada operación dentro de synchronized (lo que tocaba hacer antes
+ *     para poder usarlo desde varios hilos)
+ *   - concurrente:    ConcurrentCsvRepository tal cual (cerrojo por id, lecturas sin bloqueo)
+ * - Por defecto el log va con fsync NEVER para medir el repositorio y no el disco; con ALWAYS
+ *   se ve el group commit: los update() de varios hilos comparten force() (ver ChangeLog).
+ *
+ * Uso (tras build.bat):
+ *   java -cp bin com.curso.proyectofinal.benchmark.RepositorioBenchmark [alumnos] [segundos] [NEVER|PERIODIC|ALWAYS]
+ *
+ * ? Solo escala si la máquina tiene varios núcleos: ver "núcleos" en la salida.
+ * ******************************************************************************************
+ */
+package com.curso.proyectofinal.benchmark;
+
+import com.curso.proyectofinal.model.Alumno;
+import com.curso.proyectofinal.repository.AlumnoRepository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RepositorioBenchmark {
+    private static final int[] HILOS = { 1, 2, 4, 8 };
+
+    public static void main(String[] args) throws Exception {
+        int alumnos = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int segundos = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        String fsync = args.length > 2 ? args[2] : "NEVER";
+        System.setProperty("proyectofinal.fsync", fsync);
+
+        Path dir = Files.createTempDirectory("repo-bench");
+        AlumnoRepository repo = new AlumnoRepository(dir.resolve("alumnos.csv"));
+        try {
+            for (int i = 0; i < alumnos; i++) {
+                repo.save(new Alumno("A" + i, "Alumno " + i, "alumno" + i + "@curso.es", LocalDate.of(2000, 1, 1)));
+            }
+            System.out.printf("núcleos: %d, %,d alumnos, %d s por medida, fsync %s%n",
+                    Runtime.getRuntime().availableProcessors(), alumnos, segundos, fsync);
+            System.out.printf("%6s %22s %22s%n", "hilos", "cerrojo global", "concurrente");
+            for (int hilos : HILOS) {
+                long global = medir(repo, alumnos, hilos, segundos, true);
+                long concurrente = medir(repo, alumnos, hilos, segundos, false);
+                System.out.printf("%6d %,16d op/s %,16d op/s%n", hilos, global, concurrente);
+            }
+            System.out.println("Log: " + repo.batchStats());
+        } finally {
+            repo.close();
+            Temporales.borrar(dir);
+        }
+    }
+
+    private static long medir(AlumnoRepository repo, int alumnos, int hilos, int segundos, boolean global)
+            throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        AtomicBoolean parar = new AtomicBoolean();
+        CountDownLatch inicio = new CountDownLatch(1);
+        Thread[] ts = new Thread[hilos];
+        for (int t = 0; t < hilos; t++) {
+            ts[t] = new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                try {
+                    inicio.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long n = 0;
+                while (!parar.get()) {
+                    if (global) {
+                        synchronized (repo) {
+                            operacion(repo, alumnos, rnd);
+                        }
+                    } else {
+                        operacion(repo, alumnos, rnd);
+                    }
+                    n++;
+                }
+                ops.add(n);
+            });
+            ts[t].start();
+        }
+        inicio.countDown();
+        Thread.sleep(segundos * 1000L);
+        parar.set(true);
+        for (Thread t : ts) t.join();
+        return ops.sum() / segundos;
+    }
+
+    private static void operacion(AlumnoRepository repo, int alumnos, ThreadLocalRandom rnd) {
+        int i = rnd.nextInt(alumnos);
+        int p = rnd.nextInt(100);
+        if (p < 90) {
+            repo.findById("A" + i);
+        } else if (p < 99) {
+            repo.update(new Alumno("A" + i, "Alumno " + i + " v" + rnd.nextInt(10), "alumno" + i + "@curso.es", LocalDate.of(2000, 1, 1)));
+        } else {
+            repo.findByEmail("alumno" + i + "@curso.es");
+        }
+    }
+}
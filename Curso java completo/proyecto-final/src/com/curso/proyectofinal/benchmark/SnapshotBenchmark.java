@@ -0,0 +1,121 @@
+/*
+ * ******************************************************************************************
+ * 📘 SnapshotBenchmark — Coste del snapshot atómico y prueba de "matar a mitad de escritura"
+ *
+ * Modo normal: para 10k, 100k y 1M filas compara
+ *   - Files.write directo sobre el fichero (lo de antes, no seguro ante cortes)
+ *   - FileStorage.writeLines (tmp + force + rotación de copias + ATOMIC_MOVE)
+ *
+ * Modo --kill: escribe una versión A del fichero y lanza otra JVM que lo reescribe en bucle
+ * con versiones B, C, ...; al cabo de un tiempo al azar la mata (destroyForcibly) y comprueba
+ * que el fichero sigue entero (cabecera + todas las filas + línea final "FIN;<version>").
+ *
+ * Uso (tras build.bat):
+ *   java -cp bin com.curso.proyectofinal.benchmark.SnapshotBenchmark
+ *   java -cp bin com.curso.proyectofinal.benchmark.SnapshotBenchmark --kill [intentos]
+ * ******************************************************************************************
+ */
+package com.curso.proyectofinal.benchmark;
+
+import com.curso.proyectofinal.persistence.FileStorage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class SnapshotBenchmark {
+    private static final int RONDAS = 3;
+    private static final int FILAS_KILL = 200_000;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 1 && args[0].equals("--child")) {
+            escribirEnBucle(Path.of(args[1]));
+            return;
+        }
+        Path dir = Files.createTempDirectory("snapshot-bench");
+        try {
+            if (args.length > 0 && args[0].equals("--kill")) {
+                pruebaKill(dir, args.length > 1 ? Integer.parseInt(args[1]) : 10);
+            } else {
+                medirTiempos(dir);
+            }
+        } finally {
+            Temporales.borrar(dir);
+        }
+    }
+
+    private static void medirTiempos(Path dir) throws IOException {
+        Path file = dir.resolve("alumnos.csv");
+        System.out.printf("%12s %16s %16s%n", "filas", "Files.write", "atómico");
+        for (int filas : new int[]{10_000, 100_000, 1_000_000}) {
+            List<String> lines = generar(filas, "A");
+            long directo = Long.MAX_VALUE;
+            long atomico = Long.MAX_VALUE;
+            for (int r = 0; r < RONDAS; r++) {
+                long t0 = System.nanoTime();
+                Files.write(file, lines, StandardCharsets.UTF_8);
+                directo = Math.min(directo, System.nanoTime() - t0);
+
+                t0 = System.nanoTime();
+                FileStorage.writeLines(file, lines);
+                atomico = Math.min(atomico, System.nanoTime() - t0);
+            }
+            System.out.printf("%,12d %13.1f ms %13.1f ms%n", filas, directo / 1e6, atomico / 1e6);
+        }
+    }
+
+    // * La JVM hija reescribe el fichero sin parar hasta que la matan
+    private static void escribirEnBucle(Path file) {
+        for (int v = 1; ; v++) FileStorage.writeLines(file, generar(FILAS_KILL, "V" + v));
+    }
+
+    private static void pruebaKill(Path dir, int intentos) throws Exception {
+        Path file = dir.resolve("alumnos.csv");
+        FileStorage.writeLines(file, generar(FILAS_KILL, "V0"));
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        String cp = System.getProperty("java.class.path");
+        Random rnd = new Random();
+        int correctos = 0;
+
+        for (int i = 1; i <= intentos; i++) {
+            Process p = new ProcessBuilder(java, "-cp", cp, SnapshotBenchmark.class.getName(), "--child", file.toString())
+                    .inheritIO().start();
+            Thread.sleep(300 + rnd.nextInt(1500));
+            p.destroyForcibly().waitFor();
+
+            String version = comprobar(file);
+            if (version != null) correctos++;
+            System.out.printf("Intento %2d: %s%n", i, version != null ? "OK, fichero entero (versión " + version + ")" : "FICHERO CORRUPTO");
+        }
+        System.out.printf("%d/%d intentos con el fichero intacto%n", correctos, intentos);
+        if (correctos != intentos) System.exit(1);
+    }
+
+    // * Devuelve la versión si el fichero está completo y es coherente, o null si no
+    private static String comprobar(Path file) {
+        List<String> lines = FileStorage.readAllLines(file);
+        if (lines.size() != FILAS_KILL + 2 || !lines.get(0).startsWith("id;")) return null;
+        String fin = lines.get(lines.size() - 1);
+        if (!fin.startsWith("FIN;")) return null;
+        String version = fin.substring(4);
+        for (int i = 1; i <= FILAS_KILL; i++) {
+            if (!lines.get(i).endsWith(";" + version)) return null;
+        }
+        return version;
+    }
+
+    // * Filas tipo alumno; la última columna marca la versión para detectar mezclas
+    private static List<String> generar(int filas, String version) {
+        List<String> lines = new ArrayList<>(filas + 2);
+        lines.add("id;nombre;email;fechaAlta;version");
+        for (int i = 0; i < filas; i++) {
+            lines.add("A" + i + ";Alumno Número " + i + ";alumno" + i + "@curso.es;2024-09-01;" + version);
+        }
+        lines.add("FIN;" + version);
+        return lines;
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * ******************************************************************************************
+ * 📘 Temporales — Directorio temporal de los benchmarks
+ * - Los benchmarks no tocan resources/data: trabajan en Files.createTempDirectory(...) y lo
+ *   borran al acabar con borrar() (ficheros de un nivel: CSV, .log, .tmp y copias).
+ * ******************************************************************************************
+ */
+package com.curso.proyectofinal.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+final class Temporales {
+    private Temporales() {}
+
+    // * Borra los ficheros del directorio y el propio directorio (si existe)
+    static void borrar(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) return;
+        try (Stream<Path> s = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) s::iterator) Files.deleteIfExists(p);
+        }
+        Files.deleteIfExists(dir);
+    }
+}
@@ -33,10 +33,16 @@ public class CursoController {
 
     public List<Curso> listar() { return repo.findAll(); }
 
-    // * Contrato: entradas válidas → Curso persistido, id UUID
+    // * Contrato: entradas válidas → Curso persistido, id UUID (sin límite de plazas)
     public Curso crear(String nombre, String tipoStr, String fIniStr, String fFinStr, double precio) {
+        return crear(nombre, tipoStr, fIniStr, fFinStr, precio, 0);
+    }
+
+    // * capacidad: número de plazas; 0 = sin límite
+    public Curso crear(String nombre, String tipoStr, String fIniStr, String fFinStr, double precio, int capacidad) {
         Validator.requireNotBlank(nombre, "Nombre");
         Validator.requirePositive(precio, "Precio");
+        Validator.requirePositive(capacidad, "Capacidad");
         // * Convertimos el string a enum; lanzará IllegalArgumentException si tipoStr no es válido.
         CursoTipo tipo = CursoTipo.valueOf(tipoStr.toUpperCase());
         // ? Parseo de fechas (DateUtils valida formato yyyy-MM-dd)
@@ -47,7 +53,7 @@ public class CursoController {
 
         String id = UUID.randomUUID().toString();
         // * Creamos la entidad Curso con datos normalizados y la persistimos a través del repo.
-        Curso c = new Curso(id, nombre.trim(), tipo, ini, fin, precio);
+        Curso c = new Curso(id, nombre.trim(), tipo, ini, fin, precio, capacidad);
         return repo.save(c);
     }
 
@@ -0,0 +1,190 @@
+/*
+ * ******************************************************************************************
+ * 📘 EstadisticasController — Estadísticas de matrículas, al día en cada cambio
+ *
+ * Qué calcula (ver InformeMatriculas):
+ * - Matrículas ACTIVA por curso, ingresos por CursoTipo (precio del curso de cada ACTIVA),
+ *   matrículas por mes y por estado (proporciones ACTIVA/ANULADA...).
+ *
+ * Cómo:
+ * - Incremental: se registra como RepositoryListener en CursoRepository y MatriculaRepository;
+ *   cada alta/cambio/borrado resta lo que se contó antes de esa entidad y suma lo nuevo.
+ *   Las consultas (activas(), ingresos(), ratio(), matriculasEnMes()) son O(1); informe()
+ *   copia los contadores (O(cursos + meses)), sin recorrer matrículas.
+ * - recalcular(): lo mismo desde cero con parallel streams sobre findAll(); validar() compara
+ *   ambos caminos (con el sistema parado deben coincidir exactamente).
+ *
+ * Concurrencia:
+ * - Los avisos de un mismo id llegan en orden (cerrojo del repositorio); los de ids distintos
+ *   a la vez: contadores LongAdder/AtomicLong y, por curso, un cerrojo que une "activas" con
+ *   el precio/tipo con el que se sumaron los ingresos (un cambio de precio y una matrícula
+ *   nueva del mismo curso no se pisan).
+ * - Se guarda lo contado de cada entidad: las matrículas se modifican en el sitio (anular())
+ *   y el aviso trae el mismo objeto como antes y después.
+ * ******************************************************************************************
+ */
+package com.curso.proyectofinal.controller;
+
+import com.curso.proyectofinal.model.*;
+import com.curso.proyectofinal.repository.CursoRepository;
+import com.curso.proyectofinal.repository.MatriculaRepository;
+
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/** Estadísticas incrementales de matrículas. */
+public class EstadisticasController {
+    private final MatriculaRepository matriculaRepo;
+    private final CursoRepository cursoRepo;
+
+    // * Lo contado de cada matrícula (para poder restarlo en el siguiente cambio)
+    private final ConcurrentHashMap<String, Contada> contadas = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, PorCurso> cursos = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<YearMonth, LongAdder> porMes = new ConcurrentHashMap<>();
+    // ? Claves fijas (todos los valores del enum) creadas al principio: solo se leen, no hace falta mapa concurrente
+    private final EnumMap<EstadoMatricula, LongAdder> porEstado = new EnumMap<>(EstadoMatricula.class);
+    private final EnumMap<CursoTipo, AtomicLong> ingresos = new EnumMap<>(CursoTipo.class);
+
+    private static final class Contada {
+        final String cursoId;
+        final EstadoMatricula estado;
+        final YearMonth mes;
+
+        Contada(Matricula m) {
+            this.cursoId = m.getCursoId();
+            this.estado = m.getEstado();
+            this.mes = m.getFechaMatricula() == null ? null : YearMonth.from(m.getFechaMatricula());
+        }
+    }
+
+    // * Por curso (con synchronized sobre el objeto): activas y el tipo/precio con que suman ingresos
+    private static final class PorCurso {
+        long activas;
+        boolean existe;       // ? Curso borrado o aún no cargado: sus activas no suman ingresos
+        CursoTipo tipo;
+        long precio;          // céntimos
+    }
+
+    public EstadisticasController(MatriculaRepository matriculaRepo, CursoRepository cursoRepo) {
+        this.matriculaRepo = matriculaRepo;
+        this.cursoRepo = cursoRepo;
+        for (EstadoMatricula e : EstadoMatricula.values()) porEstado.put(e, new LongAdder());
+        for (CursoTipo t : CursoTipo.values()) ingresos.put(t, new AtomicLong());
+        // * addListener entrega primero lo que ya hay (como altas) y luego cada cambio
+        cursoRepo.addListener(this::cursoCambiado);
+        matriculaRepo.addListener(this::matriculaCambiada);
+    }
+
+    // ============================== Consultas O(1) ==============================
+
+    public long activas(String cursoId) {
+        PorCurso pc = cursos.get(cursoId);
+        if (pc == null) return 0;
+        synchronized (pc) {
+            return pc.activas;
+        }
+    }
+
+    public double ingresos(CursoTipo tipo) { return ingresos.get(tipo).get() / 100.0; }
+
+    public long matriculasEnMes(YearMonth mes) {
+        LongAdder n = porMes.get(mes);
+        return n == null ? 0 : n.sum();
+    }
+
+    public long total() { return contadas.size(); }
+
+    // * Proporción (0..1) de matrículas en ese estado
+    public double ratio(EstadoMatricula estado) {
+        long t = 0;
+        for (LongAdder n : porEstado.values()) t += n.sum();
+        return t == 0 ? 0.0 : (double) porEstado.get(estado).sum() / t;
+    }
+
+    // * Foto de todos los contadores (O(cursos + meses))
+    public InformeMatriculas informe() {
+        Map<String, Long> activasPorCurso = new HashMap<>();
+        cursos.forEach((id, pc) -> {
+            synchronized (pc) {
+                activasPorCurso.put(id, pc.activas);
+            }
+        });
+        Map<CursoTipo, Long> ing = new EnumMap<>(CursoTipo.class);
+        ingresos.forEach((t, n) -> ing.put(t, n.get()));
+        Map<YearMonth, Long> mes = new HashMap<>();
+        porMes.forEach((m, n) -> mes.put(m, n.sum()));
+        Map<EstadoMatricula, Long> est = new EnumMap<>(EstadoMatricula.class);
+        porEstado.forEach((e, n) -> est.put(e, n.sum()));
+        return new InformeMatriculas(activasPorCurso, ing, mes, est);
+    }
+
+    // ============================== Recalcular desde cero ==============================
+
+    // * O(matrículas), en paralelo; mismas reglas que el cálculo incremental
+    public InformeMatriculas recalcular() {
+        Map<String, Curso> porId = cursoRepo.findAll().stream().collect(Collectors.toMap(Curso::getId, Function.identity()));
+        List<Matricula> todas = matriculaRepo.findAll();
+
+        Map<String, Long> activasPorCurso = todas.parallelStream()
+                .filter(m -> m.getEstado() == EstadoMatricula.ACTIVA)
+                .collect(Collectors.groupingByConcurrent(Matricula::getCursoId, Collectors.counting()));
+        Map<CursoTipo, Long> ing = todas.parallelStream()
+                .filter(m -> m.getEstado() == EstadoMatricula.ACTIVA)
+                .map(m -> porId.get(m.getCursoId()))
+                .filter(c -> c != null && c.getTipo() != null)
+                .collect(Collectors.groupingByConcurrent(Curso::getTipo, Collectors.summingLong(c -> centimos(c.getPrecio()))));
+        Map<YearMonth, Long> mes = todas.parallelStream()
+                .filter(m -> m.getFechaMatricula() != null)
+                .collect(Collectors.groupingByConcurrent(m -> YearMonth.from(m.getFechaMatricula()), Collectors.counting()));
+        Map<EstadoMatricula, Long> est = todas.parallelStream()
+                .filter(m -> m.getEstado() != null)
+                .collect(Collectors.groupingByConcurrent(Matricula::getEstado, Collectors.counting()));
+        return new InformeMatriculas(activasPorCurso, ing, mes, est);
+    }
+
+    // * Diferencias entre el cálculo incremental y el completo (vacío = correcto)
+    // ! Con escrituras en marcha puede haber diferencias momentáneas: validar con el sistema parado
+    public List<String> validar() { return informe().diferencias(recalcular()); }
+
+    // ============================== Avisos de los repositorios ==============================
+
+    private void matriculaCambiada(Matricula previous, Matricula current) {
+        String id = current != null ? current.getId() : previous.getId();
+        Contada nueva = current == null ? null : new Contada(current);
+        Contada antes = nueva == null ? contadas.remove(id) : contadas.put(id, nueva);
+        if (antes != null) aplicar(antes, -1);
+        if (nueva != null) aplicar(nueva, +1);
+    }
+
+    private void aplicar(Contada c, int signo) {
+        if (c.estado != null) porEstado.get(c.estado).add(signo);
+        if (c.mes != null) porMes.computeIfAbsent(c.mes, k -> new LongAdder()).add(signo);
+        if (c.estado != EstadoMatricula.ACTIVA) return;
+        PorCurso pc = cursos.computeIfAbsent(c.cursoId, k -> new PorCurso());
+        synchronized (pc) {
+            pc.activas += signo;
+            if (pc.existe && pc.tipo != null) ingresos.get(pc.tipo).addAndGet(signo * pc.precio);
+        }
+    }
+
+    // * Cambio de precio/tipo (o alta/borrado) de un curso: se mueven los ingresos de todas sus activas
+    private void cursoCambiado(Curso previous, Curso current) {
+        String id = current != null ? current.getId() : previous.getId();
+        PorCurso pc = cursos.computeIfAbsent(id, k -> new PorCurso());
+        synchronized (pc) {
+            if (pc.existe && pc.tipo != null) ingresos.get(pc.tipo).addAndGet(-pc.activas * pc.precio);
+            pc.existe = current != null;
+            if (current == null) return;
+            pc.tipo = current.getTipo();
+            pc.precio = centimos(current.getPrecio());
+            if (pc.tipo != null) ingresos.get(pc.tipo).addAndGet(pc.activas * pc.precio);
+        }
+    }
+
+    private static long centimos(double precio) { return Math.round(precio * 100); }
+}
@@ -0,0 +1,131 @@
+/*
+ * ******************************************************************************************
+ * 📘 GestorPlazas — Plazas ocupadas y lista de espera de cada curso (en memoria)
+ *
+ * - Plazas: un AtomicInteger por curso. reservar() ocupa una plaza con compareAndSet (sin
+ *   cerrojos): con miles de hilos a la vez por el mismo curso, nunca se pasa de la capacidad.
+ * - Lista de espera FIFO por curso (ids de matrículas EN_ESPERA). Las altas en la cola y las
+ *   promociones se hacen con el cerrojo de la cola del curso: el orden de la cola es el mismo
+ *   que el del repositorio, y al reiniciar se reconstruye igual.
+ * - Orden de llegada: si hay alguien esperando, un recién llegado no se cuela aunque haya
+ *   plaza libre; va a la cola y la plaza se la queda el primero (promover()).
+ * - Capacidad <= 0: sin límite (se cuentan las plazas igualmente).
+ * - No persiste nada: reconstruir() lo recalcula desde las matrículas al arrancar.
+ * ******************************************************************************************
+ */
+package com.curso.proyectofinal.controller;
+
+import com.curso.proyectofinal.model.EstadoMatricula;
+import com.curso.proyectofinal.model.Matricula;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/** Contador de plazas (CAS) y lista de espera por curso. */
+public class GestorPlazas {
+    // * cursoId → plazas ocupadas (matrículas ACTIVA)
+    private final ConcurrentHashMap<String, AtomicInteger> ocupadas = new ConcurrentHashMap<>();
+    // * cursoId → ids EN_ESPERA por orden de llegada
+    // ? Lecturas sin cerrojo (isEmpty/size); modificaciones con synchronized (cola)
+    private final ConcurrentHashMap<String, Queue<String>> espera = new ConcurrentHashMap<>();
+
+    // * Recalcula plazas y colas desde las matrículas (en orden de inserción del repositorio)
+    // ? Devuelve los cursos con gente esperando (por si ahora hay plazas libres)
+    public synchronized List<String> reconstruir(Collection<Matricula> matriculas) {
+        ocupadas.clear();
+        espera.clear();
+        for (Matricula m : matriculas) {
+            if (m.getEstado() == EstadoMatricula.ACTIVA) contador(m.getCursoId()).incrementAndGet();
+            else if (m.getEstado() == EstadoMatricula.EN_ESPERA) cola(m.getCursoId()).add(m.getId());
+        }
+        return new ArrayList<>(espera.keySet());
+    }
+
+    // * Plaza para un recién llegado: false si el curso está lleno o ya hay alguien esperando
+    public boolean reservar(String cursoId, int capacidad) {
+        Queue<String> cola = espera.get(cursoId);
+        if (cola != null && !cola.isEmpty()) return false;
+        return ocupar(contador(cursoId), capacidad);
+    }
+
+    // * Devuelve una plaza (matrícula ACTIVA anulada); nunca baja de 0
+    public void liberar(String cursoId) {
+        AtomicInteger n = contador(cursoId);
+        while (true) {
+            int actual = n.get();
+            if (actual == 0 || n.compareAndSet(actual, actual - 1)) return;
+        }
+    }
+
+    // * Alta en la lista de espera: 'guardar' persiste la matrícula EN_ESPERA con la cola bloqueada,
+    // * así el orden de la cola y el del repositorio coinciden
+    public void encolar(String cursoId, String matriculaId, Runnable guardar) {
+        Queue<String> cola = cola(cursoId);
+        synchronized (cola) {
+            guardar.run();
+            cola.add(matriculaId);
+        }
+    }
+
+    // * Baja de la lista de espera (matrícula EN_ESPERA anulada)
+    public void quitar(String cursoId, String matriculaId) {
+        Queue<String> cola = espera.get(cursoId);
+        if (cola == null) return;
+        synchronized (cola) {
+            cola.remove(matriculaId);
+        }
+    }
+
+    // * Mientras haya plaza y gente esperando, ocupa una plaza para el primero de la cola y llama a
+    // * 'activar' con su id. Si 'activar' devuelve false (ya no estaba EN_ESPERA) se devuelve la plaza.
+    // ? Devuelve los ids promovidos, en orden
+    public List<String> promover(String cursoId, int capacidad, Predicate<String> activar) {
+        List<String> promovidas = new ArrayList<>();
+        Queue<String> cola = espera.get(cursoId);
+        if (cola == null) return promovidas;
+        synchronized (cola) {
+            while (!cola.isEmpty() && ocupar(contador(cursoId), capacidad)) {
+                String id = cola.poll();
+                if (activar.test(id)) promovidas.add(id);
+                else liberar(cursoId);
+            }
+        }
+        return promovidas;
+    }
+
+    public int ocupadas(String cursoId) {
+        AtomicInteger n = ocupadas.get(cursoId);
+        return n == null ? 0 : n.get();
+    }
+
+    // ? O(tamaño de la cola): solo para mostrar
+    public int enEspera(String cursoId) {
+        Queue<String> cola = espera.get(cursoId);
+        return cola == null ? 0 : cola.size();
+    }
+
+    // ============================== Interno ==============================
+
+    // ! Bucle CAS: leer, comprobar capacidad, intentar n → n+1; si otro hilo ganó, repetir
+    private static boolean ocupar(AtomicInteger ocupadas, int capacidad) {
+        while (true) {
+            int n = ocupadas.get();
+            if (capacidad > 0 && n >= capacidad) return false;
+            if (ocupadas.compareAndSet(n, n + 1)) return true;
+        }
+    }
+
+    private AtomicInteger contador(String cursoId) {
+        return ocupadas.computeIfAbsent(cursoId, k -> new AtomicInteger());
+    }
+
+    private Queue<String> cola(String cursoId) {
+        return espera.computeIfAbsent(cursoId, k -> new ConcurrentLinkedQueue<>());
+    }
+}
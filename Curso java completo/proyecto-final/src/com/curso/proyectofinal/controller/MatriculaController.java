@@ -5,10 +5,16 @@
  * Responsabilidades:
  * - Validar existencia de Alumno y Curso.
  * - Validar ventana temporal de matrícula dentro de [inicio, fin] del curso.
- * - Gestionar estados (ACTIVA, ANULADA, FINALIZADA).
+ * - Gestionar estados (ACTIVA, ANULADA, FINALIZADA, EN_ESPERA).
+ * - Evitar duplicados: la misma (alumnoId, cursoId) solo puede estar ACTIVA (o EN_ESPERA) una vez.
+ *   Cerrojo por par (stripes) desde la comprobación hasta el save: dos peticiones a la vez del
+ *   mismo alumno al mismo curso no pueden pasar las dos.
+ * - Capacidad: si el curso está lleno, la matrícula se guarda EN_ESPERA; al anular una ACTIVA,
+ *   pasa a ACTIVA la primera de la lista de espera (GestorPlazas; se reconstruye al arrancar).
+ * - Matrícula masiva (matricularMasivo): valida todas las filas en paralelo y guarda las
+ *   aceptadas en un único lote (una sola escritura); devuelve un resultado por fila.
  *
  * TODO Alumno
- * - [ ] Evitar duplicados: no permitir la misma (alumnoId, cursoId) activa más de una vez.
  * - [ ] Añadir finalizar(String id) → estado FINALIZADA si fecha actual > fin del curso.
  * - [ ] Listar por alumno/curso desde controlador (delegando en repo).
  * ******************************************************************************************
@@ -17,31 +23,92 @@ package com.curso.proyectofinal.controller;
 
 import com.curso.proyectofinal.exception.ValidationException;
 import com.curso.proyectofinal.model.*;
+import com.curso.proyectofinal.persistence.CsvLoader;
 import com.curso.proyectofinal.repository.AlumnoRepository;
 import com.curso.proyectofinal.repository.CursoRepository;
 import com.curso.proyectofinal.repository.MatriculaRepository;
 import com.curso.proyectofinal.util.DateUtils;
 
+import java.nio.file.Path;
 import java.time.LocalDate;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /** Lógica de negocio para matrículas. */
 public class MatriculaController {
     private final MatriculaRepository repo;
     private final AlumnoRepository alumnoRepo;
     private final CursoRepository cursoRepo;
+    private final GestorPlazas plazas = new GestorPlazas();
+    // * Cerrojos por (alumnoId, cursoId), repartidos por hash como en ConcurrentCsvRepository
+    private static final int STRIPES = 64;
+    private final ReentrantLock[] pares = new ReentrantLock[STRIPES];
 
     public MatriculaController(MatriculaRepository repo, AlumnoRepository alumnoRepo, CursoRepository cursoRepo) {
         this.repo = repo;
         this.alumnoRepo = alumnoRepo;
         this.cursoRepo = cursoRepo;
+        for (int i = 0; i < STRIPES; i++) pares[i] = new ReentrantLock();
+        // * Plazas ocupadas y listas de espera a partir de lo guardado; si hay plazas libres
+        // ? (p. ej. se amplió la capacidad) se promueve ya a quien esperaba
+        for (String cursoId : plazas.reconstruir(repo.findAll())) promover(cursoId);
     }
 
     public List<Matricula> listar() { return repo.findAll(); }
 
-    // * Contrato: crea matrícula ACTIVA si pasa validaciones
+    // * Contrato: crea matrícula ACTIVA si pasa validaciones (EN_ESPERA si el curso está lleno)
     public Matricula matricular(String alumnoId, String cursoId, String fechaStr) {
+        return altaUnica(validar(alumnoId, cursoId, fechaStr));
+    }
+
+    // ! Con el cerrojo del par: se vuelve a comprobar el duplicado y se guarda sin que nadie se cuele
+    // ? validar() ya lo comprobó sin cerrojo (rechazo rápido); esta segunda comprobación es la que cuenta
+    private Matricula altaUnica(Matricula m) {
+        ReentrantLock lock = par(m.getAlumnoId(), m.getCursoId());
+        lock.lock();
+        try {
+            comprobarDuplicado(m.getAlumnoId(), m.getCursoId());
+            return alta(m);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock par(String alumnoId, String cursoId) {
+        int h = alumnoId.hashCode() * 31 + cursoId.hashCode();
+        return pares[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    // * Duplicados: consulta O(1) a los índices (alumnoId, cursoId) → ACTIVA / EN_ESPERA del repositorio
+    private void comprobarDuplicado(String alumnoId, String cursoId) {
+        if (repo.existsActiva(alumnoId, cursoId))
+            throw new ValidationException("El alumno ya tiene una matrícula activa en este curso");
+        if (repo.existsEnEspera(alumnoId, cursoId))
+            throw new ValidationException("El alumno ya está en la lista de espera de este curso");
+    }
+
+    // * Guarda una matrícula ya validada: ACTIVA si hay plaza (CAS), si no EN_ESPERA al final de la cola
+    private Matricula alta(Matricula m) {
+        String cursoId = m.getCursoId();
+        if (plazas.reservar(cursoId, capacidad(cursoId))) {
+            try {
+                return repo.save(m);
+            } catch (RuntimeException e) {
+                plazas.liberar(cursoId);
+                throw e;
+            }
+        }
+        m.setEstado(EstadoMatricula.EN_ESPERA);
+        plazas.encolar(cursoId, m.getId(), () -> repo.save(m));
+        // ? Por si se liberó una plaza entre reservar() y encolar()
+        promover(cursoId);
+        return m;
+    }
+
+    // * Valida y construye la matrícula ACTIVA SIN guardarla. Solo lee repositorios: se puede usar desde varios hilos.
+    private Matricula validar(String alumnoId, String cursoId, String fechaStr) {
         // * Validamos existencia de las entidades relacionadas: alumno y curso.
         // ? Si no existen, lanzamos ValidationException con mensaje claro para el usuario.
         Alumno a = alumnoRepo.findById(alumnoId).orElseThrow(() -> new ValidationException("Alumno no encontrado"));
@@ -56,19 +123,113 @@ public class MatriculaController {
         if (c.getFechaFin() != null && fecha.isAfter(c.getFechaFin()))
             throw new ValidationException("La fecha de matrícula no puede ser posterior al fin del curso");
 
-        // TODO: Evitar duplicado (alumnoId, cursoId) si ya existe una matrícula ACTIVA
+        // ! Duplicados (sin cerrojo: rechazo rápido; altaUnica() lo repite con el cerrojo del par)
+        comprobarDuplicado(a.getId(), c.getId());
 
-        // * Crear la matrícula con estado ACTIVA y persistir.
+        // * Crear la matrícula con estado ACTIVA (la persiste quien llama; alta() decide si queda EN_ESPERA).
         String id = UUID.randomUUID().toString();
-        Matricula m = new Matricula(id, a.getId(), c.getId(), fecha, EstadoMatricula.ACTIVA);
-        return repo.save(m);
+        return new Matricula(id, a.getId(), c.getId(), fecha, EstadoMatricula.ACTIVA);
+    }
+
+    // * Contrato: un resultado por solicitud, en el mismo orden; las aceptadas quedan guardadas.
+    public List<ResultadoMatricula> matricularMasivo(Stream<SolicitudMatricula> solicitudes) {
+        // * 1) Validación en paralelo: solo lecturas en memoria (findById sin bloqueos, existsActiva)
+        List<ResultadoMatricula> validadas = solicitudes.parallel()
+                .map(this::validarSolicitud)
+                .collect(Collectors.toList());
+
+        // * 2) En orden: duplicados dentro del propio lote y alta de las aceptadas con UNA escritura
+        List<ResultadoMatricula> informe = new ArrayList<>(validadas.size());
+        Set<List<String>> vistos = new HashSet<>();
+        repo.beginBatch();
+        try {
+            for (ResultadoMatricula r : validadas) {
+                if (!r.isAceptada()) {
+                    informe.add(r);
+                    continue;
+                }
+                Matricula m = r.getMatricula();
+                // ? Gana la primera fila del par dentro del lote
+                if (!vistos.add(Arrays.asList(m.getAlumnoId(), m.getCursoId()))) {
+                    informe.add(ResultadoMatricula.rechazada(r.getSolicitud(), "El alumno ya tiene una matrícula activa en este curso"));
+                    continue;
+                }
+                // * Por orden de fila: las primeras ocupan las plazas libres, el resto va a la lista de espera
+                // ? altaUnica() cubre matrículas hechas por otros hilos mientras validábamos
+                try {
+                    altaUnica(m);
+                    informe.add(r);
+                } catch (ValidationException e) {
+                    informe.add(ResultadoMatricula.rechazada(r.getSolicitud(), e.getMessage()));
+                }
+            }
+        } finally {
+            repo.commitBatch();
+        }
+        return informe;
+    }
+
+    // * Lo mismo leyendo un CSV "alumnoId;cursoId;fecha" (cabecera opcional; fecha vacía = hoy)
+    public List<ResultadoMatricula> matricularMasivo(Path csv) {
+        List<SolicitudMatricula> solicitudes = new ArrayList<>();
+        CsvLoader.read(csv, f -> {
+            if (solicitudes.isEmpty() && f.get(0).trim().equalsIgnoreCase("alumnoId")) return;  // cabecera
+            solicitudes.add(SolicitudMatricula.fromFields(solicitudes.size() + 1, f));
+        });
+        return matricularMasivo(solicitudes.stream());
+    }
+
+    private ResultadoMatricula validarSolicitud(SolicitudMatricula s) {
+        try {
+            return ResultadoMatricula.aceptada(s, validar(s.getAlumnoId(), s.getCursoId(), s.getFecha()));
+        } catch (RuntimeException e) {
+            // ? ValidationException (reglas) o IllegalArgumentException (fecha mal escrita): se informa en la fila
+            return ResultadoMatricula.rechazada(s, e.getMessage());
+        }
     }
 
     // ! Anulación: transición a estado ANULADA (persistencia inmediata)
+    // * Si era ACTIVA libera su plaza y pasa a ACTIVA el primero de la lista de espera
     public boolean anular(String matriculaId) {
         Matricula m = repo.findById(matriculaId).orElseThrow(() -> new ValidationException("Matrícula no encontrada"));
-        m.setEstado(EstadoMatricula.ANULADA);
+        EstadoMatricula antes;
+        // ? Mismo cerrojo que promover(): una matrícula no se anula y se activa a la vez
+        synchronized (m) {
+            antes = m.getEstado();
+            m.setEstado(EstadoMatricula.ANULADA);
+        }
         repo.update(m);
+        if (antes == EstadoMatricula.ACTIVA) {
+            plazas.liberar(m.getCursoId());
+            promover(m.getCursoId());
+        } else if (antes == EstadoMatricula.EN_ESPERA) {
+            plazas.quitar(m.getCursoId(), m.getId());
+        }
         return true;
     }
+
+    // * Plazas ocupadas / personas en lista de espera de un curso
+    public int plazasOcupadas(String cursoId) { return plazas.ocupadas(cursoId); }
+
+    public int enEspera(String cursoId) { return plazas.enEspera(cursoId); }
+
+    // * EN_ESPERA → ACTIVA mientras haya plazas libres, por orden de llegada
+    private List<String> promover(String cursoId) {
+        return plazas.promover(cursoId, capacidad(cursoId), id -> {
+            Matricula w = repo.findById(id).orElse(null);
+            if (w == null) return false;
+            synchronized (w) {
+                // ? Anulada (o borrada) mientras esperaba: la plaza pasa al siguiente
+                if (w.getEstado() != EstadoMatricula.EN_ESPERA) return false;
+                w.setEstado(EstadoMatricula.ACTIVA);
+            }
+            repo.update(w);
+            return true;
+        });
+    }
+
+    // ? Curso borrado: sin límite (no bloquea a nadie en la cola)
+    private int capacidad(String cursoId) {
+        return cursoRepo.findById(cursoId).map(Curso::getCapacidad).orElse(0);
+    }
 }
@@ -1,10 +1,11 @@
 /*
  * ******************************************************************************************
  * 📘 Curso — Entidad del dominio
- * Campos: id, nombre, tipo (ONLINE/PRESENCIAL), fechas (inicio/fin), precio.
+ * Campos: id, nombre, tipo (ONLINE/PRESENCIAL), fechas (inicio/fin), precio, capacidad.
  *
  * Notas:
  * - Reglas de negocio en controlador (precio >= 0, fin >= inicio).
+ * - capacidad: plazas del curso; 0 = sin límite (los CSV antiguos, sin la columna, cargan así).
  * - equals/hashCode por id.
  *
  * TODO Alumno
@@ -27,16 +28,22 @@ public class Curso {
     private LocalDate fechaInicio;
     private LocalDate fechaFin;
     private double precio;
+    private int capacidad;      // 0 = sin límite
 
     public Curso() {}
 
     public Curso(String id, String nombre, CursoTipo tipo, LocalDate fechaInicio, LocalDate fechaFin, double precio) {
+        this(id, nombre, tipo, fechaInicio, fechaFin, precio, 0);
+    }
+
+    public Curso(String id, String nombre, CursoTipo tipo, LocalDate fechaInicio, LocalDate fechaFin, double precio, int capacidad) {
         this.id = id;
         this.nombre = nombre;
         this.tipo = tipo;
         this.fechaInicio = fechaInicio;
         this.fechaFin = fechaFin;
         this.precio = precio;
+        this.capacidad = capacidad;
     }
 
     public String getId() { return id; }
@@ -60,6 +67,9 @@ public class Curso {
         this.precio = precio; 
     }
 
+    public int getCapacidad() { return capacidad; }
+    public void setCapacidad(int capacidad) { this.capacidad = capacidad; }
+
     @Override
     public String toString() {
         return "Curso{" +
@@ -69,6 +79,7 @@ public class Curso {
                 ", fechaInicio=" + fechaInicio +
                 ", fechaFin=" + fechaFin +
                 ", precio=" + precio +
+                ", capacidad=" + (capacidad > 0 ? String.valueOf(capacidad) : "sin límite") +
                 '}';
     }
 
@@ -3,9 +3,11 @@ package com.curso.proyectofinal.model;
 /**
  * Estado de la matrícula.
  * TODO Alumno: explica el ciclo de vida (ACTIVA → ANULADA/FINALIZADA) y reglas.
+ * ? EN_ESPERA: curso lleno; pasa a ACTIVA (por orden de llegada) cuando se anula una ACTIVA.
  */
 public enum EstadoMatricula {
     ACTIVA,
     ANULADA,
-    FINALIZADA
+    FINALIZADA,
+    EN_ESPERA
 }
@@ -0,0 +1,100 @@
+/*
+ * ******************************************************************************************
+ * 📘 InformeMatriculas — Foto de las estadísticas de matrículas
+ * - Matrículas ACTIVA por curso.
+ * - Ingresos por tipo de curso: suma de Curso.precio de las matrículas ACTIVA (en céntimos,
+ *   para que sumar/restar sea exacto).
+ * - Matrículas por mes (fechaMatricula), en cualquier estado.
+ * - Matrículas por estado (proporciones con ratio()).
+ * - Sin entradas a 0: dos informes con los mismos números son equals().
+ * ******************************************************************************************
+ */
+package com.curso.proyectofinal.model;
+
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Estadísticas de matrículas (inmutable).
+ */
+public final class InformeMatriculas {
+    private final SortedMap<String, Long> activasPorCurso;
+    private final SortedMap<CursoTipo, Long> ingresosCentimos;
+    private final SortedMap<YearMonth, Long> porMes;
+    private final SortedMap<EstadoMatricula, Long> porEstado;
+
+    public InformeMatriculas(Map<String, Long> activasPorCurso, Map<CursoTipo, Long> ingresosCentimos,
+                             Map<YearMonth, Long> porMes, Map<EstadoMatricula, Long> porEstado) {
+        this.activasPorCurso = sinCeros(activasPorCurso);
+        this.ingresosCentimos = sinCeros(ingresosCentimos);
+        this.porMes = sinCeros(porMes);
+        this.porEstado = sinCeros(porEstado);
+    }
+
+    private static <K> SortedMap<K, Long> sinCeros(Map<K, Long> m) {
+        SortedMap<K, Long> r = new TreeMap<>();
+        m.forEach((k, v) -> { if (v != 0) r.put(k, v); });
+        return Collections.unmodifiableSortedMap(r);
+    }
+
+    public SortedMap<String, Long> getActivasPorCurso() { return activasPorCurso; }
+    public SortedMap<YearMonth, Long> getPorMes() { return porMes; }
+    public SortedMap<EstadoMatricula, Long> getPorEstado() { return porEstado; }
+    public SortedMap<CursoTipo, Long> getIngresosCentimos() { return ingresosCentimos; }
+
+    public double getIngresos(CursoTipo tipo) { return ingresosCentimos.getOrDefault(tipo, 0L) / 100.0; }
+
+    public long total() {
+        long t = 0;
+        for (long n : porEstado.values()) t += n;
+        return t;
+    }
+
+    // * Proporción (0..1) de matrículas en ese estado; 0 si no hay ninguna
+    public double ratio(EstadoMatricula estado) {
+        long t = total();
+        return t == 0 ? 0.0 : (double) porEstado.getOrDefault(estado, 0L) / t;
+    }
+
+    // * Qué números difieren de otro informe (vacío = iguales); para validar el cálculo incremental
+    public List<String> diferencias(InformeMatriculas otro) {
+        List<String> d = new ArrayList<>();
+        comparar("activas por curso", activasPorCurso, otro.activasPorCurso, d);
+        comparar("ingresos (céntimos) por tipo", ingresosCentimos, otro.ingresosCentimos, d);
+        comparar("matrículas por mes", porMes, otro.porMes, d);
+        comparar("matrículas por estado", porEstado, otro.porEstado, d);
+        return d;
+    }
+
+    private static <K> void comparar(String que, Map<K, Long> a, Map<K, Long> b, List<String> d) {
+        Set<K> claves = new LinkedHashSet<>(a.keySet());
+        claves.addAll(b.keySet());
+        for (K k : claves) {
+            long x = a.getOrDefault(k, 0L), y = b.getOrDefault(k, 0L);
+            if (x != y) d.add(que + " [" + k + "]: " + x + " vs " + y);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof InformeMatriculas)) return false;
+        InformeMatriculas i = (InformeMatriculas) o;
+        return activasPorCurso.equals(i.activasPorCurso) && ingresosCentimos.equals(i.ingresosCentimos)
+                && porMes.equals(i.porMes) && porEstado.equals(i.porEstado);
+    }
+
+    @Override
+    public int hashCode() { return Objects.hash(activasPorCurso, ingresosCentimos, porMes, porEstado); }
+
+    @Override
+    public String toString() {
+        return "InformeMatriculas{" +
+                "total=" + total() +
+                ", porEstado=" + porEstado +
+                ", ingresosCentimos=" + ingresosCentimos +
+                ", cursos=" + activasPorCurso.size() +
+                ", meses=" + porMes.size() +
+                '}';
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * ******************************************************************************************
+ * 📘 ResultadoMatricula — Resultado de una fila de una matrícula masiva
+ * - Aceptada: lleva la Matricula creada (ya persistida); ACTIVA o EN_ESPERA si el curso estaba lleno.
+ * - Rechazada: lleva el motivo (mismo mensaje que daría matricular()).
+ * ******************************************************************************************
+ */
+package com.curso.proyectofinal.model;
+
+/**
+ * Resultado (matrícula creada o motivo del rechazo) de una SolicitudMatricula.
+ */
+public final class ResultadoMatricula {
+    private final SolicitudMatricula solicitud;
+    private final Matricula matricula;
+    private final String error;
+
+    private ResultadoMatricula(SolicitudMatricula solicitud, Matricula matricula, String error) {
+        this.solicitud = solicitud;
+        this.matricula = matricula;
+        this.error = error;
+    }
+
+    public static ResultadoMatricula aceptada(SolicitudMatricula s, Matricula m) { return new ResultadoMatricula(s, m, null); }
+
+    public static ResultadoMatricula rechazada(SolicitudMatricula s, String error) { return new ResultadoMatricula(s, null, error); }
+
+    public SolicitudMatricula getSolicitud() { return solicitud; }
+    public Matricula getMatricula() { return matricula; }
+    public String getError() { return error; }
+    public boolean isAceptada() { return matricula != null; }
+
+    @Override
+    public String toString() {
+        return "Fila " + solicitud.getFila() + ": "
+                + (isAceptada() ? "OK " + matricula.getId() + (matricula.getEstado() == EstadoMatricula.EN_ESPERA ? " (lista de espera)" : "") : "RECHAZADA (" + error + ")");
+    }
+}
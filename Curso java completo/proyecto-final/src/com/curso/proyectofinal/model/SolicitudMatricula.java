@@ -0,0 +1,52 @@
+/*
+ * ******************************************************************************************
+ * 📘 SolicitudMatricula — Una fila de una matrícula masiva
+ * Campos: fila (para el informe), alumnoId, cursoId, fecha (texto yyyy-MM-dd; vacío = hoy).
+ *
+ * Notas:
+ * - Es un dato de entrada sin validar: MatriculaController.matricularMasivo la valida.
+ * - fromFields lee una fila CSV "alumnoId;cursoId;fecha" (la fecha puede faltar).
+ * ******************************************************************************************
+ */
+package com.curso.proyectofinal.model;
+
+import java.util.List;
+
+/**
+ * Petición de matrícula (alumno, curso, fecha) de una carga masiva.
+ */
+public final class SolicitudMatricula {
+    private final int fila;
+    private final String alumnoId;
+    private final String cursoId;
+    private final String fecha;
+
+    public SolicitudMatricula(int fila, String alumnoId, String cursoId, String fecha) {
+        this.fila = fila;
+        this.alumnoId = alumnoId;
+        this.cursoId = cursoId;
+        this.fecha = fecha;
+    }
+
+    public static SolicitudMatricula fromFields(int fila, List<String> f) {
+        return new SolicitudMatricula(fila,
+                f.get(0).trim(),
+                f.size() > 1 ? f.get(1).trim() : "",
+                f.size() > 2 ? f.get(2).trim() : "");
+    }
+
+    public int getFila() { return fila; }
+    public String getAlumnoId() { return alumnoId; }
+    public String getCursoId() { return cursoId; }
+    public String getFecha() { return fecha; }
+
+    @Override
+    public String toString() {
+        return "SolicitudMatricula{" +
+                "fila=" + fila +
+                ", alumnoId='" + alumnoId + '\'' +
+                ", cursoId='" + cursoId + '\'' +
+                ", fecha='" + fecha + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,398 @@
+package com.curso.proyectofinal.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/*
+ * ******************************************************************************************
+ * 📘 ChangeLog — Registro de cambios "solo añadir" (write-ahead log) de un repositorio
+ *
+ * Antes, cada save/update/delete reescribía el CSV entero: O(n) por escritura.
+ * Ahora cada cambio añade UNA línea al final de un fichero .log:
+ *   U;<campos CSV de la entidad>   → alta o modificación (upsert)
+ *   D;<id>                         → borrado
+ *
+ * - Arranque: el repositorio carga el CSV (snapshot) y luego replay() aplica el log encima.
+ * - Compactación: cada cierto número de cambios, un hilo en segundo plano pide al repositorio
+ *   que reescriba el CSV completo y después vacía el log (truncate()).
+ *   ? Si se cae entre ambos pasos, el log se vuelve a aplicar sobre el CSV nuevo: los upserts
+ *   ? y borrados son idempotentes, el resultado es el mismo.
+ * - Una línea final sin '\n' (corte a mitad de escritura) se ignora al reproducir y se
+ *   recorta del fichero: si no, el siguiente cambio se pegaría a esos bytes y se perdería.
+ *
+ * Escritores concurrentes (group commit por defecto):
+ * - upsert()/delete() solo encolan el registro (con el monitor, muy corto) y devuelven un turno.
+ * - commit(turno), ya sin los cerrojos del repositorio: el primer hilo que llega escribe de una
+ *   vez todo lo encolado (un write + un force) y los demás esperan a esa escritura. Con muchos
+ *   hilos, un force() cubre los cambios de todos; nadie hace force() con cerrojos tomados.
+ * - Al volver de commit() el cambio está en el fichero (y en disco con ALWAYS).
+ *
+ * Política de fsync (propiedad -Dproyectofinal.fsync=ALWAYS|PERIODIC|NEVER):
+ * - ALWAYS:   ningún save() vuelve antes de su force(). Lo más seguro y lo más lento (aunque
+ *             los hilos concurrentes comparten force()).
+ * - PERIODIC: force() como mucho una vez por segundo (por defecto). Se pierde como máximo
+ *             el último segundo si se va la luz (no si solo se cae la aplicación).
+ * - NEVER:    lo decide el sistema operativo.
+ *
+ * Agrupación de escrituras (group commit):
+ * - beginBatch()/commitBatch(): los cambios intermedios del hilo que abre el lote se quedan
+ *   en la cola y commitBatch() los escribe de una vez (un write + un force). Se pueden anidar:
+ *   escribe el último commit. El lote es SOLO de ese hilo: los save() de otros hilos se
+ *   escriben (y con ALWAYS se fuerzan) como siempre, y de paso pueden llevarse parte del lote.
+ * - Automática (-Dproyectofinal.groupCommit.size=N, -Dproyectofinal.groupCommit.ms=T):
+ *   se escribe al juntar N cambios o, como mucho, T ms después del primero pendiente.
+ *   Desactivada por defecto (size=0): cada cambio se escribe antes de volver de commit().
+ *   ! Lo pendiente se pierde si la aplicación se cae antes de escribirlo.
+ * - getFlushes()/getFlushedRecords()/getLastFlushSize(): cuántos cambios se juntan por escritura.
+ * ******************************************************************************************
+ */
+/** Registro de cambios append-only con fsync configurable y compactación en segundo plano. */
+public final class ChangeLog {
+    public enum FsyncPolicy {
+        ALWAYS, PERIODIC, NEVER;
+
+        // * Lee -Dproyectofinal.fsync; PERIODIC si no está o no es válida
+        public static FsyncPolicy fromSystem() {
+            String v = System.getProperty("proyectofinal.fsync", "PERIODIC");
+            try {
+                return valueOf(v.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return PERIODIC;
+            }
+        }
+    }
+
+    // * Un único hilo (daemon) para los fsync periódicos y las compactaciones de todos los logs
+    private static final ScheduledExecutorService BACKGROUND = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "changelog-background");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public static final int DEFAULT_COMPACT_EVERY = 10_000;
+
+    private final Path path;
+    private final FsyncPolicy policy;
+    private final int compactEvery;
+    private FileChannel channel;
+    private int records;          // * Cambios en el log desde la última compactación
+    private boolean dirty;        // * Hay bytes escritos sin force()
+    private final List<ScheduledFuture<?>> tasks = new ArrayList<>();
+
+    // * Group commit: registros aún sin escribir
+    private final int groupSize;
+    private final long groupMs;
+    private final StringBuilder pending = new StringBuilder();
+    private int pendingRecords;
+    // * Lotes por hilo: el lote de un hilo no retrasa la escritura de los cambios de los demás
+    private final ThreadLocal<Lote> lote = ThreadLocal.withInitial(Lote::new);
+    private long appended;        // * Turno del último cambio encolado
+    private long written;         // * Hasta qué turno está escrito en el fichero...
+    private long synced;          // * ...y hasta cuál con force()
+    private boolean writing;      // * Hay un líder escribiendo fuera del monitor
+    private long flushes;
+    private long flushedRecords;
+    private int lastFlushSize;
+
+    private static final class Lote {
+        int depth;
+        int records;
+        long last;      // * Turno del último cambio del lote
+    }
+
+    public ChangeLog(Path path) {
+        this(path, FsyncPolicy.fromSystem(), DEFAULT_COMPACT_EVERY,
+                Integer.getInteger("proyectofinal.groupCommit.size", 0), Long.getLong("proyectofinal.groupCommit.ms", 10));
+    }
+
+    public ChangeLog(Path path, FsyncPolicy policy, int compactEvery) { this(path, policy, compactEvery, 0, 0); }
+
+    public ChangeLog(Path path, FsyncPolicy policy, int compactEvery, int groupSize, long groupMs) {
+        this.path = path;
+        this.policy = policy;
+        this.compactEvery = compactEvery;
+        this.groupSize = groupSize;
+        this.groupMs = groupMs;
+    }
+
+    // * Fichero .log junto al CSV: alumnos.csv → alumnos.log
+    public static Path besides(Path csv) {
+        String name = csv.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return csv.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + ".log");
+    }
+
+    // * Reproduce el log: 'upsert' recibe los campos de cada alta/modificación, 'delete' cada id borrado
+    public synchronized void replay(Consumer<List<String>> upsert, Consumer<String> delete) {
+        records = 0;
+        // ? Solo registros completos: lo que haya tras el último '\n' es una escritura cortada
+        String content = FileStorage.readString(path);
+        int end = CsvUtils.forEachRecord(content, true, r -> {
+            String op = r.get(0);
+            if (op.equals("U")) upsert.accept(r.subList(1, r.size()));
+            else if (op.equals("D") && r.size() > 1) delete.accept(r.get(1));
+            else return;
+            records++;
+        });
+        if (end < content.length()) cutTornTail(content.substring(0, end).getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    // ! Recorta el registro cortado ANTES del primer append (el canal abre en modo APPEND)
+    private void cutTornTail(long validBytes) {
+        try {
+            if (channel == null) open();
+            System.err.println("[WARN] " + path + ": registro incompleto al final (" + (channel.size() - validBytes) + " bytes), se descarta");
+            channel.truncate(validBytes);
+            channel.force(true);
+        } catch (IOException e) {
+            throw new RuntimeException("Error recortando log: " + path, e);
+        }
+    }
+
+    // * Cada registro es una línea CSV más: U;<campos> o D;<id> (el id también va codificado)
+    // * Devuelven el turno del cambio: el llamador, YA FUERA de sus cerrojos, llama a commit(turno)
+    public long upsert(List<String> fields) {
+        StringBuilder sb = new StringBuilder("U");
+        for (String f : fields) CsvCodec.appendField(sb.append(CsvCodec.SEP), f);
+        return append(sb.toString());
+    }
+
+    public long delete(String id) {
+        StringBuilder sb = new StringBuilder("D").append(CsvCodec.SEP);
+        CsvCodec.appendField(sb, id);
+        return append(sb.toString());
+    }
+
+    // * Solo encola (rápido): el orden de la cola es el orden de los cambios. 0 = no hay que esperar.
+    private long append(String record) {
+        Lote l = lote.get();
+        long ticket;
+        synchronized (this) {
+            records++;
+            pending.append(record).append('\n');
+            pendingRecords++;
+            ticket = ++appended;
+            if (l.depth == 0 && groupSize > 0 && pendingRecords < groupSize) return 0;
+        }
+        if (l.depth == 0) return ticket;
+        l.records++;
+        l.last = ticket;
+        return 0;
+    }
+
+    // * Espera a que el cambio 'ticket' esté escrito (y con force() según la política).
+    // ? Group commit: el primero que llega escribe TODO lo encolado de una vez (líder) y los que
+    // ? llegan mientras tanto esperan a esa escritura o a la siguiente, sin un write+force cada uno.
+    public void commit(long ticket) {
+        if (ticket <= 0) return;
+        await(ticket, groupSize > 0 ? policy != FsyncPolicy.NEVER : policy == FsyncPolicy.ALWAYS);
+    }
+
+    private void await(long ticket, boolean force) {
+        String chunk;
+        int n;
+        long upTo;
+        FileChannel ch;
+        synchronized (this) {
+            boolean interrupted = false;
+            while ((force ? synced : written) < ticket && writing) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    // ! No se puede volver sin que el cambio esté escrito: se sigue esperando
+                    interrupted = true;
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+            if ((force ? synced : written) >= ticket) return;
+            try {
+                if (channel == null) open();
+            } catch (IOException e) {
+                throw new RuntimeException("Error escribiendo log: " + path, e);
+            }
+            writing = true;
+            ch = channel;
+            chunk = pending.toString();
+            n = pendingRecords;
+            upTo = appended;
+            pending.setLength(0);
+            pendingRecords = 0;
+        }
+        // * Líder: escribe fuera del monitor; mientras, otros hilos siguen encolando
+        boolean ok = false;
+        try {
+            write(ch, chunk, force);
+            ok = true;
+        } finally {
+            synchronized (this) {
+                writing = false;
+                if (ok) {
+                    written = upTo;
+                    if (force) synced = upTo;
+                    else dirty = true;
+                    if (n > 0) {
+                        flushes++;
+                        flushedRecords += n;
+                        lastFlushSize = n;
+                    }
+                } else {
+                    // ? Vuelve a la cabeza de la cola: el siguiente líder lo reintenta (y el error sube al llamador)
+                    pending.insert(0, chunk);
+                    pendingRecords += n;
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    private void write(FileChannel ch, String text, boolean force) {
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+            while (buf.hasRemaining()) ch.write(buf);
+            if (force) ch.force(false);
+        } catch (IOException e) {
+            throw new RuntimeException("Error escribiendo log: " + path, e);
+        }
+    }
+
+    // * Escribe lo pendiente de una vez; force() salvo con NEVER. Devuelve cuántos cambios se han juntado.
+    public int flush() {
+        long upTo;
+        int n;
+        synchronized (this) {
+            n = pendingRecords;
+            upTo = appended;
+        }
+        if (n == 0) return 0;
+        await(upTo, policy != FsyncPolicy.NEVER);
+        return n;
+    }
+
+    // * Lote del hilo que llama: sus cambios esperan a commitBatch(); los de otros hilos, no
+    public void beginBatch() { lote.get().depth++; }
+
+    // * Cierra el lote; el más externo espera a que todo el lote esté escrito (force() salvo con NEVER).
+    // * Devuelve los cambios del lote (0 si era un lote anidado).
+    // ? Si otros hilos escriben mientras tanto, su commit() se lleva también lo encolado del lote.
+    public int commitBatch() {
+        Lote l = lote.get();
+        if (l.depth == 0) throw new IllegalStateException("commitBatch() sin beginBatch()");
+        if (--l.depth > 0) return 0;
+        int n = l.records;
+        long last = l.last;
+        lote.remove();
+        if (n > 0) await(last, policy != FsyncPolicy.NEVER);
+        return n;
+    }
+
+    public synchronized long getFlushes() { return flushes; }
+
+    public synchronized long getFlushedRecords() { return flushedRecords; }
+
+    public synchronized int getLastFlushSize() { return lastFlushSize; }
+
+    private void open() throws IOException {
+        if (path.getParent() != null) Files.createDirectories(path.getParent());
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    // * Vacía el log. Llamar SOLO después de haber escrito el snapshot completo.
+    public synchronized void truncate() {
+        // ? Un líder a medio escribir añadiría cambios viejos DESPUÉS del vaciado: se le espera
+        awaitWriter();
+        try {
+            if (channel == null) open();
+            channel.truncate(0);
+            channel.force(true);
+            records = 0;
+            dirty = false;
+            // ? Lo pendiente ya está en el snapshot que se acaba de escribir
+            pending.setLength(0);
+            pendingRecords = 0;
+            written = synced = appended;
+            notifyAll();
+        } catch (IOException e) {
+            throw new RuntimeException("Error vaciando log: " + path, e);
+        }
+    }
+
+    // * Espera (con el monitor) a que termine la escritura del líder en curso, si la hay
+    private void awaitWriter() {
+        boolean interrupted = false;
+        while (writing) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    public synchronized int size() { return records; }
+
+    public synchronized boolean needsCompaction() { return records >= compactEvery; }
+
+    // * force() si hay cambios pendientes (lo usa PERIODIC; también útil antes de salir)
+    public synchronized void sync() {
+        if (!dirty || channel == null) return;
+        try {
+            long upTo = written;
+            channel.force(false);
+            dirty = false;
+            synced = Math.max(synced, upTo);
+        } catch (IOException e) {
+            throw new RuntimeException("Error sincronizando log: " + path, e);
+        }
+    }
+
+    // * Programa en segundo plano el fsync periódico y la compactación ('compactor' reescribe el snapshot)
+    public synchronized void startBackground(Runnable compactor) {
+        if (policy == FsyncPolicy.PERIODIC) tasks.add(BACKGROUND.scheduleWithFixedDelay(this::sync, 1, 1, TimeUnit.SECONDS));
+        if (groupSize > 0 && groupMs > 0) {
+            tasks.add(BACKGROUND.scheduleWithFixedDelay(this::flush, groupMs, groupMs, TimeUnit.MILLISECONDS));
+        }
+        tasks.add(BACKGROUND.scheduleWithFixedDelay(() -> {
+            try {
+                if (needsCompaction()) compactor.run();
+            } catch (RuntimeException e) {
+                // ! No matamos el hilo: se reintentará en la siguiente vuelta
+                System.err.println("[WARN] Compactación fallida de " + path + ": " + e.getMessage());
+            }
+        }, 5, 5, TimeUnit.SECONDS));
+    }
+
+    // * Detiene las tareas en segundo plano, hace force() de lo pendiente y cierra el fichero
+    public void close() {
+        synchronized (this) {
+            for (ScheduledFuture<?> t : tasks) t.cancel(false);
+            tasks.clear();
+        }
+        flush();
+        closeChannel();
+    }
+
+    private synchronized void closeChannel() {
+        awaitWriter();
+        sync();
+        try {
+            if (channel != null) channel.close();
+            channel = null;
+        } catch (IOException e) {
+            throw new RuntimeException("Error cerrando log: " + path, e);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.curso.proyectofinal.persistence;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * ******************************************************************************************
+ * 📘 CsvCodec — Codificador/decodificador CSV estilo RFC 4180 con separador ';'
+ *
+ * Escritura (encode / appendField):
+ * - Un campo que contiene ';', '"', '\n' o '\r' se escribe entre comillas y cada '"' se duplica.
+ *   Ej.: Pérez; "Pepe"  →  "Pérez; ""Pepe"""
+ * - El resto se escribe tal cual. null se escribe como campo vacío.
+ *
+ * Lectura (parseRecord / parse):
+ * - Recorre un char[] y entrega cada campo al FieldVisitor como (buf, inicio, fin): sin substring
+ *   ni split por campo. El visitor decide si crea un String o no.
+ * - ! Los campos entre comillas se desescapan EN el propio buffer (se pisan las comillas).
+ * - Un registro acaba en '\n' o "\r\n" fuera de comillas: un campo puede contener saltos de línea.
+ * - Se conservan los campos vacíos del final ("a;;" son 3 campos). Una línea vacía no es un registro.
+ *
+ * ? Los CSV antiguos (sin comillas) se leen igual: un '"' en mitad de un campo es un carácter más.
+ * ******************************************************************************************
+ */
+/** Codec CSV (separador ';', comillas dobles) que tokeniza sobre char[] sin crear Strings por campo. */
+public final class CsvCodec {
+    private CsvCodec() {}
+
+    public static final char SEP = ';';
+    private static final char QUOTE = '"';
+    private static final int CHUNK = 64 * 1024;
+
+    /** Recibe los campos de cada registro. Los caracteres solo son válidos durante la llamada. */
+    public interface FieldVisitor {
+        void field(int column, char[] buf, int start, int end);
+
+        // * Fin de registro con 'columns' campos
+        default void endRecord(int columns) {}
+    }
+
+    // ============================== Escritura ==============================
+
+    public static String encode(List<String> fields) {
+        StringBuilder sb = new StringBuilder(fields.size() * 16);
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) sb.append(SEP);
+            appendField(sb, fields.get(i));
+        }
+        return sb.toString();
+    }
+
+    public static void appendField(StringBuilder sb, String value) {
+        if (value == null) return;
+        if (!needsQuotes(value)) {
+            sb.append(value);
+            return;
+        }
+        sb.append(QUOTE);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == QUOTE) sb.append(QUOTE);
+            sb.append(c);
+        }
+        sb.append(QUOTE);
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == SEP || c == QUOTE || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+
+    // ============================== Lectura ==============================
+
+    /**
+     * Lee UN registro que empieza en buf[pos] sin pasar de 'limit'.
+     * Devuelve la posición del siguiente registro, o -1 si el registro no está completo
+     * (falta el salto de línea y 'eof' es false): en ese caso no se ha llamado al visitor.
+     * Con 'eof' true el final del buffer cierra el registro.
+     */
+    public static int parseRecord(char[] buf, int pos, int limit, boolean eof, FieldVisitor visitor) {
+        // * 1ª pasada: buscar el final del registro respetando comillas (no toca el buffer)
+        int end = findEnd(buf, pos, limit, eof);
+        if (end < 0) return -1;
+        int next = end < limit ? end + 1 : limit;
+        // ? "\r\n": el '\r' pertenece al salto de línea (dentro de comillas nunca llega aquí)
+        int recEnd = end > pos && end < limit && buf[end - 1] == '\r' ? end - 1 : end;
+
+        if (recEnd == pos) {
+            visitor.endRecord(0);  // * Línea vacía
+            return next;
+        }
+
+        // * 2ª pasada: cortar campos y desescapar las comillas
+        int column = 0;
+        int i = pos;
+        while (true) {
+            if (buf[i] == QUOTE) {
+                int w = i;
+                int r = i + 1;
+                while (true) {
+                    char c = buf[r++];
+                    if (c == QUOTE) {
+                        if (r < recEnd && buf[r] == QUOTE) r++;
+                        else break;
+                    }
+                    buf[w++] = c;
+                }
+                visitor.field(column++, buf, i, w);
+                if (r == recEnd) break;
+                if (buf[r] != SEP) throw new IllegalArgumentException("CSV mal formado: texto tras las comillas en la columna " + column);
+                i = r + 1;
+            } else {
+                int s = i;
+                while (i < recEnd && buf[i] != SEP) i++;
+                visitor.field(column++, buf, s, i);
+                if (i == recEnd) break;
+                i++;
+            }
+            if (i == recEnd) {
+                visitor.field(column++, buf, i, i);  // * Campo vacío tras el último ';'
+                break;
+            }
+        }
+        visitor.endRecord(column);
+        return next;
+    }
+
+    // * Posición del '\n' que cierra el registro, 'limit' si acaba el fichero, o -1 si faltan datos
+    private static int findEnd(char[] buf, int pos, int limit, boolean eof) {
+        boolean inQuotes = false;
+        boolean fieldStart = true;
+        for (int i = pos; i < limit; i++) {
+            char c = buf[i];
+            if (inQuotes) {
+                if (c == QUOTE) {
+                    if (i + 1 == limit) {
+                        if (!eof) return -1;  // ? No sabemos aún si es "" o la comilla de cierre
+                        inQuotes = false;
+                    } else if (buf[i + 1] == QUOTE) {
+                        i++;
+                    } else {
+                        inQuotes = false;
+                    }
+                }
+            } else if (c == '\n') {
+                return i;
+            } else if (c == SEP) {
+                fieldStart = true;
+            } else {
+                if (fieldStart && c == QUOTE) inQuotes = true;
+                fieldStart = false;
+            }
+        }
+        if (!eof) return -1;
+        if (inQuotes) throw new IllegalArgumentException("CSV mal formado: comillas sin cerrar");
+        return limit;
+    }
+
+    /**
+     * Recorre todos los registros completos de buf[pos, limit).
+     * Devuelve dónde empieza lo no consumido (un registro a medias si 'eof' es false).
+     */
+    public static int parseAll(char[] buf, int pos, int limit, boolean eof, FieldVisitor visitor) {
+        while (pos < limit) {
+            int next = parseRecord(buf, pos, limit, eof, visitor);
+            if (next < 0) break;
+            pos = next;
+        }
+        return pos;
+    }
+
+    // * Lectura en streaming: trozos de 64 KB; lo que queda a medias se mueve al principio del buffer
+    public static void parse(Reader in, FieldVisitor visitor) throws IOException {
+        char[] buf = new char[CHUNK];
+        int limit = 0;
+        while (true) {
+            if (limit == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);  // ? Registro más largo que el buffer
+            int n = in.read(buf, limit, buf.length - limit);
+            boolean eof = n < 0;
+            if (!eof) limit += n;
+            int pos = parseAll(buf, 0, limit, eof, visitor);
+            if (eof) return;
+            System.arraycopy(buf, pos, buf, 0, limit - pos);
+            limit -= pos;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.curso.proyectofinal.persistence;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/*
+ * ******************************************************************************************
+ * 📘 CsvLoader — Carga de ficheros CSV de datos sin pasar por readAllLines
+ *
+ * Antes: FileStorage.readAllLines metía el fichero entero en un List<String> y luego se
+ * parseaba: en el arranque se llegaba a ~3 veces el tamaño del fichero en memoria.
+ *
+ * - read(): streaming con BufferedReader + CsvCodec; solo hay en memoria un trozo de 64 KB
+ *   y el registro que se está procesando.
+ * - readParallel(): el fichero se mapea en memoria (FileChannel.map) en trozos que acaban en
+ *   '\n'; cada trozo se parsea Y se convierte en entidad en el ForkJoinPool común.
+ *   El consumidor recibe las entidades EN EL ORDEN DEL FICHERO y desde un solo hilo, así
+ *   que los repositorios no necesitan cambiar su put().
+ *   ? Un '\n' dentro de comillas puede caer justo en un corte: ese trozo no acaba limpio y
+ *   ? se vuelve a parsear junto con el siguiente (el resultado siempre es el de read()).
+ * - load(): lo que usan los repositorios. Paralelo con -Dproyectofinal.parallelLoad=true
+ *   y ficheros de más de 8 MB; streaming en el resto de casos.
+ *
+ * En ambos modos se salta la cabecera (primer registro que empieza por "id") y las líneas vacías.
+ * ******************************************************************************************
+ */
+/** Lectura de CSV de datos en streaming o en paralelo por trozos (ForkJoinPool). */
+public final class CsvLoader {
+    private CsvLoader() {}
+
+    private static final long PARALLEL_MIN_BYTES = 8L * 1024 * 1024;
+    private static final long MIN_CHUNK = 4L * 1024 * 1024;
+    private static final long MAX_CHUNK = 256L * 1024 * 1024;  // ? Cada trozo se mapea y decodifica entero
+
+    // * Se consulta en cada carga (no se cachea) para poder cambiarlo desde benchmarks
+    public static boolean parallelEnabled() {
+        return Boolean.getBoolean("proyectofinal.parallelLoad");
+    }
+
+    // * Carga de entidades: 'parser' convierte los campos en entidad, 'sink' la guarda (en orden, un solo hilo)
+    public static <T> void load(Path file, Function<List<String>, T> parser, Consumer<T> sink) {
+        try {
+            if (parallelEnabled() && Files.exists(file) && Files.size(file) >= PARALLEL_MIN_BYTES) {
+                readParallel(file, parser, sink);
+            } else {
+                read(file, f -> sink.accept(parser.apply(f)));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error leyendo fichero: " + file, e);
+        }
+    }
+
+    // ============================== Streaming ==============================
+
+    public static void read(Path file, Consumer<List<String>> action) {
+        if (!Files.exists(file)) return;
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            CsvCodec.parse(in, new Records<>(true, f -> f, action));
+        } catch (IOException e) {
+            throw new RuntimeException("Error leyendo fichero: " + file, e);
+        }
+    }
+
+    // ============================== Paralelo ==============================
+
+    public static <T> void readParallel(Path file, Function<List<String>, T> parser, Consumer<T> sink) {
+        if (!Files.exists(file)) return;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<long[]> chunks = split(ch);
+            List<Future<Chunk<T>>> tasks = new ArrayList<>(chunks.size());
+            for (int i = 0; i < chunks.size(); i++) {
+                long[] c = chunks.get(i);
+                boolean first = i == 0;
+                boolean last = i == chunks.size() - 1;
+                tasks.add(ForkJoinPool.commonPool().submit(() -> parseChunk(ch, c[0], c[1], first, last, parser)));
+            }
+
+            // * Se entregan en orden; si un trozo no acabó limpio se une con los siguientes y se repite
+            int i = 0;
+            while (i < chunks.size()) {
+                Chunk<T> r = join(tasks.get(i));
+                int j = i + 1;
+                while (!r.complete) {
+                    if (j == chunks.size()) throw new IllegalArgumentException("CSV mal formado: comillas sin cerrar");
+                    r = parseChunk(ch, chunks.get(i)[0], chunks.get(j)[1], i == 0, j == chunks.size() - 1, parser);
+                    j++;
+                }
+                for (T e : r.items) sink.accept(e);
+                for (int k = i + 1; k < j; k++) tasks.get(k).cancel(false);
+                i = j;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error leyendo fichero: " + file, e);
+        }
+    }
+
+    // * Trozos [inicio, fin) de bytes que acaban justo después de un '\n'
+    private static List<long[]> split(FileChannel ch) throws IOException {
+        long size = ch.size();
+        int parts = ForkJoinPool.commonPool().getParallelism() * 4;
+        long chunk = Math.min(MAX_CHUNK, Math.max(MIN_CHUNK, size / parts + 1));
+        List<long[]> chunks = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(8 * 1024);
+        long start = 0;
+        while (start < size) {
+            long end = start + chunk;
+            if (end >= size) {
+                end = size;
+            } else {
+                end = nextLine(ch, end, probe);
+            }
+            chunks.add(new long[] { start, end });
+            start = end;
+        }
+        return chunks;
+    }
+
+    // * Posición tras el primer '\n' a partir de 'pos' (o el final del fichero)
+    private static long nextLine(FileChannel ch, long pos, ByteBuffer probe) throws IOException {
+        while (true) {
+            probe.clear();
+            int n = ch.read(probe, pos);
+            if (n < 0) return ch.size();
+            for (int k = 0; k < n; k++) {
+                if (probe.get(k) == '\n') return pos + k + 1;
+            }
+            pos += n;
+        }
+    }
+
+    // * UTF-8 es seguro de cortar en '\n' (ese byte nunca forma parte de un carácter multibyte)
+    private static <T> Chunk<T> parseChunk(FileChannel ch, long start, long end, boolean first, boolean last,
+                                           Function<List<String>, T> parser) throws IOException {
+        MappedByteBuffer bytes = ch.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        CharBuffer chars = StandardCharsets.UTF_8.decode(bytes);
+        char[] buf = chars.array();
+        Chunk<T> r = new Chunk<>();
+        try {
+            int pos = CsvCodec.parseAll(buf, chars.arrayOffset(), chars.arrayOffset() + chars.limit(), last,
+                    new Records<>(first, parser, r.items::add));
+            r.complete = pos == chars.arrayOffset() + chars.limit();
+        } catch (IllegalArgumentException e) {
+            // ? Empezó dentro de unas comillas: lo resuelve la unión con el trozo anterior
+            if (first) throw e;
+            r.complete = false;
+        }
+        return r;
+    }
+
+    private static <T> Chunk<T> join(Future<Chunk<T>> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Carga interrumpida", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private static final class Chunk<T> {
+        final List<T> items = new ArrayList<>();
+        boolean complete;
+    }
+
+    // * Visitor: campos → List<String> → parser → sink, saltando cabecera y líneas vacías
+    private static final class Records<T> implements CsvCodec.FieldVisitor {
+        private final Function<List<String>, T> parser;
+        private final Consumer<T> sink;
+        private boolean header;
+        private List<String> current = new ArrayList<>();
+
+        Records(boolean header, Function<List<String>, T> parser, Consumer<T> sink) {
+            this.header = header;
+            this.parser = parser;
+            this.sink = sink;
+        }
+
+        @Override
+        public void field(int column, char[] buf, int start, int end) {
+            current.add(new String(buf, start, end - start));
+        }
+
+        @Override
+        public void endRecord(int columns) {
+            if (columns == 0) return;
+            List<String> f = current;
+            current = new ArrayList<>(columns);
+            boolean skip = header && f.get(0).equals("id");
+            header = false;
+            if (skip || (f.size() == 1 && f.get(0).trim().isEmpty())) return;
+            sink.accept(parser.apply(f));
+        }
+    }
+}
@@ -1,34 +1,62 @@
 package com.curso.proyectofinal.persistence;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 /*
  * ******************************************************************************************
  * 📘 CsvUtils — Utilidades CSV con separador ';'
- * - Reemplaza ';' en valores por ',' para mantener la integridad de columnas.
- * - toCsvLine(List<String>), parseCsvLine(String).
+ * - toCsvLine(List<String>), parseCsvLine(String), forEachRecord(String, ...).
+ * - Para cargar ficheros de datos grandes: CsvLoader (streaming / paralelo).
+ * - Se apoya en CsvCodec: los valores con ';', comillas o saltos de línea van entre comillas
+ *   (RFC 4180), así que se leen exactamente igual que se guardaron.
+ * ! Antes: split(";") perdía los campos vacíos del final y ';' se cambiaba por ',' al guardar.
  *
  * TODO Alumno
- * - [ ] Soportar comillas dobles para valores con ';' (CSV RFC básico).
  * - [ ] Trim de campos al parsear.
  * ******************************************************************************************
  */
-/** Utilidades simples para CSV con separador ';'. No soporta ';' en valores (se reemplaza por ','). */
+/** Utilidades CSV con separador ';' (ver CsvCodec para el formato). */
 public final class CsvUtils {
     private CsvUtils() {}
 
     public static String toCsvLine(List<String> fields) {
-        return fields.stream()
-                .map(v -> v == null ? "" : v.replace(";", ","))
-                .collect(Collectors.joining(";"));
+        return CsvCodec.encode(fields);
     }
 
     public static List<String> parseCsvLine(String line) {
-        // * Simple split por ';'. No se soportan comillas ni escapes.
-        // ? Si un valor contiene ';' se habrá reemplazado por ',' al guardarlo (toCsvLine).
-        String[] arr = line.split(";");
-        return Arrays.asList(arr);
+        Fields fields = new Fields(null);
+        CsvCodec.parseRecord(line.toCharArray(), 0, line.length(), true, fields);
+        return fields.last;
+    }
+
+    // * Recorre los registros completos de 'content' (un registro sin '\n' final se ignora si completeOnly)
+    // ? Devuelve dónde acaba el último registro leído (en chars de 'content')
+    public static int forEachRecord(String content, boolean completeOnly, Consumer<List<String>> action) {
+        char[] buf = content.toCharArray();
+        return CsvCodec.parseAll(buf, 0, buf.length, !completeOnly, new Fields(action));
+    }
+
+    // * Visitor que convierte cada registro en List<String> (aquí sí se crean Strings: son para el modelo)
+    private static final class Fields implements CsvCodec.FieldVisitor {
+        private final Consumer<List<String>> action;
+        private List<String> current = new ArrayList<>();
+        private List<String> last = new ArrayList<>();
+
+        Fields(Consumer<List<String>> action) { this.action = action; }
+
+        @Override
+        public void field(int column, char[] buf, int start, int end) {
+            current.add(new String(buf, start, end - start));
+        }
+
+        @Override
+        public void endRecord(int columns) {
+            if (columns == 0) return;  // * Línea vacía
+            last = current;
+            current = new ArrayList<>(columns);
+            if (action != null) action.accept(last);
+        }
     }
 }
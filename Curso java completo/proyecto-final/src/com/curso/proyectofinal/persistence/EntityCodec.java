@@ -0,0 +1,25 @@
+package com.curso.proyectofinal.persistence;
+
+import java.util.List;
+
+/*
+ * ******************************************************************************************
+ * 📘 EntityCodec<T> — Cómo se guarda una entidad en una fila CSV
+ * - header(): cabecera del fichero (ej.: "id;nombre;email;fechaNacimiento").
+ * - id(e): clave de la entidad en el repositorio.
+ * - toFields(e) / fromFields(campos): serializar y deserializar (la primera columna es el id).
+ *
+ * Cada repositorio CSV define el suyo; ConcurrentCsvRepository hace el resto.
+ * ******************************************************************************************
+ */
+/** Conversión entidad ↔ campos CSV. */
+public interface EntityCodec<T> {
+    String header();
+
+    String id(T entity);
+
+    List<String> toFields(T entity);
+
+    // ! Puede lanzar excepciones si la fila está mal formada (fecha/enum/número inválidos)
+    T fromFields(List<String> fields);
+}
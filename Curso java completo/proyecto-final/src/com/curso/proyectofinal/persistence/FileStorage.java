@@ -1,16 +1,31 @@
 package com.curso.proyectofinal.persistence;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 
 /*
  * ******************************************************************************************
  * 📘 FileStorage — IO utilitario de ficheros (UTF-8)
- * readAllLines(path) y writeLines(path, lines) con manejo de excepciones.
+ * readAllLines(path), readString(path) y writeLines(path, lines) con manejo de excepciones.
+ *
+ * Escritura atómica (snapshot) en writeLines:
+ * 1. Se escribe en "<fichero>.tmp" (mismo directorio) con un FileChannel y un buffer directo de 1 MB.
+ * 2. force(): los datos llegan al disco antes de seguir.
+ * 3. Rotación de copias: fichero.1 (la anterior), fichero.2, ... hasta N (-Dproyectofinal.backups, 2 por defecto).
+ * 4. ATOMIC_MOVE del .tmp sobre el original: quien lea ve el fichero viejo o el nuevo, nunca uno a medias.
+ * ! Antes se usaba Files.write directamente sobre el fichero: un corte a mitad lo dejaba truncado.
  *
  * TODO Alumno
  * - [ ] Añadir opción de append (writeLinesAppend).
@@ -21,6 +36,9 @@ import java.util.List;
 public final class FileStorage {
     private FileStorage() {}
 
+    private static final int BUFFER_SIZE = 1 << 20;  // * 1 MB
+    public static final int DEFAULT_BACKUPS = Integer.getInteger("proyectofinal.backups", 2);
+
     public static List<String> readAllLines(Path path) {
         try {
             if (!Files.exists(path)) return new ArrayList<>();
@@ -32,15 +50,102 @@ public final class FileStorage {
         }
     }
 
+    // * Fichero completo como texto ("" si no existe): para CSV con saltos de línea dentro de comillas
+    public static String readString(Path path) {
+        try {
+            if (!Files.exists(path)) return "";
+            return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Error leyendo fichero: " + path, e);
+        }
+    }
+
     public static void writeLines(Path path, List<String> lines) {
+        writeLines(path, lines, DEFAULT_BACKUPS);
+    }
+
+    // * Escritura atómica guardando 'backups' copias anteriores (0 = ninguna)
+    public static void writeLines(Path path, List<String> lines, int backups) {
         try {
             if (path.getParent() != null && !Files.exists(path.getParent())) {
                 Files.createDirectories(path.getParent());
             }
-            Files.write(path, lines, StandardCharsets.UTF_8);
+            // ? Nombre fijo: si un corte dejó un .tmp viejo, se sobrescribe en la siguiente escritura
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            writeAndForce(tmp, lines);
+            rotateBackups(path, backups);
+            try {
+                Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            forceDirectory(path);
         } catch (IOException e) {
             // ! Error de escritura: importante avisar claramente al usuario/operador.
             throw new RuntimeException("Error escribiendo fichero: " + path, e);
         }
     }
+
+    // * Codifica las líneas a UTF-8 en un buffer directo y lo vuelca al canal cuando se llena
+    private static void writeAndForce(Path tmp, List<String> lines) throws IOException {
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        CharBuffer separator = CharBuffer.wrap(System.lineSeparator());
+        ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (String line : lines) {
+                encode(encoder, CharBuffer.wrap(line), buf, ch);
+                encode(encoder, separator.rewind(), buf, ch);
+            }
+            buf.flip();
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+    }
+
+    private static void encode(CharsetEncoder encoder, CharBuffer in, ByteBuffer buf, FileChannel ch) throws IOException {
+        while (true) {
+            CoderResult r = encoder.encode(in, buf, false);
+            if (r.isUnderflow()) return;
+            if (r.isOverflow()) {
+                buf.flip();
+                while (buf.hasRemaining()) ch.write(buf);
+                buf.clear();
+            } else {
+                r.throwException();
+            }
+        }
+    }
+
+    // * fichero.(N-1) → fichero.N, ..., fichero.1 → fichero.2 y el actual pasa a ser fichero.1
+    private static void rotateBackups(Path path, int backups) throws IOException {
+        if (backups <= 0 || !Files.exists(path)) return;
+        for (int i = backups - 1; i >= 1; i--) {
+            Path from = backup(path, i);
+            if (Files.exists(from)) Files.move(from, backup(path, i + 1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        // ? Enlace duro: O(1) y el original sigue en su sitio hasta el ATOMIC_MOVE
+        Path first = backup(path, 1);
+        Files.deleteIfExists(first);
+        try {
+            Files.createLink(first, path);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(path, first, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public static Path backup(Path path, int n) {
+        return path.resolveSibling(path.getFileName() + "." + n);
+    }
+
+    // * En Linux/macOS el rename solo es duradero tras hacer fsync del directorio; en Windows no se puede (se ignora)
+    private static void forceDirectory(Path path) {
+        Path dir = path.toAbsolutePath().getParent();
+        if (dir == null) return;
+        try (FileChannel ch = FileChannel.open(dir, StandardOpenOption.READ)) {
+            ch.force(true);
+        } catch (IOException | RuntimeException e) {
+            // ? No soportado en este sistema: el ATOMIC_MOVE ya garantiza que no hay fichero a medias
+        }
+    }
 }
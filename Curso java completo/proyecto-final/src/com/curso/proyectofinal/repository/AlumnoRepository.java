@@ -1,15 +1,14 @@
 package com.curso.proyectofinal.repository;
 
 import com.curso.proyectofinal.model.Alumno;
-import com.curso.proyectofinal.persistence.CsvUtils;
-import com.curso.proyectofinal.persistence.FileStorage;
+import com.curso.proyectofinal.persistence.EntityCodec;
 import com.curso.proyectofinal.util.DateUtils;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 /*
  * ******************************************************************************************
@@ -18,6 +17,9 @@ import java.util.stream.Collectors;
  * - Fichero: resources/data/alumnos.csv
  * - Cabecera: id;nombre;email;fechaNacimiento
  * - Serializa LocalDate con DateUtils (yyyy-MM-dd) o vacío si null.
+ * - Cambios: se añaden a resources/data/alumnos.log (ChangeLog); el CSV se reescribe al compactar.
+ * - Índice secundario email (minúsculas) → id: findByEmail es O(1) en vez de recorrer todos.
+ * - Concurrencia, carga y compactación: ver ConcurrentCsvRepository.
  *
  * TODO Alumno
  * - [ ] Implementar count() y deleteAll().
@@ -27,77 +29,73 @@ import java.util.stream.Collectors;
 /**
  * Repositorio de alumnos con persistencia CSV.
  */
-public class AlumnoRepository implements Repository<Alumno> {
-    private final Path file = Paths.get("resources", "data", "alumnos.csv");
-    private final Map<String, Alumno> data = new LinkedHashMap<>();
+public class AlumnoRepository extends ConcurrentCsvRepository<Alumno> {
+    // * Índice secundario: email en minúsculas → id del alumno
+    private final Map<String, String> idPorEmail = new ConcurrentHashMap<>();
+    // ? Email con el que se indexó cada id: el objeto puede haberse modificado antes de update()
+    private final Map<String, String> emailIndexado = new ConcurrentHashMap<>();
 
     public AlumnoRepository() {
-        load();
+        this(Paths.get("resources", "data", "alumnos.csv"));
     }
 
-    // * Carga inicial desde CSV a memoria (Map ordenado por inserción)
-    private void load() {
-        data.clear();
-        List<String> lines = FileStorage.readAllLines(file);
-        for (int i = 0; i < lines.size(); i++) {
-            String line = lines.get(i);
-            // * Saltamos la cabecera si existe (primera línea que comienza por "id;")
-            if (i == 0 && line.startsWith("id;")) continue; // cabecera
-            if (line.trim().isEmpty()) continue;
-            List<String> f = CsvUtils.parseCsvLine(line);
+    // * Permite usar otro fichero (pruebas, benchmarks)
+    public AlumnoRepository(Path file) {
+        super(file, new Codec());
+        open();
+    }
+
+    private static final class Codec implements EntityCodec<Alumno> {
+        @Override
+        public String header() { return "id;nombre;email;fechaNacimiento"; }
+
+        @Override
+        public String id(Alumno a) { return a.getId(); }
+
+        @Override
+        public Alumno fromFields(List<String> f) {
             String id = f.get(0);
             String nombre = f.get(1);
             String email = f.get(2);
             // ? El campo fecha puede estar vacío: en ese caso dejamos null.
             LocalDate fnac = f.get(3).isEmpty() ? null : DateUtils.parse(f.get(3));
-            data.put(id, new Alumno(id, nombre, email, fnac));
+            return new Alumno(id, nombre, email, fnac);
         }
-    }
 
-    // * Persistencia: reescribe CSV completo (con cabecera)
-    private void persist() {
-        List<String> lines = new ArrayList<>();
-        lines.add("id;nombre;email;fechaNacimiento");
-        lines.addAll(data.values().stream().map(a ->
-                CsvUtils.toCsvLine(Arrays.asList(
-                        a.getId(), a.getNombre(), a.getEmail(),
-            // * Formateamos la fecha a yyyy-MM-dd o cadena vacía si es null
-            a.getFechaNacimiento() == null ? "" : DateUtils.format(a.getFechaNacimiento())
-                ))
-        ).collect(Collectors.toList()));
-        FileStorage.writeLines(file, lines);
+        @Override
+        public List<String> toFields(Alumno a) {
+            return Arrays.asList(
+                    a.getId(), a.getNombre(), a.getEmail(),
+                    // * Formateamos la fecha a yyyy-MM-dd o cadena vacía si es null
+                    a.getFechaNacimiento() == null ? "" : DateUtils.format(a.getFechaNacimiento()));
+        }
     }
 
+    // * Mantenimiento del índice: quitar la entrada antigua del id y añadir la nueva
     @Override
-    public List<Alumno> findAll() { return new ArrayList<>(data.values()); }
-
-    @Override
-    public Optional<Alumno> findById(String id) { return Optional.ofNullable(data.get(id)); }
-
-    public Optional<Alumno> findByEmail(String email) {
-        return data.values().stream().filter(a -> a.getEmail().equalsIgnoreCase(email)).findFirst();
+    protected void onPut(Alumno previous, Alumno a) {
+        desindexar(a.getId());
+        if (a.getEmail() == null) return;
+        String clave = a.getEmail().toLowerCase(Locale.ROOT);
+        idPorEmail.put(clave, a.getId());
+        emailIndexado.put(a.getId(), clave);
     }
 
-    // TODO: Búsqueda por nombre contiene (case-insensitive)
-
     @Override
-    public Alumno save(Alumno entity) {
-        data.put(entity.getId(), entity);
-        persist();
-        return entity;
-    }
+    protected void onRemove(Alumno previous) { desindexar(previous.getId()); }
 
-    @Override
-    public Alumno update(Alumno entity) {
-        data.put(entity.getId(), entity);
-        persist();
-        return entity;
+    private void desindexar(String id) {
+        String clave = emailIndexado.remove(id);
+        // ? Solo borramos si el email sigue apuntando a este id
+        if (clave != null) idPorEmail.remove(clave, id);
     }
 
-    @Override
-    public boolean delete(String id) {
-        boolean removed = data.remove(id) != null;
-        if (removed) persist();
-        return removed;
+    // * O(1): consulta el índice email → id (sin distinguir mayúsculas)
+    public Optional<Alumno> findByEmail(String email) {
+        if (email == null) return Optional.empty();
+        String id = idPorEmail.get(email.toLowerCase(Locale.ROOT));
+        return id == null ? Optional.empty() : findById(id);
     }
+
+    // TODO: Búsqueda por nombre contiene (case-insensitive)
 }
@@ -0,0 +1,275 @@
+/*
+ * ******************************************************************************************
+ * 📘 ConcurrentCsvRepository<T> — Base común de los repositorios CSV, segura entre hilos
+ *
+ * Lo que antes copiaba cada repositorio (mapa + load() + compact() + save/update/delete)
+ * está aquí una sola vez; cada repositorio solo aporta su EntityCodec y sus índices.
+ *
+ * Concurrencia:
+ * - findById: lectura sin bloqueos sobre un ConcurrentHashMap.
+ * - save/update/delete: cerrojo por id (stripes: 64 ReentrantLock repartidos por hash del id).
+ *   Dos hilos con ids distintos escriben a la vez; con el mismo id, uno detrás de otro.
+ *   Con el cerrojo solo se cambia la memoria y se encola el cambio en el ChangeLog; la
+ *   escritura al fichero (y el force() con fsync ALWAYS) se hace después, fuera de cerrojos,
+ *   compartida entre los hilos que llegan a la vez (group commit).
+ * - findAll: foto consistente sin bloquear a nadie. Con el read lock (compartido con escrituras
+ *   y con otros findAll) copia el mapa ordenado y comprueba con dos contadores de escrituras
+ *   (empezadas/terminadas) que ninguna estaba en curso ni empezó durante la copia; si no, la
+ *   repite. Tras 3 intentos fallidos toma el write lock y copia sin competencia.
+ * - compact/addListener: cerrojo exclusivo (write lock): esperan a que no haya escrituras en
+ *   curso y ven una foto real del repositorio, nunca una mezcla.
+ * - Orden: findAll mantiene el orden de inserción (como el LinkedHashMap de antes) gracias a
+ *   un número de secuencia por entidad.
+ * - Lotes: beginBatch()/commitBatch() agrupan en el ChangeLog los cambios del hilo que abre
+ *   el lote hasta el commit; los demás hilos siguen escribiendo con su durabilidad normal.
+ *   Ver ChangeLog para la agrupación automática.
+ * - Observadores: addListener() recibe el contenido actual como altas y después cada cambio
+ *   (p. ej. estadísticas incrementales), sin huecos ni duplicados entre una cosa y otra.
+ *
+ * Para subclases:
+ * - Llamar a open() AL FINAL del constructor (cuando sus índices ya existen).
+ * - onPut/onRemove: mantener índices secundarios. Se llaman con el cerrojo del id tomado,
+ *   pero hilos con otros ids pueden estar dentro a la vez: los índices deben ser concurrentes.
+ * ******************************************************************************************
+ */
+package com.curso.proyectofinal.repository;
+
+import com.curso.proyectofinal.persistence.ChangeLog;
+import com.curso.proyectofinal.persistence.CsvLoader;
+import com.curso.proyectofinal.persistence.CsvUtils;
+import com.curso.proyectofinal.persistence.EntityCodec;
+import com.curso.proyectofinal.persistence.FileStorage;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public abstract class ConcurrentCsvRepository<T> implements Repository<T> {
+    private static final int STRIPES = 64;
+
+    private final Path file;
+    private final EntityCodec<T> codec;
+    // * Cambios desde el último snapshot (ver ChangeLog)
+    private final ChangeLog log;
+
+    // * id → hueco (secuencia de inserción + valor actual); orden → hueco para findAll
+    private final ConcurrentHashMap<String, Slot<T>> data = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Slot<T>> order = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    // * Escrituras empezadas/terminadas: si coinciden antes y después de copiar, la copia es una foto
+    private final AtomicLong writesStarted = new AtomicLong();
+    private final AtomicLong writesFinished = new AtomicLong();
+    private static final int SNAPSHOT_RETRIES = 3;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final ReentrantReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+    private final List<RepositoryListener<T>> listeners = new CopyOnWriteArrayList<>();
+
+    private static final class Slot<T> {
+        final long seq;
+        volatile T value;
+
+        Slot(long seq, T value) {
+            this.seq = seq;
+            this.value = value;
+        }
+    }
+
+    protected ConcurrentCsvRepository(Path file, EntityCodec<T> codec) {
+        this.file = file;
+        this.codec = codec;
+        this.log = new ChangeLog(ChangeLog.besides(file));
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantLock();
+    }
+
+    // * Carga inicial (snapshot CSV + log de cambios) y arranque de la compactación en segundo plano
+    protected final void open() {
+        // * Streaming (o en paralelo con -Dproyectofinal.parallelLoad=true); cabecera y líneas vacías las salta CsvLoader
+        CsvLoader.load(file, codec::fromFields, this::put);
+        // * Después del snapshot, aplicamos encima los cambios del log
+        log.replay(f -> put(codec.fromFields(f)), this::remove);
+        log.startBackground(this::compact);
+    }
+
+    // ============================== Hooks para índices ==============================
+
+    // * 'previous' es null si el id no existía
+    protected void onPut(T previous, T current) {}
+
+    protected void onRemove(T previous) {}
+
+    // * Registra un observador: primero recibe cada entidad actual como alta (previous null) y
+    // * luego todos los cambios. Con el write lock: ninguna escritura se cuela entre las dos cosas.
+    public void addListener(RepositoryListener<T> listener) {
+        snapshotLock.writeLock().lock();
+        try {
+            for (Slot<T> s : order.values()) listener.changed(null, s.value);
+            listeners.add(listener);
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    public void removeListener(RepositoryListener<T> listener) { listeners.remove(listener); }
+
+    // ============================== Repository<T> ==============================
+
+    @Override
+    public List<T> findAll() {
+        snapshotLock.readLock().lock();
+        try {
+            for (int i = 0; i < SNAPSHOT_RETRIES; i++) {
+                // * Primero terminadas, luego empezadas: si coinciden, no hay ninguna a medias
+                // ! (al revés, una escritura que empieza y acaba entre las dos lecturas taparía otra en curso)
+                long finished = writesFinished.get();
+                long started = writesStarted.get();
+                if (started != finished) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                List<T> list = copy();
+                if (writesStarted.get() == started) return list;  // * Nadie escribió durante la copia
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+        // * Demasiadas escrituras seguidas: esperamos a que acaben las que hay y copiamos solos
+        snapshotLock.writeLock().lock();
+        try {
+            return copy();
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    private List<T> copy() {
+        List<T> list = new ArrayList<>(order.size());
+        for (Slot<T> s : order.values()) list.add(s.value);
+        return list;
+    }
+
+    @Override
+    public Optional<T> findById(String id) {
+        Slot<T> s = id == null ? null : data.get(id);
+        return s == null ? Optional.empty() : Optional.ofNullable(s.value);
+    }
+
+    public int size() { return data.size(); }
+
+    @Override
+    public T save(T entity) { return upsert(entity); }
+
+    @Override
+    public T update(T entity) { return upsert(entity); }
+
+    @Override
+    public boolean delete(String id) {
+        long ticket = 0;
+        snapshotLock.readLock().lock();
+        ReentrantLock stripe = stripe(id);
+        stripe.lock();
+        writesStarted.incrementAndGet();
+        try {
+            if (!remove(id)) return false;
+            ticket = log.delete(id);
+        } finally {
+            writesFinished.incrementAndGet();
+            stripe.unlock();
+            snapshotLock.readLock().unlock();
+        }
+        log.commit(ticket);
+        return true;
+    }
+
+    private T upsert(T entity) {
+        String id = codec.id(entity);
+        snapshotLock.readLock().lock();
+        ReentrantLock stripe = stripe(id);
+        stripe.lock();
+        writesStarted.incrementAndGet();
+        long ticket;
+        try {
+            put(entity);
+            ticket = log.upsert(codec.toFields(entity));
+        } finally {
+            writesFinished.incrementAndGet();
+            stripe.unlock();
+            snapshotLock.readLock().unlock();
+        }
+        // * Escritura (y force) ya sin cerrojos: los hilos que llegan a la vez la comparten
+        log.commit(ticket);
+        return entity;
+    }
+
+    // * Compactación: reescribe el CSV completo (snapshot con cabecera) y vacía el log.
+    // ? La lanza ChangeLog en segundo plano cada N cambios; también se puede llamar a mano.
+    public void compact() {
+        snapshotLock.writeLock().lock();
+        try {
+            List<String> lines = new ArrayList<>(order.size() + 1);
+            lines.add(codec.header());
+            for (Slot<T> s : order.values()) lines.add(CsvUtils.toCsvLine(codec.toFields(s.value)));
+            FileStorage.writeLines(file, lines);
+            log.truncate();
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void beginBatch() { log.beginBatch(); }
+
+    @Override
+    public int commitBatch() { return log.commitBatch(); }
+
+    // * Escrituras al log y cambios por escritura (cuánto se está agrupando)
+    public String batchStats() {
+        long flushes = log.getFlushes();
+        long records = log.getFlushedRecords();
+        return String.format("%d escrituras agrupadas, %d cambios (%.1f por escritura, última: %d)",
+                flushes, records, flushes == 0 ? 0.0 : (double) records / flushes, log.getLastFlushSize());
+    }
+
+    // * fsync de los cambios pendientes y parada de la compactación en segundo plano
+    public void close() { log.close(); }
+
+    // ============================== Interno ==============================
+
+    private ReentrantLock stripe(String id) {
+        int h = id.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    // * Cambios en memoria (mapa + índices); la persistencia la hace el llamador
+    private void put(T entity) {
+        String id = codec.id(entity);
+        Slot<T> s = data.get(id);
+        T previous = null;
+        if (s == null) {
+            s = new Slot<>(sequence.incrementAndGet(), entity);
+            data.put(id, s);
+            order.put(s.seq, s);
+        } else {
+            previous = s.value;
+            s.value = entity;
+        }
+        onPut(previous, entity);
+        for (RepositoryListener<T> l : listeners) l.changed(previous, entity);
+    }
+
+    private boolean remove(String id) {
+        Slot<T> s = data.remove(id);
+        if (s == null) return false;
+        order.remove(s.seq);
+        onRemove(s.value);
+        for (RepositoryListener<T> l : listeners) l.changed(s.value, null);
+        return true;
+    }
+}
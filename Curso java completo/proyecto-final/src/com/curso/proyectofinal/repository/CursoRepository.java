@@ -2,7 +2,10 @@
  * ******************************************************************************************
  * 📘 CursoRepository — Persistencia CSV de Curso
  * Fichero: resources/data/cursos.csv
- * Cabecera: id;nombre;tipo;fechaInicio;fechaFin;precio
+ * Cabecera: id;nombre;tipo;fechaInicio;fechaFin;precio;capacidad
+ * ? capacidad es opcional al leer: los CSV/logs anteriores (6 columnas) cargan como "sin límite" (0).
+ * Cambios: se añaden a resources/data/cursos.log (ChangeLog); el CSV se reescribe al compactar.
+ * Concurrencia, carga y compactación: ver ConcurrentCsvRepository.
  *
  * TODO Alumno
  * - [ ] Implementar count()/deleteAll().
@@ -13,31 +16,34 @@ package com.curso.proyectofinal.repository;
 
 import com.curso.proyectofinal.model.Curso;
 import com.curso.proyectofinal.model.CursoTipo;
-import com.curso.proyectofinal.persistence.CsvUtils;
-import com.curso.proyectofinal.persistence.FileStorage;
+import com.curso.proyectofinal.persistence.EntityCodec;
 import com.curso.proyectofinal.util.DateUtils;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.Arrays;
+import java.util.List;
 
-public class CursoRepository implements Repository<Curso> {
-    private final Path file = Paths.get("resources", "data", "cursos.csv");
-    private final Map<String, Curso> data = new LinkedHashMap<>();
+public class CursoRepository extends ConcurrentCsvRepository<Curso> {
 
-    public CursoRepository() { load(); }
+    public CursoRepository() { this(Paths.get("resources", "data", "cursos.csv")); }
 
-    // * Carga inicial desde CSV a memoria
-    private void load() {
-        data.clear();
-        List<String> lines = FileStorage.readAllLines(file);
-        for (int i = 0; i < lines.size(); i++) {
-            String line = lines.get(i);
-            if (i == 0 && line.startsWith("id;")) continue;
-            if (line.trim().isEmpty()) continue;
-            List<String> f = CsvUtils.parseCsvLine(line);
+    // * Permite usar otro fichero (pruebas, benchmarks)
+    public CursoRepository(Path file) {
+        super(file, new Codec());
+        open();
+    }
+
+    private static final class Codec implements EntityCodec<Curso> {
+        @Override
+        public String header() { return "id;nombre;tipo;fechaInicio;fechaFin;precio;capacidad"; }
+
+        @Override
+        public String id(Curso c) { return c.getId(); }
+
+        @Override
+        public Curso fromFields(List<String> f) {
             String id = f.get(0);
             String nombre = f.get(1);
             // ? Parseo de campos: algunos pueden estar vacíos en CSV
@@ -46,49 +52,17 @@ public class CursoRepository implements Repository<Curso> {
             LocalDate fin = f.get(4).isEmpty() ? null : DateUtils.parse(f.get(4));
             // * Precio: si vacío, asumimos 0.0; ojo con NumberFormatException si CSV mal formado.
             double precio = f.get(5).isEmpty() ? 0.0 : Double.parseDouble(f.get(5));
-            data.put(id, new Curso(id, nombre, tipo, ini, fin, precio));
+            int capacidad = f.size() < 7 || f.get(6).isEmpty() ? 0 : Integer.parseInt(f.get(6));
+            return new Curso(id, nombre, tipo, ini, fin, precio, capacidad);
         }
-    }
-
-    // * Persistencia: reescribe CSV con cabecera
-    private void persist() {
-        List<String> lines = new ArrayList<>();
-        lines.add("id;nombre;tipo;fechaInicio;fechaFin;precio");
-        lines.addAll(data.values().stream().map(c ->
-                CsvUtils.toCsvLine(Arrays.asList(
-                        c.getId(), c.getNombre(), c.getTipo() == null ? "" : c.getTipo().name(),
-                        c.getFechaInicio() == null ? "" : DateUtils.format(c.getFechaInicio()),
-                        c.getFechaFin() == null ? "" : DateUtils.format(c.getFechaFin()),
-                        String.valueOf(c.getPrecio())
-                ))
-        ).collect(Collectors.toList()));
-        FileStorage.writeLines(file, lines);
-    }
 
-    @Override
-    public List<Curso> findAll() { return new ArrayList<>(data.values()); }
-
-    @Override
-    public Optional<Curso> findById(String id) { return Optional.ofNullable(data.get(id)); }
-
-    @Override
-    public Curso save(Curso entity) {
-        data.put(entity.getId(), entity);
-        persist();
-        return entity;
-    }
-
-    @Override
-    public Curso update(Curso entity) {
-        data.put(entity.getId(), entity);
-        persist();
-        return entity;
-    }
-
-    @Override
-    public boolean delete(String id) {
-        boolean removed = data.remove(id) != null;
-        if (removed) persist();
-        return removed;
+        @Override
+        public List<String> toFields(Curso c) {
+            return Arrays.asList(
+                    c.getId(), c.getNombre(), c.getTipo() == null ? "" : c.getTipo().name(),
+                    c.getFechaInicio() == null ? "" : DateUtils.format(c.getFechaInicio()),
+                    c.getFechaFin() == null ? "" : DateUtils.format(c.getFechaFin()),
+                    String.valueOf(c.getPrecio()), String.valueOf(c.getCapacidad()));
+        }
     }
 }
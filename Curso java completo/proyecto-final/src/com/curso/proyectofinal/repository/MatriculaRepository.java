@@ -3,6 +3,17 @@
  * 📘 MatriculaRepository — Persistencia CSV de Matricula
  * Fichero: resources/data/matriculas.csv
  * Cabecera: id;alumnoId;cursoId;fechaMatricula;estado
+ * Cambios: se añaden a resources/data/matriculas.log (ChangeLog); el CSV se reescribe al compactar.
+ *
+ * Índices secundarios (se mantienen en load/save/update/delete):
+ * - alumnoId → matrículas, cursoId → matrículas (findByAlumnoId / findByCursoId en O(1)).
+ * - (alumnoId, cursoId) → ids de matrículas ACTIVA (detección de duplicados en O(1)).
+ * - (alumnoId, cursoId) → ids de matrículas EN_ESPERA (no apuntarse dos veces a la lista de espera).
+ *   ? Varios ids por par: un CSV antiguo puede traer dos ACTIVA del mismo par; anular una no
+ *   ? debe "olvidar" la otra.
+ * - update(): cada índice se cambia en el sitio (primero se añade lo nuevo y luego se quita lo
+ *   viejo, y solo si la clave cambia): un lector concurrente nunca ve el par o el curso vacío.
+ * Concurrencia, carga y compactación: ver ConcurrentCsvRepository (los índices son concurrentes).
  *
  * TODO Alumno
  * - [ ] Implementar count()/deleteAll().
@@ -13,31 +24,44 @@ package com.curso.proyectofinal.repository;
 
 import com.curso.proyectofinal.model.EstadoMatricula;
 import com.curso.proyectofinal.model.Matricula;
-import com.curso.proyectofinal.persistence.CsvUtils;
-import com.curso.proyectofinal.persistence.FileStorage;
+import com.curso.proyectofinal.persistence.EntityCodec;
 import com.curso.proyectofinal.util.DateUtils;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
-
-public class MatriculaRepository implements Repository<Matricula> {
-    private final Path file = Paths.get("resources", "data", "matriculas.csv");
-    private final Map<String, Matricula> data = new LinkedHashMap<>();
-
-    public MatriculaRepository() { load(); }
-
-    // * Carga inicial desde CSV
-    private void load() {
-        data.clear();
-        List<String> lines = FileStorage.readAllLines(file);
-        for (int i = 0; i < lines.size(); i++) {
-            String line = lines.get(i);
-            if (i == 0 && line.startsWith("id;")) continue;
-            if (line.trim().isEmpty()) continue;
-            List<String> f = CsvUtils.parseCsvLine(line);
+import java.util.concurrent.ConcurrentHashMap;
+
+public class MatriculaRepository extends ConcurrentCsvRepository<Matricula> {
+    // * Índices secundarios: clave → (id → matrícula), en orden de inserción
+    // ? Cada grupo es un LinkedHashMap sincronizado; altas y bajas de grupos van por compute() (atómico)
+    private final ConcurrentHashMap<String, Map<String, Matricula>> porAlumno = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Map<String, Matricula>> porCurso = new ConcurrentHashMap<>();
+    // * (alumnoId, cursoId) → ids de las matrículas ACTIVA / EN_ESPERA
+    private final ConcurrentHashMap<String, Set<String>> activasPorPar = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> esperaPorPar = new ConcurrentHashMap<>();
+    // ? Valores con los que se indexó cada id {alumnoId, cursoId, estado}: el objeto
+    // ? puede haberse modificado (p. ej. anular() cambia el estado) antes de update()
+    private final Map<String, String[]> indexado = new ConcurrentHashMap<>();
+
+    public MatriculaRepository() { this(Paths.get("resources", "data", "matriculas.csv")); }
+
+    // * Permite usar otro fichero (pruebas, benchmarks)
+    public MatriculaRepository(Path file) {
+        super(file, new Codec());
+        open();
+    }
+
+    private static final class Codec implements EntityCodec<Matricula> {
+        @Override
+        public String header() { return "id;alumnoId;cursoId;fechaMatricula;estado"; }
+
+        @Override
+        public String id(Matricula m) { return m.getId(); }
+
+        @Override
+        public Matricula fromFields(List<String> f) {
             String id = f.get(0);
             String alumnoId = f.get(1);
             String cursoId = f.get(2);
@@ -45,61 +69,125 @@ public class MatriculaRepository implements Repository<Matricula> {
             LocalDate fecha = f.get(3).isEmpty() ? null : DateUtils.parse(f.get(3));
             // * Estado: si vacío, por compatibilidad asumimos ACTIVA.
             EstadoMatricula estado = f.get(4).isEmpty() ? EstadoMatricula.ACTIVA : EstadoMatricula.valueOf(f.get(4));
-            data.put(id, new Matricula(id, alumnoId, cursoId, fecha, estado));
+            return new Matricula(id, alumnoId, cursoId, fecha, estado);
         }
-    }
 
-    // * Persistencia: reescribe CSV con cabecera
-    private void persist() {
-        List<String> lines = new ArrayList<>();
-        lines.add("id;alumnoId;cursoId;fechaMatricula;estado");
-        lines.addAll(data.values().stream().map(m ->
-                CsvUtils.toCsvLine(Arrays.asList(
-                        m.getId(), m.getAlumnoId(), m.getCursoId(),
-                        m.getFechaMatricula() == null ? "" : DateUtils.format(m.getFechaMatricula()),
-                        m.getEstado() == null ? "" : m.getEstado().name()
-                ))
-        ).collect(Collectors.toList()));
-        FileStorage.writeLines(file, lines);
+        @Override
+        public List<String> toFields(Matricula m) {
+            return Arrays.asList(
+                    m.getId(), m.getAlumnoId(), m.getCursoId(),
+                    m.getFechaMatricula() == null ? "" : DateUtils.format(m.getFechaMatricula()),
+                    m.getEstado() == null ? "" : m.getEstado().name());
+        }
     }
 
+    // * Mantenimiento de índices: comparar lo indexado antes para ese id con lo actual
     @Override
-    public List<Matricula> findAll() { return new ArrayList<>(data.values()); }
+    protected void onPut(Matricula previous, Matricula m) {
+        String id = m.getId();
+        EstadoMatricula estado = m.getEstado();
+        String[] ahora = { m.getAlumnoId(), m.getCursoId(), estado == null ? "" : estado.name() };
+        String[] antes = indexado.put(id, ahora);
+        // * Grupos por alumno/curso: misma clave → se reemplaza el valor en su sitio (mantiene el orden)
+        mover(porAlumno, antes == null ? null : antes[0], ahora[0], m);
+        mover(porCurso, antes == null ? null : antes[1], ahora[1], m);
+        // * Par: si cambia de índice (ACTIVA → ANULADA...) o de par, primero alta en el nuevo y luego baja del viejo
+        String parAntes = antes == null ? null : par(antes[0], antes[1]);
+        Map<String, Set<String>> indiceAntes = antes == null ? null : porPar(antes[2]);
+        String parAhora = par(ahora[0], ahora[1]);
+        Map<String, Set<String>> indiceAhora = porPar(ahora[2]);
+        if (indiceAntes == indiceAhora && parAhora.equals(parAntes)) return;
+        if (indiceAhora != null) anadirId(indiceAhora, parAhora, id);
+        if (indiceAntes != null) quitarId(indiceAntes, parAntes, id);
+    }
 
     @Override
-    public Optional<Matricula> findById(String id) { return Optional.ofNullable(data.get(id)); }
+    protected void onRemove(Matricula previous) {
+        String id = previous.getId();
+        String[] prev = indexado.remove(id);
+        if (prev == null) return;
+        quitar(porAlumno, prev[0], id);
+        quitar(porCurso, prev[1], id);
+        Map<String, Set<String>> indice = porPar(prev[2]);
+        if (indice != null) quitarId(indice, par(prev[0], prev[1]), id);
+    }
 
-    @Override
-    public Matricula save(Matricula entity) {
-        data.put(entity.getId(), entity);
-        persist();
-        return entity;
+    // * Índice por par que corresponde a un estado (null: estados sin índice)
+    private Map<String, Set<String>> porPar(String estado) {
+        if (estado.equals(EstadoMatricula.ACTIVA.name())) return activasPorPar;
+        if (estado.equals(EstadoMatricula.EN_ESPERA.name())) return esperaPorPar;
+        return null;
     }
 
-    @Override
-    public Matricula update(Matricula entity) {
-        data.put(entity.getId(), entity);
-        persist();
-        return entity;
+    private static void anadirId(Map<String, Set<String>> indice, String clave, String id) {
+        indice.compute(clave, (k, ids) -> {
+            if (ids == null) ids = ConcurrentHashMap.newKeySet();
+            ids.add(id);
+            return ids;
+        });
     }
 
-    @Override
-    public boolean delete(String id) {
-        boolean removed = data.remove(id) != null;
-        if (removed) persist();
-        return removed;
+    private static void quitarId(Map<String, Set<String>> indice, String clave, String id) {
+        indice.computeIfPresent(clave, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static void mover(ConcurrentHashMap<String, Map<String, Matricula>> indice, String antes, String ahora, Matricula m) {
+        poner(indice, ahora, m);
+        if (antes != null && !antes.equals(ahora)) quitar(indice, antes, m.getId());
+    }
+
+    private static void poner(ConcurrentHashMap<String, Map<String, Matricula>> indice, String clave, Matricula m) {
+        indice.compute(clave, (k, grupo) -> {
+            if (grupo == null) grupo = Collections.synchronizedMap(new LinkedHashMap<>());
+            grupo.put(m.getId(), m);
+            return grupo;
+        });
+    }
+
+    private static void quitar(ConcurrentHashMap<String, Map<String, Matricula>> indice, String clave, String id) {
+        indice.computeIfPresent(clave, (k, grupo) -> {
+            grupo.remove(id);
+            return grupo.isEmpty() ? null : grupo;
+        });
+    }
+
+    private static List<Matricula> copiar(Map<String, Matricula> grupo) {
+        if (grupo == null) return new ArrayList<>();
+        synchronized (grupo) {
+            return new ArrayList<>(grupo.values());
+        }
+    }
+
+    // * Clave compuesta con la longitud delante: un ';' dentro de un id no puede provocar choques
+    private static String par(String alumnoId, String cursoId) { return alumnoId.length() + ":" + alumnoId + ";" + cursoId; }
+
+    // * O(1) + tamaño del resultado: consulta el índice por alumno
+    public List<Matricula> findByAlumnoId(String alumnoId) { return copiar(porAlumno.get(alumnoId)); }
+
+    // * O(1) + tamaño del resultado: consulta el índice por curso
+    public List<Matricula> findByCursoId(String cursoId) { return copiar(porCurso.get(cursoId)); }
+
+    // * Matrícula ACTIVA de un alumno en un curso, si la hay (O(1); si hubiera varias, una cualquiera)
+    public Optional<Matricula> findActiva(String alumnoId, String cursoId) {
+        Set<String> ids = activasPorPar.get(par(alumnoId, cursoId));
+        if (ids == null) return Optional.empty();
+        for (String id : ids) {
+            Optional<Matricula> m = findById(id);
+            if (m.isPresent()) return m;
+        }
+        return Optional.empty();
     }
 
-    public List<Matricula> findByAlumnoId(String alumnoId) {
-        List<Matricula> list = new ArrayList<>();
-        for (Matricula m : data.values()) if (m.getAlumnoId().equals(alumnoId)) list.add(m);
-        return list;
+    public boolean existsActiva(String alumnoId, String cursoId) {
+        return activasPorPar.containsKey(par(alumnoId, cursoId));
     }
 
-    public List<Matricula> findByCursoId(String cursoId) {
-        List<Matricula> list = new ArrayList<>();
-        for (Matricula m : data.values()) if (m.getCursoId().equals(cursoId)) list.add(m);
-        return list;
+    // * ¿Está el alumno en la lista de espera del curso? (O(1))
+    public boolean existsEnEspera(String alumnoId, String cursoId) {
+        return esperaPorPar.containsKey(par(alumnoId, cursoId));
     }
 
     // TODO: existsByAlumnoAndCurso(String alumnoId, String cursoId)
@@ -1,7 +1,8 @@
 /*
  * ******************************************************************************************
  * 📘 Repository<T> — Contrato de acceso a datos en memoria/CSV
- * Métodos CRUD mínimos. Implementaciones: AlumnoRepository, CursoRepository, MatriculaRepository.
+ * Métodos CRUD mínimos. Implementaciones: AlumnoRepository, CursoRepository, MatriculaRepository
+ * (todas sobre la base común ConcurrentCsvRepository).
  *
  * TODO Alumno
  * - [ ] Añadir `long count()` a la interfaz e implementarlo.
@@ -28,4 +29,11 @@ public interface Repository<T> {
 
     // * Borra por id; devuelve true si existía y fue eliminada.
     boolean delete(String id);
+
+    // * Lote de cambios del hilo que llama: hasta commitBatch() no se escribe a disco; luego se escribe todo de una vez.
+    // ? Por defecto no hace nada (cada cambio se persiste al momento).
+    default void beginBatch() {}
+
+    // * Cierra el lote y devuelve cuántos cambios se han escrito juntos.
+    default int commitBatch() { return 0; }
 }
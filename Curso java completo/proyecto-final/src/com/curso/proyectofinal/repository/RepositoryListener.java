@@ -0,0 +1,16 @@
+/*
+ * ******************************************************************************************
+ * 📘 RepositoryListener<T> — Aviso de cada cambio en un ConcurrentCsvRepository
+ * - changed(previous, current): previous null = alta; current null = borrado.
+ * - Se llama dentro del cerrojo del id (mismo momento que los índices del repositorio): los
+ *   cambios de un mismo id llegan en orden, pero los de ids distintos pueden llegar a la vez.
+ * ! previous puede ser el MISMO objeto que current (se modificó antes de update()): quien
+ *   necesite el valor anterior debe guardarse lo que contó (ver EstadisticasController).
+ * ******************************************************************************************
+ */
+package com.curso.proyectofinal.repository;
+
+@FunctionalInterface
+public interface RepositoryListener<T> {
+    void changed(T previous, T current);
+}
@@ -102,6 +102,22 @@ CREATE TABLE Reservas (
 );
 GO
 
+-- Índice para listar reservas por páginas (ReservaDAO.listarPagina):
+-- la BD encuentra directamente "las siguientes al cursor" sin
+-- recorrer las páginas anteriores
+CREATE INDEX IX_Reservas_Entrada_Id ON Reservas (fechaEntrada DESC, id DESC);
+GO
+
+-- Índices para las consultas más frecuentes de los DAO:
+--   • reservas de un cliente
+--   • solapes de fechas de una habitación (reservarAtomicamente)
+--   • habitaciones disponibles (listarDisponibles)
+-- (EsquemaBD los crea también al arrancar si faltan)
+CREATE INDEX IX_Reservas_Cliente ON Reservas (idCliente);
+CREATE INDEX IX_Reservas_Habitacion_Entrada ON Reservas (idHabitacion, fechaEntrada);
+CREATE INDEX IX_Habitaciones_Disponible ON Habitaciones (disponible);
+GO
+
 -- ------------------------------------------------------------
 -- PASO 5: Insertar datos de prueba - HABITACIONES
 -- ------------------------------------------------------------
@@ -134,15 +134,16 @@ public class Main {
  *              │
  *              ├──▶ crearReserva()
  *              │         ├──▶ ClienteDAO.buscarPorId()
+ *              │         ├──▶ HabitacionDAO.listarDisponibles(entrada, salida)
  *              │         ├──▶ HabitacionDAO.obtenerPorId()
- *              │         ├──▶ HabitacionDAO.actualizarDisponibilidad()
- *              │         └──▶ ReservaDAO.insertarReserva()
+ *              │         ├──▶ HabitacionDAO.estaLibre()
+ *              │         └──▶ ReservaDAO.reservarAtomicamente()
  *              │
  *              ├──▶ cancelarReserva()
+ *              │         ├──▶ ReservaDAO.listarPagina()
  *              │         ├──▶ ReservaDAO.buscarPorId()
- *              │         ├──▶ ReservaDAO.eliminarReserva()
- *              │         └──▶ HabitacionDAO.actualizarDisponibilidad()
+ *              │         └──▶ ReservaDAO.eliminarReserva()
  *              │
  *              └──▶ mostrarTodasReservas()
- *                        └──▶ ReservaDAO.listarReservas()
+ *                        └──▶ ReservaDAO.listarPagina()
  */
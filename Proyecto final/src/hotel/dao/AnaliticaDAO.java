@@ -0,0 +1,112 @@
+package hotel.dao;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ============================================================
+ * 📈 CLASE: AnaliticaDAO (Datos para los informes)
+ * ============================================================
+ *
+ * Lee de la base de datos solo lo que necesitan los informes
+ * de ocupación e ingresos (AnaliticaHotel):
+ *   • Cuántas habitaciones hay de cada tipo
+ *   • Las estancias (tipo, fechas, total) de un periodo
+ *
+ * 📌 ¿POR QUÉ NO USAR ReservaDAO.listarReservas()?
+ * ─────────────────────────────────
+ * Un año de un hotel grande son cientos de miles de reservas.
+ * Crear un objeto Reserva, Cliente y Habitacion por cada una
+ * solo para sumar noches es un desperdicio. Aquí las filas se
+ * entregan una a una (streaming) y sin crear objetos del modelo.
+ *
+ * ============================================================
+ */
+public class AnaliticaDAO {
+
+    /**
+     * Recibe cada estancia leída de la base de datos.
+     */
+    public interface ConsumidorEstancia {
+        void aceptar(String tipo, LocalDate entrada, LocalDate salida, double total);
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 🛏️ MÉTODO: contarHabitacionesPorTipo
+    // ════════════════════════════════════════════════════════
+    /**
+     * Cuenta las habitaciones de cada tipo (la "oferta" del hotel).
+     *
+     * @return Mapa tipo → número de habitaciones
+     */
+    public Map<String, Integer> contarHabitacionesPorTipo() {
+        String sql = "SELECT tipo, COUNT(*) AS total FROM Habitaciones GROUP BY tipo ORDER BY tipo";
+        Map<String, Integer> resultado = new LinkedHashMap<>();
+
+        try (
+            Connection conn = ConexionBD.getConexion();
+            Statement stmt = conn.createStatement();
+            ResultSet rs = stmt.executeQuery(sql)
+        ) {
+            while (rs.next()) {
+                resultado.put(rs.getString("tipo"), rs.getInt("total"));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error al contar habitaciones por tipo: " + e.getMessage());
+        }
+
+        return resultado;
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 📅 MÉTODO: recorrerEstancias
+    // ════════════════════════════════════════════════════════
+    /**
+     * Entrega al consumidor cada reserva que ocupa alguna noche
+     * del periodo [desde, hasta).
+     *
+     * 📌 setFetchSize:
+     * ─────────────────────────────────
+     * Pide al driver las filas en bloques de 1.000 en lugar de
+     * cargar el resultado entero en memoria.
+     *
+     * @param desde      Primer día del periodo
+     * @param hasta      Día siguiente al último del periodo
+     * @param consumidor Recibe cada estancia
+     * @return true si se leyó todo, false si hubo un error
+     */
+    public boolean recorrerEstancias(LocalDate desde, LocalDate hasta, ConsumidorEstancia consumidor) {
+        String sql = "SELECT h.tipo, r.fechaEntrada, r.fechaSalida, r.total " +
+                     "FROM Reservas r " +
+                     "JOIN Habitaciones h ON h.id = r.idHabitacion " +
+                     "WHERE r.fechaEntrada < ? AND r.fechaSalida > ?";
+
+        try (
+            Connection conn = ConexionBD.getConexion();
+            PreparedStatement stmt = conn.prepareStatement(sql)
+        ) {
+            stmt.setObject(1, hasta);
+            stmt.setObject(2, desde);
+            stmt.setFetchSize(1000);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumidor.aceptar(
+                        rs.getString(1),
+                        rs.getObject(2, LocalDate.class),
+                        rs.getObject(3, LocalDate.class),
+                        rs.getDouble(4)
+                    );
+                }
+            }
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("❌ Error al leer las estancias: " + e.getMessage());
+            return false;
+        }
+    }
+}
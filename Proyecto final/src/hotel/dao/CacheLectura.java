@@ -0,0 +1,230 @@
+package hotel.dao;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * ============================================================
+ * ⚡ CLASE: CacheLectura (Caché de lectura con tamaño y caducidad)
+ * ============================================================
+ *
+ * 📚 ¿QUÉ ES UNA CACHÉ "READ-THROUGH"?
+ * ─────────────────────────────────
+ * Antes de ir a la base de datos, el DAO mira en la caché:
+ *
+ *   buscarPorId(7)
+ *       │
+ *       ├── ¿Está en caché y no ha caducado? → ACIERTO: se devuelve
+ *       │
+ *       └── No → FALLO: SELECT a la BD y se guarda en la caché
+ *
+ * Clientes y habitaciones cambian poco, así que casi todas las
+ * búsquedas por ID se resuelven sin tocar la base de datos.
+ *
+ * 📌 DOS FORMAS DE EXPULSAR ENTRADAS:
+ * ─────────────────────────────────
+ *   • TAMAÑO: si se llena, sale la menos usada (LRU)
+ *   • TIEMPO (TTL): una entrada caduca pasados ttlMs milisegundos,
+ *     por si alguien cambió la BD desde fuera de la aplicación
+ *
+ * 📌 INVALIDACIÓN:
+ * ─────────────────────────────────
+ * Cuando el DAO modifica un registro (UPDATE/DELETE), llama a
+ * invalidar(id) para que la próxima lectura vaya a la BD.
+ *
+ * 📌 COPIAS DEFENSIVAS:
+ * ─────────────────────────────────
+ * Los modelos tienen setters. Si devolviéramos el objeto guardado,
+ * quien lo modificara cambiaría también la caché. Por eso se
+ * guarda y se devuelve siempre una COPIA.
+ *
+ * ============================================================
+ *
+ * @param <V> Tipo de objeto guardado (Cliente, Habitacion...)
+ */
+public class CacheLectura<V> {
+
+    /**
+     * Valor guardado junto con el instante en que caduca.
+     */
+    private static class Entrada<V> {
+        final V valor;
+        final long caducaEnNanos;
+
+        Entrada(V valor, long caducaEnNanos) {
+            this.valor = valor;
+            this.caducaEnNanos = caducaEnNanos;
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 📦 ATRIBUTOS
+    // ════════════════════════════════════════════════════════
+
+    private final String nombre;
+    private final int capacidad;
+    private final long ttlNanos;
+    private final UnaryOperator<V> copiar;
+    private final LinkedHashMap<Integer, Entrada<V>> entradas;
+
+    // 📊 Métricas
+    private long aciertos = 0;
+    private long fallos = 0;
+    private long expulsionesPorTamanio = 0;
+    private long expulsionesPorTiempo = 0;
+    private long invalidaciones = 0;
+
+    // ════════════════════════════════════════════════════════
+    // 🔧 CONSTRUCTOR
+    // ════════════════════════════════════════════════════════
+    /**
+     * Crea una caché vacía.
+     *
+     * @param nombre    Nombre para mostrar en las métricas
+     * @param capacidad Número máximo de entradas
+     * @param ttlMs     Milisegundos que vive cada entrada
+     * @param copiar    Cómo copiar un valor (copia defensiva)
+     */
+    public CacheLectura(String nombre, int capacidad, long ttlMs, UnaryOperator<V> copiar) {
+        this.nombre = nombre;
+        this.capacidad = capacidad;
+        this.ttlNanos = ttlMs * 1_000_000L;
+        this.copiar = copiar;
+
+        // accessOrder = true → la primera entrada es la menos usada
+        this.entradas = new LinkedHashMap<Integer, Entrada<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entrada<V>> mayor) {
+                if (size() > CacheLectura.this.capacidad) {
+                    expulsionesPorTamanio++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 🔍 OPERACIONES
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Busca un valor en la caché.
+     *
+     * @param id ID del registro
+     * @return Copia del valor, o null si no está o ha caducado
+     */
+    public synchronized V obtener(int id) {
+        Entrada<V> entrada = entradas.get(id);
+
+        if (entrada != null && entrada.caducaEnNanos - System.nanoTime() <= 0) {
+            entradas.remove(id);
+            expulsionesPorTiempo++;
+            entrada = null;
+        }
+
+        if (entrada == null) {
+            fallos++;
+            return null;
+        }
+
+        aciertos++;
+        return copiar.apply(entrada.valor);
+    }
+
+    /**
+     * Guarda (o reemplaza) un valor leído de la base de datos.
+     *
+     * @param id    ID del registro
+     * @param valor Valor a guardar (se guarda una copia)
+     */
+    public synchronized void guardar(int id, V valor) {
+        if (valor == null) {
+            return;  // No cacheamos "no existe"
+        }
+        entradas.put(id, new Entrada<>(copiar.apply(valor), System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * Elimina un registro de la caché tras modificarlo en la BD.
+     *
+     * @param id ID del registro modificado
+     */
+    public synchronized void invalidar(int id) {
+        if (entradas.remove(id) != null) {
+            invalidaciones++;
+        }
+    }
+
+    /**
+     * Vacía la caché por completo.
+     */
+    public synchronized void limpiar() {
+        entradas.clear();
+    }
+
+    /**
+     * Elimina todas las entradas caducadas.
+     */
+    public synchronized void purgarCaducadas() {
+        long ahora = System.nanoTime();
+        Iterator<Entrada<V>> it = entradas.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().caducaEnNanos - ahora <= 0) {
+                it.remove();
+                expulsionesPorTiempo++;
+            }
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 📊 MÉTRICAS
+    // ════════════════════════════════════════════════════════
+
+    public synchronized int tamanio() {
+        return entradas.size();
+    }
+
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    public synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    public synchronized long getFallos() {
+        return fallos;
+    }
+
+    public synchronized long getExpulsionesPorTamanio() {
+        return expulsionesPorTamanio;
+    }
+
+    public synchronized long getExpulsionesPorTiempo() {
+        return expulsionesPorTiempo;
+    }
+
+    public synchronized long getInvalidaciones() {
+        return invalidaciones;
+    }
+
+    /**
+     * @return Porcentaje de búsquedas resueltas desde la caché (0-100)
+     */
+    public synchronized double getTasaAciertos() {
+        long total = aciertos + fallos;
+        return total == 0 ? 0 : aciertos * 100.0 / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(
+            "Caché %s[%d/%d entradas, aciertos=%.1f%% (%d/%d), expulsiones: tamaño=%d, tiempo=%d, invalidaciones=%d]",
+            nombre, entradas.size(), capacidad, getTasaAciertos(), aciertos, aciertos + fallos,
+            expulsionesPorTamanio, expulsionesPorTiempo, invalidaciones
+        );
+    }
+}
@@ -0,0 +1,388 @@
+package hotel.dao;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ============================================================
+ * 🗃️ CLASE: CacheSentencias (Caché LRU de PreparedStatement)
+ * ============================================================
+ *
+ * 📚 ¿POR QUÉ CACHEAR SENTENCIAS?
+ * ─────────────────────────────────
+ * Los DAOs ejecutan siempre las mismas pocas sentencias:
+ *   SELECT * FROM Clientes WHERE id = ?
+ *   UPDATE Habitaciones SET disponible = ? WHERE id = ?
+ *   ...
+ *
+ * Cada prepareStatement() obliga a la BD a analizar el SQL y
+ * preparar un plan. Si guardamos el PreparedStatement ya
+ * preparado, la siguiente vez solo cambiamos los parámetros.
+ *
+ * 📌 LRU (Least Recently Used):
+ * ─────────────────────────────────
+ * La caché tiene un tamaño máximo. Cuando se llena, se cierra
+ * y se expulsa la sentencia que lleva más tiempo sin usarse.
+ *
+ * Usamos LinkedHashMap con accessOrder = true: cada get() mueve
+ * la entrada al final, así la PRIMERA siempre es la más antigua.
+ *
+ * 📌 UNA CACHÉ POR CONEXIÓN:
+ * ─────────────────────────────────
+ * Un PreparedStatement pertenece a UNA conexión física, así que
+ * el PoolConexiones crea una caché para cada conexión. Como una
+ * conexión solo la usa un hilo a la vez, no hace falta sincronizar.
+ *
+ * 📌 EL TRUCO DEL close():
+ * ─────────────────────────────────
+ * Igual que con las conexiones del pool, el DAO recibe un
+ * envoltorio (Proxy). Su close() NO cierra la sentencia real:
+ * la deja como recién preparada para el siguiente uso:
+ *   • Cierra los ResultSet que sigan abiertos
+ *   • Borra parámetros y avisos (y el lote, si se usó)
+ *   • Devuelve maxRows, fetchSize y queryTimeout a sus valores
+ *     iniciales, SOLO si el DAO los cambió: en algunos drivers
+ *     (H2) setQueryTimeout() es una ida y vuelta a la BD, y
+ *     repetirla en cada close() hacía la caché más lenta que
+ *     no tenerla
+ * Si algo de eso falla, la sentencia se cierra y sale de la caché.
+ *
+ * 📌 LA MISMA SQL DOS VECES A LA VEZ:
+ * ─────────────────────────────────
+ * Cada sentencia cacheada se presta a un solo usuario. Si se pide
+ * la misma SQL mientras la anterior sigue abierta (p. ej. un bucle
+ * dentro de otro), se prepara una sentencia NUEVA fuera de la
+ * caché, que se cierra de verdad con su close().
+ *
+ * Al devolver la conexión al pool, las sentencias que el DAO no
+ * cerró se limpian y se dan por cerradas (liberarPrestadas).
+ *
+ * ============================================================
+ */
+public class CacheSentencias {
+
+    // Constructor de la clase Proxy de PreparedStatement, buscado una
+    // sola vez: Proxy.newProxyInstance() en cada préstamo se comía
+    // buena parte de lo que ahorra la caché
+    private static final Constructor<?> CONSTRUCTOR_PROXY;
+    static {
+        try {
+            CONSTRUCTOR_PROXY = Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class },
+                (proxy, metodo, args) -> null
+            ).getClass().getConstructor(InvocationHandler.class);
+        } catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Connection conexion;
+    private final int capacidad;
+    private final Map<String, Entrada> sentencias;
+    private int prestadas = 0;  // Entradas con prestada != null
+
+    // Contadores compartidos por todas las cachés del pool
+    private final AtomicLong aciertos;
+    private final AtomicLong fallos;
+    private final AtomicLong expulsiones;
+
+    /**
+     * Sentencia guardada, con sus valores iniciales y a quién
+     * está prestada ahora mismo (null = libre).
+     */
+    private static class Entrada {
+        final String clave;
+        final PreparedStatement real;
+        final int maxRows;
+        final int fetchSize;
+        final int queryTimeout;
+        SentenciaPrestada prestada;
+        boolean expulsada;  // Fuera de la caché: se cierra al devolverla
+
+        Entrada(String clave, PreparedStatement real) throws SQLException {
+            this.clave = clave;
+            this.real = real;
+            this.maxRows = real.getMaxRows();
+            this.fetchSize = real.getFetchSize();
+            this.queryTimeout = real.getQueryTimeout();
+        }
+    }
+
+    /**
+     * Crea la caché de una conexión física.
+     *
+     * @param conexion    Conexión física propietaria de las sentencias
+     * @param capacidad   Número máximo de sentencias guardadas
+     * @param aciertos    Contador de sentencias reutilizadas
+     * @param fallos      Contador de sentencias preparadas de nuevo
+     * @param expulsiones Contador de sentencias expulsadas por LRU
+     */
+    public CacheSentencias(Connection conexion, int capacidad,
+                           AtomicLong aciertos, AtomicLong fallos, AtomicLong expulsiones) {
+        this.conexion = conexion;
+        this.capacidad = capacidad;
+        this.aciertos = aciertos;
+        this.fallos = fallos;
+        this.expulsiones = expulsiones;
+
+        // accessOrder = true → orden de uso (LRU), no de inserción
+        this.sentencias = new LinkedHashMap<String, Entrada>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> mayor) {
+                if (size() > CacheSentencias.this.capacidad) {
+                    Entrada e = mayor.getValue();
+                    if (e.prestada != null) {
+                        e.expulsada = true;  // Se cerrará cuando la devuelvan
+                    } else {
+                        cerrarSilenciosamente(e.real);
+                    }
+                    CacheSentencias.this.expulsiones.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 📤 MÉTODO: preparar()
+    // ════════════════════════════════════════════════════════
+    /**
+     * Devuelve un PreparedStatement para el SQL indicado,
+     * reutilizándolo si ya estaba en la caché y libre.
+     *
+     * @param sql               Sentencia SQL con marcadores (?)
+     * @param generatedKeys     Statement.RETURN_GENERATED_KEYS o NO_GENERATED_KEYS
+     * @return Envoltorio del PreparedStatement cacheado, o una
+     *         sentencia normal si la cacheada está en uso
+     * @throws SQLException si falla al preparar la sentencia
+     */
+    public PreparedStatement preparar(String sql, int generatedKeys) throws SQLException {
+        // La misma SQL con o sin claves generadas son sentencias distintas
+        String clave = generatedKeys + "|" + sql;
+
+        Entrada e = sentencias.get(clave);
+        if (e != null && e.real.isClosed()) {
+            sentencias.remove(clave);
+            e = null;
+        }
+
+        if (e != null && e.prestada == null) {
+            aciertos.incrementAndGet();
+            return prestar(e);
+        }
+
+        fallos.incrementAndGet();
+        PreparedStatement real = generatedKeys == Statement.RETURN_GENERATED_KEYS
+            ? conexion.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+            : conexion.prepareStatement(sql);
+
+        if (e != null) {
+            // La cacheada sigue abierta: esta va aparte y se cierra de verdad
+            return real;
+        }
+
+        try {
+            e = new Entrada(clave, real);
+        } catch (SQLException ex) {
+            cerrarSilenciosamente(real);
+            throw ex;
+        }
+        sentencias.put(clave, e);
+        return prestar(e);
+    }
+
+    /**
+     * Da por cerradas (y deja limpias) las sentencias que siguen
+     * prestadas. Se llama al devolver la conexión al pool.
+     */
+    public void liberarPrestadas() {
+        if (prestadas == 0) {
+            return;  // Lo normal: el DAO las cerró todas
+        }
+        for (Entrada e : new ArrayList<>(sentencias.values())) {
+            if (e.prestada != null) {
+                e.prestada.cerrar();
+            }
+        }
+    }
+
+    /**
+     * Cierra todas las sentencias guardadas (al descartar la conexión).
+     */
+    public void cerrarTodas() {
+        for (Entrada e : sentencias.values()) {
+            if (e.prestada != null) {
+                e.prestada.cerrada = true;
+            }
+            cerrarSilenciosamente(e.real);
+        }
+        sentencias.clear();
+        prestadas = 0;
+    }
+
+    /**
+     * @return Número de sentencias guardadas ahora mismo
+     */
+    public int tamanio() {
+        return sentencias.size();
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 🛠️ MÉTODOS AUXILIARES
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Presta la sentencia envuelta: su close() la devuelve limpia.
+     */
+    private PreparedStatement prestar(Entrada e) {
+        e.prestada = new SentenciaPrestada(e);
+        prestadas++;
+        try {
+            return (PreparedStatement) CONSTRUCTOR_PROXY.newInstance(e.prestada);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("No se pudo envolver la sentencia", ex);
+        }
+    }
+
+    /**
+     * Deja la sentencia como recién preparada. Si no se puede,
+     * la saca de la caché y la cierra.
+     */
+    private void limpiar(Entrada e, SentenciaPrestada p) {
+        try {
+            for (ResultSet rs : p.resultados) {
+                rs.close();
+            }
+            e.real.clearParameters();
+            e.real.clearWarnings();
+            if (p.conLote) {
+                e.real.clearBatch();  // Por si quedó un lote a medias
+            }
+            if (p.cambioMaxRows) {
+                e.real.setMaxRows(e.maxRows);
+            }
+            if (p.cambioFetchSize) {
+                e.real.setFetchSize(e.fetchSize);
+            }
+            if (p.cambioQueryTimeout) {
+                e.real.setQueryTimeout(e.queryTimeout);
+            }
+        } catch (SQLException ex) {
+            sentencias.remove(e.clave, e);
+            e.expulsada = true;
+        }
+
+        e.prestada = null;
+        prestadas--;
+        if (e.expulsada) {
+            cerrarSilenciosamente(e.real);
+        }
+    }
+
+    /**
+     * Intercepta las llamadas a la sentencia prestada.
+     *
+     *   • close()    → limpiar() y vuelve a estar libre en la caché
+     *   • isClosed() → true si ya se devolvió
+     *   • setMaxRows(), setFetchSize(), setQueryTimeout() y
+     *     addBatch() → se apunta qué hay que deshacer al devolverla
+     *   • el resto   → se delegan en la sentencia real (los
+     *                  ResultSet que devuelve se apuntan para
+     *                  cerrarlos al final)
+     */
+    private class SentenciaPrestada implements InvocationHandler {
+        private final Entrada entrada;
+        private final List<ResultSet> resultados = new ArrayList<>();
+        private boolean cerrada = false;
+        private boolean cambioMaxRows = false;
+        private boolean cambioFetchSize = false;
+        private boolean cambioQueryTimeout = false;
+        private boolean conLote = false;
+
+        SentenciaPrestada(Entrada entrada) {
+            this.entrada = entrada;
+        }
+
+        void cerrar() {
+            if (!cerrada) {
+                cerrada = true;
+                limpiar(entrada, this);
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            switch (metodo.getName()) {
+                case "close":
+                    cerrar();
+                    return null;
+                case "isClosed":
+                    return cerrada || entrada.real.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "SentenciaCacheada[" + entrada.real + "]";
+                default:
+                    break;
+            }
+
+            if (cerrada) {
+                throw new SQLException("La sentencia ya está cerrada.");
+            }
+
+            switch (metodo.getName()) {
+                case "setMaxRows":
+                case "setLargeMaxRows":
+                    cambioMaxRows = true;
+                    break;
+                case "setFetchSize":
+                    cambioFetchSize = true;
+                    break;
+                case "setQueryTimeout":
+                    cambioQueryTimeout = true;
+                    break;
+                case "addBatch":
+                    conLote = true;
+                    break;
+                default:
+                    break;
+            }
+
+            Object resultado;
+            try {
+                resultado = metodo.invoke(entrada.real, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (resultado instanceof ResultSet) {
+                resultados.add((ResultSet) resultado);
+            }
+            return resultado;
+        }
+    }
+
+    private static void cerrarSilenciosamente(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException e) {
+            // La sentencia se descarta igualmente
+        }
+    }
+}
@@ -33,6 +33,30 @@ import java.util.ArrayList;
  */
 public class ClienteDAO {
     
+    // ════════════════════════════════════════════════════════
+    // ⚡ CACHÉ DE LECTURA
+    // ════════════════════════════════════════════════════════
+    // Compartida por todas las instancias de ClienteDAO (static).
+    // buscarPorId() la consulta antes de ir a la BD;
+    // actualizar() y eliminar() la invalidan.
+    
+    private static final int CACHE_CAPACIDAD = 10_000;        // Clientes en memoria
+    private static final long CACHE_TTL_MS = 10 * 60 * 1000;  // 10 minutos
+    
+    private static final CacheLectura<Cliente> CACHE = new CacheLectura<>(
+        "Clientes", CACHE_CAPACIDAD, CACHE_TTL_MS,
+        c -> new Cliente(c.getId(), c.getNombre(), c.getTelefono(), c.getEmail())
+    );
+    
+    /**
+     * Devuelve la caché de clientes (para consultar sus métricas).
+     * 
+     * @return La caché compartida de clientes
+     */
+    public static CacheLectura<Cliente> getCache() {
+        return CACHE;
+    }
+    
     // ════════════════════════════════════════════════════════
     // 📥 MÉTODO: insertarCliente (CREATE)
     // ════════════════════════════════════════════════════════
@@ -128,10 +152,20 @@ public class ClienteDAO {
      *   • getDouble("columna") → Obtiene un decimal
      *   • getDate("columna") → Obtiene una fecha
      * 
+     * 📌 CACHÉ:
+     * ─────────────────────────────────
+     * Primero se mira en la caché. Solo si no está (o caducó)
+     * se consulta la base de datos y se guarda el resultado.
+     * 
      * @param id El ID del cliente a buscar
      * @return El cliente encontrado, o null si no existe
      */
     public Cliente buscarPorId(int id) {
+        Cliente enCache = CACHE.obtener(id);
+        if (enCache != null) {
+            return enCache;
+        }
+        
         String sql = "SELECT * FROM Clientes WHERE id = ?";
         
         try (
@@ -146,12 +180,14 @@ public class ClienteDAO {
             
             // Si hay resultados, creamos el objeto Cliente
             if (rs.next()) {
-                return new Cliente(
+                Cliente cliente = new Cliente(
                     rs.getInt("id"),           // Columna 'id'
                     rs.getString("nombre"),    // Columna 'nombre'
                     rs.getString("telefono"),  // Columna 'telefono'
                     rs.getString("email")      // Columna 'email'
                 );
+                CACHE.guardar(id, cliente);
+                return cliente;
             }
             
         } catch (SQLException e) {
@@ -227,6 +263,9 @@ public class ClienteDAO {
             
             int filasAfectadas = stmt.executeUpdate();
             
+            // La copia en caché ya no es válida
+            CACHE.invalidar(cliente.getId());
+            
             if (filasAfectadas > 0) {
                 System.out.println("✅ Cliente actualizado correctamente.");
                 return true;
@@ -262,6 +301,8 @@ public class ClienteDAO {
             
             int filasAfectadas = stmt.executeUpdate();
             
+            CACHE.invalidar(id);
+            
             if (filasAfectadas > 0) {
                 System.out.println("✅ Cliente eliminado correctamente.");
                 return true;
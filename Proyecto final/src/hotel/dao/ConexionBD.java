@@ -36,10 +36,17 @@ import java.sql.SQLException;
  *   • jdbc:sqlserver://localhost:1433;databaseName=HotelDB
  *   • jdbc:sqlserver://192.168.1.100:1433;databaseName=HotelDB
  * 
- * 📌 PATRÓN SINGLETON (Simplificado):
+ * 📌 PUNTO ÚNICO DE ACCESO + POOL:
  * ─────────────────────────────────
- * Esta clase proporciona un único punto de acceso a la conexión.
- * Esto evita crear múltiples conexiones innecesarias.
+ * Esta clase proporciona un único punto de acceso a las conexiones.
+ * Por debajo usa un PoolConexiones: las conexiones se abren una vez
+ * y se reutilizan, en lugar de abrir una nueva en cada consulta.
+ * 
+ * 📌 OTRAS BASES DE DATOS (PerfilBD):
+ * ─────────────────────────────────
+ * Por defecto se conecta a SQL Server. Con -Dhotel.bd=h2 o
+ * -Dhotel.bd=sqlite usa una BD embebida (sin servidor). Al crear
+ * el pool, EsquemaBD crea las tablas e índices que falten.
  * 
  * ============================================================
  */
@@ -48,7 +55,8 @@ public class ConexionBD {
     // ════════════════════════════════════════════════════════
     // 📋 CONSTANTES DE CONFIGURACIÓN
     // ════════════════════════════════════════════════════════
-    // Estos valores deben ajustarse según tu configuración de SQL Server
+    // Estos valores deben ajustarse según tu configuración de SQL Server.
+    // Son los del perfil SQLSERVER (ver PerfilBD).
     
     /**
      * URL de conexión a SQL Server.
@@ -62,7 +70,7 @@ public class ConexionBD {
      * 
      * ⚠️ IMPORTANTE: Para producción, usa encrypt=true y configura certificados
      */
-    private static final String URL = 
+    static final String URL = 
         "jdbc:sqlserver://localhost:1433;" +
         "databaseName=HotelDB;" +
         "encrypt=false;" +
@@ -80,7 +88,7 @@ public class ConexionBD {
      *   integratedSecurity=true
      * y deja USUARIO y PASSWORD vacíos.
      */
-    private static final String USUARIO = "sa";  // Cambia esto por tu usuario
+    static final String USUARIO = "sa";  // Cambia esto por tu usuario
     
     /**
      * Contraseña de la base de datos.
@@ -88,13 +96,143 @@ public class ConexionBD {
      * ⚠️ SEGURIDAD: En un proyecto real, NUNCA guardes contraseñas
      * en el código fuente. Usa variables de entorno o archivos de configuración.
      */
-    private static final String PASSWORD = "tu_contraseña";  // Cambia esto
+    static final String PASSWORD = "tu_contraseña";  // Cambia esto
     
     // ════════════════════════════════════════════════════════
-    // 🔗 INSTANCIA DE CONEXIÓN
+    // 🏊 CONFIGURACIÓN DEL POOL DE CONEXIONES
     // ════════════════════════════════════════════════════════
+    // Valores por defecto. Se pueden cambiar con configurarPool()
+    // ANTES de la primera llamada a getConexion().
+    
+    private static int poolMinimo = 2;            // Conexiones abiertas al arrancar
+    private static int poolMaximo = 10;           // Conexiones máximas a la vez
+    private static long poolTimeoutMs = 5000;     // Espera máxima si está agotado
+    private static int cacheSentencias = 32;      // PreparedStatement por conexión (0 = sin caché)
+    
+    // El pool se crea la primera vez que se pide una conexión
+    private static PoolConexiones pool = null;
+    
+    // ════════════════════════════════════════════════════════
+    // 🗄️ PERFIL DE BASE DE DATOS
+    // ════════════════════════════════════════════════════════
+    // Si no se llama a configurarPerfil(), se lee de -Dhotel.bd
+    // (o HOTEL_BD) al crear el pool.
+    
+    private static PerfilBD perfil = null;
+    private static String url;
+    private static String usuario;
+    private static String password;
+    private static boolean esquemaAutomatico = true;
+    
+    /**
+     * Elige la base de datos con la URL y credenciales por defecto
+     * del perfil (o las de -Dhotel.bd.url/usuario/password).
+     * 
+     * @param nuevoPerfil SQLSERVER, H2 o SQLITE
+     */
+    public static synchronized void configurarPerfil(PerfilBD nuevoPerfil) {
+        configurarPerfil(nuevoPerfil,
+                         System.getProperty("hotel.bd.url", nuevoPerfil.getUrlPorDefecto()),
+                         System.getProperty("hotel.bd.usuario", nuevoPerfil.getUsuarioPorDefecto()),
+                         System.getProperty("hotel.bd.password", nuevoPerfil.getPasswordPorDefecto()));
+    }
+    
+    /**
+     * Elige la base de datos con una URL y credenciales concretas.
+     * 
+     * Como configurarPool(), cierra el pool actual si existía.
+     * También vacía lo que se guardó en memoria de la BD anterior
+     * (índice de disponibilidad y cachés de los DAOs): si no, la
+     * nueva BD vería reservas y habitaciones que no son suyas.
+     * 
+     * @param nuevoPerfil Dialecto SQL y driver a usar
+     * @param nuevaUrl    URL JDBC
+     * @param nuevoUsuario Usuario de la BD
+     * @param nuevaPassword Contraseña de la BD
+     */
+    public static synchronized void configurarPerfil(PerfilBD nuevoPerfil, String nuevaUrl,
+                                                     String nuevoUsuario, String nuevaPassword) {
+        if (nuevoPerfil == null || nuevaUrl == null) {
+            throw new IllegalArgumentException("Perfil y URL son obligatorios");
+        }
+        cerrarConexion();
+        perfil = nuevoPerfil;
+        url = nuevaUrl;
+        usuario = nuevoUsuario;
+        password = nuevaPassword;
+        
+        IndiceDisponibilidad.getInstancia().limpiar();
+        HabitacionDAO.getCache().limpiar();
+        HabitacionDAO.invalidarListado();
+        ClienteDAO.getCache().limpiar();
+    }
+    
+    /**
+     * Activa o desactiva la creación automática de tablas e índices
+     * (EsquemaBD) al abrir el pool. Por defecto está activada.
+     */
+    public static synchronized void configurarEsquemaAutomatico(boolean activado) {
+        esquemaAutomatico = activado;
+    }
+    
+    /**
+     * @return Perfil en uso (lo lee del entorno si aún no se eligió)
+     */
+    public static synchronized PerfilBD getPerfil() {
+        if (perfil == null) {
+            configurarPerfil(PerfilBD.desdeEntorno());
+        }
+        return perfil;
+    }
+    
+    /**
+     * Cambia el tamaño y el tiempo de espera del pool.
+     * 
+     * Si el pool ya estaba creado, se cierra y se volverá a crear
+     * con la nueva configuración en la siguiente getConexion().
+     * 
+     * @param minimo    Conexiones que se abren al arrancar
+     * @param maximo    Conexiones máximas abiertas a la vez
+     * @param timeoutMs Milisegundos de espera si no hay conexiones libres
+     */
+    public static synchronized void configurarPool(int minimo, int maximo, long timeoutMs) {
+        if (minimo < 0 || maximo < 1 || minimo > maximo) {
+            throw new IllegalArgumentException(
+                "Tamaño de pool inválido: mínimo=" + minimo + ", máximo=" + maximo);
+        }
+        poolMinimo = minimo;
+        poolMaximo = maximo;
+        poolTimeoutMs = timeoutMs;
+        cerrarConexion();
+    }
     
-    private static Connection conexion = null;
+    /**
+     * Cambia el tamaño de la caché de PreparedStatement de cada conexión.
+     * 
+     * Con 0 se desactiva: cada prepareStatement() vuelve a preparar
+     * la sentencia (útil para comparar rendimiento).
+     * 
+     * @param tamanio Sentencias guardadas por conexión (0 = sin caché)
+     */
+    public static synchronized void configurarCacheSentencias(int tamanio) {
+        if (tamanio < 0) {
+            throw new IllegalArgumentException("Tamaño de caché inválido: " + tamanio);
+        }
+        cacheSentencias = tamanio;
+        cerrarConexion();
+    }
+
+    /**
+     * Conexiones máximas que tendrá el pool.
+     *
+     * Sirve para no lanzar más operaciones en paralelo de las que
+     * la BD puede atender a la vez (ver ServicioHotelAsync).
+     *
+     * @return Tamaño máximo configurado del pool
+     */
+    public static synchronized int getPoolMaximo() {
+        return poolMaximo;
+    }
     
     // ════════════════════════════════════════════════════════
     // 🔧 MÉTODO PRINCIPAL: getConexion()
@@ -104,14 +242,18 @@ public class ConexionBD {
      * 
      * 📌 ¿QUÉ HACE ESTE MÉTODO?
      * ─────────────────────────────────
-     *   1. Verifica si ya hay una conexión abierta
-     *   2. Si no hay conexión (o está cerrada), crea una nueva
+     *   1. Si el pool aún no existe, lo crea (abre las mínimas)
+     *   2. Pide prestada una conexión al pool
      *   3. Devuelve el objeto Connection
      * 
-     * 📌 ¿QUÉ ES DriverManager?
+     * 📌 ¿Y EL try-with-resources DE LOS DAOs?
      * ─────────────────────────────────
-     * DriverManager es la clase de Java que gestiona los drivers JDBC.
-     * El método getConnection() crea la conexión física con la BD.
+     * Al cerrar la conexión (close), NO se cierra de verdad:
+     * vuelve al pool para la siguiente consulta. Así no pagamos
+     * el login en SQL Server en cada sentencia.
+     * 
+     * Es thread-safe: varios hilos (terminales de recepción)
+     * pueden pedir conexiones a la vez.
      * 
      * 📌 MANEJO DE ERRORES:
      * ─────────────────────────────────
@@ -121,92 +263,122 @@ public class ConexionBD {
      *   • Puerto incorrecto
      *   • Usuario/contraseña incorrectos
      *   • La base de datos no existe
+     *   • El pool está agotado (todas las conexiones en uso)
      * 
      * @return Connection objeto de conexión a la base de datos
      * @throws SQLException si hay error al conectar
      */
     public static Connection getConexion() throws SQLException {
-        
-        // Verificamos si necesitamos crear una nueva conexión
-        // conexion == null → nunca se ha creado
-        // conexion.isClosed() → se creó pero se cerró
-        if (conexion == null || conexion.isClosed()) {
+        return getPool().obtener();
+    }
+    
+    /**
+     * Devuelve el pool, creándolo la primera vez.
+     * 
+     * 'synchronized' evita que dos hilos creen dos pools a la vez.
+     * 
+     * El pool solo se guarda cuando el esquema ya está aplicado: si
+     * EsquemaBD falla, se cierra y la siguiente llamada lo vuelve a
+     * intentar (en vez de devolver un pool con tablas a medias).
+     * 
+     * @return El pool de conexiones de la aplicación
+     * @throws SQLException si no se pueden abrir las conexiones mínimas
+     *                      o no se puede aplicar el esquema
+     */
+    public static synchronized PoolConexiones getPool() throws SQLException {
+        if (pool == null) {
+            PerfilBD actual = getPerfil();
+            System.out.println("📡 Conectando a la base de datos (" + actual + ")...");
+            PoolConexiones nuevo = new PoolConexiones(ConexionBD::crearConexionFisica,
+                                                      poolMinimo, poolMaximo, poolTimeoutMs, cacheSentencias);
             
-            try {
-                // --------------------------------------------------------
-                // PASO 1: Cargar el driver de SQL Server
-                // --------------------------------------------------------
-                // Class.forName() carga la clase del driver en memoria.
-                // El driver se registra automáticamente con DriverManager.
-                // 
-                // Para SQL Server, el driver es:
-                //   com.microsoft.sqlserver.jdbc.SQLServerDriver
-                //
-                // NOTA: Desde JDBC 4.0 (Java 6+), esto es opcional si
-                // el driver está en el classpath, pero lo dejamos por
-                // compatibilidad y claridad.
-                
-                Class.forName("com.microsoft.sqlserver.jdbc.SQLServerDriver");
-                
-                // --------------------------------------------------------
-                // PASO 2: Establecer la conexión
-                // --------------------------------------------------------
-                // DriverManager.getConnection() crea la conexión física.
-                // Usa la URL, usuario y contraseña que definimos arriba.
-                
-                System.out.println("📡 Conectando a la base de datos...");
-                
-                conexion = DriverManager.getConnection(URL, USUARIO, PASSWORD);
-                
-                System.out.println("✅ Conexión establecida correctamente.");
-                
-            } catch (ClassNotFoundException e) {
-                // El driver no se encontró en el classpath
-                System.err.println("❌ ERROR: Driver de SQL Server no encontrado.");
-                System.err.println("   Asegúrate de tener el archivo .jar del driver");
-                System.err.println("   en la carpeta lib/ del proyecto.");
-                throw new SQLException("Driver no encontrado: " + e.getMessage());
-                
-            } catch (SQLException e) {
-                // Error al conectar con la base de datos
-                System.err.println("❌ ERROR: No se pudo conectar a la base de datos.");
-                System.err.println("   URL: " + URL);
-                System.err.println("   Usuario: " + USUARIO);
-                System.err.println("   Mensaje: " + e.getMessage());
-                throw e;  // Re-lanzamos la excepción
+            if (esquemaAutomatico) {
+                try (Connection conn = nuevo.obtener()) {
+                    EsquemaBD.aplicar(conn, actual);
+                } catch (SQLException | RuntimeException e) {
+                    nuevo.cerrar();
+                    throw e;
+                }
             }
+            
+            pool = nuevo;
+            System.out.println("✅ Conexión establecida correctamente.");
+        }
+        return pool;
+    }
+    
+    /**
+     * Abre una conexión física nueva con la BD del perfil.
+     * Solo la usa el pool cuando necesita una conexión más.
+     */
+    private static Connection crearConexionFisica() throws SQLException {
+        try {
+            // --------------------------------------------------------
+            // PASO 1: Cargar el driver del perfil
+            // --------------------------------------------------------
+            // Class.forName() carga la clase del driver en memoria.
+            // El driver se registra automáticamente con DriverManager.
+            // 
+            // Para SQL Server, el driver es:
+            //   com.microsoft.sqlserver.jdbc.SQLServerDriver
+            //
+            // NOTA: Desde JDBC 4.0 (Java 6+), esto es opcional si
+            // el driver está en el classpath, pero lo dejamos por
+            // compatibilidad y claridad.
+            //
+            // H2 y SQLite tienen su propio driver (ver PerfilBD).
+            
+            Class.forName(perfil.getDriver());
+            
+            // --------------------------------------------------------
+            // PASO 2: Establecer la conexión
+            // --------------------------------------------------------
+            // DriverManager.getConnection() crea la conexión física.
+            // Usa la URL, usuario y contraseña que definimos arriba.
+            
+            return DriverManager.getConnection(url, usuario, password);
+            
+        } catch (ClassNotFoundException e) {
+            // El driver no se encontró en el classpath
+            System.err.println("❌ ERROR: Driver de " + perfil + " no encontrado.");
+            System.err.println("   Asegúrate de tener el archivo .jar del driver");
+            System.err.println("   en la carpeta lib/ del proyecto.");
+            throw new SQLException("Driver no encontrado: " + e.getMessage());
+            
+        } catch (SQLException e) {
+            // Error al conectar con la base de datos
+            System.err.println("❌ ERROR: No se pudo conectar a la base de datos.");
+            System.err.println("   URL: " + url);
+            System.err.println("   Usuario: " + usuario);
+            System.err.println("   Mensaje: " + e.getMessage());
+            throw e;  // Re-lanzamos la excepción
         }
-        
-        return conexion;
     }
     
     // ════════════════════════════════════════════════════════
     // 🔒 MÉTODO: cerrarConexion()
     // ════════════════════════════════════════════════════════
     /**
-     * Cierra la conexión a la base de datos.
+     * Cierra todas las conexiones del pool.
      * 
-     * 📌 ¿POR QUÉ CERRAR LA CONEXIÓN?
+     * 📌 ¿POR QUÉ CERRAR LAS CONEXIONES?
      * ─────────────────────────────────
      * Las conexiones a base de datos son recursos limitados.
      * Si no las cerramos:
      *   • Consumimos memoria innecesariamente
-     *   • Podemos agotar el pool de conexiones
+     *   • Podemos agotar las conexiones del servidor
      *   • Pueden quedar transacciones abiertas
      * 
      * 📌 ¿CUÁNDO CERRAR?
      * ─────────────────────────────────
      * En este proyecto, cerramos al salir de la aplicación.
-     * En aplicaciones web, normalmente se usa un pool de conexiones.
      */
-    public static void cerrarConexion() {
-        if (conexion != null) {
-            try {
-                conexion.close();
-                System.out.println("🔒 Conexión cerrada correctamente.");
-            } catch (SQLException e) {
-                System.err.println("⚠️ Error al cerrar la conexión: " + e.getMessage());
-            }
+    public static synchronized void cerrarConexion() {
+        if (pool != null) {
+            System.out.println("📊 " + pool);
+            pool.cerrar();
+            pool = null;
+            System.out.println("🔒 Conexión cerrada correctamente.");
         }
     }
     
@@ -220,8 +392,8 @@ public class ConexionBD {
      * @return true si la conexión es exitosa, false en caso contrario
      */
     public static boolean probarConexion() {
-        try {
-            Connection conn = getConexion();
+        // try-with-resources: devolvemos la conexión al pool al terminar
+        try (Connection conn = getConexion()) {
             return conn != null && !conn.isClosed();
         } catch (SQLException e) {
             return false;
@@ -258,4 +430,5 @@ public class ConexionBD {
  *   1. Descargar mssql-jdbc de Microsoft
  *   2. Copiar el .jar a la carpeta lib/
  *   3. Incluir en el classpath al compilar y ejecutar
+ *   (Con -Dhotel.bd=h2 o sqlite: h2-*.jar o sqlite-jdbc-*.jar)
  */
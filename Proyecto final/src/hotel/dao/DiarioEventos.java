@@ -0,0 +1,475 @@
+package hotel.dao;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * ============================================================
+ * 📔 CLASE: DiarioEventos (Registro de auditoría "write-behind")
+ * ============================================================
+ *
+ * 📚 ¿QUÉ ES?
+ * ─────────────────────────────────
+ * Un fichero donde se AÑADEN (nunca se modifican) los eventos
+ * de reservas: creada, cancelada, cambio de disponibilidad.
+ * Con él se puede saber qué pasó y reconstruir el estado de las
+ * habitaciones (ver ReproductorDiario).
+ *
+ * 📌 "WRITE-BEHIND": EL DISCO NO FRENA AL RECEPCIONISTA
+ * ─────────────────────────────────
+ *
+ *   Hilo del DAO                    Hilo "diario-eventos"
+ *   ────────────                    ─────────────────────
+ *   registrar(evento) ──▶ [ buffer circular ] ──▶ fichero mapeado
+ *   (vuelve al momento)     en memoria             en memoria + force()
+ *
+ * El DAO solo copia unos números en un array y sigue. Un hilo
+ * en segundo plano los escribe en el fichero y cada 200 ms
+ * llama a force() para que lleguen al disco.
+ *
+ * 📌 BUFFER CIRCULAR SIN BLOQUEOS (lock-free):
+ * ─────────────────────────────────
+ * Cada productor reserva un hueco con compareAndSet sobre un
+ * contador atómico (nunca espera a otro hilo), rellena el hueco
+ * y lo "publica" escribiendo su número de secuencia. El hilo
+ * escritor lee los huecos en orden y solo avanza cuando el
+ * siguiente ya está publicado.
+ *
+ * Si el buffer se llena (el disco no da abasto), el productor
+ * espera como mucho ESPERA_MAXIMA (1 ms) a que el escritor libere
+ * un hueco (se cuenta en getEsperas()). Si sigue lleno, el evento
+ * se DESCARTA: registrar() devuelve false y se cuenta en
+ * getDescartados(). El hilo de la petición nunca se queda parado
+ * esperando al disco.
+ *
+ * 📌 NADA SE PIERDE EN SILENCIO:
+ * ─────────────────────────────────
+ *   • Buffer lleno → false + getDescartados() (y aviso al cerrar)
+ *   • Diario cerrado, o fichero que no se pudo abrir o escribir →
+ *     IllegalStateException
+ *
+ * Los DAOs registran DESPUÉS del commit: la reserva ya está
+ * guardada, así que capturan la excepción y solo la anotan (el
+ * diario es auditoría, no la fuente de verdad).
+ *
+ * Cerrar marca el bit CERRADO en el contador de secuencias con
+ * la misma operación atómica que usan los productores: quien
+ * reservó hueco antes del cierre SIEMPRE llega al fichero, y
+ * quien llega después recibe la excepción.
+ *
+ * 📌 FORMATO DEL FICHERO (registros de 32 bytes):
+ * ─────────────────────────────────
+ *   0  tipo (byte)          1  disponible (byte)    2  (libre)
+ *   4  idReserva (int)      8  idHabitacion (int)
+ *   12 entrada (int, día)   16 salida (int, día)
+ *   20 marca de tiempo (long, ms)    28 importe (int, céntimos)
+ *
+ * El fichero crece en bloques de 8 MB mapeados en memoria
+ * (MappedByteBuffer). La parte sin usar está a ceros: el primer
+ * registro con tipo 0 marca el final.
+ *
+ * ============================================================
+ */
+public class DiarioEventos {
+
+    public static final int TAMANIO_REGISTRO = 32;
+    private static final int TAMANIO_BLOQUE = 8 * 1024 * 1024;   // Múltiplo de 32
+    private static final int CAPACIDAD_BUFFER = 1 << 16;         // Potencia de 2
+    private static final long INTERVALO_FORCE_NANOS = 200_000_000L;
+    private static final long ESPERA_MAXIMA_NANOS = 1_000_000L;       // 1 ms con el buffer lleno
+    private static final long CERRADO = 1L << 62;                     // Bit de cierre en 'siguiente'
+
+    // ════════════════════════════════════════════════════════
+    // 🔒 INSTANCIA COMPARTIDA
+    // ════════════════════════════════════════════════════════
+
+    private static Path rutaPorDefecto = Paths.get("diario_reservas.dat");
+    private static DiarioEventos instancia = null;
+
+    /**
+     * Cambia el fichero del diario. Debe llamarse antes del
+     * primer getInstancia().
+     */
+    public static synchronized void configurar(Path ruta) {
+        rutaPorDefecto = ruta;
+    }
+
+    /**
+     * Devuelve el diario compartido, abriéndolo la primera vez.
+     */
+    public static synchronized DiarioEventos getInstancia() {
+        if (instancia == null) {
+            instancia = new DiarioEventos(rutaPorDefecto, CAPACIDAD_BUFFER);
+        }
+        return instancia;
+    }
+
+    /**
+     * Vacía y cierra el diario compartido (al salir de la aplicación).
+     */
+    public static synchronized void cerrarInstancia() {
+        if (instancia != null) {
+            instancia.cerrar();
+            instancia = null;
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 📦 BUFFER CIRCULAR (arrays paralelos, un hueco por evento)
+    // ════════════════════════════════════════════════════════
+
+    private final int capacidad;
+    private final int mascara;
+    private final byte[] tipo;
+    private final byte[] disponible;
+    private final int[] idReserva;
+    private final int[] idHabitacion;
+    private final int[] entrada;
+    private final int[] salida;
+    private final long[] marcaTiempo;
+    private final int[] importeCentimos;
+
+    // publicado[i] = secuencia + 1 cuando el hueco i está listo para escribir
+    private final AtomicLongArray publicado;
+
+    private final AtomicLong siguiente = new AtomicLong();  // Próxima secuencia a reservar (| CERRADO)
+    private volatile long leidos = 0;                       // Próxima secuencia a escribir
+
+    private final AtomicLong esperas = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+    private final AtomicLong escritos = new AtomicLong();
+
+    // ════════════════════════════════════════════════════════
+    // 📦 FICHERO
+    // ════════════════════════════════════════════════════════
+
+    private final Path ruta;
+    private FileChannel canal;
+    private MappedByteBuffer bloque;
+    private long inicioBloque;
+    private boolean sucio = false;
+
+    private final Thread escritor;
+    private volatile IOException fallo;  // Error que dejó el diario sin escritor
+
+    // ════════════════════════════════════════════════════════
+    // 🔧 CONSTRUCTOR
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Abre (o crea) un diario y arranca el hilo escritor.
+     * Si el fichero no se puede abrir, cada registrar() lanzará
+     * IllegalStateException con el error.
+     *
+     * @param ruta      Fichero del diario
+     * @param capacidad Huecos del buffer circular (potencia de 2)
+     */
+    public DiarioEventos(Path ruta, int capacidad) {
+        if (Integer.bitCount(capacidad) != 1) {
+            throw new IllegalArgumentException("La capacidad debe ser potencia de 2: " + capacidad);
+        }
+        this.ruta = ruta;
+        this.capacidad = capacidad;
+        this.mascara = capacidad - 1;
+        this.tipo = new byte[capacidad];
+        this.disponible = new byte[capacidad];
+        this.idReserva = new int[capacidad];
+        this.idHabitacion = new int[capacidad];
+        this.entrada = new int[capacidad];
+        this.salida = new int[capacidad];
+        this.marcaTiempo = new long[capacidad];
+        this.importeCentimos = new int[capacidad];
+        this.publicado = new AtomicLongArray(capacidad);
+
+        try {
+            abrirFichero();
+        } catch (IOException e) {
+            System.err.println("❌ Error al abrir el diario de eventos " + ruta + ": " + e.getMessage());
+            fallo = e;
+        }
+
+        this.escritor = new Thread(this::bucleEscritor, "diario-eventos");
+        this.escritor.setDaemon(true);
+        if (fallo == null) {
+            this.escritor.start();
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // ✏️ REGISTRAR EVENTOS (lo llaman los DAOs)
+    // ════════════════════════════════════════════════════════
+
+    public boolean reservaCreada(int idReserva, int idHabitacion, LocalDate entrada,
+                                 LocalDate salida, double importe) {
+        return registrar(TipoEvento.RESERVA_CREADA, idReserva, idHabitacion,
+                         (int) entrada.toEpochDay(), (int) salida.toEpochDay(), false, importe);
+    }
+
+    public boolean reservaCancelada(int idReserva) {
+        return registrar(TipoEvento.RESERVA_CANCELADA, idReserva, 0, 0, 0, false, 0);
+    }
+
+    public boolean reservaReasignada(int idReserva, int idHabitacion) {
+        return registrar(TipoEvento.RESERVA_REASIGNADA, idReserva, idHabitacion, 0, 0, false, 0);
+    }
+
+    public boolean disponibilidadCambiada(int idHabitacion, boolean disponible) {
+        return registrar(TipoEvento.DISPONIBILIDAD_CAMBIADA, 0, idHabitacion, 0, 0, disponible, 0);
+    }
+
+    /**
+     * Deja un evento en el buffer. Si está lleno espera como mucho
+     * ESPERA_MAXIMA (1 ms) y, si sigue lleno, lo descarta.
+     *
+     * @return true si el evento quedó en el buffer; false si se
+     *         descartó por buffer lleno (cuenta en getDescartados())
+     * @throws IllegalStateException si el diario está cerrado o el
+     *         escritor falló: el evento NO se ha guardado
+     */
+    public boolean registrar(TipoEvento evento, int idRes, int idHab, int diaEntrada, int diaSalida,
+                          boolean disp, double importe) {
+        // PASO 1: reservar una secuencia (sin bloqueos salvo buffer lleno)
+        long secuencia;
+        long limite = 0;
+        while (true) {
+            secuencia = siguiente.get();
+            if (fallo != null) {
+                throw new IllegalStateException("El diario de eventos " + ruta + " no puede escribir: "
+                                                + fallo.getMessage(), fallo);
+            }
+            if ((secuencia & CERRADO) != 0) {
+                throw new IllegalStateException("El diario de eventos " + ruta + " está cerrado");
+            }
+            if (secuencia - leidos < capacidad) {
+                if (siguiente.compareAndSet(secuencia, secuencia + 1)) {
+                    break;
+                }
+                continue;
+            }
+
+            // Buffer lleno: esperamos un poco al escritor, no más
+            long ahora = System.nanoTime();
+            if (limite == 0) {
+                limite = ahora + ESPERA_MAXIMA_NANOS;
+                esperas.incrementAndGet();
+            } else if (ahora - limite > 0) {
+                descartados.incrementAndGet();
+                return false;
+            }
+            LockSupport.parkNanos(50_000L);
+        }
+
+        // PASO 2: rellenar el hueco
+        int i = (int) (secuencia & mascara);
+        tipo[i] = evento.getCodigo();
+        disponible[i] = (byte) (disp ? 1 : 0);
+        idReserva[i] = idRes;
+        idHabitacion[i] = idHab;
+        entrada[i] = diaEntrada;
+        salida[i] = diaSalida;
+        marcaTiempo[i] = System.currentTimeMillis();
+        importeCentimos[i] = (int) Math.round(importe * 100);
+
+        // PASO 3: publicar (la escritura atómica hace visibles los campos)
+        publicado.set(i, secuencia + 1);
+        return true;
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 🧵 HILO ESCRITOR
+    // ════════════════════════════════════════════════════════
+
+    private void bucleEscritor() {
+        long ultimoForce = System.nanoTime();
+
+        while (true) {
+            // Tras cerrar, solo quedan por escribir las secuencias ya reservadas
+            long reservadas = siguiente.get();
+            if ((reservadas & CERRADO) != 0 && leidos == (reservadas & ~CERRADO)) {
+                return;
+            }
+
+            int escritosAhora = 0;
+            try {
+                escritosAhora = vaciarBuffer();
+
+                long ahora = System.nanoTime();
+                if (sucio && ahora - ultimoForce >= INTERVALO_FORCE_NANOS) {
+                    bloque.force();
+                    sucio = false;
+                    ultimoForce = ahora;
+                }
+            } catch (IOException e) {
+                System.err.println("❌ Error al escribir el diario de eventos: " + e.getMessage());
+                fallo = e;
+                return;
+            }
+
+            if (escritosAhora == 0) {
+                LockSupport.parkNanos(1_000_000L);  // Nada pendiente: 1 ms de descanso
+            }
+        }
+    }
+
+    /**
+     * Copia al fichero todos los eventos ya publicados, en orden.
+     *
+     * @return Eventos escritos
+     */
+    private int vaciarBuffer() throws IOException {
+        int n = 0;
+        long secuencia = leidos;
+
+        while (true) {
+            int i = (int) (secuencia & mascara);
+            if (publicado.get(i) != secuencia + 1) {
+                break;  // El siguiente aún no está listo
+            }
+
+            if (bloque.remaining() < TAMANIO_REGISTRO) {
+                bloque.force();
+                mapearBloque(inicioBloque + TAMANIO_BLOQUE, 0);
+            }
+
+            bloque.put(tipo[i]);
+            bloque.put(disponible[i]);
+            bloque.putShort((short) 0);
+            bloque.putInt(idReserva[i]);
+            bloque.putInt(idHabitacion[i]);
+            bloque.putInt(entrada[i]);
+            bloque.putInt(salida[i]);
+            bloque.putLong(marcaTiempo[i]);
+            bloque.putInt(importeCentimos[i]);
+
+            secuencia++;
+            leidos = secuencia;  // Libera el hueco para los productores
+            n++;
+        }
+
+        if (n > 0) {
+            sucio = true;
+            escritos.addAndGet(n);
+        }
+        return n;
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 📂 GESTIÓN DEL FICHERO
+    // ════════════════════════════════════════════════════════
+
+    private void abrirFichero() throws IOException {
+        canal = FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                 StandardOpenOption.WRITE);
+
+        // Buscamos el final: el primer registro con tipo 0 (o el final del fichero)
+        long fin = buscarFinal(canal);
+        long inicio = fin - (fin % TAMANIO_BLOQUE);
+        mapearBloque(inicio, (int) (fin - inicio));
+    }
+
+    private void mapearBloque(long inicio, int posicion) throws IOException {
+        // map() en modo READ_WRITE amplía el fichero si hace falta
+        bloque = canal.map(FileChannel.MapMode.READ_WRITE, inicio, TAMANIO_BLOQUE);
+        bloque.position(posicion);
+        inicioBloque = inicio;
+    }
+
+    /**
+     * Posición (en bytes) detrás del último registro escrito.
+     */
+    static long buscarFinal(FileChannel canal) throws IOException {
+        ByteBuffer lectura = ByteBuffer.allocate(TAMANIO_REGISTRO * 2048);
+        long posicion = 0;
+        long tamanio = canal.size();
+
+        while (posicion < tamanio) {
+            lectura.clear();
+            int leidosAhora = canal.read(lectura, posicion);
+            if (leidosAhora <= 0) {
+                break;
+            }
+            for (int off = 0; off + TAMANIO_REGISTRO <= leidosAhora; off += TAMANIO_REGISTRO) {
+                if (lectura.get(off) == 0) {
+                    return posicion + off;
+                }
+            }
+            posicion += leidosAhora - (leidosAhora % TAMANIO_REGISTRO);
+        }
+        return posicion;
+    }
+
+    /**
+     * Deja de aceptar eventos, escribe los pendientes, hace
+     * force() y cierra el fichero.
+     */
+    public void cerrar() {
+        // Desde aquí registrar() lanza excepción; lo ya reservado se escribe
+        siguiente.getAndUpdate(s -> s | CERRADO);
+        if (canal == null) {
+            return;
+        }
+        try {
+            escritor.join();
+            bloque.force();
+            canal.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("❌ Error al cerrar el diario de eventos: " + e.getMessage());
+        }
+        if (getPendientes() > 0) {
+            System.err.println("❌ El diario de eventos " + ruta + " se cerró con "
+                               + getPendientes() + " eventos sin escribir");
+        }
+        if (getDescartados() > 0) {
+            System.err.println("⚠️ El diario de eventos " + ruta + " descartó "
+                               + getDescartados() + " eventos con el buffer lleno");
+        }
+        canal = null;
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 📊 MÉTRICAS
+    // ════════════════════════════════════════════════════════
+
+    public Path getRuta() {
+        return ruta;
+    }
+
+    public long getEscritos() {
+        return escritos.get();
+    }
+
+    /**
+     * @return Veces que un productor encontró el buffer lleno y esperó
+     */
+    public long getEsperas() {
+        return esperas.get();
+    }
+
+    /**
+     * @return Eventos descartados porque el buffer seguía lleno
+     */
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    public long getPendientes() {
+        return (siguiente.get() & ~CERRADO) - leidos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Diario %s[escritos=%d, pendientes=%d, esperas=%d, descartados=%d]",
+                             ruta, getEscritos(), getPendientes(), getEsperas(), getDescartados());
+    }
+}
@@ -0,0 +1,179 @@
+package hotel.dao;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ============================================================
+ * 🧱 CLASE: EsquemaBD (Crear tablas e índices al arrancar)
+ * ============================================================
+ *
+ * script_base_datos.sql está escrito para SQL Server (IDENTITY,
+ * GO...) y hay que lanzarlo a mano. Esta clase crea las mismas
+ * tablas desde Java, con la sintaxis de cada PerfilBD, la primera
+ * vez que ConexionBD abre el pool.
+ *
+ * Todas las sentencias son "crear SI NO EXISTE": se puede aplicar
+ * en cada arranque sin tocar los datos que ya haya.
+ *
+ * 📌 ÍNDICES:
+ * ─────────────────────────────────
+ *   IX_Reservas_Cliente             → reservas de un cliente
+ *   IX_Reservas_Habitacion_Entrada  → solapes de una habitación
+ *                                     (reservarAtomicamente)
+ *   IX_Reservas_Entrada_Id          → páginas de reservas (listarPagina)
+ *   IX_Habitaciones_Disponible      → listarDisponibles
+ *
+ * ============================================================
+ */
+public class EsquemaBD {
+
+    /** Índices comunes a todos los perfiles: nombre, tabla y columnas. */
+    private static final String[][] INDICES = {
+        {"IX_Reservas_Cliente", "Reservas", "idCliente"},
+        {"IX_Reservas_Habitacion_Entrada", "Reservas", "idHabitacion, fechaEntrada"},
+        {"IX_Reservas_Entrada_Id", "Reservas", "fechaEntrada DESC, id DESC"},
+        {"IX_Habitaciones_Disponible", "Habitaciones", "disponible"}
+    };
+
+    /** Habitaciones de ejemplo (las mismas que el script de SQL Server). */
+    private static final String DATOS_EJEMPLO =
+        "INSERT INTO Habitaciones (tipo, precio, disponible) VALUES " +
+        "('individual', 45.00, 1), ('doble', 70.00, 1), ('suite', 120.00, 1), " +
+        "('doble', 65.00, 0), ('suite', 150.00, 1)";
+
+    // ════════════════════════════════════════════════════════
+    // 🧱 APLICAR
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Crea las tablas e índices que falten.
+     *
+     * En las BD embebidas, si no hay habitaciones, además
+     * inserta las 5 de ejemplo para poder probar enseguida.
+     *
+     * Si falla un índice (p. ej. sin permiso para crear índices
+     * en SQL Server) se avisa y se sigue con el siguiente: sin él
+     * todo funciona, solo más lento. Si falla una tabla o los
+     * datos de ejemplo se lanza la excepción: sin tablas no
+     * funciona nada, y ConexionBD no debe dar el pool por bueno.
+     *
+     * @param conn   Conexión sobre la que aplicar el esquema
+     * @param perfil Dialecto SQL a usar
+     * @return Número de índices que no se han podido crear
+     * @throws SQLException si no se puede crear una tabla o
+     *                      insertar los datos de ejemplo
+     */
+    public static int aplicar(Connection conn, PerfilBD perfil) throws SQLException {
+        int fallos = 0;
+
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : sentenciasTablas(perfil)) {
+                stmt.execute(sql);
+            }
+
+            for (String sql : sentenciasIndices(perfil)) {
+                try {
+                    stmt.execute(sql);
+                } catch (SQLException e) {
+                    fallos++;
+                    System.err.println("⚠️ Esquema (" + perfil + "): " + e.getMessage());
+                }
+            }
+
+            if (perfil.isEmbebida() && contarHabitaciones(stmt) == 0) {
+                stmt.executeUpdate(DATOS_EJEMPLO);
+                System.out.println("🏠 Insertadas 5 habitaciones de ejemplo.");
+            }
+        }
+
+        return fallos;
+    }
+
+    private static int contarHabitaciones(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM Habitaciones")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 📜 SENTENCIAS POR DIALECTO
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Sentencias CREATE TABLE del perfil, en orden (primero las
+     * tablas referenciadas por las claves foráneas).
+     */
+    static List<String> sentenciasTablas(PerfilBD perfil) {
+        List<String> sql = new ArrayList<>();
+
+        for (String[] tabla : tablas(perfil)) {
+            if (perfil == PerfilBD.SQLSERVER) {
+                // SQL Server no tiene CREATE TABLE IF NOT EXISTS
+                sql.add("IF OBJECT_ID('" + tabla[0] + "', 'U') IS NULL CREATE TABLE " + tabla[0] + " (" + tabla[1] + ")");
+            } else {
+                sql.add("CREATE TABLE IF NOT EXISTS " + tabla[0] + " (" + tabla[1] + ")");
+            }
+        }
+
+        return sql;
+    }
+
+    /**
+     * Sentencias CREATE INDEX del perfil.
+     */
+    static List<String> sentenciasIndices(PerfilBD perfil) {
+        List<String> sql = new ArrayList<>();
+
+        for (String[] indice : INDICES) {
+            String crear = "CREATE INDEX " + indice[0] + " ON " + indice[1] + " (" + indice[2] + ")";
+            if (perfil == PerfilBD.SQLSERVER) {
+                sql.add("IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = '" + indice[0] + "') " + crear);
+            } else {
+                sql.add(crear.replace("CREATE INDEX ", "CREATE INDEX IF NOT EXISTS "));
+            }
+        }
+
+        return sql;
+    }
+
+    /**
+     * Nombre y columnas de cada tabla. Solo cambia la columna id
+     * autoincremental y el tipo del campo 'disponible'.
+     */
+    private static String[][] tablas(PerfilBD perfil) {
+        String id;
+        String booleano;
+        switch (perfil) {
+            case SQLITE:
+                id = "id INTEGER PRIMARY KEY AUTOINCREMENT";
+                booleano = "INTEGER";  // SQLite guarda los booleanos como 0/1
+                break;
+            case H2:
+                id = "id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY";
+                booleano = "BIT";
+                break;
+            default:
+                id = "id INT PRIMARY KEY IDENTITY(1,1)";
+                booleano = "BIT";
+                break;
+        }
+
+        return new String[][] {
+            {"Habitaciones",
+             id + ", tipo VARCHAR(20) NOT NULL, precio DECIMAL(10,2) NOT NULL, " +
+             "disponible " + booleano + " DEFAULT 1"},
+            {"Clientes",
+             id + ", nombre VARCHAR(100) NOT NULL, telefono VARCHAR(15), email VARCHAR(100)"},
+            {"Reservas",
+             id + ", idCliente INT NOT NULL, idHabitacion INT NOT NULL, " +
+             "fechaEntrada DATE NOT NULL, fechaSalida DATE NOT NULL, total DECIMAL(10,2), " +
+             "CONSTRAINT FK_Reserva_Cliente FOREIGN KEY (idCliente) REFERENCES Clientes(id), " +
+             "CONSTRAINT FK_Reserva_Habitacion FOREIGN KEY (idHabitacion) REFERENCES Habitaciones(id)"}
+        };
+    }
+}
@@ -2,7 +2,10 @@ package hotel.dao;
 
 import hotel.modelo.Habitacion;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * ============================================================
@@ -15,6 +18,8 @@ import java.util.ArrayList;
  * 📌 MÉTODOS PRINCIPALES:
  * ─────────────────────────────────
  *   • listarDisponibles() → Obtiene habitaciones libres
+ *   • listarDisponibles(entrada, salida) → Libres en un rango de fechas
+ *   • estaLibre(id, entrada, salida) → Una habitación en un rango de fechas
  *   • obtenerPorId()      → Busca una habitación por su ID
  *   • actualizarDisponibilidad() → Cambia el estado disponible/ocupada
  * 
@@ -22,6 +27,45 @@ import java.util.ArrayList;
  */
 public class HabitacionDAO {
     
+    // ════════════════════════════════════════════════════════
+    // ⚡ CACHÉ DE LECTURA
+    // ════════════════════════════════════════════════════════
+    // Compartida por todas las instancias de HabitacionDAO (static).
+    // Dimensionada para un hotel de hasta ~2.000 habitaciones.
+    // obtenerPorId() la consulta antes de ir a la BD;
+    // actualizarDisponibilidad() e insertar() la invalidan.
+    
+    private static final int CACHE_CAPACIDAD = 2_048;         // Habitaciones en memoria
+    private static final long CACHE_TTL_MS = 10 * 60 * 1000;  // 10 minutos
+    
+    private static final CacheLectura<Habitacion> CACHE = new CacheLectura<>(
+        "Habitaciones", CACHE_CAPACIDAD, CACHE_TTL_MS,
+        h -> new Habitacion(h.getId(), h.getTipo(), h.getPrecioPorNoche(), h.isDisponible())
+    );
+    
+    /**
+     * Devuelve la caché de habitaciones (para consultar sus métricas).
+     * 
+     * @return La caché compartida de habitaciones
+     */
+    public static CacheLectura<Habitacion> getCache() {
+        return CACHE;
+    }
+    
+    // Lista completa de habitaciones para listarDisponibles(entrada, salida):
+    // las habitaciones casi nunca cambian y esa búsqueda se hace en cada
+    // reserva. Se invalida igual que CACHE (y al importar habitaciones).
+    private static volatile List<Habitacion> todas = null;
+    private static volatile long todasCargadasMs = 0;
+    
+    /**
+     * Olvida la lista de habitaciones guardada (tras insertar o
+     * cambiar habitaciones).
+     */
+    static void invalidarListado() {
+        todas = null;
+    }
+    
     // ════════════════════════════════════════════════════════
     // 📋 MÉTODO: listarDisponibles
     // ════════════════════════════════════════════════════════
@@ -68,6 +112,118 @@ public class HabitacionDAO {
         return habitaciones;
     }
     
+    // ════════════════════════════════════════════════════════
+    // 🗓️ MÉTODO: listarDisponibles (por rango de fechas)
+    // ════════════════════════════════════════════════════════
+    /**
+     * Obtiene las habitaciones libres entre dos fechas.
+     * 
+     * 📌 DIFERENCIA CON listarDisponibles():
+     * ─────────────────────────────────
+     * El campo 'disponible' solo indica el estado actual.
+     * Este método consulta el IndiceDisponibilidad, que conoce
+     * las fechas de todas las reservas, así que una habitación
+     * ocupada hoy puede aparecer libre para el mes que viene.
+     * 
+     * No se consulta la tabla Reservas: el índice está en memoria,
+     * y la lista de habitaciones se guarda entre llamadas (TTL igual
+     * que la caché de lectura).
+     * 
+     * ⚠️ Si el índice no está cargado (falló la carga al arrancar),
+     * se pregunta a la BD con una sola consulta: con el índice vacío
+     * todas las habitaciones parecerían libres.
+     * 
+     * @param entrada Fecha de entrada (incluida)
+     * @param salida  Fecha de salida (excluida)
+     * @return Lista de habitaciones sin reservas en ese rango
+     * @throws IllegalArgumentException si entrada no es anterior a salida
+     */
+    public ArrayList<Habitacion> listarDisponibles(LocalDate entrada, LocalDate salida) {
+        validarRango(entrada, salida);
+        IndiceDisponibilidad indice = IndiceDisponibilidad.getInstancia();
+        if (!indice.isCargado()) {
+            return listarDisponiblesEnBD(entrada, salida);
+        }
+        
+        ArrayList<Habitacion> libres = new ArrayList<>();
+        for (Habitacion hab : listadoEnCache()) {
+            if (indice.estaLibre(hab.getId(), entrada, salida)) {
+                libres.add(copiar(hab));  // El llamador puede modificarla
+            }
+        }
+        
+        return libres;
+    }
+    
+    // ════════════════════════════════════════════════════════
+    // 🗓️ MÉTODO: estaLibre
+    // ════════════════════════════════════════════════════════
+    /**
+     * Indica si una habitación no tiene reservas en el rango.
+     * Usa el índice, o la BD si el índice no está cargado.
+     * 
+     * @param idHabitacion ID de la habitación
+     * @param entrada      Fecha de entrada (incluida)
+     * @param salida       Fecha de salida (excluida)
+     * @return true si está libre; false si está ocupada o no se
+     *         pudo comprobar
+     * @throws IllegalArgumentException si entrada no es anterior a salida
+     */
+    public boolean estaLibre(int idHabitacion, LocalDate entrada, LocalDate salida) {
+        validarRango(entrada, salida);
+        IndiceDisponibilidad indice = IndiceDisponibilidad.getInstancia();
+        if (indice.isCargado()) {
+            return indice.estaLibre(idHabitacion, entrada, salida);
+        }
+        
+        String sql = "SELECT COUNT(*) FROM Reservas WHERE idHabitacion = ? AND fechaEntrada < ? AND fechaSalida > ?";
+        
+        try (
+            Connection conn = ConexionBD.getConexion();
+            PreparedStatement stmt = conn.prepareStatement(sql)
+        ) {
+            stmt.setInt(1, idHabitacion);
+            stmt.setObject(2, salida);
+            stmt.setObject(3, entrada);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 0;
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("❌ Error al comprobar la disponibilidad: " + e.getMessage());
+            return false;  // Ante la duda, ocupada
+        }
+    }
+    
+    /**
+     * listarDisponibles(entrada, salida) sin índice: habitaciones
+     * sin ninguna reserva que se solape, en una sola consulta.
+     */
+    private ArrayList<Habitacion> listarDisponiblesEnBD(LocalDate entrada, LocalDate salida) {
+        ArrayList<Habitacion> libres = new ArrayList<>();
+        String sql = "SELECT * FROM Habitaciones h WHERE NOT EXISTS ("
+                   + "SELECT 1 FROM Reservas r WHERE r.idHabitacion = h.id "
+                   + "AND r.fechaEntrada < ? AND r.fechaSalida > ?) ORDER BY h.id";
+        
+        try (
+            Connection conn = ConexionBD.getConexion();
+            PreparedStatement stmt = conn.prepareStatement(sql)
+        ) {
+            stmt.setObject(1, salida);
+            stmt.setObject(2, entrada);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    libres.add(mapear(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("❌ Error al listar habitaciones disponibles: " + e.getMessage());
+        }
+        
+        return libres;
+    }
+    
     // ════════════════════════════════════════════════════════
     // 📋 MÉTODO: listarTodas
     // ════════════════════════════════════════════════════════
@@ -77,6 +233,15 @@ public class HabitacionDAO {
      * @return Lista completa de habitaciones
      */
     public ArrayList<Habitacion> listarTodas() {
+        try {
+            return cargarTodas();
+        } catch (SQLException e) {
+            System.err.println("❌ Error al listar habitaciones: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    private ArrayList<Habitacion> cargarTodas() throws SQLException {
         ArrayList<Habitacion> habitaciones = new ArrayList<>();
         String sql = "SELECT * FROM Habitaciones ORDER BY id";
         
@@ -86,22 +251,35 @@ public class HabitacionDAO {
             ResultSet rs = stmt.executeQuery(sql)
         ) {
             while (rs.next()) {
-                Habitacion hab = new Habitacion(
-                    rs.getInt("id"),
-                    rs.getString("tipo"),
-                    rs.getDouble("precio"),
-                    rs.getBoolean("disponible")
-                );
-                habitaciones.add(hab);
+                habitaciones.add(mapear(rs));
             }
-            
-        } catch (SQLException e) {
-            System.err.println("❌ Error al listar habitaciones: " + e.getMessage());
         }
         
         return habitaciones;
     }
     
+    /**
+     * Lista de habitaciones guardada; se vuelve a leer de la BD si
+     * se invalidó o pasó el TTL. Si la lectura falla, no se guarda
+     * nada (la próxima llamada lo vuelve a intentar).
+     */
+    private List<Habitacion> listadoEnCache() {
+        List<Habitacion> lista = todas;
+        if (lista != null && System.currentTimeMillis() - todasCargadasMs < CACHE_TTL_MS) {
+            return lista;
+        }
+        
+        try {
+            lista = Collections.unmodifiableList(cargarTodas());
+            todasCargadasMs = System.currentTimeMillis();
+            todas = lista;
+            return lista;
+        } catch (SQLException e) {
+            System.err.println("❌ Error al listar habitaciones: " + e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+    
     // ════════════════════════════════════════════════════════
     // 🔍 MÉTODO: obtenerPorId
     // ════════════════════════════════════════════════════════
@@ -116,10 +294,20 @@ public class HabitacionDAO {
      *       System.out.println(hab.getTipo());  // "individual"
      *   }
      * 
+     * 📌 CACHÉ:
+     * ─────────────────────────────────
+     * Primero se mira en la caché. Solo si no está (o caducó)
+     * se consulta la base de datos y se guarda el resultado.
+     * 
      * @param id El ID de la habitación a buscar
      * @return La habitación encontrada, o null si no existe
      */
     public Habitacion obtenerPorId(int id) {
+        Habitacion enCache = CACHE.obtener(id);
+        if (enCache != null) {
+            return enCache;
+        }
+        
         String sql = "SELECT * FROM Habitaciones WHERE id = ?";
         
         try (
@@ -131,12 +319,14 @@ public class HabitacionDAO {
             ResultSet rs = stmt.executeQuery();
             
             if (rs.next()) {
-                return new Habitacion(
+                Habitacion habitacion = new Habitacion(
                     rs.getInt("id"),
                     rs.getString("tipo"),
                     rs.getDouble("precio"),
                     rs.getBoolean("disponible")
                 );
+                CACHE.guardar(id, habitacion);
+                return habitacion;
             }
             
         } catch (SQLException e) {
@@ -181,9 +371,18 @@ public class HabitacionDAO {
             
             int filasAfectadas = stmt.executeUpdate();
             
+            // La copia en caché ya no es válida
+            CACHE.invalidar(idHabitacion);
+            invalidarListado();
+            
             if (filasAfectadas > 0) {
-                String estado = disponible ? "disponible ✅" : "ocupada ❌";
-                System.out.println("🔄 Habitación " + idHabitacion + " marcada como " + estado);
+                // Auditoría en segundo plano (DiarioEventos); el cambio
+                // ya está guardado aunque el diario falle
+                try {
+                    DiarioEventos.getInstancia().disponibilidadCambiada(idHabitacion, disponible);
+                } catch (IllegalStateException e) {
+                    System.err.println("⚠️ Cambio guardado, pero no anotado en el diario: " + e.getMessage());
+                }
                 return true;
             } else {
                 System.out.println("⚠️ No se encontró la habitación con ID: " + idHabitacion);
@@ -223,6 +422,8 @@ public class HabitacionDAO {
                 if (generatedKeys.next()) {
                     habitacion.setId(generatedKeys.getInt(1));
                 }
+                CACHE.invalidar(habitacion.getId());
+                invalidarListado();
                 System.out.println("✅ Habitación insertada con ID: " + habitacion.getId());
                 return true;
             }
@@ -233,4 +434,24 @@ public class HabitacionDAO {
         
         return false;
     }
+    
+    private static void validarRango(LocalDate entrada, LocalDate salida) {
+        if (!entrada.isBefore(salida)) {
+            throw new IllegalArgumentException(
+                "La fecha de salida (" + salida + ") debe ser posterior a la de entrada (" + entrada + ")");
+        }
+    }
+    
+    private static Habitacion mapear(ResultSet rs) throws SQLException {
+        return new Habitacion(
+            rs.getInt("id"),
+            rs.getString("tipo"),
+            rs.getDouble("precio"),
+            rs.getBoolean("disponible")
+        );
+    }
+    
+    private static Habitacion copiar(Habitacion h) {
+        return new Habitacion(h.getId(), h.getTipo(), h.getPrecioPorNoche(), h.isDisponible());
+    }
 }
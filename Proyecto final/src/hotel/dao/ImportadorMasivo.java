@@ -0,0 +1,679 @@
+package hotel.dao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * ============================================================
+ * 📦 CLASE: ImportadorMasivo (Carga masiva con JDBC batch)
+ * ============================================================
+ *
+ * 📚 ¿POR QUÉ NO USAR insertar() FILA A FILA?
+ * ─────────────────────────────────
+ * HabitacionDAO.insertar() y ReservaDAO.reservarAtomicamente() hacen
+ * un viaje a la BD y un commit por cada fila. Con 100.000 reservas
+ * son 100.000 viajes y 100.000 escrituras en el log de SQL Server.
+ *
+ * 📚 JDBC BATCH:
+ * ─────────────────────────────────
+ *   stmt.addBatch();      ← Acumula la fila en memoria
+ *   stmt.addBatch();
+ *   ...
+ *   stmt.executeBatch();  ← Envía TODAS las filas de una vez
+ *
+ * Además, desactivamos el autocommit y confirmamos cada
+ * 'commitCada' filas en lugar de en cada INSERT.
+ *
+ * 📌 ERRORES POR FILA:
+ * ─────────────────────────────────
+ * Una fila mal formada o que viola una FOREIGN KEY no debe
+ * tirar toda la carga:
+ *   • Errores de formato → se anotan y la fila no se envía
+ *   • Si un lote falla en la BD → se deshace SOLO ese lote
+ *     (Savepoint) y se reintenta fila a fila para saber
+ *     exactamente cuál falló
+ *
+ * 📌 RESERVAS QUE SE SOLAPAN:
+ * ─────────────────────────────────
+ * Una habitación no puede tener dos reservas en la misma noche
+ * (IndiceDisponibilidad y reservarAtomicamente cuentan con ello).
+ * Antes de enviar cada lote de reservas:
+ *   1. Se bloquean las filas de sus habitaciones (en orden de ID,
+ *      como reservarAtomicamente): nadie reserva entre medias
+ *   2. UNA consulta trae las reservas de esas habitaciones en el
+ *      rango de fechas del lote (incluidas las ya importadas)
+ *   3. Cada fila que se solapa con la BD o con una fila anterior
+ *      del fichero se rechaza como error de esa fila
+ * Los bloqueos duran hasta el siguiente commit().
+ *
+ * Tras cada commit() las reservas confirmadas se añaden al
+ * IndiceDisponibilidad y se anotan en el DiarioEventos (el
+ * ReproductorDiario las ve igual que las de recepción).
+ *
+ * 📌 FORMATO CSV (separador ';', cabecera opcional):
+ * ─────────────────────────────────
+ *   Habitaciones: tipo;precio;disponible
+ *                 doble;70.00;1
+ *                 (disponible: 1/0 o true/false; otro valor es error)
+ *
+ *   Reservas:     idCliente;idHabitacion;fechaEntrada;fechaSalida;total
+ *                 3;2;2025-07-10;2025-07-14;280.00
+ *                 (total vacío → se calcula con el precio de la habitación)
+ *
+ * ============================================================
+ */
+public class ImportadorMasivo {
+
+    // ════════════════════════════════════════════════════════
+    // 📋 RESULTADO DE LA IMPORTACIÓN
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Error en una fila concreta del CSV.
+     */
+    public static class ErrorFila {
+        private final long linea;
+        private final String mensaje;
+
+        public ErrorFila(long linea, String mensaje) {
+            this.linea = linea;
+            this.mensaje = mensaje;
+        }
+
+        public long getLinea() {
+            return linea;
+        }
+
+        public String getMensaje() {
+            return mensaje;
+        }
+
+        @Override
+        public String toString() {
+            return "Línea " + linea + ": " + mensaje;
+        }
+    }
+
+    /**
+     * Resumen de una importación: filas insertadas, errores e IDs.
+     */
+    public static class ResultadoImportacion {
+        private long filasLeidas = 0;
+        private long filasInsertadas = 0;
+        private final List<ErrorFila> errores = new ArrayList<>();
+        private final List<Integer> idsGenerados = new ArrayList<>();
+        private long duracionMs = 0;
+
+        public long getFilasLeidas() {
+            return filasLeidas;
+        }
+
+        public long getFilasInsertadas() {
+            return filasInsertadas;
+        }
+
+        public List<ErrorFila> getErrores() {
+            return errores;
+        }
+
+        /**
+         * IDs generados, en el orden de las filas insertadas.
+         *
+         * ⚠️ Algunos drivers no devuelven claves generadas para
+         * executeBatch(); en ese caso la lista puede estar incompleta.
+         */
+        public List<Integer> getIdsGenerados() {
+            return idsGenerados;
+        }
+
+        public long getDuracionMs() {
+            return duracionMs;
+        }
+
+        /**
+         * @return Filas insertadas por segundo
+         */
+        public double getFilasPorSegundo() {
+            return duracionMs == 0 ? filasInsertadas : filasInsertadas * 1000.0 / duracionMs;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "Importación: %d leídas, %d insertadas, %d errores en %d ms (%.0f filas/s)",
+                filasLeidas, filasInsertadas, errores.size(), duracionMs, getFilasPorSegundo()
+            );
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 📦 ATRIBUTOS
+    // ════════════════════════════════════════════════════════
+
+    private final int tamanioLote;
+    private final int commitCada;
+    private final HabitacionDAO habitacionDAO = new HabitacionDAO();
+
+    /**
+     * Convierte los campos de una fila CSV en los parámetros del INSERT.
+     * Lanza IllegalArgumentException si la fila no es válida.
+     */
+    private interface ParserFila {
+        Object[] parsear(String[] campos);
+    }
+
+    /**
+     * Revisa un lote contra la BD justo antes de enviarlo (con la
+     * transacción abierta). Quita de 'filas' y 'lineas' las que no
+     * se pueden insertar y anota su error.
+     */
+    private interface ValidadorLote {
+        void validar(Connection conn, List<Long> lineas, List<Object[]> filas,
+                     ResultadoImportacion resultado) throws SQLException;
+    }
+
+    /**
+     * Recibe las filas ya confirmadas (commit) con su ID generado.
+     */
+    private interface AlConfirmar {
+        void confirmadas(List<Integer> ids, List<Object[]> filas);
+    }
+
+    private static final String SQL_BLOQUEO_HABITACION =
+        "UPDATE Habitaciones SET disponible = disponible WHERE id = ?";
+
+    // Máximo de habitaciones por consulta IN (...) (SQLite admite 999 parámetros)
+    private static final int MAX_IN = 400;
+
+    // ════════════════════════════════════════════════════════
+    // 🔧 CONSTRUCTORES
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Importador con valores por defecto: lotes de 500 filas
+     * y commit cada 5.000 filas.
+     */
+    public ImportadorMasivo() {
+        this(500, 5_000);
+    }
+
+    /**
+     * @param tamanioLote Filas por cada executeBatch()
+     * @param commitCada  Filas entre cada commit()
+     */
+    public ImportadorMasivo(int tamanioLote, int commitCada) {
+        if (tamanioLote < 1 || commitCada < 1) {
+            throw new IllegalArgumentException("El tamaño de lote y de commit deben ser >= 1");
+        }
+        this.tamanioLote = tamanioLote;
+        this.commitCada = commitCada;
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 🏠 IMPORTAR HABITACIONES
+    // ════════════════════════════════════════════════════════
+    /**
+     * Importa habitaciones desde un CSV: tipo;precio;disponible
+     * ('disponible' debe ser 1/0 o true/false)
+     *
+     * @param csv Origen del CSV (se lee línea a línea, sin cargarlo entero)
+     * @return Resumen con filas insertadas, errores e IDs generados
+     */
+    public ResultadoImportacion importarHabitaciones(Reader csv) {
+        String sql = "INSERT INTO Habitaciones (tipo, precio, disponible) VALUES (?, ?, ?)";
+
+        // Las habitaciones nuevas deben salir en listarDisponibles()
+        return importar(csv, sql, "tipo", null, (ids, filas) -> HabitacionDAO.invalidarListado(), campos -> {
+            exigirColumnas(campos, 3);
+            String tipo = campos[0].trim();
+            if (tipo.isEmpty()) {
+                throw new IllegalArgumentException("El tipo no puede estar vacío");
+            }
+            double precio = leerDecimal(campos[1], "precio");
+            boolean disponible = leerBooleano(campos[2], "disponible");
+            return new Object[] { tipo, precio, disponible };
+        });
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 📅 IMPORTAR RESERVAS
+    // ════════════════════════════════════════════════════════
+    /**
+     * Importa reservas desde un CSV:
+     * idCliente;idHabitacion;fechaEntrada;fechaSalida;total
+     *
+     * Las fechas van en formato yyyy-MM-dd. Si 'total' está vacío,
+     * se calcula como noches × precio de la habitación.
+     *
+     * Las filas que se solapan con otra reserva de la misma
+     * habitación (en la BD o antes en el fichero) son errores.
+     *
+     * @param csv Origen del CSV
+     * @return Resumen con filas insertadas, errores e IDs generados
+     */
+    public ResultadoImportacion importarReservas(Reader csv) {
+        String sql = "INSERT INTO Reservas (idCliente, idHabitacion, fechaEntrada, fechaSalida, total) " +
+                     "VALUES (?, ?, ?, ?, ?)";
+
+        IndiceDisponibilidad indice = IndiceDisponibilidad.getInstancia();
+        ResultadoImportacion resultado = importar(csv, sql, "idCliente", this::rechazarSolapes,
+                                                  (ids, filas) -> reservasConfirmadas(indice, ids, filas),
+                                                  campos -> {
+            exigirColumnas(campos, 4);
+            int idCliente = leerEntero(campos[0], "idCliente");
+            int idHabitacion = leerEntero(campos[1], "idHabitacion");
+            LocalDate entrada = leerFecha(campos[2], "fechaEntrada");
+            LocalDate salida = leerFecha(campos[3], "fechaSalida");
+            if (!entrada.isBefore(salida)) {
+                throw new IllegalArgumentException("La fecha de salida debe ser posterior a la de entrada");
+            }
+
+            double total;
+            if (campos.length > 4 && !campos[4].trim().isEmpty()) {
+                total = leerDecimal(campos[4], "total");
+            } else {
+                // Usa la caché de habitaciones: casi nunca va a la BD
+                hotel.modelo.Habitacion hab = habitacionDAO.obtenerPorId(idHabitacion);
+                if (hab == null) {
+                    throw new IllegalArgumentException("No existe la habitación " + idHabitacion);
+                }
+                total = ChronoUnit.DAYS.between(entrada, salida) * hab.getPrecioPorNoche();
+            }
+
+            return new Object[] {
+                idCliente, idHabitacion,
+                entrada, salida,
+                total
+            };
+        });
+
+        // Sin IDs (el driver no los devolvió) no hay evento ni entrada en el índice:
+        // lo avisamos y recargamos el índice entero (una sola consulta)
+        long sinId = resultado.getFilasInsertadas() - resultado.getIdsGenerados().size();
+        if (sinId > 0) {
+            System.err.println("⚠️ El driver no devolvió los IDs de " + sinId
+                               + " reservas importadas: no quedan en el diario de eventos");
+            if (indice.isCargado()) {
+                new ReservaDAO().cargarIndiceDisponibilidad();
+            }
+        }
+
+        return resultado;
+    }
+
+    /**
+     * ValidadorLote de las reservas: bloquea las habitaciones del
+     * lote y rechaza las filas que se solapan (ver cabecera).
+     */
+    private void rechazarSolapes(Connection conn, List<Long> lineas, List<Object[]> filas,
+                                 ResultadoImportacion resultado) throws SQLException {
+        // PASO 1: bloquear las habitaciones, en orden de ID
+        TreeSet<Integer> habitaciones = new TreeSet<>();
+        LocalDate minEntrada = LocalDate.MAX;
+        LocalDate maxSalida = LocalDate.MIN;
+        for (Object[] fila : filas) {
+            habitaciones.add((Integer) fila[1]);
+            minEntrada = min(minEntrada, (LocalDate) fila[2]);
+            maxSalida = max(maxSalida, (LocalDate) fila[3]);
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_BLOQUEO_HABITACION)) {
+            for (int id : habitaciones) {
+                stmt.setInt(1, id);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        // PASO 2: reservas de esas habitaciones en el rango del lote
+        // habitación → (entrada → salida), en epoch days
+        Map<Integer, TreeMap<Long, Long>> ocupadas = new HashMap<>();
+        List<Integer> ids = new ArrayList<>(habitaciones);
+        for (int desde = 0; desde < ids.size(); desde += MAX_IN) {
+            List<Integer> trozo = ids.subList(desde, Math.min(desde + MAX_IN, ids.size()));
+            String sql = "SELECT idHabitacion, fechaEntrada, fechaSalida FROM Reservas " +
+                         "WHERE fechaEntrada < ? AND fechaSalida > ? AND idHabitacion IN (" +
+                         String.join(", ", Collections.nCopies(trozo.size(), "?")) + ")";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setObject(1, maxSalida);
+                stmt.setObject(2, minEntrada);
+                for (int i = 0; i < trozo.size(); i++) {
+                    stmt.setInt(i + 3, trozo.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        ocupar(ocupadas, rs.getInt(1),
+                               rs.getObject(2, LocalDate.class).toEpochDay(),
+                               rs.getObject(3, LocalDate.class).toEpochDay());
+                    }
+                }
+            }
+        }
+
+        // PASO 3: fila a fila, en el orden del fichero
+        for (int i = 0; i < filas.size(); i++) {
+            Object[] fila = filas.get(i);
+            int idHabitacion = (Integer) fila[1];
+            long entrada = ((LocalDate) fila[2]).toEpochDay();
+            long salida = ((LocalDate) fila[3]).toEpochDay();
+
+            TreeMap<Long, Long> tramos = ocupadas.get(idHabitacion);
+            Map.Entry<Long, Long> anterior = tramos == null ? null : tramos.lowerEntry(salida);
+            if (anterior != null && anterior.getValue() > entrada) {
+                resultado.errores.add(new ErrorFila(lineas.get(i), "La habitación " + idHabitacion
+                    + " ya tiene una reserva que se solapa con " + fila[2] + " → " + fila[3]));
+                filas.remove(i);
+                lineas.remove(i);
+                i--;
+                continue;
+            }
+            ocupar(ocupadas, idHabitacion, entrada, salida);
+        }
+    }
+
+    private static void ocupar(Map<Integer, TreeMap<Long, Long>> ocupadas, int idHabitacion,
+                               long entrada, long salida) {
+        ocupadas.computeIfAbsent(idHabitacion, k -> new TreeMap<>()).merge(entrada, salida, Math::max);
+    }
+
+    /**
+     * AlConfirmar de las reservas: índice de disponibilidad y diario.
+     */
+    private static void reservasConfirmadas(IndiceDisponibilidad indice, List<Integer> ids,
+                                            List<Object[]> filas) {
+        DiarioEventos diario = DiarioEventos.getInstancia();
+        boolean alIndice = indice.isCargado();
+        for (int i = 0; i < ids.size(); i++) {
+            Object[] f = filas.get(i);
+            int idHabitacion = (Integer) f[1];
+            LocalDate entrada = (LocalDate) f[2];
+            LocalDate salida = (LocalDate) f[3];
+            if (alIndice) {
+                indice.agregar(ids.get(i), idHabitacion, entrada, salida);
+            }
+            try {
+                diario.reservaCreada(ids.get(i), idHabitacion, entrada, salida, (Double) f[4]);
+            } catch (IllegalStateException e) {
+                // Las filas ya están confirmadas: el diario es solo auditoría
+                System.err.println("⚠️ Reservas importadas, pero no anotadas en el diario: "
+                                   + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // ⚙️ MOTOR DE IMPORTACIÓN
+    // ════════════════════════════════════════════════════════
+    /**
+     * Lee el CSV línea a línea, agrupa las filas en lotes y las
+     * envía con executeBatch(), confirmando cada 'commitCada' filas.
+     */
+    private ResultadoImportacion importar(Reader csv, String sql, String primeraCabecera,
+                                          ValidadorLote validador, AlConfirmar alConfirmar,
+                                          ParserFila parser) {
+        ResultadoImportacion resultado = new ResultadoImportacion();
+        Lote sinConfirmar = new Lote(validador);
+        long inicio = System.currentTimeMillis();
+
+        try (
+            BufferedReader lector = new BufferedReader(csv);
+            Connection conn = ConexionBD.getConexion();
+            PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+        ) {
+            conn.setAutoCommit(false);
+
+            List<Long> lineasLote = new ArrayList<>();
+            List<Object[]> filasLote = new ArrayList<>();
+            long numLinea = 0;
+            String linea;
+
+            while ((linea = lector.readLine()) != null) {
+                numLinea++;
+                if (linea.trim().isEmpty()) {
+                    continue;
+                }
+
+                String[] campos = linea.split(";", -1);
+
+                // Saltamos la cabecera si la hay
+                if (numLinea == 1 && campos[0].trim().equalsIgnoreCase(primeraCabecera)) {
+                    continue;
+                }
+
+                resultado.filasLeidas++;
+
+                try {
+                    filasLote.add(parser.parsear(campos));
+                    lineasLote.add(numLinea);
+                } catch (IllegalArgumentException e) {
+                    resultado.errores.add(new ErrorFila(numLinea, e.getMessage()));
+                    continue;
+                }
+
+                if (filasLote.size() >= tamanioLote) {
+                    ejecutarLote(conn, stmt, lineasLote, filasLote, sinConfirmar, resultado);
+                    if (sinConfirmar.insertadas >= commitCada) {
+                        confirmar(conn, sinConfirmar, alConfirmar, resultado);
+                    }
+                }
+            }
+
+            // Último lote (incompleto) y commit final
+            ejecutarLote(conn, stmt, lineasLote, filasLote, sinConfirmar, resultado);
+            confirmar(conn, sinConfirmar, alConfirmar, resultado);
+
+        } catch (IOException | SQLException e) {
+            // Lo ya confirmado se queda; lo pendiente se deshace al devolver la
+            // conexión y no cuenta en el resultado
+            String deshechas = sinConfirmar.insertadas > 0
+                ? " (" + sinConfirmar.insertadas + " filas sin confirmar deshechas)" : "";
+            resultado.errores.add(new ErrorFila(-1, "Importación interrumpida: " + e.getMessage() + deshechas));
+            System.err.println("❌ Error en la importación masiva: " + e.getMessage());
+        }
+
+        resultado.duracionMs = System.currentTimeMillis() - inicio;
+        System.out.println("📦 " + resultado);
+        return resultado;
+    }
+
+    /**
+     * Filas insertadas desde el último commit (con su ID). Solo
+     * pasan al ResultadoImportacion y a AlConfirmar cuando se
+     * confirman: si la importación se corta, se deshacen y no
+     * cuentan.
+     */
+    private static class Lote {
+        final ValidadorLote validador;
+        final List<Integer> ids = new ArrayList<>();         // Emparejados con 'filas'
+        final List<Object[]> filas = new ArrayList<>();
+        final List<Integer> idsLeidos = new ArrayList<>();   // Todos los que dio el driver
+        long insertadas = 0;
+
+        Lote(ValidadorLote validador) {
+            this.validador = validador;
+        }
+    }
+
+    /**
+     * commit() y, solo si sale bien, anota las filas en el
+     * resultado y avisa a AlConfirmar.
+     */
+    private static void confirmar(Connection conn, Lote sinConfirmar, AlConfirmar alConfirmar,
+                                  ResultadoImportacion resultado) throws SQLException {
+        conn.commit();
+        resultado.filasInsertadas += sinConfirmar.insertadas;
+        resultado.idsGenerados.addAll(sinConfirmar.idsLeidos);
+        if (alConfirmar != null && !sinConfirmar.ids.isEmpty()) {
+            alConfirmar.confirmadas(sinConfirmar.ids, sinConfirmar.filas);
+        }
+        sinConfirmar.ids.clear();
+        sinConfirmar.filas.clear();
+        sinConfirmar.idsLeidos.clear();
+        sinConfirmar.insertadas = 0;
+    }
+
+    /**
+     * Envía un lote. Si falla, lo deshace y lo reintenta fila a fila.
+     *
+     * @return Número de filas insertadas
+     */
+    private long ejecutarLote(Connection conn, PreparedStatement stmt, List<Long> lineas,
+                              List<Object[]> filas, Lote sinConfirmar,
+                              ResultadoImportacion resultado) throws SQLException {
+        if (sinConfirmar.validador != null && !filas.isEmpty()) {
+            sinConfirmar.validador.validar(conn, lineas, filas, resultado);
+        }
+        if (filas.isEmpty()) {
+            lineas.clear();
+            return 0;
+        }
+
+        long insertadas;
+        Savepoint antesDelLote = conn.setSavepoint();
+
+        try {
+            for (Object[] fila : filas) {
+                asignarParametros(stmt, fila);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            anotar(leerClaves(stmt), filas, sinConfirmar);
+            insertadas = filas.size();
+
+        } catch (BatchUpdateException e) {
+            // Algo del lote falló: lo deshacemos y vamos fila a fila
+            conn.rollback(antesDelLote);
+            stmt.clearBatch();
+            insertadas = ejecutarFilaAFila(conn, stmt, lineas, filas, sinConfirmar, resultado);
+        }
+
+        sinConfirmar.insertadas += insertadas;  // Cuentan al confirmar
+        lineas.clear();
+        filas.clear();
+        return insertadas;
+    }
+
+    /**
+     * Inserta cada fila por separado para aislar las que fallan.
+     */
+    private long ejecutarFilaAFila(Connection conn, PreparedStatement stmt, List<Long> lineas,
+                                   List<Object[]> filas, Lote sinConfirmar,
+                                   ResultadoImportacion resultado) throws SQLException {
+        long insertadas = 0;
+
+        for (int i = 0; i < filas.size(); i++) {
+            Savepoint antesDeLaFila = conn.setSavepoint();
+            try {
+                asignarParametros(stmt, filas.get(i));
+                stmt.executeUpdate();
+                anotar(leerClaves(stmt), filas.subList(i, i + 1), sinConfirmar);
+                insertadas++;
+            } catch (SQLException e) {
+                conn.rollback(antesDeLaFila);
+                resultado.errores.add(new ErrorFila(lineas.get(i), e.getMessage()));
+            }
+        }
+
+        return insertadas;
+    }
+
+    /**
+     * Empareja cada fila insertada con su ID. Si el driver no
+     * devolvió un ID por fila, esas filas no llegan a AlConfirmar.
+     */
+    private static void anotar(List<Integer> claves, List<Object[]> filas, Lote sinConfirmar) {
+        sinConfirmar.idsLeidos.addAll(claves);
+        if (claves.size() == filas.size()) {
+            sinConfirmar.ids.addAll(claves);
+            sinConfirmar.filas.addAll(filas);
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 🛠️ MÉTODOS AUXILIARES
+    // ════════════════════════════════════════════════════════
+
+    private static void asignarParametros(PreparedStatement stmt, Object[] fila) throws SQLException {
+        for (int i = 0; i < fila.length; i++) {
+            stmt.setObject(i + 1, fila[i]);
+        }
+    }
+
+    private static List<Integer> leerClaves(PreparedStatement stmt) throws SQLException {
+        List<Integer> leidas = new ArrayList<>();
+        try (ResultSet claves = stmt.getGeneratedKeys()) {
+            while (claves.next()) {
+                leidas.add(claves.getInt(1));
+            }
+        }
+        return leidas;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static void exigirColumnas(String[] campos, int minimo) {
+        if (campos.length < minimo) {
+            throw new IllegalArgumentException(
+                "Se esperaban " + minimo + " columnas y hay " + campos.length);
+        }
+    }
+
+    private static int leerEntero(String valor, String campo) {
+        try {
+            return Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(campo + " no es un número entero: '" + valor + "'");
+        }
+    }
+
+    private static double leerDecimal(String valor, String campo) {
+        try {
+            return Double.parseDouble(valor.trim().replace(',', '.'));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(campo + " no es un número: '" + valor + "'");
+        }
+    }
+
+    private static boolean leerBooleano(String valor, String campo) {
+        String v = valor.trim();
+        if (v.equals("1") || v.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (v.equals("0") || v.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException(campo + " debe ser 1/0 o true/false: '" + valor + "'");
+    }
+
+    private static LocalDate leerFecha(String valor, String campo) {
+        try {
+            return LocalDate.parse(valor.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(campo + " no es una fecha yyyy-MM-dd: '" + valor + "'");
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package hotel.dao;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * ============================================================
+ * 🗓️ CLASE: IndiceDisponibilidad (Índice de ocupación por fechas)
+ * ============================================================
+ *
+ * 📚 ¿POR QUÉ UN ÍNDICE EN MEMORIA?
+ * ─────────────────────────────────
+ * El campo Habitaciones.disponible solo dice si una habitación
+ * está libre "ahora". Con él no se puede vender la habitación
+ * para el mes que viene mientras hoy está ocupada.
+ *
+ * Este índice guarda, para cada habitación, los intervalos
+ * [fechaEntrada, fechaSalida) de sus reservas, ordenados por
+ * fecha de entrada en un TreeMap:
+ *
+ *   Habitación 2 → { 10/07 → 14/07 (#5), 20/07 → 21/07 (#9) }
+ *   Habitación 3 → { 01/08 → 08/08 (#7) }
+ *
+ * 📌 ¿CÓMO SE COMPRUEBA SI ESTÁ LIBRE?
+ * ─────────────────────────────────
+ * Como las reservas de una habitación no se solapan entre sí,
+ * basta con mirar la ÚLTIMA reserva que empieza antes de la
+ * salida pedida (floorEntry). Si esa reserva termina después
+ * de la entrada pedida, hay solape.
+ *
+ *   Coste: O(log n) por habitación, sin consultar la BD.
+ *
+ * 📌 CLAVE DEL TreeMap:
+ * ─────────────────────────────────
+ * La clave es (fechaEntrada, idReserva) metidos en un long:
+ * los 32 bits altos son el día y los bajos el ID. Se ordena por
+ * fecha igual que antes, pero dos reservas con la MISMA entrada
+ * (datos antiguos o importados) ya no se pisan: cada una tiene
+ * su clave y quitar() borra exactamente la suya.
+ *
+ * 📌 FECHAS COMO "EPOCH DAY":
+ * ─────────────────────────────────
+ * Internamente las fechas se guardan como número de días desde
+ * 1/1/1970 (LocalDate.toEpochDay()). Así comparar fechas es
+ * comparar números y no hay problemas con horas ni cambios de hora.
+ *
+ * 📌 SINCRONIZACIÓN CON LA BD:
+ * ─────────────────────────────────
+ * ReservaDAO lo carga desde la tabla Reservas al arrancar y lo
+ * mantiene al día en reservarAtomicamente() y eliminarReserva().
+ *
+ * ============================================================
+ */
+public class IndiceDisponibilidad {
+
+    // ════════════════════════════════════════════════════════
+    // 🔗 INSTANCIA ÚNICA (SINGLETON)
+    // ════════════════════════════════════════════════════════
+    // Todos los DAOs comparten el mismo índice.
+
+    private static final IndiceDisponibilidad INSTANCIA = new IndiceDisponibilidad();
+
+    /**
+     * Obtiene el índice compartido por toda la aplicación.
+     *
+     * @return La instancia única del índice
+     */
+    public static IndiceDisponibilidad getInstancia() {
+        return INSTANCIA;
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 📦 ATRIBUTOS
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Tramo ocupado por una reserva: [entrada, salida) en epoch days.
+     */
+    private static class Tramo {
+        final int idReserva;
+        final int idHabitacion;
+        final long entrada;
+        final long salida;
+
+        Tramo(int idReserva, int idHabitacion, long entrada, long salida) {
+            this.idReserva = idReserva;
+            this.idHabitacion = idHabitacion;
+            this.entrada = entrada;
+            this.salida = salida;
+        }
+    }
+
+    /** Hueco que recibe el coste de elegirLibre() cuando no hay reserva a ese lado. */
+    public static final long SIN_VECINA = -1;
+
+    // idHabitacion → (clave(fechaEntrada, idReserva) → tramo), ordenado por fecha de entrada
+    private final Map<Integer, TreeMap<Long, Tramo>> porHabitacion = new HashMap<>();
+
+    // idReserva → tramo (para poder borrar sabiendo solo el ID de la reserva)
+    private final Map<Integer, Tramo> porReserva = new HashMap<>();
+
+    // Indica si ya se cargó desde la base de datos
+    private boolean cargado = false;
+
+    /**
+     * Constructor privado: usar getInstancia().
+     */
+    private IndiceDisponibilidad() {
+    }
+
+    /**
+     * Clave de un tramo en el TreeMap: día en los 32 bits altos,
+     * ID de la reserva en los bajos.
+     */
+    private static long clave(long dia, int idReserva) {
+        return (dia << 32) | (idReserva & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Primera clave posible de un día: lowerEntry(inicioDia(d)) es
+     * la última reserva que entra ANTES del día d.
+     */
+    private static long inicioDia(long dia) {
+        return dia << 32;
+    }
+
+    // ════════════════════════════════════════════════════════
+    // ✏️ MÉTODOS DE MANTENIMIENTO
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Registra una reserva en el índice.
+     * Si ya existía una reserva con ese ID, se reemplaza.
+     *
+     * @param idReserva    ID de la reserva
+     * @param idHabitacion ID de la habitación reservada
+     * @param entrada      Fecha de entrada (incluida)
+     * @param salida       Fecha de salida (excluida: ese día queda libre)
+     */
+    public synchronized void agregar(int idReserva, int idHabitacion,
+                                     LocalDate entrada, LocalDate salida) {
+        quitar(idReserva);
+
+        Tramo tramo = new Tramo(idReserva, idHabitacion,
+                                entrada.toEpochDay(), salida.toEpochDay());
+
+        porHabitacion.computeIfAbsent(idHabitacion, k -> new TreeMap<>())
+                     .put(clave(tramo.entrada, idReserva), tramo);
+        porReserva.put(idReserva, tramo);
+    }
+
+    /**
+     * Elimina una reserva del índice.
+     *
+     * @param idReserva ID de la reserva a quitar
+     */
+    public synchronized void quitar(int idReserva) {
+        Tramo tramo = porReserva.remove(idReserva);
+        if (tramo == null) {
+            return;
+        }
+
+        TreeMap<Long, Tramo> tramos = porHabitacion.get(tramo.idHabitacion);
+        if (tramos != null) {
+            // Solo borramos si la entrada sigue siendo de esta reserva
+            tramos.remove(clave(tramo.entrada, idReserva), tramo);
+            if (tramos.isEmpty()) {
+                porHabitacion.remove(tramo.idHabitacion);
+            }
+        }
+    }
+
+    /**
+     * Cambia de habitación varias reservas a la vez (mismas fechas).
+     *
+     * Primero se quitan todas y después se vuelven a poner: así
+     * dos reservas que se intercambian la habitación no se pisan
+     * a mitad del cambio.
+     *
+     * @param cambios idReserva → nueva idHabitacion
+     */
+    public synchronized void reasignar(Map<Integer, Integer> cambios) {
+        List<Tramo> movidos = new ArrayList<>();
+        for (Integer idReserva : cambios.keySet()) {
+            Tramo tramo = porReserva.get(idReserva);
+            if (tramo != null) {
+                movidos.add(tramo);
+                quitar(idReserva);
+            }
+        }
+
+        for (Tramo t : movidos) {
+            Tramo nuevo = new Tramo(t.idReserva, cambios.get(t.idReserva), t.entrada, t.salida);
+            porHabitacion.computeIfAbsent(nuevo.idHabitacion, k -> new TreeMap<>())
+                         .put(clave(nuevo.entrada, nuevo.idReserva), nuevo);
+            porReserva.put(nuevo.idReserva, nuevo);
+        }
+    }
+
+    /**
+     * Vacía el índice (antes de recargarlo desde la BD).
+     */
+    public synchronized void limpiar() {
+        porHabitacion.clear();
+        porReserva.clear();
+        cargado = false;
+    }
+
+    /**
+     * Marca el índice como cargado desde la base de datos.
+     */
+    public synchronized void marcarCargado() {
+        cargado = true;
+    }
+
+    /**
+     * Indica si el índice ya se ha cargado desde la base de datos.
+     *
+     * @return true si ya está cargado
+     */
+    public synchronized boolean isCargado() {
+        return cargado;
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 🔍 MÉTODOS DE CONSULTA
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Comprueba si una habitación está libre en un rango de fechas.
+     *
+     * 📌 EJEMPLO:
+     * ─────────────────────────────────
+     *   Reserva existente: 10/07 → 14/07
+     *   ¿Libre 14/07 → 16/07?  SÍ (el 14 es día de salida)
+     *   ¿Libre 12/07 → 16/07?  NO (se solapa 12 y 13)
+     *
+     * @param idHabitacion ID de la habitación
+     * @param entrada      Fecha de entrada (incluida)
+     * @param salida       Fecha de salida (excluida)
+     * @return true si no hay ninguna reserva que se solape
+     */
+    public synchronized boolean estaLibre(int idHabitacion, LocalDate entrada, LocalDate salida) {
+        TreeMap<Long, Tramo> tramos = porHabitacion.get(idHabitacion);
+        if (tramos == null) {
+            return true;  // La habitación no tiene ninguna reserva
+        }
+
+        long desde = entrada.toEpochDay();
+        long hasta = salida.toEpochDay();
+
+        // Última reserva que empieza ANTES del día de salida pedido
+        Map.Entry<Long, Tramo> anterior = tramos.lowerEntry(inicioDia(hasta));
+
+        // Hay solape si esa reserva termina después de nuestra entrada
+        return anterior == null || anterior.getValue().salida <= desde;
+    }
+
+    /**
+     * Elige, entre varias habitaciones libres en esas fechas, la de
+     * menor coste según las noches libres que quedarían justo antes
+     * y justo después de la estancia.
+     *
+     *   Reservas: 01/07 → 05/07 ........ 08/07 → 10/07
+     *   Estancia:             06/07 → 08/07
+     *   Huecos:   antes = 1 (el 05/07 queda suelto), después = 0
+     *
+     * Todo se hace con un solo bloqueo del índice: con cientos de
+     * habitaciones candidatas es mucho más rápido que llamar a
+     * estaLibre() una por una.
+     *
+     * @param idsHabitacion IDs de las habitaciones candidatas
+     * @param entrada       Fecha de entrada (incluida)
+     * @param salida        Fecha de salida (excluida)
+     * @param coste         (antes, después) → coste; SIN_VECINA si no hay
+     *                      reserva a ese lado. Con coste 0 se deja de buscar
+     * @return ID de la habitación elegida (a igual coste, la primera),
+     *         o -1 si ninguna está libre
+     */
+    public synchronized int elegirLibre(Collection<Integer> idsHabitacion, LocalDate entrada,
+                                        LocalDate salida, LongBinaryOperator coste) {
+        long desde = entrada.toEpochDay();
+        long hasta = salida.toEpochDay();
+
+        int mejor = -1;
+        long mejorCoste = Long.MAX_VALUE;
+
+        for (Integer id : idsHabitacion) {
+            TreeMap<Long, Tramo> tramos = porHabitacion.get(id);
+            long antes = SIN_VECINA;
+            long despues = SIN_VECINA;
+
+            if (tramos != null) {
+                Map.Entry<Long, Tramo> anterior = tramos.lowerEntry(inicioDia(hasta));
+                if (anterior != null) {
+                    if (anterior.getValue().salida > desde) {
+                        continue;  // Se solapa: ocupada
+                    }
+                    antes = desde - anterior.getValue().salida;
+                }
+                Map.Entry<Long, Tramo> siguiente = tramos.ceilingEntry(inicioDia(hasta));
+                if (siguiente != null) {
+                    despues = siguiente.getValue().entrada - hasta;
+                }
+            }
+
+            long c = coste.applyAsLong(antes, despues);
+            if (c < mejorCoste) {
+                mejor = id;
+                mejorCoste = c;
+                if (c == 0) {
+                    break;
+                }
+            }
+        }
+
+        return mejor;
+    }
+
+    /**
+     * Reservas de una habitación, ordenadas por fecha de entrada.
+     *
+     * @param idHabitacion ID de la habitación
+     * @return Lista de {idReserva, entrada, salida} en epoch days
+     */
+    public synchronized List<long[]> tramosDe(int idHabitacion) {
+        List<long[]> lista = new ArrayList<>();
+        TreeMap<Long, Tramo> tramos = porHabitacion.get(idHabitacion);
+        if (tramos != null) {
+            for (Tramo t : tramos.values()) {
+                lista.add(new long[] {t.idReserva, t.entrada, t.salida});
+            }
+        }
+        return lista;
+    }
+
+    /**
+     * Filtra una lista de habitaciones y devuelve las que están
+     * libres en el rango de fechas indicado.
+     *
+     * @param idsHabitacion IDs de las habitaciones candidatas
+     * @param entrada       Fecha de entrada (incluida)
+     * @param salida        Fecha de salida (excluida)
+     * @return IDs de las habitaciones libres, en el mismo orden
+     */
+    public synchronized List<Integer> habitacionesLibres(Collection<Integer> idsHabitacion,
+                                                          LocalDate entrada, LocalDate salida) {
+        List<Integer> libres = new ArrayList<>();
+        for (Integer id : idsHabitacion) {
+            if (estaLibre(id, entrada, salida)) {
+                libres.add(id);
+            }
+        }
+        return libres;
+    }
+
+    /**
+     * Cuenta, día a día, cuántas de las habitaciones indicadas
+     * están ocupadas a partir de una fecha.
+     *
+     * Para cada habitación solo se recorren sus reservas que tocan
+     * el periodo (subMap del TreeMap), no todas.
+     *
+     * @param idsHabitacion IDs de las habitaciones a contar
+     * @param desde         Primer día
+     * @param dias          Número de días a contar
+     * @return Array con las habitaciones ocupadas; posición 0 = 'desde'
+     */
+    public synchronized int[] contarOcupadasPorDia(Collection<Integer> idsHabitacion,
+                                                   LocalDate desde, int dias) {
+        int[] ocupadas = new int[dias];
+        long primerDia = desde.toEpochDay();
+        long finPeriodo = primerDia + dias;
+
+        for (Integer id : idsHabitacion) {
+            TreeMap<Long, Tramo> tramos = porHabitacion.get(id);
+            if (tramos == null) {
+                continue;
+            }
+
+            // La reserva anterior a 'desde' puede seguir ocupando el principio
+            Long inicio = tramos.lowerKey(inicioDia(primerDia + 1));
+            Map<Long, Tramo> relevantes = tramos.subMap(inicio != null ? inicio : inicioDia(primerDia), true,
+                                                        inicioDia(finPeriodo), false);
+
+            for (Tramo t : relevantes.values()) {
+                long d0 = Math.max(t.entrada, primerDia);
+                long d1 = Math.min(t.salida, finPeriodo);
+                for (long d = d0; d < d1; d++) {
+                    ocupadas[(int) (d - primerDia)]++;
+                }
+            }
+        }
+
+        return ocupadas;
+    }
+
+    /**
+     * Número de reservas registradas en el índice.
+     *
+     * @return Total de reservas indexadas
+     */
+    public synchronized int tamanio() {
+        return porReserva.size();
+    }
+}
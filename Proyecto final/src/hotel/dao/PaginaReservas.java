@@ -0,0 +1,89 @@
+package hotel.dao;
+
+import hotel.modelo.Reserva;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * ============================================================
+ * 📄 CLASE: PaginaReservas (Una página de resultados)
+ * ============================================================
+ *
+ * Resultado de ReservaDAO.listarPagina().
+ *
+ * 📚 PAGINACIÓN POR CLAVE ("KEYSET") vs OFFSET:
+ * ─────────────────────────────────
+ * Con OFFSET, para ver la página 1000 la BD tiene que leer y
+ * descartar las 999 anteriores: cada página es más lenta.
+ *
+ * Con keyset recordamos DÓNDE terminó la página (el Cursor:
+ * fechaEntrada e id de la última reserva) y pedimos "las
+ * siguientes a esa". Con un índice sobre (fechaEntrada, id),
+ * todas las páginas cuestan lo mismo.
+ *
+ *   Página 1:  ... ORDER BY fechaEntrada DESC, id DESC
+ *   Página 2:  ... WHERE (fechaEntrada, id) < (cursor) ORDER BY ...
+ *
+ * ============================================================
+ */
+public class PaginaReservas {
+
+    /**
+     * Posición de la última reserva de una página.
+     * Se pasa a listarPagina() para pedir la siguiente.
+     */
+    public static class Cursor {
+        private final LocalDate fechaEntrada;
+        private final int id;
+
+        public Cursor(LocalDate fechaEntrada, int id) {
+            this.fechaEntrada = fechaEntrada;
+            this.id = id;
+        }
+
+        public LocalDate getFechaEntrada() {
+            return fechaEntrada;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        @Override
+        public String toString() {
+            return "Cursor[" + fechaEntrada + ", #" + id + "]";
+        }
+    }
+
+    private final List<Reserva> reservas;
+    private final Cursor siguiente;
+
+    /**
+     * @param reservas  Reservas de esta página
+     * @param siguiente Cursor para la página siguiente, o null si es la última
+     */
+    public PaginaReservas(List<Reserva> reservas, Cursor siguiente) {
+        this.reservas = reservas;
+        this.siguiente = siguiente;
+    }
+
+    public List<Reserva> getReservas() {
+        return reservas;
+    }
+
+    /**
+     * @return Cursor para pedir la página siguiente, o null si no hay más
+     */
+    public Cursor getSiguiente() {
+        return siguiente;
+    }
+
+    public boolean hayMas() {
+        return siguiente != null;
+    }
+
+    public boolean isVacia() {
+        return reservas.isEmpty();
+    }
+}
@@ -0,0 +1,95 @@
+package hotel.dao;
+
+import java.util.Locale;
+
+/**
+ * ============================================================
+ * 🗄️ ENUM: PerfilBD (Qué base de datos usamos)
+ * ============================================================
+ *
+ * La aplicación puede trabajar contra tres bases de datos:
+ *
+ *   SQLSERVER → La de clase (servidor aparte, script_base_datos.sql)
+ *   H2        → Embebida, en modo compatible con SQL Server
+ *   SQLITE    → Embebida, un único fichero hotel.db
+ *
+ * Las embebidas no necesitan instalar nada: basta con su .jar
+ * en lib/. Son útiles para probar y medir en cualquier equipo.
+ *
+ * 📌 CÓMO ELEGIR EL PERFIL:
+ * ─────────────────────────────────
+ *   java -Dhotel.bd=h2 -cp "bin;lib/*" Main
+ *
+ * o con la variable de entorno HOTEL_BD=sqlite. Sin nada, se usa
+ * SQLSERVER. La URL, el usuario y la contraseña se pueden cambiar
+ * con -Dhotel.bd.url, -Dhotel.bd.usuario y -Dhotel.bd.password.
+ *
+ * ============================================================
+ */
+public enum PerfilBD {
+
+    /** SQL Server (URL, usuario y contraseña de ConexionBD). */
+    SQLSERVER("com.microsoft.sqlserver.jdbc.SQLServerDriver",
+              ConexionBD.URL, ConexionBD.USUARIO, ConexionBD.PASSWORD),
+
+    /** H2 en fichero ./hoteldb, con la sintaxis de SQL Server. */
+    H2("org.h2.Driver",
+       "jdbc:h2:./hoteldb;MODE=MSSQLServer;DATABASE_TO_UPPER=FALSE", "sa", ""),
+
+    /** SQLite en el fichero hotel.db. */
+    SQLITE("org.sqlite.JDBC",
+           "jdbc:sqlite:hotel.db", "", "");
+
+    private final String driver;
+    private final String urlPorDefecto;
+    private final String usuarioPorDefecto;
+    private final String passwordPorDefecto;
+
+    PerfilBD(String driver, String urlPorDefecto, String usuarioPorDefecto, String passwordPorDefecto) {
+        this.driver = driver;
+        this.urlPorDefecto = urlPorDefecto;
+        this.usuarioPorDefecto = usuarioPorDefecto;
+        this.passwordPorDefecto = passwordPorDefecto;
+    }
+
+    public String getDriver() {
+        return driver;
+    }
+
+    public String getUrlPorDefecto() {
+        return urlPorDefecto;
+    }
+
+    public String getUsuarioPorDefecto() {
+        return usuarioPorDefecto;
+    }
+
+    public String getPasswordPorDefecto() {
+        return passwordPorDefecto;
+    }
+
+    /**
+     * @return true si la BD va dentro de la aplicación (sin servidor)
+     */
+    public boolean isEmbebida() {
+        return this != SQLSERVER;
+    }
+
+    /**
+     * Perfil pedido con -Dhotel.bd o HOTEL_BD (SQLSERVER si no hay ninguno).
+     *
+     * @throws IllegalArgumentException si el nombre no es un perfil
+     */
+    public static PerfilBD desdeEntorno() {
+        String nombre = System.getProperty("hotel.bd", System.getenv("HOTEL_BD"));
+        if (nombre == null || nombre.isBlank()) {
+            return SQLSERVER;
+        }
+        try {
+            return valueOf(nombre.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Perfil de BD desconocido: " + nombre
+                                               + " (usa sqlserver, h2 o sqlite)");
+        }
+    }
+}
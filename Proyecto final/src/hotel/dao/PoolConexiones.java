@@ -0,0 +1,481 @@
+package hotel.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ============================================================
+ * 🏊 CLASE: PoolConexiones (Pool de conexiones JDBC)
+ * ============================================================
+ *
+ * 📚 ¿QUÉ ES UN POOL DE CONEXIONES?
+ * ─────────────────────────────────
+ * Abrir una conexión con SQL Server es CARO: hay que abrir un
+ * socket, negociar el protocolo y hacer login. Si cada consulta
+ * abre y cierra su propia conexión, ese coste se paga siempre.
+ *
+ * Un pool mantiene varias conexiones ya abiertas y las "presta":
+ *
+ *   ┌──────────┐  obtener()   ┌──────────────────────┐
+ *   │   DAO    │ ◀─────────── │  [conn1] [conn2] ... │  ← libres
+ *   │          │ ───────────▶ │                      │
+ *   └──────────┘  close()     └──────────────────────┘
+ *
+ * 📌 EL TRUCO DEL close():
+ * ─────────────────────────────────
+ * Los DAOs usan try-with-resources, que llama a close() al final.
+ * El pool no entrega la conexión real, sino un "envoltorio"
+ * (java.lang.reflect.Proxy) cuyo close() NO cierra la conexión:
+ * la DEVUELVE al pool para que otro la reutilice.
+ *
+ * 📌 CARACTERÍSTICAS:
+ * ─────────────────────────────────
+ *   • Tamaño mínimo y máximo configurables
+ *   • Valida la conexión (isValid) antes de prestarla
+ *   • Si todas están ocupadas, espera como mucho un tiempo límite
+ *   • Es thread-safe: varios hilos pueden pedir conexiones a la vez
+ *   • Contadores: activas, libres, creadas y tiempo de espera
+ *   • Caché opcional de PreparedStatement por conexión (CacheSentencias)
+ *
+ * ============================================================
+ */
+public class PoolConexiones {
+
+    // ════════════════════════════════════════════════════════
+    // 🏭 FÁBRICA DE CONEXIONES
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Crea conexiones físicas nuevas (por ejemplo, con DriverManager).
+     */
+    public interface FabricaConexiones {
+        Connection crear() throws SQLException;
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 📦 ATRIBUTOS
+    // ════════════════════════════════════════════════════════
+
+    // Segundos que damos a isValid() para responder
+    private static final int SEGUNDOS_VALIDACION = 2;
+
+    private final FabricaConexiones fabrica;
+    private final int minimo;
+    private final int maximo;
+    private final long timeoutMs;
+    private final int tamanioCacheSentencias;
+
+    // Conexiones físicas libres, listas para prestar
+    private final LinkedBlockingDeque<Connection> libres = new LinkedBlockingDeque<>();
+
+    // Conexiones físicas vivas (libres + prestadas)
+    private final AtomicInteger total = new AtomicInteger();
+
+    // 📊 Contadores para estadísticas
+    private final AtomicInteger activas = new AtomicInteger();
+    private final AtomicLong creadas = new AtomicLong();
+    private final AtomicLong prestamos = new AtomicLong();
+    private final AtomicLong esperaTotalNanos = new AtomicLong();
+    private final AtomicLong agotamientos = new AtomicLong();
+
+    // 🗃️ Caché de sentencias de cada conexión física
+    // (IdentityHashMap: cada conexión se identifica por referencia, no por equals)
+    private final Map<Connection, CacheSentencias> caches =
+        Collections.synchronizedMap(new IdentityHashMap<>());
+    private final AtomicLong sentenciasAciertos = new AtomicLong();
+    private final AtomicLong sentenciasFallos = new AtomicLong();
+    private final AtomicLong sentenciasExpulsiones = new AtomicLong();
+
+    private volatile boolean cerrado = false;
+
+    // ════════════════════════════════════════════════════════
+    // 🔧 CONSTRUCTOR
+    // ════════════════════════════════════════════════════════
+    /**
+     * Crea el pool sin caché de sentencias.
+     *
+     * @param fabrica   Cómo crear una conexión física nueva
+     * @param minimo    Conexiones que se abren al arrancar
+     * @param maximo    Conexiones máximas abiertas a la vez
+     * @param timeoutMs Tiempo máximo de espera si el pool está agotado
+     * @throws SQLException si no se pueden abrir las conexiones mínimas
+     */
+    public PoolConexiones(FabricaConexiones fabrica, int minimo, int maximo, long timeoutMs)
+            throws SQLException {
+        this(fabrica, minimo, maximo, timeoutMs, 0);
+    }
+
+    /**
+     * Crea el pool y abre las conexiones mínimas.
+     *
+     * @param fabrica                Cómo crear una conexión física nueva
+     * @param minimo                 Conexiones que se abren al arrancar
+     * @param maximo                 Conexiones máximas abiertas a la vez
+     * @param timeoutMs              Tiempo máximo de espera si el pool está agotado
+     * @param tamanioCacheSentencias Sentencias cacheadas por conexión (0 = sin caché)
+     * @throws SQLException si no se pueden abrir las conexiones mínimas
+     */
+    public PoolConexiones(FabricaConexiones fabrica, int minimo, int maximo, long timeoutMs,
+                          int tamanioCacheSentencias) throws SQLException {
+        if (minimo < 0 || maximo < 1 || minimo > maximo) {
+            throw new IllegalArgumentException(
+                "Tamaño de pool inválido: mínimo=" + minimo + ", máximo=" + maximo);
+        }
+
+        this.fabrica = fabrica;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.timeoutMs = timeoutMs;
+        this.tamanioCacheSentencias = tamanioCacheSentencias;
+
+        // Abrimos las conexiones mínimas por adelantado
+        for (int i = 0; i < minimo; i++) {
+            total.incrementAndGet();
+            libres.offerLast(crearFisica());
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 📤 MÉTODO: obtener()
+    // ════════════════════════════════════════════════════════
+    /**
+     * Presta una conexión del pool.
+     *
+     * 📌 ALGORITMO:
+     * ─────────────────────────────────
+     *   1. Si hay una libre → la validamos y la prestamos
+     *   2. Si no hay libres pero no hemos llegado al máximo
+     *      → creamos una nueva
+     *   3. Si estamos en el máximo → esperamos a que alguien
+     *      devuelva una, como mucho timeoutMs milisegundos
+     *
+     * ⚠️ Hay que cerrarla (close) para devolverla al pool.
+     *    Lo más cómodo es usar try-with-resources.
+     *
+     * @return Conexión prestada
+     * @throws SQLException si el pool está agotado tras esperar,
+     *                      o si falla al crear la conexión
+     */
+    public Connection obtener() throws SQLException {
+        if (cerrado) {
+            throw new SQLException("El pool de conexiones está cerrado.");
+        }
+
+        long inicio = System.nanoTime();
+        long limite = inicio + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+
+        try {
+            while (true) {
+                // PASO 1: ¿Hay alguna libre?
+                Connection fisica = libres.pollFirst();
+
+                // PASO 2: Si no, ¿podemos crear otra?
+                if (fisica == null && reservarHueco()) {
+                    fisica = crearFisica();
+                    return prestar(fisica, inicio);
+                }
+
+                // PASO 3: Esperamos a que devuelvan alguna
+                if (fisica == null) {
+                    long restante = limite - System.nanoTime();
+                    if (restante <= 0) {
+                        agotamientos.incrementAndGet();
+                        throw new SQLException("Pool agotado: no hay conexiones libres tras "
+                            + timeoutMs + " ms (máximo " + maximo + ").");
+                    }
+                    fisica = libres.pollFirst(restante, TimeUnit.NANOSECONDS);
+                    if (fisica == null) {
+                        continue;  // Volvemos a intentar (o salta el timeout)
+                    }
+                }
+
+                // Validamos antes de prestar: puede haberse caído
+                if (esValida(fisica)) {
+                    return prestar(fisica, inicio);
+                }
+                descartar(fisica);
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido esperando una conexión del pool.", e);
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 📥 DEVOLUCIÓN AL POOL
+    // ════════════════════════════════════════════════════════
+    /**
+     * Recibe una conexión física que el DAO ya no necesita.
+     * Se llama desde el close() del envoltorio.
+     */
+    private void devolver(Connection fisica) {
+        activas.decrementAndGet();
+
+        // Las sentencias que el DAO no cerró quedan limpias y libres
+        CacheSentencias cache = caches.get(fisica);
+        if (cache != null) {
+            cache.liberarPrestadas();
+        }
+
+        try {
+            // Dejamos la conexión como nueva para el siguiente usuario
+            if (!fisica.getAutoCommit()) {
+                fisica.rollback();
+                fisica.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            descartar(fisica);
+            return;
+        }
+
+        if (cerrado) {
+            descartar(fisica);
+        } else {
+            // offerFirst: reutilizamos primero las más recientes
+            libres.offerFirst(fisica);
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 🛠️ MÉTODOS AUXILIARES
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Intenta reservar hueco para una conexión nueva sin pasar del máximo.
+     */
+    private boolean reservarHueco() {
+        while (true) {
+            int actual = total.get();
+            if (actual >= maximo) {
+                return false;
+            }
+            if (total.compareAndSet(actual, actual + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Crea una conexión física. El hueco en 'total' ya está reservado.
+     */
+    private Connection crearFisica() throws SQLException {
+        try {
+            Connection fisica = fabrica.crear();
+            creadas.incrementAndGet();
+            if (tamanioCacheSentencias > 0) {
+                caches.put(fisica, new CacheSentencias(fisica, tamanioCacheSentencias,
+                    sentenciasAciertos, sentenciasFallos, sentenciasExpulsiones));
+            }
+            return fisica;
+        } catch (SQLException | RuntimeException e) {
+            total.decrementAndGet();  // Liberamos el hueco reservado
+            throw e;
+        }
+    }
+
+    private boolean esValida(Connection fisica) {
+        try {
+            return fisica.isValid(SEGUNDOS_VALIDACION);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void descartar(Connection fisica) {
+        total.decrementAndGet();
+        CacheSentencias cache = caches.remove(fisica);
+        if (cache != null) {
+            cache.cerrarTodas();
+        }
+        try {
+            fisica.close();
+        } catch (SQLException e) {
+            // Ya no nos interesa: la conexión se descarta igualmente
+        }
+    }
+
+    /**
+     * Envuelve la conexión física en un Proxy cuyo close() la devuelve al pool.
+     */
+    private Connection prestar(Connection fisica, long inicio) {
+        esperaTotalNanos.addAndGet(System.nanoTime() - inicio);
+        prestamos.incrementAndGet();
+        activas.incrementAndGet();
+
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            new ConexionPrestada(fisica)
+        );
+    }
+
+    /**
+     * Intercepta las llamadas a la conexión prestada.
+     *
+     *   • close()    → devuelve la conexión física al pool
+     *   • isClosed() → true si ya se devolvió
+     *   • prepareStatement(sql) → sale de la caché de sentencias
+     *   • el resto   → se delegan en la conexión física
+     */
+    private class ConexionPrestada implements InvocationHandler {
+        private final Connection fisica;
+        private boolean devuelta = false;
+
+        ConexionPrestada(Connection fisica) {
+            this.fisica = fisica;
+        }
+
+        @Override
+        public synchronized Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            switch (metodo.getName()) {
+                case "close":
+                    if (!devuelta) {
+                        devuelta = true;
+                        devolver(fisica);
+                    }
+                    return null;
+                case "isClosed":
+                    return devuelta || fisica.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConexionPrestada[" + fisica + "]";
+                default:
+                    break;
+            }
+
+            if (devuelta) {
+                throw new SQLException("La conexión ya se devolvió al pool.");
+            }
+
+            // prepareStatement(sql) y prepareStatement(sql, claves) → caché
+            CacheSentencias cache = caches.get(fisica);
+            if (cache != null && metodo.getName().equals("prepareStatement")) {
+                Class<?>[] tipos = metodo.getParameterTypes();
+                if (tipos.length == 1) {
+                    return cache.preparar((String) args[0], Statement.NO_GENERATED_KEYS);
+                }
+                if (tipos.length == 2 && tipos[1] == int.class) {
+                    return cache.preparar((String) args[0], (Integer) args[1]);
+                }
+            }
+
+            try {
+                return metodo.invoke(fisica, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();  // Relanzamos la SQLException original
+            }
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 🔒 MÉTODO: cerrar()
+    // ════════════════════════════════════════════════════════
+    /**
+     * Cierra todas las conexiones libres. Las que estén prestadas
+     * se cerrarán cuando se devuelvan.
+     */
+    public void cerrar() {
+        cerrado = true;
+        Connection fisica;
+        while ((fisica = libres.pollFirst()) != null) {
+            descartar(fisica);
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 📊 ESTADÍSTICAS
+    // ════════════════════════════════════════════════════════
+
+    /** @return Conexiones prestadas en este momento */
+    public int getActivas() {
+        return activas.get();
+    }
+
+    /** @return Conexiones abiertas esperando a ser prestadas */
+    public int getLibres() {
+        return libres.size();
+    }
+
+    /** @return Conexiones físicas creadas desde el arranque */
+    public long getCreadas() {
+        return creadas.get();
+    }
+
+    /** @return Número de veces que se ha prestado una conexión */
+    public long getPrestamos() {
+        return prestamos.get();
+    }
+
+    /** @return Veces que se agotó el tiempo de espera */
+    public long getAgotamientos() {
+        return agotamientos.get();
+    }
+
+    /** @return Tiempo total esperando conexión, en milisegundos */
+    public long getTiempoEsperaTotalMs() {
+        return TimeUnit.NANOSECONDS.toMillis(esperaTotalNanos.get());
+    }
+
+    /** @return Tiempo medio de espera por préstamo, en milisegundos */
+    public double getTiempoEsperaMedioMs() {
+        long n = prestamos.get();
+        return n == 0 ? 0 : esperaTotalNanos.get() / 1_000_000.0 / n;
+    }
+
+    /** @return Sentencias reutilizadas desde la caché */
+    public long getSentenciasAciertos() {
+        return sentenciasAciertos.get();
+    }
+
+    /** @return Sentencias que hubo que preparar de nuevo */
+    public long getSentenciasFallos() {
+        return sentenciasFallos.get();
+    }
+
+    /** @return Sentencias expulsadas de la caché por LRU */
+    public long getSentenciasExpulsiones() {
+        return sentenciasExpulsiones.get();
+    }
+
+    /** @return Porcentaje de aciertos de la caché de sentencias (0-100) */
+    public double getTasaAciertosSentencias() {
+        long a = sentenciasAciertos.get();
+        long total = a + sentenciasFallos.get();
+        return total == 0 ? 0 : a * 100.0 / total;
+    }
+
+    public int getMinimo() {
+        return minimo;
+    }
+
+    public int getMaximo() {
+        return maximo;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "Pool[activas=%d, libres=%d, creadas=%d, préstamos=%d, espera media=%.3f ms, agotamientos=%d, "
+                + "sentencias: aciertos=%d, fallos=%d, expulsiones=%d]",
+            getActivas(), getLibres(), getCreadas(), getPrestamos(),
+            getTiempoEsperaMedioMs(), getAgotamientos(),
+            getSentenciasAciertos(), getSentenciasFallos(), getSentenciasExpulsiones()
+        );
+    }
+}
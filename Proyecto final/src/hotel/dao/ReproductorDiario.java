@@ -0,0 +1,231 @@
+package hotel.dao;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * ============================================================
+ * ⏪ CLASE: ReproductorDiario (Reconstruir estado desde el diario)
+ * ============================================================
+ *
+ * Lee un fichero de DiarioEventos de principio a fin y vuelve
+ * a aplicar cada evento en orden:
+ *
+ *   RESERVA_CREADA           → la habitación queda ocupada esas fechas
+ *   RESERVA_CANCELADA        → se libera la reserva
+ *   RESERVA_REASIGNADA       → la reserva pasa a otra habitación
+ *   DISPONIBILIDAD_CAMBIADA  → se anota el nuevo estado 'disponible'
+ *
+ * El resultado es el estado de las habitaciones SIN consultar la
+ * base de datos. Opcionalmente se vuelca en IndiceDisponibilidad.
+ *
+ * 📌 USO:
+ * ─────────────────────────────────
+ *   java -cp bin hotel.dao.ReproductorDiario [fichero] [--detalle]
+ *
+ * ============================================================
+ */
+public class ReproductorDiario {
+
+    /**
+     * Reserva viva tras reproducir el diario.
+     */
+    public static class ReservaReproducida {
+        private final int idReserva;
+        private final int idHabitacion;
+        private final LocalDate entrada;
+        private final LocalDate salida;
+        private final double importe;
+
+        ReservaReproducida(int idReserva, int idHabitacion, LocalDate entrada,
+                           LocalDate salida, double importe) {
+            this.idReserva = idReserva;
+            this.idHabitacion = idHabitacion;
+            this.entrada = entrada;
+            this.salida = salida;
+            this.importe = importe;
+        }
+
+        public int getIdReserva() {
+            return idReserva;
+        }
+
+        public int getIdHabitacion() {
+            return idHabitacion;
+        }
+
+        public LocalDate getEntrada() {
+            return entrada;
+        }
+
+        public LocalDate getSalida() {
+            return salida;
+        }
+
+        public double getImporte() {
+            return importe;
+        }
+    }
+
+    /**
+     * Estado reconstruido: reservas vivas y disponibilidad.
+     */
+    public static class Estado {
+        private final Map<Integer, ReservaReproducida> reservas = new LinkedHashMap<>();
+        private final Map<Integer, Boolean> disponibilidad = new TreeMap<>();
+        private long eventos = 0;
+        private Instant ultimoEvento = null;
+
+        public Map<Integer, ReservaReproducida> getReservas() {
+            return reservas;
+        }
+
+        public Map<Integer, Boolean> getDisponibilidad() {
+            return disponibilidad;
+        }
+
+        public long getEventos() {
+            return eventos;
+        }
+
+        public Instant getUltimoEvento() {
+            return ultimoEvento;
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // ⏪ REPRODUCIR
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Lee el diario y reconstruye el estado.
+     *
+     * @param ruta Fichero del diario
+     * @return Estado tras aplicar todos los eventos
+     * @throws IOException si no se puede leer el fichero
+     */
+    public static Estado reproducir(Path ruta) throws IOException {
+        Estado estado = new Estado();
+        int r = DiarioEventos.TAMANIO_REGISTRO;
+
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(r * 4096);
+            long posicion = 0;
+
+            leer:
+            while (true) {
+                buffer.clear();
+                int leidos = canal.read(buffer, posicion);
+                if (leidos < r) {
+                    break;
+                }
+
+                for (int off = 0; off + r <= leidos; off += r) {
+                    TipoEvento tipo = TipoEvento.deCodigo(buffer.get(off));
+                    if (tipo == null) {
+                        break leer;  // Zona vacía (o dañada): fin del diario
+                    }
+                    aplicar(estado, tipo, buffer, off);
+                }
+                posicion += leidos - (leidos % r);
+            }
+        }
+
+        return estado;
+    }
+
+    private static void aplicar(Estado estado, TipoEvento tipo, ByteBuffer b, int off) {
+        boolean disponible = b.get(off + 1) == 1;
+        int idReserva = b.getInt(off + 4);
+        int idHabitacion = b.getInt(off + 8);
+        int entrada = b.getInt(off + 12);
+        int salida = b.getInt(off + 16);
+        long marca = b.getLong(off + 20);
+        int centimos = b.getInt(off + 28);
+
+        switch (tipo) {
+            case RESERVA_CREADA:
+                estado.reservas.put(idReserva, new ReservaReproducida(
+                    idReserva, idHabitacion, LocalDate.ofEpochDay(entrada),
+                    LocalDate.ofEpochDay(salida), centimos / 100.0));
+                break;
+            case RESERVA_CANCELADA:
+                estado.reservas.remove(idReserva);
+                break;
+            case RESERVA_REASIGNADA:
+                ReservaReproducida anterior = estado.reservas.get(idReserva);
+                if (anterior != null) {
+                    estado.reservas.put(idReserva, new ReservaReproducida(
+                        idReserva, idHabitacion, anterior.entrada, anterior.salida, anterior.importe));
+                }
+                break;
+            case DISPONIBILIDAD_CAMBIADA:
+                estado.disponibilidad.put(idHabitacion, disponible);
+                break;
+            default:
+                break;
+        }
+
+        estado.eventos++;
+        estado.ultimoEvento = Instant.ofEpochMilli(marca);
+    }
+
+    /**
+     * Sustituye el contenido de IndiceDisponibilidad por las
+     * reservas del estado reconstruido.
+     */
+    public static void volcarEnIndice(Estado estado, IndiceDisponibilidad indice) {
+        indice.limpiar();
+        for (ReservaReproducida rr : estado.reservas.values()) {
+            indice.agregar(rr.idReserva, rr.idHabitacion, rr.entrada, rr.salida);
+        }
+        indice.marcarCargado();
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 🚀 HERRAMIENTA DE CONSOLA
+    // ════════════════════════════════════════════════════════
+
+    public static void main(String[] args) {
+        Path ruta = Paths.get(args.length > 0 && !args[0].startsWith("--") ? args[0] : "diario_reservas.dat");
+        boolean detalle = args.length > 0 && args[args.length - 1].equals("--detalle");
+
+        try {
+            Estado estado = reproducir(ruta);
+
+            System.out.println("⏪ Diario " + ruta + ": " + estado.getEventos() + " eventos"
+                               + (estado.getUltimoEvento() != null ? " (último: " + estado.getUltimoEvento() + ")" : ""));
+            System.out.println("📅 Reservas vivas: " + estado.getReservas().size());
+
+            // Reservas vivas por habitación
+            Map<Integer, Integer> porHabitacion = new TreeMap<>();
+            for (ReservaReproducida rr : estado.getReservas().values()) {
+                porHabitacion.merge(rr.getIdHabitacion(), 1, Integer::sum);
+            }
+            for (Map.Entry<Integer, Integer> e : porHabitacion.entrySet()) {
+                Boolean disp = estado.getDisponibilidad().get(e.getKey());
+                System.out.println("   🏠 Habitación " + e.getKey() + ": " + e.getValue() + " reservas"
+                                   + (disp != null ? (disp ? " (disponible)" : " (bloqueada)") : ""));
+            }
+
+            if (detalle) {
+                for (ReservaReproducida rr : estado.getReservas().values()) {
+                    System.out.printf("   #%d hab %d %s → %s %.2f€%n", rr.getIdReserva(), rr.getIdHabitacion(),
+                                      rr.getEntrada(), rr.getSalida(), rr.getImporte());
+                }
+            }
+
+        } catch (IOException e) {
+            System.err.println("❌ Error al leer el diario: " + e.getMessage());
+        }
+    }
+}
@@ -4,7 +4,12 @@ import hotel.modelo.Reserva;
 import hotel.modelo.Cliente;
 import hotel.modelo.Habitacion;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
 
 /**
  * ============================================================
@@ -17,37 +22,89 @@ import java.util.ArrayList;
  * 📌 COMPLEJIDAD ADICIONAL:
  * ─────────────────────────────────
  * La tabla Reservas tiene FOREIGN KEYS a Clientes y Habitaciones.
- * Esto significa que al leer una reserva, debemos:
- *   1. Leer los datos de la tabla Reservas
- *   2. Buscar el Cliente asociado
- *   3. Buscar la Habitación asociada
- *   4. Construir el objeto Reserva completo
+ * Esto significa que al leer una reserva necesitamos también:
+ *   1. Los datos de la tabla Reservas
+ *   2. El Cliente asociado
+ *   3. La Habitación asociada
  * 
- * Podríamos usar JOIN en SQL, pero para mantenerlo didáctico
- * usamos consultas separadas con los otros DAOs.
+ * Para no hacer una consulta extra por cada reserva, usamos
+ * un JOIN: una sola consulta trae las tres tablas a la vez.
  * 
  * ============================================================
  */
 public class ReservaDAO {
     
-    // Necesitamos los otros DAOs para obtener Cliente y Habitacion
-    private ClienteDAO clienteDAO;
-    private HabitacionDAO habitacionDAO;
+    // Índice de ocupación por fechas (compartido por toda la aplicación)
+    private IndiceDisponibilidad indice;
     
     // ════════════════════════════════════════════════════════
     // 🔧 CONSTRUCTOR
     // ════════════════════════════════════════════════════════
     /**
-     * Constructor que inicializa los DAOs necesarios.
+     * Constructor del DAO de reservas.
      * 
-     * 📌 DEPENDENCIAS:
-     * ─────────────────────────────────
-     * ReservaDAO depende de ClienteDAO y HabitacionDAO porque
-     * necesita obtener los objetos completos al leer reservas.
+     * La primera vez que se crea un ReservaDAO se carga
+     * el índice de disponibilidad desde la tabla Reservas.
      */
     public ReservaDAO() {
-        this.clienteDAO = new ClienteDAO();
-        this.habitacionDAO = new HabitacionDAO();
+        this.indice = IndiceDisponibilidad.getInstancia();
+        
+        if (!indice.isCargado()) {
+            cargarIndiceDisponibilidad();
+        }
+    }
+    
+    // ════════════════════════════════════════════════════════
+    // 🗓️ MÉTODO: cargarIndiceDisponibilidad
+    // ════════════════════════════════════════════════════════
+    /**
+     * Carga en memoria el índice de ocupación por fechas.
+     * 
+     * 📌 ¿POR QUÉ SOLO ESTAS COLUMNAS?
+     * ─────────────────────────────────
+     * Para el índice solo necesitamos saber QUÉ habitación está
+     * ocupada y CUÁNDO. No hace falta leer clientes ni importes.
+     * 
+     * Se ejecuta una única vez al arrancar. Después, el índice
+     * se mantiene al día con reservarAtomicamente() y eliminarReserva().
+     * 
+     * 📌 SI FALLA LA CARGA:
+     * ─────────────────────────────────
+     * El índice queda vacío y SIN marcar como cargado (nunca a
+     * medias). Mientras tanto HabitacionDAO consulta la tabla
+     * Reservas en lugar del índice: un índice vacío daría todas
+     * las habitaciones por libres.
+     * 
+     * @return true si el índice quedó cargado
+     */
+    public boolean cargarIndiceDisponibilidad() {
+        String sql = "SELECT id, idHabitacion, fechaEntrada, fechaSalida FROM Reservas";
+        
+        try (
+            Connection conn = ConexionBD.getConexion();
+            Statement stmt = conn.createStatement();
+            ResultSet rs = stmt.executeQuery(sql)
+        ) {
+            indice.limpiar();
+            
+            while (rs.next()) {
+                indice.agregar(
+                    rs.getInt("id"),
+                    rs.getInt("idHabitacion"),
+                    rs.getObject("fechaEntrada", LocalDate.class),
+                    rs.getObject("fechaSalida", LocalDate.class)
+                );
+            }
+            
+            indice.marcarCargado();
+            return true;
+            
+        } catch (SQLException e) {
+            indice.limpiar();  // Nada de índices a medias
+            System.err.println("❌ Error al cargar el índice de disponibilidad: " + e.getMessage()
+                               + " (la disponibilidad se consultará en la BD)");
+            return false;
+        }
     }
     
     // ════════════════════════════════════════════════════════
@@ -58,59 +115,250 @@ public class ReservaDAO {
      * 
      * 📌 IMPORTANTE:
      * ─────────────────────────────────
-     * Este método solo inserta en la tabla Reservas.
-     * La actualización de disponibilidad de la habitación
-     * debe hacerse ANTES de llamar a este método (en ServicioHotel).
+     * Antes este método hacía un INSERT suelto y confiaba en que
+     * alguien hubiera comprobado ANTES que la habitación estaba
+     * libre: con dos recepcionistas a la vez, doble reserva.
      * 
-     * 📌 CONVERSIÓN DE FECHAS:
+     * Ahora es solo otro nombre de reservarAtomicamente(): bloqueo
+     * de la habitación, comprobación de solape e INSERT en la misma
+     * transacción. Si la habitación ya está ocupada en esas fechas
+     * NO se inserta nada y se devuelve CONFLICTO.
+     * 
+     * @param r La reserva a insertar
+     * @return CREADA, CONFLICTO, HABITACION_NO_EXISTE o ERROR
+     */
+    public ResultadoReserva insertarReserva(Reserva r) {
+        return reservarAtomicamente(r);
+    }
+    
+    // ════════════════════════════════════════════════════════
+    // 🔐 MÉTODO: reservarAtomicamente (TRANSACCIÓN)
+    // ════════════════════════════════════════════════════════
+    /**
+     * Comprueba disponibilidad e inserta la reserva en UNA transacción.
+     * 
+     * 📌 EL PROBLEMA (condición de carrera):
      * ─────────────────────────────────
-     * java.util.Date → java.sql.Date
+     * Con dos recepcionistas a la vez:
      * 
-     * JDBC usa java.sql.Date, que es diferente de java.util.Date.
-     * La conversión se hace con:
-     *   new java.sql.Date(utilDate.getTime())
+     *   Recepción A: ¿libre la 3? → SÍ
+     *   Recepción B: ¿libre la 3? → SÍ
+     *   Recepción A: INSERT reserva
+     *   Recepción B: INSERT reserva   ← ¡DOBLE RESERVA!
      * 
-     * @param r La reserva a insertar
+     * 📌 LA SOLUCIÓN:
+     * ─────────────────────────────────
+     *   1. setAutoCommit(false) → empieza la transacción
+     *   2. UPDATE sobre la fila de la habitación (sin cambiar nada)
+     *      → la BD BLOQUEA esa fila hasta el commit. Si otro hilo
+     *        intenta reservar la misma habitación, espera aquí.
+     *   3. Comprobamos en la tabla Reservas que no hay solape
+     *   4. INSERT de la reserva
+     *   5. commit() → se libera el bloqueo
+     * 
+     * Si algo falla → rollback(): no queda nada a medias.
+     * 
+     * 📌 SOLAPE DE FECHAS:
+     * ─────────────────────────────────
+     * Dos estancias [E1, S1) y [E2, S2) se solapan si:
+     *   E1 < S2  Y  S1 > E2
+     * 
+     * @param r La reserva a guardar (cliente, habitación y fechas)
+     * @return CREADA, CONFLICTO, HABITACION_NO_EXISTE o ERROR
      */
-    public void insertarReserva(Reserva r) {
-        String sql = "INSERT INTO Reservas (idCliente, idHabitacion, fechaEntrada, fechaSalida, total) " +
-                     "VALUES (?, ?, ?, ?, ?)";
+    public ResultadoReserva reservarAtomicamente(Reserva r) {
+        String sqlBloqueo = "UPDATE Habitaciones SET disponible = disponible WHERE id = ?";
+        String sqlSolape = "SELECT COUNT(*) FROM Reservas " +
+                           "WHERE idHabitacion = ? AND fechaEntrada < ? AND fechaSalida > ?";
+        String sqlInsert = "INSERT INTO Reservas (idCliente, idHabitacion, fechaEntrada, fechaSalida, total) " +
+                           "VALUES (?, ?, ?, ?, ?)";
         
-        try (
-            Connection conn = ConexionBD.getConexion();
-            PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
-        ) {
-            // Establecemos los parámetros
-            stmt.setInt(1, r.getCliente().getId());      // ID del cliente
-            stmt.setInt(2, r.getHabitacion().getId());   // ID de la habitación
+        int idHabitacion = r.getHabitacion().getId();
+        LocalDate entrada = r.getFechaEntrada();
+        LocalDate salida = r.getFechaSalida();
+        
+        try (Connection conn = ConexionBD.getConexion()) {
             
-            // --------------------------------------------------------
-            // Conversión de java.util.Date a java.sql.Date
-            // --------------------------------------------------------
-            // getTime() devuelve los milisegundos desde 1/1/1970
-            // Lo usamos para crear un java.sql.Date
+            conn.setAutoCommit(false);  // Empieza la transacción
             
-            java.sql.Date fechaEntradaSQL = new java.sql.Date(r.getFechaEntrada().getTime());
-            java.sql.Date fechaSalidaSQL = new java.sql.Date(r.getFechaSalida().getTime());
+            try {
+                // --------------------------------------------------------
+                // PASO 1: Bloquear la fila de la habitación
+                // --------------------------------------------------------
+                try (PreparedStatement stmt = conn.prepareStatement(sqlBloqueo)) {
+                    stmt.setInt(1, idHabitacion);
+                    if (stmt.executeUpdate() == 0) {
+                        conn.rollback();
+                        return ResultadoReserva.HABITACION_NO_EXISTE;
+                    }
+                }
+                
+                // --------------------------------------------------------
+                // PASO 2: ¿Hay alguna reserva que se solape?
+                // --------------------------------------------------------
+                try (PreparedStatement stmt = conn.prepareStatement(sqlSolape)) {
+                    stmt.setInt(1, idHabitacion);
+                    stmt.setObject(2, salida);
+                    stmt.setObject(3, entrada);
+                    
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next() && rs.getInt(1) > 0) {
+                            conn.rollback();
+                            return ResultadoReserva.CONFLICTO;
+                        }
+                    }
+                }
+                
+                // --------------------------------------------------------
+                // PASO 3: Insertar la reserva
+                // --------------------------------------------------------
+                try (PreparedStatement stmt = conn.prepareStatement(sqlInsert, Statement.RETURN_GENERATED_KEYS)) {
+                    stmt.setInt(1, r.getCliente().getId());
+                    stmt.setInt(2, idHabitacion);
+                    stmt.setObject(3, entrada);
+                    stmt.setObject(4, salida);
+                    stmt.setDouble(5, r.getImporteTotal());
+                    stmt.executeUpdate();
+                    
+                    try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                        if (generatedKeys.next()) {
+                            r.setId(generatedKeys.getInt(1));
+                        }
+                    }
+                }
+                
+                // --------------------------------------------------------
+                // PASO 4: Confirmar
+                // --------------------------------------------------------
+                conn.commit();
+                
+            } catch (SQLException e) {
+                conn.rollback();  // Deshacemos todo lo de esta transacción
+                throw e;
+            }
             
-            stmt.setDate(3, fechaEntradaSQL);   // Fecha de entrada
-            stmt.setDate(4, fechaSalidaSQL);    // Fecha de salida
-            stmt.setDouble(5, r.getImporteTotal());  // Total calculado
+            // Solo tras el commit la reserva es definitiva
+            indice.agregar(r.getId(), idHabitacion, entrada, salida);
+            anotarEnDiario(() -> DiarioEventos.getInstancia().reservaCreada(
+                r.getId(), idHabitacion, entrada, salida, r.getImporteTotal()));
+            return ResultadoReserva.CREADA;
             
-            int filasAfectadas = stmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("❌ Error al crear la reserva: " + e.getMessage());
+            return ResultadoReserva.ERROR;
+        }
+    }
+    
+    // ════════════════════════════════════════════════════════
+    // 🔀 MÉTODO: reasignarHabitaciones (TRANSACCIÓN)
+    // ════════════════════════════════════════════════════════
+    /**
+     * Cambia de habitación varias reservas (mismas fechas) en UNA
+     * transacción. Lo usa el AsignadorHabitaciones para recolocar
+     * las reservas futuras y no dejar noches sueltas.
+     * 
+     * 📌 PROCESO:
+     * ─────────────────────────────────
+     *   1. Bloquear las filas de las habitaciones DESTINO, en orden
+     *      de ID (dos reasignaciones a la vez no se bloquean mutuamente)
+     *   2. Para cada reserva, comprobar que sigue existiendo y que en
+     *      la habitación destino no hay otra reserva que se solape
+     *      (salvo las que también se mueven en este cambio)
+     *   3. UPDATE de todas las reservas en un lote
+     *   4. commit()
+     * 
+     * Si otro recepcionista ha reservado o cancelado entre medias,
+     * no se cambia nada (rollback) y se devuelve false.
+     * 
+     * @param cambios idReserva → nueva idHabitacion
+     * @return true si se aplicaron todos los cambios
+     */
+    public boolean reasignarHabitaciones(Map<Integer, Integer> cambios) {
+        if (cambios.isEmpty()) {
+            return true;
+        }
+        
+        String sqlBloqueo = "UPDATE Habitaciones SET disponible = disponible WHERE id = ?";
+        String sqlFechas = "SELECT fechaEntrada, fechaSalida FROM Reservas WHERE id = ?";
+        String sqlSolape = "SELECT id FROM Reservas " +
+                           "WHERE idHabitacion = ? AND fechaEntrada < ? AND fechaSalida > ?";
+        String sqlUpdate = "UPDATE Reservas SET idHabitacion = ? WHERE id = ?";
+        
+        try (Connection conn = ConexionBD.getConexion()) {
             
-            if (filasAfectadas > 0) {
-                // Obtenemos el ID generado
-                ResultSet generatedKeys = stmt.getGeneratedKeys();
-                if (generatedKeys.next()) {
-                    r.setId(generatedKeys.getInt(1));
+            conn.setAutoCommit(false);
+            
+            try {
+                // PASO 1: bloquear las habitaciones destino (en orden)
+                try (PreparedStatement stmt = conn.prepareStatement(sqlBloqueo)) {
+                    for (int idHabitacion : new TreeSet<>(cambios.values())) {
+                        stmt.setInt(1, idHabitacion);
+                        if (stmt.executeUpdate() == 0) {
+                            conn.rollback();
+                            return false;
+                        }
+                    }
                 }
-                System.out.println("✅ Reserva creada con ID: " + r.getId());
+                
+                // PASO 2: ¿sigue cabiendo cada reserva en su destino?
+                try (PreparedStatement fechas = conn.prepareStatement(sqlFechas);
+                     PreparedStatement solape = conn.prepareStatement(sqlSolape)) {
+                    
+                    for (Map.Entry<Integer, Integer> cambio : cambios.entrySet()) {
+                        fechas.setInt(1, cambio.getKey());
+                        LocalDate entrada;
+                        LocalDate salida;
+                        try (ResultSet rs = fechas.executeQuery()) {
+                            if (!rs.next()) {
+                                conn.rollback();  // La han cancelado
+                                return false;
+                            }
+                            entrada = rs.getObject("fechaEntrada", LocalDate.class);
+                            salida = rs.getObject("fechaSalida", LocalDate.class);
+                        }
+                        
+                        solape.setInt(1, cambio.getValue());
+                        solape.setObject(2, salida);
+                        solape.setObject(3, entrada);
+                        try (ResultSet rs = solape.executeQuery()) {
+                            while (rs.next()) {
+                                if (!cambios.containsKey(rs.getInt("id"))) {
+                                    conn.rollback();  // Reserva nueva en el destino
+                                    return false;
+                                }
+                            }
+                        }
+                    }
+                }
+                
+                // PASO 3: mover todas las reservas en un lote
+                try (PreparedStatement stmt = conn.prepareStatement(sqlUpdate)) {
+                    for (Map.Entry<Integer, Integer> cambio : cambios.entrySet()) {
+                        stmt.setInt(1, cambio.getValue());
+                        stmt.setInt(2, cambio.getKey());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                
+                // PASO 4: confirmar
+                conn.commit();
+                
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
             
+            indice.reasignar(cambios);
+            for (Map.Entry<Integer, Integer> cambio : cambios.entrySet()) {
+                anotarEnDiario(() -> DiarioEventos.getInstancia().reservaReasignada(
+                    cambio.getKey(), cambio.getValue()));
+            }
+            return true;
+            
         } catch (SQLException e) {
-            System.err.println("❌ Error al insertar reserva: " + e.getMessage());
-            e.printStackTrace();
+            System.err.println("❌ Error al reasignar habitaciones: " + e.getMessage());
+            return false;
         }
     }
     
@@ -122,10 +370,9 @@ public class ReservaDAO {
      * 
      * 📌 IMPORTANTE:
      * ─────────────────────────────────
-     * Este método solo elimina el registro de la tabla Reservas.
-     * La actualización de disponibilidad de la habitación
-     * (ponerla disponible de nuevo) debe hacerse DESPUÉS
-     * de llamar a este método (en ServicioHotel).
+     * Este método elimina el registro de la tabla Reservas y lo
+     * quita del IndiceDisponibilidad: la habitación vuelve a
+     * estar libre en esas fechas.
      * 
      * @param id El ID de la reserva a eliminar
      */
@@ -141,7 +388,9 @@ public class ReservaDAO {
             int filasAfectadas = stmt.executeUpdate();
             
             if (filasAfectadas > 0) {
-                System.out.println("✅ Reserva #" + id + " eliminada correctamente.");
+                // La habitación queda libre en esas fechas
+                indice.quitar(id);
+                anotarEnDiario(() -> DiarioEventos.getInstancia().reservaCancelada(id));
             } else {
                 System.out.println("⚠️ No se encontró la reserva con ID: " + id);
             }
@@ -151,6 +400,47 @@ public class ReservaDAO {
         }
     }
     
+    /**
+     * Anota un evento en el DiarioEventos DESPUÉS del commit.
+     * 
+     * La reserva ya está guardada: si el diario está cerrado o
+     * falló, solo se avisa (el diario es auditoría). Un evento
+     * descartado por buffer lleno ya queda contado en el diario.
+     */
+    private static void anotarEnDiario(Runnable anotar) {
+        try {
+            anotar.run();
+        } catch (IllegalStateException e) {
+            System.err.println("⚠️ Cambio guardado, pero no anotado en el diario: " + e.getMessage());
+        }
+    }
+    
+    // ════════════════════════════════════════════════════════
+    // 🔗 CONSULTA BASE CON JOIN
+    // ════════════════════════════════════════════════════════
+    /**
+     * SELECT común a todos los métodos de lectura.
+     * 
+     * 📌 ¿POR QUÉ UN JOIN?
+     * ─────────────────────────────────
+     * Antes, para cada reserva leída se hacían 2 consultas más
+     * (una al Cliente y otra a la Habitación). Con N reservas
+     * eran 2N + 1 viajes a la base de datos (problema "N+1").
+     * 
+     * Con JOIN, la BD nos devuelve en cada fila la reserva junto
+     * con su cliente y su habitación: UN SOLO viaje.
+     * 
+     * Usamos alias (r, c, h) y renombramos las columnas repetidas
+     * (id) para poder leerlas sin ambigüedad.
+     */
+    private static final String SELECT_RESERVAS_JOIN =
+        "SELECT r.id, r.idCliente, r.idHabitacion, r.fechaEntrada, r.fechaSalida, r.total, " +
+        "       c.nombre, c.telefono, c.email, " +
+        "       h.tipo, h.precio, h.disponible " +
+        "FROM Reservas r " +
+        "JOIN Clientes c ON c.id = r.idCliente " +
+        "JOIN Habitaciones h ON h.id = r.idHabitacion ";
+    
     // ════════════════════════════════════════════════════════
     // 📋 MÉTODO: listarReservas (READ ALL)
     // ════════════════════════════════════════════════════════
@@ -159,55 +449,130 @@ public class ReservaDAO {
      * 
      * 📌 PROCESO:
      * ─────────────────────────────────
-     *   1. Leemos todos los registros de Reservas
-     *   2. Para cada reserva, buscamos el Cliente por ID
-     *   3. Para cada reserva, buscamos la Habitación por ID
-     *   4. Construimos el objeto Reserva completo
+     *   1. Una única consulta Reservas JOIN Clientes JOIN Habitaciones
+     *   2. Cada fila se convierte en Reserva con su Cliente y Habitación
+     *   3. Si varias reservas son del mismo cliente (o habitación),
+     *      comparten el MISMO objeto Java (mapa de identidad)
+     * 
+     * ⚠️ Carga TODA la tabla en memoria. Para mostrar reservas por
+     * pantalla usa listarPagina().
      * 
      * @return Lista de todas las reservas
      */
     public ArrayList<Reserva> listarReservas() {
-        ArrayList<Reserva> reservas = new ArrayList<>();
-        String sql = "SELECT * FROM Reservas ORDER BY fechaEntrada DESC";
+        String sql = SELECT_RESERVAS_JOIN + "ORDER BY r.fechaEntrada DESC";
         
         try (
             Connection conn = ConexionBD.getConexion();
             Statement stmt = conn.createStatement();
             ResultSet rs = stmt.executeQuery(sql)
         ) {
-            while (rs.next()) {
-                // Obtenemos los datos básicos
-                int idReserva = rs.getInt("id");
-                int idCliente = rs.getInt("idCliente");
-                int idHabitacion = rs.getInt("idHabitacion");
-                
-                // Buscamos el cliente y la habitación
-                Cliente cliente = clienteDAO.buscarPorId(idCliente);
-                Habitacion habitacion = habitacionDAO.obtenerPorId(idHabitacion);
+            return mapearReservas(rs);
+            
+        } catch (SQLException e) {
+            System.err.println("❌ Error al listar reservas: " + e.getMessage());
+        }
+        
+        return new ArrayList<>();
+    }
+    
+    // ════════════════════════════════════════════════════════
+    // 📄 MÉTODO: listarPagina (READ por páginas)
+    // ════════════════════════════════════════════════════════
+    /**
+     * Obtiene la primera página de reservas (o la siguiente a un cursor).
+     * 
+     * @param tamanio   Reservas por página
+     * @param despuesDe Cursor de la página anterior, o null para la primera
+     * @return Página de reservas, de la más reciente a la más antigua
+     */
+    public PaginaReservas listarPagina(int tamanio, PaginaReservas.Cursor despuesDe) {
+        return listarPagina(tamanio, despuesDe, null, null, null);
+    }
+    
+    /**
+     * Obtiene una página de reservas con filtros opcionales.
+     * 
+     * 📌 ORDEN Y CURSOR:
+     * ─────────────────────────────────
+     * Las reservas se ordenan por (fechaEntrada DESC, id DESC).
+     * El id desempata las reservas con la misma fecha, así el
+     * cursor apunta siempre a UNA fila concreta.
+     * 
+     * "Las siguientes al cursor (F, I)" en orden descendente son:
+     *   fechaEntrada < F  OR  (fechaEntrada = F AND id < I)
+     * 
+     * 📌 ¿CÓMO SABEMOS SI HAY MÁS?
+     * ─────────────────────────────────
+     * Pedimos tamanio + 1 filas (setMaxRows, válido en cualquier BD).
+     * Si llega la fila de más, hay otra página; no se devuelve.
+     * 
+     * @param tamanio   Reservas por página
+     * @param despuesDe Cursor de la página anterior, o null para la primera
+     * @param desde     Solo estancias que acaben después de esta fecha (o null)
+     * @param hasta     Solo estancias que empiecen antes de esta fecha (o null)
+     * @param idCliente Solo reservas de este cliente (o null)
+     * @return Página de reservas
+     */
+    public PaginaReservas listarPagina(int tamanio, PaginaReservas.Cursor despuesDe,
+                                       LocalDate desde, LocalDate hasta, Integer idCliente) {
+        if (tamanio < 1) {
+            throw new IllegalArgumentException("El tamaño de página debe ser >= 1");
+        }
+        
+        // Construimos el WHERE solo con los filtros indicados
+        StringBuilder sql = new StringBuilder(SELECT_RESERVAS_JOIN).append("WHERE 1 = 1 ");
+        List<Object> parametros = new ArrayList<>();
+        
+        if (despuesDe != null) {
+            LocalDate fecha = despuesDe.getFechaEntrada();
+            sql.append("AND (r.fechaEntrada < ? OR (r.fechaEntrada = ? AND r.id < ?)) ");
+            parametros.add(fecha);
+            parametros.add(fecha);
+            parametros.add(despuesDe.getId());
+        }
+        if (desde != null) {
+            sql.append("AND r.fechaSalida > ? ");
+            parametros.add(desde);
+        }
+        if (hasta != null) {
+            sql.append("AND r.fechaEntrada < ? ");
+            parametros.add(hasta);
+        }
+        if (idCliente != null) {
+            sql.append("AND r.idCliente = ? ");
+            parametros.add(idCliente);
+        }
+        sql.append("ORDER BY r.fechaEntrada DESC, r.id DESC");
+        
+        try (
+            Connection conn = ConexionBD.getConexion();
+            PreparedStatement stmt = conn.prepareStatement(sql.toString())
+        ) {
+            for (int i = 0; i < parametros.size(); i++) {
+                stmt.setObject(i + 1, parametros.get(i));
+            }
+            stmt.setMaxRows(tamanio + 1);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                ArrayList<Reserva> reservas = mapearReservas(rs);
                 
-                // Verificamos que existan
-                if (cliente != null && habitacion != null) {
-                    // Creamos el objeto Reserva
-                    Reserva reserva = new Reserva(
-                        idReserva,
-                        cliente,
-                        habitacion,
-                        rs.getDate("fechaEntrada"),  // java.sql.Date se convierte auto
-                        rs.getDate("fechaSalida")
-                    );
-                    
-                    // Establecemos el total de la BD (por si difiere del calculado)
-                    reserva.setImporteTotal(rs.getDouble("total"));
-                    
-                    reservas.add(reserva);
+                if (reservas.size() <= tamanio) {
+                    return new PaginaReservas(reservas, null);  // Última página
                 }
+                
+                // Quitamos la fila de más y dejamos el cursor en la última
+                reservas.remove(tamanio);
+                Reserva ultima = reservas.get(tamanio - 1);
+                return new PaginaReservas(reservas, new PaginaReservas.Cursor(
+                    ultima.getFechaEntrada(), ultima.getId()));
             }
             
         } catch (SQLException e) {
             System.err.println("❌ Error al listar reservas: " + e.getMessage());
         }
         
-        return reservas;
+        return new PaginaReservas(new ArrayList<>(), null);
     }
     
     // ════════════════════════════════════════════════════════
@@ -220,32 +585,18 @@ public class ReservaDAO {
      * @return La reserva encontrada, o null si no existe
      */
     public Reserva buscarPorId(int id) {
-        String sql = "SELECT * FROM Reservas WHERE id = ?";
+        String sql = SELECT_RESERVAS_JOIN + "WHERE r.id = ?";
         
         try (
             Connection conn = ConexionBD.getConexion();
             PreparedStatement stmt = conn.prepareStatement(sql)
         ) {
             stmt.setInt(1, id);
-            ResultSet rs = stmt.executeQuery();
             
-            if (rs.next()) {
-                int idCliente = rs.getInt("idCliente");
-                int idHabitacion = rs.getInt("idHabitacion");
-                
-                Cliente cliente = clienteDAO.buscarPorId(idCliente);
-                Habitacion habitacion = habitacionDAO.obtenerPorId(idHabitacion);
-                
-                if (cliente != null && habitacion != null) {
-                    Reserva reserva = new Reserva(
-                        id,
-                        cliente,
-                        habitacion,
-                        rs.getDate("fechaEntrada"),
-                        rs.getDate("fechaSalida")
-                    );
-                    reserva.setImporteTotal(rs.getDouble("total"));
-                    return reserva;
+            try (ResultSet rs = stmt.executeQuery()) {
+                ArrayList<Reserva> reservas = mapearReservas(rs);
+                if (!reservas.isEmpty()) {
+                    return reservas.get(0);
                 }
             }
             
@@ -266,38 +617,91 @@ public class ReservaDAO {
      * @return Lista de reservas del cliente
      */
     public ArrayList<Reserva> listarPorCliente(int idCliente) {
-        ArrayList<Reserva> reservas = new ArrayList<>();
-        String sql = "SELECT * FROM Reservas WHERE idCliente = ? ORDER BY fechaEntrada";
+        String sql = SELECT_RESERVAS_JOIN + "WHERE r.idCliente = ? ORDER BY r.fechaEntrada";
         
         try (
             Connection conn = ConexionBD.getConexion();
             PreparedStatement stmt = conn.prepareStatement(sql)
         ) {
             stmt.setInt(1, idCliente);
-            ResultSet rs = stmt.executeQuery();
-            
-            Cliente cliente = clienteDAO.buscarPorId(idCliente);
             
-            while (rs.next()) {
-                Habitacion habitacion = habitacionDAO.obtenerPorId(rs.getInt("idHabitacion"));
-                
-                if (cliente != null && habitacion != null) {
-                    Reserva reserva = new Reserva(
-                        rs.getInt("id"),
-                        cliente,
-                        habitacion,
-                        rs.getDate("fechaEntrada"),
-                        rs.getDate("fechaSalida")
-                    );
-                    reserva.setImporteTotal(rs.getDouble("total"));
-                    reservas.add(reserva);
-                }
+            try (ResultSet rs = stmt.executeQuery()) {
+                return mapearReservas(rs);
             }
             
         } catch (SQLException e) {
             System.err.println("❌ Error al listar reservas del cliente: " + e.getMessage());
         }
         
+        return new ArrayList<>();
+    }
+    
+    // ════════════════════════════════════════════════════════
+    // 🛠️ MÉTODO AUXILIAR: mapearReservas
+    // ════════════════════════════════════════════════════════
+    /**
+     * Convierte las filas de SELECT_RESERVAS_JOIN en objetos Reserva.
+     * 
+     * 📌 MAPA DE IDENTIDAD:
+     * ─────────────────────────────────
+     * Guardamos en un HashMap cada Cliente y Habitación ya creados.
+     * Si otra fila trae el mismo ID, reutilizamos el objeto en
+     * lugar de crear uno nuevo. Así:
+     *   • Se crean menos objetos (menos memoria)
+     *   • Dos reservas del mismo cliente apuntan al mismo Cliente
+     * 
+     * El mapa solo vive durante esta llamada.
+     * 
+     * @param rs ResultSet de una consulta basada en SELECT_RESERVAS_JOIN
+     * @return Lista de reservas en el orden del ResultSet
+     */
+    private ArrayList<Reserva> mapearReservas(ResultSet rs) throws SQLException {
+        ArrayList<Reserva> reservas = new ArrayList<>();
+        Map<Integer, Cliente> clientes = new HashMap<>();
+        Map<Integer, Habitacion> habitaciones = new HashMap<>();
+        
+        while (rs.next()) {
+            int idCliente = rs.getInt("idCliente");
+            int idHabitacion = rs.getInt("idHabitacion");
+            
+            // Reutilizamos el cliente si ya apareció en otra fila
+            Cliente cliente = clientes.get(idCliente);
+            if (cliente == null) {
+                cliente = new Cliente(
+                    idCliente,
+                    rs.getString("nombre"),
+                    rs.getString("telefono"),
+                    rs.getString("email")
+                );
+                clientes.put(idCliente, cliente);
+            }
+            
+            // Lo mismo con la habitación
+            Habitacion habitacion = habitaciones.get(idHabitacion);
+            if (habitacion == null) {
+                habitacion = new Habitacion(
+                    idHabitacion,
+                    rs.getString("tipo"),
+                    rs.getDouble("precio"),
+                    rs.getBoolean("disponible")
+                );
+                habitaciones.put(idHabitacion, habitacion);
+            }
+            
+            Reserva reserva = new Reserva(
+                rs.getInt("id"),
+                cliente,
+                habitacion,
+                rs.getObject("fechaEntrada", LocalDate.class),
+                rs.getObject("fechaSalida", LocalDate.class)
+            );
+            
+            // Establecemos el total de la BD (por si difiere del calculado)
+            reserva.setImporteTotal(rs.getDouble("total"));
+            
+            reservas.add(reserva);
+        }
+        
         return reservas;
     }
 }
@@ -0,0 +1,37 @@
+package hotel.dao;
+
+/**
+ * ============================================================
+ * 🚦 ENUM: ResultadoReserva
+ * ============================================================
+ *
+ * Resultado de ReservaDAO.reservarAtomicamente().
+ *
+ * 📚 ¿POR QUÉ UN ENUM Y NO UN boolean?
+ * ─────────────────────────────────
+ * Con true/false no sabríamos POR QUÉ falló la reserva.
+ * Un enum deja claro cada caso y permite usar switch:
+ *
+ *   switch (resultado) {
+ *       case CREADA:          ...
+ *       case CONFLICTO:       ...  // Otro recepcionista ganó
+ *       case HABITACION_NO_EXISTE: ...
+ *       case ERROR:           ...
+ *   }
+ *
+ * ============================================================
+ */
+public enum ResultadoReserva {
+
+    /** La reserva se guardó y tiene ID asignado. */
+    CREADA,
+
+    /** La habitación ya está reservada en alguna de esas fechas. */
+    CONFLICTO,
+
+    /** No existe ninguna habitación con ese ID. */
+    HABITACION_NO_EXISTE,
+
+    /** Error de base de datos: no se guardó nada (rollback). */
+    ERROR
+}
@@ -0,0 +1,54 @@
+package hotel.dao;
+
+/**
+ * ============================================================
+ * 📝 ENUM: TipoEvento
+ * ============================================================
+ *
+ * Tipos de evento que se guardan en el DiarioEventos.
+ *
+ * Cada tipo se escribe en el fichero como un byte (codigo).
+ * El 0 queda reservado: marca la zona del fichero aún vacía.
+ *
+ * ⚠️ No cambiar los códigos: los diarios ya escritos dejarían
+ * de leerse bien. Los tipos nuevos van con códigos nuevos.
+ *
+ * ============================================================
+ */
+public enum TipoEvento {
+
+    /** Se ha guardado una reserva (habitación y fechas). */
+    RESERVA_CREADA(1),
+
+    /** Se ha eliminado una reserva. */
+    RESERVA_CANCELADA(2),
+
+    /** Se ha cambiado el campo 'disponible' de una habitación. */
+    DISPONIBILIDAD_CAMBIADA(3),
+
+    /** Una reserva ha pasado a otra habitación (mismas fechas). */
+    RESERVA_REASIGNADA(4);
+
+    private final byte codigo;
+
+    TipoEvento(int codigo) {
+        this.codigo = (byte) codigo;
+    }
+
+    public byte getCodigo() {
+        return codigo;
+    }
+
+    /**
+     * @param codigo Byte leído del fichero
+     * @return El tipo, o null si el código no es válido
+     */
+    public static TipoEvento deCodigo(byte codigo) {
+        for (TipoEvento t : values()) {
+            if (t.codigo == codigo) {
+                return t;
+            }
+        }
+        return null;
+    }
+}
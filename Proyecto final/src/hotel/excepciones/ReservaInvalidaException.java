@@ -148,10 +148,10 @@ public class ReservaInvalidaException extends Exception {
  * }
  * 
  * // EJEMPLO 3: Validar fechas
- * public Reserva crearReserva(Date entrada, Date salida) 
+ * public Reserva crearReserva(LocalDate entrada, LocalDate salida) 
  *         throws ReservaInvalidaException {
  *     
- *     if (entrada.after(salida)) {
+ *     if (entrada.isAfter(salida)) {
  *         throw new ReservaInvalidaException(
  *             "La fecha de entrada no puede ser posterior a la de salida"
  *         );
@@ -1,7 +1,8 @@
 package hotel.modelo;
 
-import java.util.Date;
-import java.util.concurrent.TimeUnit;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
 
 /**
  * ============================================================
@@ -31,6 +32,26 @@ import java.util.concurrent.TimeUnit;
  */
 public class Reserva {
     
+    // ════════════════════════════════════════════════════════
+    // 📅 FORMATO DE FECHAS (compartido por toda la aplicación)
+    // ════════════════════════════════════════════════════════
+    /**
+     * Formato dd/MM/yyyy para leer y mostrar fechas.
+     * 
+     * 📌 ¿POR QUÉ DateTimeFormatter Y NO SimpleDateFormat?
+     * ─────────────────────────────────
+     * SimpleDateFormat guarda estado interno mientras trabaja: si
+     * dos hilos lo usan a la vez, puede devolver fechas erróneas.
+     * DateTimeFormatter es INMUTABLE, así que una única constante
+     * sirve para todos los hilos sin crear objetos nuevos.
+     * 
+     * STRICT rechaza fechas imposibles como 31/02/2025 (el modo
+     * por defecto las "ajustaría" al 28/02). Con STRICT el año
+     * se escribe 'uuuu' en lugar de 'yyyy'.
+     */
+    public static final DateTimeFormatter FORMATO_FECHA =
+        DateTimeFormatter.ofPattern("dd/MM/uuuu").withResolverStyle(ResolverStyle.STRICT);
+    
     // ════════════════════════════════════════════════════════
     // 📦 ATRIBUTOS
     // ════════════════════════════════════════════════════════
@@ -38,8 +59,8 @@ public class Reserva {
     private int id;                 // ID único de la reserva
     private Cliente cliente;        // El cliente que hace la reserva (COMPOSICIÓN)
     private Habitacion habitacion;  // La habitación reservada (COMPOSICIÓN)
-    private Date fechaEntrada;      // Fecha de check-in
-    private Date fechaSalida;       // Fecha de check-out
+    private LocalDate fechaEntrada; // Fecha de check-in
+    private LocalDate fechaSalida;  // Fecha de check-out
     private double importeTotal;    // Coste total de la reserva
     
     // ════════════════════════════════════════════════════════
@@ -64,7 +85,7 @@ public class Reserva {
      * @param fechaSalida  Fecha de salida (check-out)
      */
     public Reserva(int id, Cliente cliente, Habitacion habitacion, 
-                   Date fechaEntrada, Date fechaSalida) {
+                   LocalDate fechaEntrada, LocalDate fechaSalida) {
         this.id = id;
         this.cliente = cliente;
         this.habitacion = habitacion;
@@ -80,7 +101,7 @@ public class Reserva {
      * El ID se asignará cuando se guarde en la base de datos.
      */
     public Reserva(Cliente cliente, Habitacion habitacion, 
-                   Date fechaEntrada, Date fechaSalida) {
+                   LocalDate fechaEntrada, LocalDate fechaSalida) {
         this(0, cliente, habitacion, fechaEntrada, fechaSalida);
     }
     
@@ -94,12 +115,13 @@ public class Reserva {
      * ─────────────────────────────────
      *   Importe = Número de noches × Precio por noche
      * 
-     * 📌 CÁLCULO DE DÍAS ENTRE FECHAS:
+     * 📌 CÁLCULO DE NOCHES ENTRE FECHAS:
      * ─────────────────────────────────
-     * Para calcular la diferencia entre dos fechas en Java:
-     *   1. Obtenemos los milisegundos de cada fecha (.getTime())
-     *   2. Restamos los milisegundos
-     *   3. Convertimos a días dividiendo por milisegundos/día
+     * toEpochDay() devuelve el número de días desde el 1/1/1970.
+     * Restando los de salida y entrada obtenemos las noches.
+     * 
+     * Antes se restaban milisegundos: un día con cambio de hora
+     * (23 o 25 horas) daba una noche de menos o de más.
      * 
      * @return El importe total calculado
      */
@@ -109,12 +131,8 @@ public class Reserva {
             return 0;
         }
         
-        // Calculamos la diferencia en milisegundos
-        long diferenciaMs = fechaSalida.getTime() - fechaEntrada.getTime();
-        
-        // Convertimos milisegundos a días
-        // TimeUnit.DAYS.convert() es más legible que dividir manualmente
-        long numeroNoches = TimeUnit.DAYS.convert(diferenciaMs, TimeUnit.MILLISECONDS);
+        // Noches = días de salida - días de entrada (sin horas ni zonas horarias)
+        long numeroNoches = fechaSalida.toEpochDay() - fechaEntrada.toEpochDay();
         
         // Si el número de noches es 0 o negativo, al menos cobramos 1 noche
         if (numeroNoches <= 0) {
@@ -158,8 +176,8 @@ public class Reserva {
         sb.append("║    • Precio:   " + String.format("%-40s", habitacion.getPrecioPorNoche() + "€/noche") + " ║\n");
         sb.append("╠══════════════════════════════════════════════════════════╣\n");
         sb.append("║ 📅 FECHAS:                                               ║\n");
-        sb.append("║    • Entrada:  " + String.format("%-40s", fechaEntrada) + " ║\n");
-        sb.append("║    • Salida:   " + String.format("%-40s", fechaSalida) + " ║\n");
+        sb.append("║    • Entrada:  " + String.format("%-40s", formatear(fechaEntrada)) + " ║\n");
+        sb.append("║    • Salida:   " + String.format("%-40s", formatear(fechaSalida)) + " ║\n");
         sb.append("╠══════════════════════════════════════════════════════════╣\n");
         sb.append("║ 💰 IMPORTE TOTAL: " + String.format("%38s", String.format("%.2f€", importeTotal)) + " ║\n");
         sb.append("╚══════════════════════════════════════════════════════════╝\n");
@@ -167,6 +185,13 @@ public class Reserva {
         return sb.toString();
     }
     
+    /**
+     * Formatea una fecha como dd/MM/yyyy (o "-" si es null).
+     */
+    private static String formatear(LocalDate fecha) {
+        return fecha == null ? "-" : FORMATO_FECHA.format(fecha);
+    }
+    
     // ════════════════════════════════════════════════════════
     // 📤 GETTERS
     // ════════════════════════════════════════════════════════
@@ -183,11 +208,11 @@ public class Reserva {
         return habitacion;
     }
     
-    public Date getFechaEntrada() {
+    public LocalDate getFechaEntrada() {
         return fechaEntrada;
     }
     
-    public Date getFechaSalida() {
+    public LocalDate getFechaSalida() {
         return fechaSalida;
     }
     
@@ -211,13 +236,13 @@ public class Reserva {
         this.habitacion = habitacion;
     }
     
-    public void setFechaEntrada(Date fechaEntrada) {
+    public void setFechaEntrada(LocalDate fechaEntrada) {
         this.fechaEntrada = fechaEntrada;
         // Recalculamos el importe cuando cambian las fechas
         this.importeTotal = calcularImporteTotal();
     }
     
-    public void setFechaSalida(Date fechaSalida) {
+    public void setFechaSalida(LocalDate fechaSalida) {
         this.fechaSalida = fechaSalida;
         // Recalculamos el importe cuando cambian las fechas
         this.importeTotal = calcularImporteTotal();
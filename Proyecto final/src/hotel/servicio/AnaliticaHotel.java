@@ -0,0 +1,393 @@
+package hotel.servicio;
+
+import hotel.dao.AnaliticaDAO;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * ============================================================
+ * 📈 CLASE: AnaliticaHotel (Ocupación e ingresos)
+ * ============================================================
+ *
+ * 📚 LOS TRES INDICADORES DEL SECTOR HOTELERO:
+ * ─────────────────────────────────
+ *   • OCUPACIÓN = noches vendidas / noches disponibles
+ *       (10 habitaciones × 30 días = 300 noches disponibles)
+ *
+ *   • ADR (Average Daily Rate, tarifa media diaria)
+ *       = ingresos / noches vendidas
+ *       ¿A cuánto vendemos de media cada noche?
+ *
+ *   • RevPAR (Revenue Per Available Room)
+ *       = ingresos / noches disponibles  (= ocupación × ADR)
+ *       Combina los dos anteriores: un hotel lleno a precio de
+ *       saldo y uno vacío y caro tienen RevPAR bajo.
+ *
+ * 📌 ¿CÓMO SE CALCULA?
+ * ─────────────────────────────────
+ *   1. Se leen las estancias del periodo (AnaliticaDAO, en streaming)
+ *      y se guardan en arrays de tipos primitivos (sin objetos)
+ *   2. Cada estancia se "expande" en sus noches: la noche d del
+ *      tipo t suma 1 noche vendida y total/noches de ingreso
+ *   3. El paso 2 se hace EN PARALELO: cada hilo acumula en sus
+ *      propios arrays [tipo][día] y al final se suman
+ *   4. Con esos arrays se sacan los indicadores por día, por
+ *      tipo de habitación y por mes
+ *
+ * ⚠️ La oferta (noches disponibles) se calcula con las
+ * habitaciones que existen HOY: la BD no guarda el histórico.
+ *
+ * ============================================================
+ */
+public class AnaliticaHotel {
+
+    // ════════════════════════════════════════════════════════
+    // 📊 INDICADORES DE UN PERIODO
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Ocupación, ADR y RevPAR de un día, mes, tipo o del total.
+     */
+    public static class Indicadores {
+        private final String etiqueta;
+        private long nochesDisponibles;
+        private long nochesVendidas;
+        private double ingresos;
+
+        public Indicadores(String etiqueta) {
+            this.etiqueta = etiqueta;
+        }
+
+        void sumar(long disponibles, long vendidas, double ingresos) {
+            this.nochesDisponibles += disponibles;
+            this.nochesVendidas += vendidas;
+            this.ingresos += ingresos;
+        }
+
+        public String getEtiqueta() {
+            return etiqueta;
+        }
+
+        public long getNochesDisponibles() {
+            return nochesDisponibles;
+        }
+
+        public long getNochesVendidas() {
+            return nochesVendidas;
+        }
+
+        public double getIngresos() {
+            return ingresos;
+        }
+
+        /**
+         * @return Ocupación en porcentaje (0-100)
+         */
+        public double getOcupacion() {
+            return nochesDisponibles == 0 ? 0 : nochesVendidas * 100.0 / nochesDisponibles;
+        }
+
+        /**
+         * @return Tarifa media por noche vendida
+         */
+        public double getADR() {
+            return nochesVendidas == 0 ? 0 : ingresos / nochesVendidas;
+        }
+
+        /**
+         * @return Ingresos por habitación disponible
+         */
+        public double getRevPAR() {
+            return nochesDisponibles == 0 ? 0 : ingresos / nochesDisponibles;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-12s ocupación %5.1f%%  ADR %8.2f €  RevPAR %8.2f €  (%d/%d noches, %.2f €)",
+                etiqueta, getOcupacion(), getADR(), getRevPAR(),
+                nochesVendidas, nochesDisponibles, ingresos);
+        }
+    }
+
+    /**
+     * Resultado completo de un análisis.
+     */
+    public static class Informe {
+        private final LocalDate desde;
+        private final LocalDate hasta;
+        private final Indicadores total;
+        private final List<Indicadores> porDia;
+        private final List<Indicadores> porMes;
+        private final Map<String, Indicadores> porTipo;
+
+        Informe(LocalDate desde, LocalDate hasta, Indicadores total, List<Indicadores> porDia,
+                List<Indicadores> porMes, Map<String, Indicadores> porTipo) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.total = total;
+            this.porDia = porDia;
+            this.porMes = porMes;
+            this.porTipo = porTipo;
+        }
+
+        public LocalDate getDesde() {
+            return desde;
+        }
+
+        public LocalDate getHasta() {
+            return hasta;
+        }
+
+        public Indicadores getTotal() {
+            return total;
+        }
+
+        public List<Indicadores> getPorDia() {
+            return porDia;
+        }
+
+        public List<Indicadores> getPorMes() {
+            return porMes;
+        }
+
+        public Map<String, Indicadores> getPorTipo() {
+            return porTipo;
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 📦 ESTANCIAS EN ARRAYS PRIMITIVOS
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Estancias de un periodo guardadas en arrays paralelos.
+     *
+     * 📌 ¿POR QUÉ ARRAYS Y NO List<Reserva>?
+     * ─────────────────────────────────
+     * Un int ocupa 4 bytes; un objeto con sus campos, más de 40.
+     * Además los arrays se recorren de forma secuencial en memoria,
+     * que es lo más rápido para la CPU.
+     */
+    public static class Estancias {
+        private int tamanio = 0;
+        private int[] tipo = new int[1024];
+        private long[] entrada = new long[1024];   // Día época (toEpochDay)
+        private long[] salida = new long[1024];
+        private double[] total = new double[1024];
+
+        /**
+         * Añade una estancia.
+         *
+         * @param indiceTipo Posición del tipo de habitación
+         * @param entrada    Día de entrada
+         * @param salida     Día de salida
+         * @param total      Importe total de la estancia
+         */
+        public void agregar(int indiceTipo, LocalDate entrada, LocalDate salida, double total) {
+            if (tamanio == tipo.length) {
+                int nueva = tamanio * 2;
+                this.tipo = Arrays.copyOf(this.tipo, nueva);
+                this.entrada = Arrays.copyOf(this.entrada, nueva);
+                this.salida = Arrays.copyOf(this.salida, nueva);
+                this.total = Arrays.copyOf(this.total, nueva);
+            }
+            this.tipo[tamanio] = indiceTipo;
+            this.entrada[tamanio] = entrada.toEpochDay();
+            this.salida[tamanio] = salida.toEpochDay();
+            this.total[tamanio] = total;
+            tamanio++;
+        }
+
+        public int tamanio() {
+            return tamanio;
+        }
+    }
+
+    /**
+     * Noches vendidas e ingresos por [tipo][día] de un hilo.
+     */
+    private static class Acumulador {
+        final int[][] noches;
+        final double[][] ingresos;
+
+        Acumulador(int numTipos, int numDias) {
+            this.noches = new int[numTipos][numDias];
+            this.ingresos = new double[numTipos][numDias];
+        }
+
+        void combinar(Acumulador otro) {
+            for (int t = 0; t < noches.length; t++) {
+                for (int d = 0; d < noches[t].length; d++) {
+                    noches[t][d] += otro.noches[t][d];
+                    ingresos[t][d] += otro.ingresos[t][d];
+                }
+            }
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 📦 ATRIBUTOS
+    // ════════════════════════════════════════════════════════
+
+    private final AnaliticaDAO analiticaDAO;
+
+    public AnaliticaHotel() {
+        this.analiticaDAO = new AnaliticaDAO();
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 📈 MÉTODO: calcular (desde la base de datos)
+    // ════════════════════════════════════════════════════════
+    /**
+     * Calcula los indicadores del periodo [desde, hasta).
+     *
+     * @param desde Primer día del periodo
+     * @param hasta Día siguiente al último del periodo
+     * @return Informe, o null si no se pudieron leer los datos
+     */
+    public Informe calcular(LocalDate desde, LocalDate hasta) {
+        if (!desde.isBefore(hasta)) {
+            throw new IllegalArgumentException("La fecha final debe ser posterior a la inicial");
+        }
+
+        // La oferta: habitaciones de cada tipo
+        Map<String, Integer> habitacionesPorTipo = new LinkedHashMap<>(analiticaDAO.contarHabitacionesPorTipo());
+        List<String> tipos = new ArrayList<>(habitacionesPorTipo.keySet());
+        Map<String, Integer> indiceTipo = new HashMap<>();
+        for (int i = 0; i < tipos.size(); i++) {
+            indiceTipo.put(tipos.get(i), i);
+        }
+
+        // La demanda: estancias del periodo, directamente a arrays
+        Estancias estancias = new Estancias();
+        boolean ok = analiticaDAO.recorrerEstancias(desde, hasta, (tipo, entrada, salida, total) -> {
+            Integer t = indiceTipo.get(tipo);
+            if (t == null) {
+                // Tipo sin habitaciones hoy: cuenta ventas, pero no oferta
+                t = tipos.size();
+                tipos.add(tipo);
+                indiceTipo.put(tipo, t);
+                habitacionesPorTipo.put(tipo, 0);
+            }
+            estancias.agregar(t, entrada, salida, total);
+        });
+
+        if (!ok) {
+            return null;
+        }
+
+        int[] habitaciones = new int[tipos.size()];
+        for (int i = 0; i < habitaciones.length; i++) {
+            habitaciones[i] = habitacionesPorTipo.get(tipos.get(i));
+        }
+
+        return calcular(desde, hasta, tipos.toArray(new String[0]), habitaciones, estancias);
+    }
+
+    // ════════════════════════════════════════════════════════
+    // ⚙️ MÉTODO: calcular (en memoria, en paralelo)
+    // ════════════════════════════════════════════════════════
+    /**
+     * Calcula los indicadores a partir de estancias ya cargadas.
+     *
+     * @param desde        Primer día del periodo
+     * @param hasta        Día siguiente al último del periodo
+     * @param tipos        Nombres de los tipos de habitación
+     * @param habitaciones Habitaciones de cada tipo (misma posición que tipos)
+     * @param estancias    Estancias con el índice de su tipo
+     * @return Informe con los indicadores por día, mes y tipo
+     */
+    public static Informe calcular(LocalDate desde, LocalDate hasta, String[] tipos,
+                                   int[] habitaciones, Estancias estancias) {
+        final long primerDia = desde.toEpochDay();
+        final long finPeriodo = hasta.toEpochDay();
+        final int numDias = (int) (finPeriodo - primerDia);
+        final int numTipos = tipos.length;
+
+        // --------------------------------------------------------
+        // Expandir estancias en noches, en paralelo
+        // --------------------------------------------------------
+        Acumulador acumulado = IntStream.range(0, estancias.tamanio).parallel().collect(
+            () -> new Acumulador(numTipos, numDias),
+            (acc, i) -> {
+                long entrada = estancias.entrada[i];
+                long salida = estancias.salida[i];
+                long noches = salida - entrada;
+                if (noches <= 0) {
+                    return;
+                }
+
+                // Precio de cada noche de ESTA estancia (aunque se salga del periodo)
+                double porNoche = estancias.total[i] / noches;
+                int t = estancias.tipo[i];
+                int d0 = (int) (Math.max(entrada, primerDia) - primerDia);
+                int d1 = (int) (Math.min(salida, finPeriodo) - primerDia);
+
+                int[] nochesTipo = acc.noches[t];
+                double[] ingresosTipo = acc.ingresos[t];
+                for (int d = d0; d < d1; d++) {
+                    nochesTipo[d]++;
+                    ingresosTipo[d] += porNoche;
+                }
+            },
+            Acumulador::combinar
+        );
+
+        // --------------------------------------------------------
+        // Agregar por día, por mes, por tipo y total
+        // --------------------------------------------------------
+        int habitacionesTotales = 0;
+        for (int h : habitaciones) {
+            habitacionesTotales += h;
+        }
+
+        Indicadores total = new Indicadores("TOTAL");
+        List<Indicadores> porDia = new ArrayList<>(numDias);
+        List<Indicadores> porMes = new ArrayList<>();
+        Map<String, Indicadores> porTipo = new LinkedHashMap<>();
+
+        for (String tipo : tipos) {
+            porTipo.put(tipo, new Indicadores(tipo));
+        }
+
+        Indicadores mes = null;
+        YearMonth mesActual = null;
+
+        for (int d = 0; d < numDias; d++) {
+            LocalDate fecha = LocalDate.ofEpochDay(primerDia + d);
+            long vendidasDia = 0;
+            double ingresosDia = 0;
+
+            for (int t = 0; t < numTipos; t++) {
+                int vendidas = acumulado.noches[t][d];
+                double ingresos = acumulado.ingresos[t][d];
+                porTipo.get(tipos[t]).sumar(habitaciones[t], vendidas, ingresos);
+                vendidasDia += vendidas;
+                ingresosDia += ingresos;
+            }
+
+            Indicadores dia = new Indicadores(fecha.toString());
+            dia.sumar(habitacionesTotales, vendidasDia, ingresosDia);
+            porDia.add(dia);
+            total.sumar(habitacionesTotales, vendidasDia, ingresosDia);
+
+            YearMonth ym = YearMonth.from(fecha);
+            if (!ym.equals(mesActual)) {
+                mesActual = ym;
+                mes = new Indicadores(ym.toString());
+                porMes.add(mes);
+            }
+            mes.sumar(habitacionesTotales, vendidasDia, ingresosDia);
+        }
+
+        return new Informe(desde, hasta, total, porDia, porMes, porTipo);
+    }
+}
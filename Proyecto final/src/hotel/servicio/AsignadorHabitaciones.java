@@ -0,0 +1,397 @@
+package hotel.servicio;
+
+import hotel.dao.HabitacionDAO;
+import hotel.dao.IndiceDisponibilidad;
+import hotel.dao.ReservaDAO;
+import hotel.modelo.Habitacion;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * ============================================================
+ * 🧩 CLASE: AsignadorHabitaciones (Qué habitación le damos)
+ * ============================================================
+ *
+ * 📚 EL PROBLEMA: NOCHES SUELTAS
+ * ─────────────────────────────────
+ * El cliente reserva un TIPO (doble), no una habitación. Si el
+ * recepcionista elige la habitación a ojo, el calendario se
+ * llena de huecos de una noche que casi nadie compra:
+ *
+ *   Hab. 1: ███████·██████        ← 1 noche suelta
+ *   Hab. 2: ████··········
+ *
+ * Y puede pasar que el tipo tenga sitio TODAS las noches de una
+ * estancia, pero ninguna habitación libre la estancia entera.
+ *
+ * 📌 1) AL RESERVAR: "BEST FIT"
+ * ─────────────────────────────────
+ * Entre las habitaciones libres del tipo, elegimos la que deja
+ * menos noches libres pegadas a la estancia (lo ideal: salida
+ * de uno = entrada del otro). Un hueco más corto que
+ * nochesMinimas se penaliza mucho: no se va a vender.
+ *
+ * 📌 2) CADA NOCHE: REOPTIMIZAR
+ * ─────────────────────────────────
+ * Las reservas FUTURAS se pueden cambiar de habitación (el
+ * cliente no lo nota). Se recolocan todas con el algoritmo de
+ * "partición de intervalos":
+ *
+ *   1. Ordenar las estancias por fecha de entrada
+ *   2. A cada una darle la habitación que quedó libre MÁS
+ *      TARDE sin pasarse de su entrada (TreeMap.floorKey)
+ *
+ * Así se usan las mínimas habitaciones posibles: si alguna
+ * estancia se queda sin habitación, es que el tipo está de
+ * verdad lleno (overbooking), no fragmentado.
+ *
+ *   Coste: O(n log h) para n estancias y h habitaciones.
+ *
+ * Las estancias que ya han empezado (entrada anterior a 'desde')
+ * no se mueven: el huésped ya está en su habitación.
+ *
+ * ============================================================
+ */
+public class AsignadorHabitaciones {
+
+    // ════════════════════════════════════════════════════════
+    // 📦 ESTANCIAS Y PLANES
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Una reserva vista por el asignador: fechas y habitación.
+     * Las fechas van en epoch days, como en IndiceDisponibilidad.
+     */
+    public static class Estancia {
+        private final int idReserva;
+        private final int idHabitacion;   // 0 = aún sin habitación
+        private final long entrada;
+        private final long salida;
+
+        public Estancia(int idReserva, int idHabitacion, long entrada, long salida) {
+            this.idReserva = idReserva;
+            this.idHabitacion = idHabitacion;
+            this.entrada = entrada;
+            this.salida = salida;
+        }
+
+        public Estancia(int idReserva, int idHabitacion, LocalDate entrada, LocalDate salida) {
+            this(idReserva, idHabitacion, entrada.toEpochDay(), salida.toEpochDay());
+        }
+
+        public int getIdReserva() {
+            return idReserva;
+        }
+
+        public int getIdHabitacion() {
+            return idHabitacion;
+        }
+
+        public long getEntrada() {
+            return entrada;
+        }
+
+        public long getSalida() {
+            return salida;
+        }
+    }
+
+    /**
+     * Resultado de planificar(): dónde va cada estancia.
+     */
+    public static class Plan {
+        private final Map<Integer, Integer> asignacion = new HashMap<>();      // idReserva → habitación
+        private final Map<Integer, Integer> cambios = new LinkedHashMap<>();   // solo las que se mueven
+        private final List<Estancia> sinHabitacion = new ArrayList<>();
+        private int huecosAntes;
+        private int huecosDespues;
+
+        /** @return idReserva → habitación, para todas las estancias colocadas */
+        public Map<Integer, Integer> getAsignacion() {
+            return asignacion;
+        }
+
+        /** @return idReserva → nueva habitación, solo las que cambian */
+        public Map<Integer, Integer> getCambios() {
+            return cambios;
+        }
+
+        /** @return Estancias que no caben en ninguna habitación (overbooking) */
+        public List<Estancia> getSinHabitacion() {
+            return sinHabitacion;
+        }
+
+        /** @return Noches sueltas invendibles con la asignación actual */
+        public int getHuecosAntes() {
+            return huecosAntes;
+        }
+
+        /** @return Noches sueltas invendibles si se aplica el plan */
+        public int getHuecosDespues() {
+            return huecosDespues;
+        }
+
+        /** @return true si todas las estancias tienen habitación */
+        public boolean isCompleto() {
+            return sinHabitacion.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return cambios.size() + " cambios, huecos invendibles " + huecosAntes + " → " + huecosDespues
+                   + (isCompleto() ? "" : ", " + sinHabitacion.size() + " sin habitación");
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 📋 CONFIGURACIÓN
+    // ════════════════════════════════════════════════════════
+
+    // Coste de un hueco sin reserva al otro lado: peor que rellenar
+    // un hueco acotado, mejor que dejar una noche suelta
+    private static final long COSTE_SIN_VECINA = 1_000;
+    private static final long COSTE_INVENDIBLE = 10_000;
+
+    // Un hueco de menos noches que esto no se vende
+    private final int nochesMinimas;
+
+    /**
+     * Asignador que considera invendibles los huecos de 1 noche.
+     */
+    public AsignadorHabitaciones() {
+        this(2);
+    }
+
+    /**
+     * @param nochesMinimas Huecos más cortos que esto se consideran invendibles
+     */
+    public AsignadorHabitaciones(int nochesMinimas) {
+        if (nochesMinimas < 1) {
+            throw new IllegalArgumentException("nochesMinimas debe ser >= 1");
+        }
+        this.nochesMinimas = nochesMinimas;
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 1️⃣ AL RESERVAR: elegirHabitacion
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Elige, entre las candidatas, la habitación libre que menos
+     * huecos deja alrededor de la estancia (consulta el índice).
+     *
+     * A igual coste gana la primera de la lista.
+     *
+     * @param candidatas IDs de las habitaciones del tipo pedido
+     * @param entrada    Fecha de entrada (incluida)
+     * @param salida     Fecha de salida (excluida)
+     * @return ID de la habitación, o -1 si ninguna está libre
+     */
+    public int elegirHabitacion(Collection<Integer> candidatas, LocalDate entrada, LocalDate salida) {
+        return IndiceDisponibilidad.getInstancia().elegirLibre(candidatas, entrada, salida,
+            (antes, despues) -> coste(antes) + coste(despues));
+    }
+
+    private long coste(long hueco) {
+        if (hueco == IndiceDisponibilidad.SIN_VECINA) {
+            return COSTE_SIN_VECINA;
+        }
+        if (hueco > 0 && hueco < nochesMinimas) {
+            return COSTE_INVENDIBLE;
+        }
+        return hueco;
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 2️⃣ REOPTIMIZAR: planificar
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Recoloca las estancias que empiezan en 'desde' o después
+     * (y las que aún no tienen habitación) en las habitaciones dadas.
+     *
+     * No toca la BD ni el índice: solo calcula el plan.
+     *
+     * @param habitaciones IDs de las habitaciones (todas del mismo tipo)
+     * @param estancias    Reservas de esas habitaciones y las nuevas sin habitación
+     * @param desde        Primer día que se puede reorganizar (epoch day)
+     * @return Plan con la nueva asignación
+     */
+    public Plan planificar(List<Integer> habitaciones, List<Estancia> estancias, long desde) {
+        Plan plan = new Plan();
+
+        // --------------------------------------------------------
+        // PASO 1: Separar fijas (ya empezadas) y movibles
+        // --------------------------------------------------------
+        Map<Integer, Long> libreDesde = new LinkedHashMap<>();
+        for (Integer id : habitaciones) {
+            libreDesde.put(id, Long.MIN_VALUE);  // Nunca ocupada
+        }
+
+        List<Estancia> movibles = new ArrayList<>();
+        for (Estancia e : estancias) {
+            Long fin = libreDesde.get(e.idHabitacion);
+            if (e.entrada < desde && fin != null) {
+                libreDesde.put(e.idHabitacion, Math.max(fin, e.salida));
+                plan.asignacion.put(e.idReserva, e.idHabitacion);
+            } else {
+                movibles.add(e);
+            }
+        }
+        movibles.sort(Comparator.comparingLong((Estancia e) -> e.entrada).thenComparingLong(e -> e.salida));
+
+        // --------------------------------------------------------
+        // PASO 2: Habitaciones agrupadas por "libre desde el día X"
+        // --------------------------------------------------------
+        TreeMap<Long, LinkedHashSet<Integer>> porDiaLibre = new TreeMap<>();
+        for (Map.Entry<Integer, Long> h : libreDesde.entrySet()) {
+            porDiaLibre.computeIfAbsent(h.getValue(), k -> new LinkedHashSet<>()).add(h.getKey());
+        }
+
+        // --------------------------------------------------------
+        // PASO 3: Cada estancia a la habitación que mejor encaja
+        // --------------------------------------------------------
+        for (Estancia e : movibles) {
+            Long clave = porDiaLibre.floorKey(e.entrada);
+
+            // Si dejaría una noche suelta, mejor otra con un hueco vendible
+            if (clave != null && clave != Long.MIN_VALUE && e.entrada - clave > 0
+                && e.entrada - clave < nochesMinimas) {
+                Long alternativa = porDiaLibre.floorKey(e.entrada - nochesMinimas);
+                if (alternativa != null) {
+                    clave = alternativa;
+                }
+            }
+
+            if (clave == null) {
+                plan.sinHabitacion.add(e);  // Todas ocupadas ese día
+                continue;
+            }
+
+            // Entre las equivalentes, preferimos no moverla
+            LinkedHashSet<Integer> grupo = porDiaLibre.get(clave);
+            int habitacion = grupo.contains(e.idHabitacion) ? e.idHabitacion : grupo.iterator().next();
+            grupo.remove(habitacion);
+            if (grupo.isEmpty()) {
+                porDiaLibre.remove(clave);
+            }
+            porDiaLibre.computeIfAbsent(e.salida, k -> new LinkedHashSet<>()).add(habitacion);
+
+            plan.asignacion.put(e.idReserva, habitacion);
+            if (habitacion != e.idHabitacion) {
+                plan.cambios.put(e.idReserva, habitacion);
+            }
+        }
+
+        plan.huecosAntes = contarHuecosInvendibles(estancias, null, desde);
+        plan.huecosDespues = contarHuecosInvendibles(estancias, plan.asignacion, desde);
+        return plan;
+    }
+
+    /**
+     * Carga del índice las reservas de unas habitaciones y planifica.
+     *
+     * @param habitaciones IDs de las habitaciones (todas del mismo tipo)
+     * @param desde        Primer día que se puede reorganizar
+     * @param nueva        Estancia nueva sin habitación (o null)
+     * @return Plan con la nueva asignación
+     */
+    public Plan planificarDesdeIndice(List<Integer> habitaciones, LocalDate desde, Estancia nueva) {
+        IndiceDisponibilidad indice = IndiceDisponibilidad.getInstancia();
+        List<Estancia> estancias = new ArrayList<>();
+
+        for (Integer id : habitaciones) {
+            for (long[] t : indice.tramosDe(id)) {
+                estancias.add(new Estancia((int) t[0], id, t[1], t[2]));
+            }
+        }
+        if (nueva != null) {
+            estancias.add(nueva);
+        }
+
+        return planificar(habitaciones, estancias, desde.toEpochDay());
+    }
+
+    /**
+     * Reoptimiza todas las reservas futuras, tipo a tipo, y guarda
+     * los cambios en la BD. Pensado para lanzarse cada noche.
+     *
+     * @param desde Primer día que se puede reorganizar (normalmente mañana)
+     * @return Plan de cada tipo de habitación
+     */
+    public Map<String, Plan> reoptimizar(LocalDate desde) {
+        Map<String, List<Integer>> porTipo = new TreeMap<>();
+        for (Habitacion h : new HabitacionDAO().listarTodas()) {
+            porTipo.computeIfAbsent(h.getTipo(), k -> new ArrayList<>()).add(h.getId());
+        }
+
+        ReservaDAO reservaDAO = new ReservaDAO();
+        Map<String, Plan> planes = new LinkedHashMap<>();
+
+        for (Map.Entry<String, List<Integer>> tipo : porTipo.entrySet()) {
+            Plan plan = planificarDesdeIndice(tipo.getValue(), desde, null);
+
+            if (!plan.getCambios().isEmpty() && plan.huecosDespues < plan.huecosAntes
+                && !reservaDAO.reasignarHabitaciones(plan.getCambios())) {
+                System.err.println("⚠️ Reasignación de '" + tipo.getKey()
+                                   + "' anulada: hubo reservas nuevas mientras tanto.");
+            }
+            planes.put(tipo.getKey(), plan);
+        }
+
+        return planes;
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 📏 MEDIR
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Cuenta los huecos entre dos reservas seguidas de una misma
+     * habitación más cortos que nochesMinimas, a partir de 'desde'.
+     *
+     * @param estancias  Estancias a contar
+     * @param asignacion idReserva → habitación (null = la actual de cada estancia)
+     * @param desde      Solo cuentan los huecos que empiezan ese día o después
+     * @return Número de huecos invendibles
+     */
+    public int contarHuecosInvendibles(List<Estancia> estancias, Map<Integer, Integer> asignacion, long desde) {
+        Map<Integer, List<Estancia>> porHabitacion = new HashMap<>();
+        for (Estancia e : estancias) {
+            Integer habitacion = asignacion != null ? asignacion.get(e.idReserva) : Integer.valueOf(e.idHabitacion);
+            if (habitacion != null && habitacion != 0) {
+                porHabitacion.computeIfAbsent(habitacion, k -> new ArrayList<>()).add(e);
+            }
+        }
+
+        int huecos = 0;
+        for (List<Estancia> lista : porHabitacion.values()) {
+            lista.sort(Comparator.comparingLong(e -> e.entrada));
+            Iterator<Estancia> it = lista.iterator();
+            Estancia anterior = it.next();
+            while (it.hasNext()) {
+                Estancia actual = it.next();
+                long hueco = actual.entrada - anterior.salida;
+                if (anterior.salida >= desde && hueco > 0 && hueco < nochesMinimas) {
+                    huecos++;
+                }
+                anterior = actual;
+            }
+        }
+        return huecos;
+    }
+
+    public int getNochesMinimas() {
+        return nochesMinimas;
+    }
+}
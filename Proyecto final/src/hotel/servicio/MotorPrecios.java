@@ -0,0 +1,476 @@
+package hotel.servicio;
+
+import hotel.dao.HabitacionDAO;
+import hotel.dao.IndiceDisponibilidad;
+import hotel.modelo.Habitacion;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ============================================================
+ * 💶 CLASE: MotorPrecios (Tarifas dinámicas)
+ * ============================================================
+ *
+ * 📚 DE UN PRECIO FIJO A UN PRECIO POR NOCHE:
+ * ─────────────────────────────────
+ * Habitacion.getPrecioPorNoche() es la tarifa BASE. El precio
+ * real de cada noche se obtiene multiplicándola por un FACTOR
+ * que depende de:
+ *   • La TEMPORADA (p. ej. verano × 1,30)
+ *   • El FIN DE SEMANA (noches de viernes y sábado)
+ *   • La OCUPACIÓN de ese tipo de habitación ese día
+ *     (p. ej. más del 80% ocupado × 1,10)
+ *
+ *   Importe = Σ (precio base × factor[tipo][noche])
+ *
+ * 📌 EL CALENDARIO DE FACTORES:
+ * ─────────────────────────────────
+ * Cuando cambian las reglas, se calcula UNA VEZ un array de
+ * double por tipo de habitación, con una posición por día:
+ *
+ *   factores["doble"] = [1.00, 1.00, 1.15, 1.15, 1.00, ...]
+ *                         hoy  +1    +2    +3    +4
+ *
+ * Cotizar una estancia es solo sumar posiciones del array:
+ * O(noches), sin crear ningún objeto (dentro del calendario).
+ *
+ * 📌 TRAS CADA RESERVA O CANCELACIÓN:
+ * ─────────────────────────────────
+ * Solo cambia la ocupación de UN tipo en UNAS fechas, así que
+ * recalcular(tipo, entrada, salida) rehace solo esas posiciones,
+ * con las habitaciones de cada tipo que se guardaron al aplicar
+ * las reglas. Nada de releer la tabla Habitaciones ni los 730
+ * días de todos los tipos con el recepcionista esperando.
+ *
+ * 📌 COTIZACIONES ABIERTAS:
+ * ─────────────────────────────────
+ * Un precio mostrado al cliente y aún no confirmado es una
+ * cotización abierta. Si las reglas cambian, todas las
+ * cotizaciones abiertas se recalculan de golpe.
+ *
+ * 📌 HILOS:
+ * ─────────────────────────────────
+ * El calendario nunca se modifica: se construye uno nuevo y se
+ * publica en una variable volatile. Quien esté cotizando sigue
+ * leyendo el anterior sin bloqueos. Los que publican calendarios
+ * nuevos (aplicarReglas y recalcular) van de uno en uno, para que
+ * ninguno pise el cambio de otro.
+ *
+ * ============================================================
+ */
+public class MotorPrecios {
+
+    // ════════════════════════════════════════════════════════
+    // 📋 REGLAS DE PRECIOS
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Periodo del año (se repite cada año) con su factor.
+     * Puede cruzar el fin de año: 20/12 → 06/01.
+     */
+    public static class Temporada {
+        private final MonthDay desde;
+        private final MonthDay hasta;
+        private final double factor;
+
+        /**
+         * @param desde  Primer día de la temporada (incluido)
+         * @param hasta  Último día de la temporada (incluido)
+         * @param factor Multiplicador de la tarifa base
+         */
+        public Temporada(MonthDay desde, MonthDay hasta, double factor) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.factor = factor;
+        }
+
+        boolean contiene(MonthDay dia) {
+            if (!desde.isAfter(hasta)) {
+                return !dia.isBefore(desde) && !dia.isAfter(hasta);
+            }
+            // Cruza el fin de año
+            return !dia.isBefore(desde) || !dia.isAfter(hasta);
+        }
+
+        public double getFactor() {
+            return factor;
+        }
+    }
+
+    /**
+     * Conjunto de reglas: temporadas, fin de semana y ocupación.
+     * Sin reglas, el precio es la tarifa base.
+     */
+    public static class Reglas {
+        private final List<Temporada> temporadas = new ArrayList<>();
+        private double factorFinDeSemana = 1.0;
+        private final List<double[]> tramosOcupacion = new ArrayList<>();  // {desde %, factor}
+
+        public Reglas agregarTemporada(MonthDay desde, MonthDay hasta, double factor) {
+            temporadas.add(new Temporada(desde, hasta, factor));
+            return this;
+        }
+
+        /**
+         * @param factor Multiplicador para las noches de viernes y sábado
+         */
+        public Reglas setFactorFinDeSemana(double factor) {
+            this.factorFinDeSemana = factor;
+            return this;
+        }
+
+        /**
+         * A partir de cierto porcentaje de ocupación del tipo de
+         * habitación, se aplica un factor. Si se cumplen varios
+         * tramos, gana el de porcentaje más alto.
+         *
+         * @param desdePorcentaje Ocupación mínima (0-100)
+         * @param factor          Multiplicador a aplicar
+         */
+        public Reglas agregarTramoOcupacion(double desdePorcentaje, double factor) {
+            tramosOcupacion.add(new double[] { desdePorcentaje, factor });
+            tramosOcupacion.sort((a, b) -> Double.compare(a[0], b[0]));
+            return this;
+        }
+
+        /**
+         * Factor de un día sin contar la ocupación.
+         */
+        double factorFijo(LocalDate dia) {
+            double factor = 1.0;
+
+            DayOfWeek dow = dia.getDayOfWeek();
+            if (dow == DayOfWeek.FRIDAY || dow == DayOfWeek.SATURDAY) {
+                factor *= factorFinDeSemana;
+            }
+
+            MonthDay md = MonthDay.from(dia);
+            for (Temporada t : temporadas) {
+                if (t.contiene(md)) {
+                    factor *= t.factor;
+                }
+            }
+
+            return factor;
+        }
+
+        /**
+         * Factor según el porcentaje de ocupación (0-100).
+         */
+        double factorOcupacion(double porcentaje) {
+            double factor = 1.0;
+            for (double[] tramo : tramosOcupacion) {
+                if (porcentaje >= tramo[0]) {
+                    factor = tramo[1];
+                }
+            }
+            return factor;
+        }
+    }
+
+    /**
+     * Precio mostrado a un cliente y aún no confirmado.
+     */
+    public static class Cotizacion {
+        private final int id;
+        private final String tipo;
+        private final double precioBase;
+        private final long entrada;   // Día época
+        private final long salida;
+        private volatile double importe;
+
+        Cotizacion(int id, String tipo, double precioBase, long entrada, long salida) {
+            this.id = id;
+            this.tipo = tipo;
+            this.precioBase = precioBase;
+            this.entrada = entrada;
+            this.salida = salida;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public LocalDate getEntrada() {
+            return LocalDate.ofEpochDay(entrada);
+        }
+
+        public LocalDate getSalida() {
+            return LocalDate.ofEpochDay(salida);
+        }
+
+        /**
+         * @return Importe con las reglas vigentes
+         */
+        public double getImporte() {
+            return importe;
+        }
+    }
+
+    /**
+     * Factores ya calculados, [tipo] → double[día]. Inmutable.
+     */
+    private static class Calendario {
+        final long primerDia;
+        final int dias;
+        final Reglas reglas;
+        final Map<String, double[]> factores;
+        final Map<String, List<Integer>> idsPorTipo;  // Para recalcular un solo tipo
+
+        Calendario(long primerDia, int dias, Reglas reglas, Map<String, double[]> factores,
+                   Map<String, List<Integer>> idsPorTipo) {
+            this.primerDia = primerDia;
+            this.dias = dias;
+            this.reglas = reglas;
+            this.factores = factores;
+            this.idsPorTipo = idsPorTipo;
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 📦 ATRIBUTOS
+    // ════════════════════════════════════════════════════════
+
+    private final int diasHorizonte;
+    private volatile Calendario calendario;
+
+    private final Map<Integer, Cotizacion> abiertas = new ConcurrentHashMap<>();
+    private final AtomicInteger secuencia = new AtomicInteger();
+
+    // ════════════════════════════════════════════════════════
+    // 🔧 CONSTRUCTOR
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Crea el motor sin reglas (precio = tarifa base).
+     *
+     * @param diasHorizonte Días, a partir de hoy, que cubre el calendario
+     */
+    public MotorPrecios(int diasHorizonte) {
+        this.diasHorizonte = diasHorizonte;
+        this.calendario = new Calendario(LocalDate.now().toEpochDay(), 0, new Reglas(),
+                                         new HashMap<>(), new HashMap<>());
+    }
+
+    // ════════════════════════════════════════════════════════
+    // ⚙️ APLICAR REGLAS
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Aplica nuevas reglas con la ocupación actual del hotel
+     * y recotiza todas las cotizaciones abiertas.
+     *
+     * @param reglas Reglas de precios
+     */
+    public synchronized void aplicarReglas(Reglas reglas) {
+        LocalDate hoy = LocalDate.now();
+
+        // Habitaciones de cada tipo
+        Map<String, List<Integer>> idsPorTipo = new HashMap<>();
+        for (Habitacion h : new HabitacionDAO().listarTodas()) {
+            idsPorTipo.computeIfAbsent(h.getTipo(), k -> new ArrayList<>()).add(h.getId());
+        }
+
+        // Ocupación de cada tipo, día a día, según el índice en memoria
+        IndiceDisponibilidad indice = IndiceDisponibilidad.getInstancia();
+        Map<String, Integer> habitacionesPorTipo = new HashMap<>();
+        Map<String, int[]> ocupadasPorTipo = new HashMap<>();
+        for (Map.Entry<String, List<Integer>> e : idsPorTipo.entrySet()) {
+            habitacionesPorTipo.put(e.getKey(), e.getValue().size());
+            ocupadasPorTipo.put(e.getKey(), indice.contarOcupadasPorDia(e.getValue(), hoy, diasHorizonte));
+        }
+
+        publicar(reglas, hoy, habitacionesPorTipo, ocupadasPorTipo, idsPorTipo);
+    }
+
+    /**
+     * Vuelve a aplicar las reglas vigentes con la ocupación de
+     * todo el hotel (p. ej. tras importar habitaciones).
+     *
+     * Relee todas las habitaciones: tras una reserva basta con
+     * recalcular(tipo, entrada, salida).
+     */
+    public void recalcular() {
+        aplicarReglas(calendario.reglas);
+    }
+
+    /**
+     * Rehace los factores de un tipo de habitación solo en las
+     * noches [entrada, salida), tras reservarlas o cancelarlas.
+     *
+     * Cuenta la ocupación en el índice en memoria con las
+     * habitaciones del tipo guardadas en el calendario: no
+     * consulta la BD. Si el tipo no estaba en el calendario (una
+     * habitación de un tipo nuevo), recalcula todo.
+     *
+     * @param tipo    Tipo de la habitación reservada o liberada
+     * @param entrada Fecha de entrada (incluida)
+     * @param salida  Fecha de salida (excluida)
+     */
+    public synchronized void recalcular(String tipo, LocalDate entrada, LocalDate salida) {
+        Calendario cal = this.calendario;
+        List<Integer> ids = cal.idsPorTipo.get(tipo);
+        double[] actuales = cal.factores.get(tipo);
+        if (ids == null || actuales == null) {
+            recalcular();
+            return;
+        }
+
+        // Fuera del calendario no cuenta la ocupación: nada que rehacer
+        long desde = Math.max(entrada.toEpochDay(), cal.primerDia);
+        long hasta = Math.min(salida.toEpochDay(), cal.primerDia + cal.dias);
+        if (desde >= hasta) {
+            return;
+        }
+
+        int[] ocupadas = IndiceDisponibilidad.getInstancia()
+            .contarOcupadasPorDia(ids, LocalDate.ofEpochDay(desde), (int) (hasta - desde));
+
+        double[] f = actuales.clone();
+        for (long dia = desde; dia < hasta; dia++) {
+            double porcentaje = ocupadas[(int) (dia - desde)] * 100.0 / ids.size();
+            f[(int) (dia - cal.primerDia)] = cal.reglas.factorFijo(LocalDate.ofEpochDay(dia))
+                                             * cal.reglas.factorOcupacion(porcentaje);
+        }
+
+        Map<String, double[]> factores = new HashMap<>(cal.factores);
+        factores.put(tipo, f);
+        this.calendario = new Calendario(cal.primerDia, cal.dias, cal.reglas, factores, cal.idsPorTipo);
+
+        recotizarAbiertas();
+    }
+
+    /**
+     * Construye el calendario a partir de datos ya calculados.
+     *
+     * @param reglas              Reglas de precios
+     * @param desde               Primer día del calendario
+     * @param habitacionesPorTipo Habitaciones de cada tipo
+     * @param ocupadasPorTipo     Habitaciones ocupadas por día (posición 0 = desde)
+     */
+    public synchronized void aplicarReglas(Reglas reglas, LocalDate desde, Map<String, Integer> habitacionesPorTipo,
+                                           Map<String, int[]> ocupadasPorTipo) {
+        // Sin IDs de habitaciones, recalcular(tipo, ...) recalculará todo
+        publicar(reglas, desde, habitacionesPorTipo, ocupadasPorTipo, new HashMap<>());
+    }
+
+    private void publicar(Reglas reglas, LocalDate desde, Map<String, Integer> habitacionesPorTipo,
+                          Map<String, int[]> ocupadasPorTipo, Map<String, List<Integer>> idsPorTipo) {
+        long primerDia = desde.toEpochDay();
+
+        // La parte fija (temporada y fin de semana) es igual para todos los tipos
+        double[] fijo = new double[diasHorizonte];
+        for (int d = 0; d < diasHorizonte; d++) {
+            fijo[d] = reglas.factorFijo(LocalDate.ofEpochDay(primerDia + d));
+        }
+
+        Map<String, double[]> factores = new HashMap<>();
+        for (Map.Entry<String, Integer> e : habitacionesPorTipo.entrySet()) {
+            int habitaciones = e.getValue();
+            int[] ocupadas = ocupadasPorTipo.get(e.getKey());
+            double[] f = new double[diasHorizonte];
+
+            for (int d = 0; d < diasHorizonte; d++) {
+                double porcentaje = habitaciones == 0 || ocupadas == null
+                    ? 0 : ocupadas[d] * 100.0 / habitaciones;
+                f[d] = fijo[d] * reglas.factorOcupacion(porcentaje);
+            }
+            factores.put(e.getKey(), f);
+        }
+
+        // Publicamos el nuevo calendario de una sola vez
+        this.calendario = new Calendario(primerDia, diasHorizonte, reglas, factores, idsPorTipo);
+
+        recotizarAbiertas();
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 💶 COTIZAR
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Precio de una estancia en una habitación.
+     */
+    public double cotizar(Habitacion habitacion, LocalDate entrada, LocalDate salida) {
+        return cotizar(habitacion.getTipo(), habitacion.getPrecioPorNoche(),
+                       entrada.toEpochDay(), salida.toEpochDay());
+    }
+
+    /**
+     * Precio de una estancia: suma de las noches [entrada, salida).
+     *
+     * Las noches fuera del calendario (o de un tipo desconocido)
+     * usan temporada y fin de semana, pero no la ocupación. Solo
+     * dentro del calendario se cotiza sin crear objetos: fuera,
+     * cada noche calcula su factor con un LocalDate nuevo.
+     *
+     * @param tipo       Tipo de habitación
+     * @param precioBase Tarifa base por noche
+     * @param entrada    Día época de entrada
+     * @param salida     Día época de salida
+     * @return Importe redondeado a céntimos
+     */
+    public double cotizar(String tipo, double precioBase, long entrada, long salida) {
+        Calendario cal = this.calendario;  // Una sola lectura del volatile
+        double[] factores = cal.factores.get(tipo);
+
+        double suma = 0;
+        for (long dia = entrada; dia < salida; dia++) {
+            long pos = dia - cal.primerDia;
+            if (factores != null && pos >= 0 && pos < cal.dias) {
+                suma += factores[(int) pos];
+            } else {
+                suma += cal.reglas.factorFijo(LocalDate.ofEpochDay(dia));
+            }
+        }
+
+        return Math.round(suma * precioBase * 100) / 100.0;
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 📝 COTIZACIONES ABIERTAS
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Cotiza una estancia y la deja abierta hasta que se cierre.
+     */
+    public Cotizacion abrirCotizacion(Habitacion habitacion, LocalDate entrada, LocalDate salida) {
+        Cotizacion c = new Cotizacion(secuencia.incrementAndGet(), habitacion.getTipo(),
+                                      habitacion.getPrecioPorNoche(),
+                                      entrada.toEpochDay(), salida.toEpochDay());
+        c.importe = cotizar(c.tipo, c.precioBase, c.entrada, c.salida);
+        abiertas.put(c.id, c);
+        return c;
+    }
+
+    /**
+     * Cierra una cotización (confirmada o descartada).
+     */
+    public void cerrarCotizacion(Cotizacion cotizacion) {
+        abiertas.remove(cotizacion.id);
+    }
+
+    /**
+     * Recalcula el importe de todas las cotizaciones abiertas,
+     * en paralelo.
+     *
+     * @return Número de cotizaciones recalculadas
+     */
+    public int recotizarAbiertas() {
+        abiertas.values().parallelStream().forEach(
+            c -> c.importe = cotizar(c.tipo, c.precioBase, c.entrada, c.salida));
+        return abiertas.size();
+    }
+
+    public int getCotizacionesAbiertas() {
+        return abiertas.size();
+    }
+}
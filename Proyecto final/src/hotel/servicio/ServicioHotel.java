@@ -4,10 +4,14 @@ import hotel.dao.*;
 import hotel.excepciones.ReservaInvalidaException;
 import hotel.modelo.*;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 /**
@@ -59,11 +63,23 @@ public class ServicioHotel {
     private HabitacionDAO habitacionDAO;
     private ReservaDAO reservaDAO;
     
+    // Informes de ocupación e ingresos
+    private AnaliticaHotel analitica;
+    
+    // Tarifas dinámicas (temporada, fin de semana, ocupación)
+    private MotorPrecios motorPrecios;
+    
+    // Elige habitación dentro de un tipo sin dejar noches sueltas
+    private AsignadorHabitaciones asignador;
+    
     // Scanner para leer entrada del usuario
     private Scanner scanner;
     
-    // Formato para las fechas (día/mes/año)
-    private SimpleDateFormat formatoFecha;
+    // Formato para las fechas (día/mes/año): inmutable y compartido
+    private static final DateTimeFormatter FORMATO_FECHA = Reserva.FORMATO_FECHA;
+    
+    // Reservas que se muestran por pantalla de una vez
+    private static final int TAMANIO_PAGINA = 10;
     
     // ════════════════════════════════════════════════════════
     // 🔧 CONSTRUCTOR
@@ -76,13 +92,21 @@ public class ServicioHotel {
         this.clienteDAO = new ClienteDAO();
         this.habitacionDAO = new HabitacionDAO();
         this.reservaDAO = new ReservaDAO();
+        this.analitica = new AnaliticaHotel();
+        
+        // Calendario de tarifas para los próximos 2 años
+        this.motorPrecios = new MotorPrecios(730);
+        this.motorPrecios.aplicarReglas(new MotorPrecios.Reglas()
+            .setFactorFinDeSemana(1.15)                                              // Viernes y sábado +15%
+            .agregarTemporada(MonthDay.of(7, 1), MonthDay.of(8, 31), 1.25)           // Verano +25%
+            .agregarTemporada(MonthDay.of(12, 20), MonthDay.of(1, 6), 1.20)          // Navidad +20%
+            .agregarTramoOcupacion(80, 1.10)                                         // Ocupación >= 80%: +10%
+            .agregarTramoOcupacion(95, 1.25));                                       // Ocupación >= 95%: +25%
+        
+        this.asignador = new AsignadorHabitaciones();
         
         // Inicializamos el scanner para leer del teclado
         this.scanner = new Scanner(System.in);
-        
-        // Configuramos el formato de fecha (dd/MM/yyyy)
-        // Ejemplo: 25/12/2024
-        this.formatoFecha = new SimpleDateFormat("dd/MM/yyyy");
     }
     
     // ════════════════════════════════════════════════════════
@@ -132,17 +156,28 @@ public class ServicioHotel {
                 case 5:
                     mostrarTodasReservas();
                     break;
+                case 6:
+                    mostrarInformeOcupacion();
+                    break;
+                case 7:
+                    reoptimizarHabitaciones();
+                    break;
                 case 0:
                     System.out.println("\n👋 ¡Gracias por usar el sistema! Hasta pronto.\n");
                     break;
                 default:
-                    System.out.println("\n⚠️ Opción no válida. Por favor, seleccione del 0 al 5.\n");
+                    System.out.println("\n⚠️ Opción no válida. Por favor, seleccione del 0 al 7.\n");
             }
             
         } while (opcion != 0);
         
+        // Mostramos las métricas de las cachés antes de salir
+        System.out.println("📊 " + ClienteDAO.getCache());
+        System.out.println("📊 " + HabitacionDAO.getCache());
+        
         // Cerramos recursos al salir
         scanner.close();
+        DiarioEventos.cerrarInstancia();  // Escribe los eventos pendientes
         ConexionBD.cerrarConexion();
     }
     
@@ -161,6 +196,8 @@ public class ServicioHotel {
         System.out.println("║  3. 📅 Crear reserva                   ║");
         System.out.println("║  4. ❌ Cancelar reserva                ║");
         System.out.println("║  5. 📋 Mostrar todas las reservas      ║");
+        System.out.println("║  6. 📈 Informe de ocupación            ║");
+        System.out.println("║  7. 🔀 Reoptimizar habitaciones        ║");
         System.out.println("║  0. 🚪 Salir                           ║");
         System.out.println("╚═══════════════════════════════════════╝");
     }
@@ -173,8 +210,9 @@ public class ServicioHotel {
      * 
      * 📌 PROCESO:
      * ─────────────────────────────────
-     *   1. Llamamos al DAO para obtener las habitaciones
-     *   2. Verificamos si hay habitaciones disponibles
+     *   1. Pedimos el rango de fechas (entrada y salida)
+     *   2. Llamamos al DAO para obtener las habitaciones libres
+     *      en esas fechas (usa el índice de disponibilidad)
      *   3. Mostramos cada habitación con su información
      */
     private void listarHabitacionesDisponibles() {
@@ -182,12 +220,30 @@ public class ServicioHotel {
         System.out.println("║           🛏️  HABITACIONES DISPONIBLES                    ║");
         System.out.println("╚═══════════════════════════════════════════════════════════╝\n");
         
-        // Obtenemos las habitaciones del DAO
-        ArrayList<Habitacion> habitaciones = habitacionDAO.listarDisponibles();
+        // Pedimos el rango de fechas a consultar
+        System.out.println("📅 Introduce las fechas (formato: dd/MM/yyyy)");
+        LocalDate fechaEntrada;
+        LocalDate fechaSalida;
+        try {
+            fechaEntrada = leerFecha("   Fecha de entrada: ");
+            fechaSalida = leerFecha("   Fecha de salida: ");
+        } catch (DateTimeParseException e) {
+            System.out.println("\n❌ Error en el formato de fecha. Use dd/MM/yyyy");
+            return;
+        }
+        
+        if (!fechaEntrada.isBefore(fechaSalida)) {
+            System.out.println("\n❌ La fecha de salida debe ser posterior a la fecha de entrada.");
+            return;
+        }
+        
+        // Obtenemos las habitaciones libres en esas fechas
+        ArrayList<Habitacion> habitaciones = habitacionDAO.listarDisponibles(
+            fechaEntrada, fechaSalida);
         
         // Verificamos si hay habitaciones
         if (habitaciones.isEmpty()) {
-            System.out.println("⚠️ No hay habitaciones disponibles en este momento.");
+            System.out.println("⚠️ No hay habitaciones disponibles en esas fechas.");
             return;
         }
         
@@ -269,20 +325,20 @@ public class ServicioHotel {
      * ─────────────────────────────────
      *   1. Pedimos el ID del cliente
      *   2. Verificamos que el cliente existe
-     *   3. Mostramos habitaciones disponibles
-     *   4. Pedimos el ID de la habitación
-     *   5. Verificamos que está disponible
-     *   6. Pedimos fechas de entrada y salida
-     *   7. Validamos las fechas
-     *   8. Creamos la reserva y actualizamos disponibilidad
+     *   3. Pedimos fechas de entrada y salida
+     *   4. Validamos las fechas
+     *   5. Mostramos habitaciones libres en esas fechas
+     *   6. Pedimos el ID de la habitación, o solo el TIPO y
+     *      el AsignadorHabitaciones elige la que mejor encaja
+     *   7. Verificamos que está libre en esas fechas
+     *   8. Creamos la reserva (el DAO actualiza el índice)
      * 
      * 📌 TRANSACCIÓN:
      * ─────────────────────────────────
-     * Este proceso debería ser una transacción atómica:
-     *   - O se crea la reserva Y se actualiza la habitación
-     *   - O no se hace nada
-     * 
-     * Para simplificar, lo hacemos paso a paso.
+     * La comprobación de disponibilidad y la inserción se hacen
+     * en una única transacción (ReservaDAO.reservarAtomicamente):
+     *   - O se crea la reserva con las fechas libres
+     *   - O no se hace nada y se informa del conflicto
      */
     private void crearReserva() {
         System.out.println("\n╔═══════════════════════════════════════════════════════════╗");
@@ -305,68 +361,82 @@ public class ServicioHotel {
             System.out.println("\n✅ Cliente encontrado: " + cliente.getNombre());
             
             // --------------------------------------------------------
-            // PASO 2: Mostrar habitaciones disponibles
+            // PASO 2: Obtener y validar las fechas
             // --------------------------------------------------------
-            System.out.println("\n📋 Habitaciones disponibles:");
-            ArrayList<Habitacion> disponibles = habitacionDAO.listarDisponibles();
+            System.out.println("\n📅 Introduce las fechas (formato: dd/MM/yyyy)");
             
-            if (disponibles.isEmpty()) {
-                System.out.println("\n⚠️ No hay habitaciones disponibles en este momento.");
-                return;
+            LocalDate entrada = leerFecha("   Fecha de entrada: ");
+            LocalDate salida = leerFecha("   Fecha de salida: ");
+            
+            // Validamos que la fecha de entrada sea anterior a la de salida
+            if (!entrada.isBefore(salida)) {
+                throw new ReservaInvalidaException(
+                    "La fecha de salida debe ser posterior a la fecha de entrada."
+                );
             }
             
-            for (Habitacion hab : disponibles) {
-                System.out.println("   " + hab);
+            // Validamos que la fecha de entrada no sea anterior a hoy
+            // (LocalDate no tiene hora: no hace falta "quitarla")
+            if (entrada.isBefore(LocalDate.now())) {
+                throw new ReservaInvalidaException(
+                    "La fecha de entrada no puede ser anterior a hoy."
+                );
             }
             
             // --------------------------------------------------------
-            // PASO 3: Obtener y validar la habitación
+            // PASO 3: Mostrar habitaciones libres en esas fechas
             // --------------------------------------------------------
-            int idHabitacion = leerEntero("\n🏠 ID de la habitación: ");
+            System.out.println("\n📋 Habitaciones disponibles en esas fechas:");
+            ArrayList<Habitacion> disponibles = habitacionDAO.listarDisponibles(entrada, salida);
             
-            Habitacion habitacion = habitacionDAO.obtenerPorId(idHabitacion);
-            if (habitacion == null) {
-                System.out.println("\n❌ No se encontró ninguna habitación con ID: " + idHabitacion);
+            if (disponibles.isEmpty()) {
+                System.out.println("\n⚠️ No hay habitaciones disponibles en esas fechas.");
                 return;
             }
             
-            if (!habitacion.isDisponible()) {
-                System.out.println("\n❌ La habitación " + idHabitacion + " no está disponible.");
-                return;
+            for (Habitacion hab : disponibles) {
+                System.out.println("   " + hab);
             }
             
-            System.out.println("\n✅ Habitación seleccionada: " + habitacion.getTipo() + 
-                             " - " + habitacion.getPrecioPorNoche() + "€/noche");
-            
             // --------------------------------------------------------
-            // PASO 4: Obtener y validar las fechas
+            // PASO 4: Obtener y validar la habitación
             // --------------------------------------------------------
-            System.out.println("\n📅 Introduce las fechas (formato: dd/MM/yyyy)");
-            
-            Date fechaEntrada = leerFecha("   Fecha de entrada: ");
-            Date fechaSalida = leerFecha("   Fecha de salida: ");
+            // Con un número se elige esa habitación; con un tipo
+            // (individual/doble/suite) la elige el asignador.
+            System.out.print("\n🏠 ID de la habitación o tipo: ");
+            String eleccion = scanner.nextLine().trim();
             
-            // Validamos que la fecha de entrada sea anterior a la de salida
-            if (fechaEntrada.after(fechaSalida)) {
-                throw new ReservaInvalidaException(
-                    "La fecha de entrada no puede ser posterior a la fecha de salida."
-                );
+            Habitacion habitacion;
+            if (eleccion.matches("\\d+")) {
+                habitacion = habitacionDAO.obtenerPorId(Integer.parseInt(eleccion));
+                if (habitacion == null) {
+                    System.out.println("\n❌ No se encontró ninguna habitación con ID: " + eleccion);
+                    return;
+                }
+            } else {
+                habitacion = asignarPorTipo(eleccion, entrada, salida);
+                if (habitacion == null) {
+                    return;
+                }
             }
+            int idHabitacion = habitacion.getId();
             
-            // Validamos que la fecha de entrada no sea anterior a hoy
-            Date hoy = new Date();
-            // Quitamos la hora para comparar solo fechas
-            hoy = formatoFecha.parse(formatoFecha.format(hoy));
-            if (fechaEntrada.before(hoy)) {
-                throw new ReservaInvalidaException(
-                    "La fecha de entrada no puede ser anterior a hoy."
-                );
+            if (!habitacionDAO.estaLibre(idHabitacion, entrada, salida)) {
+                System.out.println("\n❌ La habitación " + idHabitacion + 
+                                 " no está disponible en esas fechas.");
+                return;
             }
             
+            System.out.println("\n✅ Habitación seleccionada: " + habitacion.getTipo() + 
+                             " - " + habitacion.getPrecioPorNoche() + "€/noche (tarifa base)");
+            
             // --------------------------------------------------------
             // PASO 5: Crear la reserva
             // --------------------------------------------------------
-            Reserva reserva = new Reserva(cliente, habitacion, fechaEntrada, fechaSalida);
+            Reserva reserva = new Reserva(cliente, habitacion, entrada, salida);
+            
+            // El importe lo calcula el motor de tarifas, no la tarifa base
+            MotorPrecios.Cotizacion cotizacion = motorPrecios.abrirCotizacion(habitacion, entrada, salida);
             
             // Mostramos resumen antes de confirmar
             System.out.println("\n╔═══════════════════════════════════════╗");
@@ -374,44 +444,71 @@ public class ServicioHotel {
             System.out.println("╠═══════════════════════════════════════╣");
             System.out.println("║ Cliente: " + cliente.getNombre());
             System.out.println("║ Habitación: " + habitacion.getId() + " (" + habitacion.getTipo() + ")");
-            System.out.println("║ Entrada: " + formatoFecha.format(fechaEntrada));
-            System.out.println("║ Salida: " + formatoFecha.format(fechaSalida));
-            System.out.println("║ TOTAL: " + String.format("%.2f", reserva.getImporteTotal()) + " €");
+            System.out.println("║ Entrada: " + FORMATO_FECHA.format(entrada));
+            System.out.println("║ Salida: " + FORMATO_FECHA.format(salida));
+            System.out.println("║ TOTAL: " + String.format("%.2f", cotizacion.getImporte()) + " €");
             System.out.println("╚═══════════════════════════════════════╝");
             
-            System.out.print("\n¿Confirmar reserva? (S/N): ");
-            String confirmacion = scanner.nextLine();
+            // Se cobra el importe que ha visto el cliente. Si las
+            // reglas cambian mientras decide (recotizarAbiertas),
+            // le enseñamos el nuevo total y volvemos a preguntar.
+            double importeMostrado = cotizacion.getImporte();
+            String confirmacion;
+            try {
+                while (true) {
+                    System.out.print("\n¿Confirmar reserva? (S/N): ");
+                    confirmacion = scanner.nextLine();
+                    double importeActual = cotizacion.getImporte();
+                    if (!confirmacion.equalsIgnoreCase("S") || importeActual == importeMostrado) {
+                        break;
+                    }
+                    System.out.println("\n⚠️ Las tarifas han cambiado mientras confirmaba: "
+                                     + String.format("%.2f", importeMostrado) + " € → "
+                                     + String.format("%.2f", importeActual) + " €");
+                    importeMostrado = importeActual;
+                }
+            } finally {
+                motorPrecios.cerrarCotizacion(cotizacion);
+            }
             
             if (!confirmacion.equalsIgnoreCase("S")) {
                 System.out.println("\n❌ Reserva cancelada por el usuario.");
                 return;
             }
             
+            reserva.setImporteTotal(importeMostrado);
+            
             // --------------------------------------------------------
             // PASO 6: Guardar en la base de datos
             // --------------------------------------------------------
-            // Primero marcamos la habitación como ocupada
-            habitacion.reservar();  // Esto puede lanzar ReservaInvalidaException
-            habitacionDAO.actualizarDisponibilidad(idHabitacion, false);
-            
-            // Luego insertamos la reserva
-            reservaDAO.insertarReserva(reserva);
-            
-            // Si la reserva tiene ID asignado, fue exitosa
-            if (reserva.getId() > 0) {
-                System.out.println("\n╔═══════════════════════════════════════╗");
-                System.out.println("║     ✅ RESERVA CREADA CON ÉXITO       ║");
-                System.out.println("║     Número de reserva: #" + String.format("%-13d", reserva.getId()) + "║");
-                System.out.println("╚═══════════════════════════════════════╝");
-            } else {
-                // Si falla, revertimos la disponibilidad
-                habitacionDAO.actualizarDisponibilidad(idHabitacion, true);
-                System.out.println("\n❌ Error al crear la reserva. Inténtelo de nuevo.");
+            // Comprobación e inserción van en una sola transacción:
+            // si otro recepcionista ha reservado esas fechas mientras
+            // confirmábamos, la BD nos devuelve CONFLICTO.
+            ResultadoReserva resultado = reservaDAO.reservarAtomicamente(reserva);
+            
+            switch (resultado) {
+                case CREADA:
+                    System.out.println("\n╔═══════════════════════════════════════╗");
+                    System.out.println("║     ✅ RESERVA CREADA CON ÉXITO       ║");
+                    System.out.println("║     Número de reserva: #" + String.format("%-13d", reserva.getId()) + "║");
+                    System.out.println("╚═══════════════════════════════════════╝");
+                    // La ocupación de ese tipo ha cambiado en esas fechas
+                    motorPrecios.recalcular(reserva.getHabitacion().getTipo(), entrada, salida);
+                    break;
+                case CONFLICTO:
+                    System.out.println("\n❌ La habitación " + idHabitacion + 
+                                     " acaba de ser reservada en esas fechas por otro usuario.");
+                    break;
+                case HABITACION_NO_EXISTE:
+                    System.out.println("\n❌ No se encontró ninguna habitación con ID: " + idHabitacion);
+                    break;
+                default:
+                    System.out.println("\n❌ Error al crear la reserva. Inténtelo de nuevo.");
             }
             
         } catch (ReservaInvalidaException e) {
             System.out.println("\n❌ Error de reserva: " + e.getMessage());
-        } catch (ParseException e) {
+        } catch (DateTimeParseException e) {
             System.out.println("\n❌ Error en el formato de fecha. Use dd/MM/yyyy");
         }
     }
@@ -424,43 +521,23 @@ public class ServicioHotel {
      * 
      * 📌 PROCESO:
      * ─────────────────────────────────
-     *   1. Pedimos el ID de la reserva
+     *   1. Mostramos las reservas por páginas y pedimos el ID
      *   2. Buscamos la reserva en la BD
-     *   3. Obtenemos la habitación asociada
-     *   4. Eliminamos la reserva
-     *   5. Marcamos la habitación como disponible
+     *   3. Eliminamos la reserva (el DAO libera esas fechas
+     *      en el índice de disponibilidad)
      */
     private void cancelarReserva() {
         System.out.println("\n╔═══════════════════════════════════════════════════════════╗");
         System.out.println("║                 ❌ CANCELAR RESERVA                       ║");
         System.out.println("╚═══════════════════════════════════════════════════════════╝\n");
         
-        // Primero mostramos las reservas existentes
-        ArrayList<Reserva> reservas = reservaDAO.listarReservas();
+        // Mostramos las reservas por páginas hasta que el usuario elija una
+        Integer idReserva = elegirReservaPaginando();
         
-        if (reservas.isEmpty()) {
-            System.out.println("⚠️ No hay reservas en el sistema.");
+        if (idReserva == null) {
             return;
         }
         
-        System.out.println("📋 Reservas actuales:");
-        System.out.println("┌────────┬──────────────────────┬────────────┬────────────┐");
-        System.out.println("│   ID   │       Cliente        │  Entrada   │   Salida   │");
-        System.out.println("├────────┼──────────────────────┼────────────┼────────────┤");
-        
-        for (Reserva r : reservas) {
-            System.out.printf("│  %3d   │ %-20s │ %10s │ %10s │%n",
-                r.getId(),
-                r.getCliente().getNombre().substring(0, Math.min(20, r.getCliente().getNombre().length())),
-                formatoFecha.format(r.getFechaEntrada()),
-                formatoFecha.format(r.getFechaSalida())
-            );
-        }
-        System.out.println("└────────┴──────────────────────┴────────────┴────────────┘");
-        
-        // Pedimos el ID de la reserva
-        int idReserva = leerEntero("\n🔢 ID de la reserva a cancelar: ");
-        
         // Buscamos la reserva
         Reserva reserva = reservaDAO.buscarPorId(idReserva);
         
@@ -473,8 +550,8 @@ public class ServicioHotel {
         System.out.println("\n📋 Reserva seleccionada:");
         System.out.println("   Cliente: " + reserva.getCliente().getNombre());
         System.out.println("   Habitación: " + reserva.getHabitacion().getId());
-        System.out.println("   Fechas: " + formatoFecha.format(reserva.getFechaEntrada()) + 
-                          " - " + formatoFecha.format(reserva.getFechaSalida()));
+        System.out.println("   Fechas: " + FORMATO_FECHA.format(reserva.getFechaEntrada()) + 
+                          " - " + FORMATO_FECHA.format(reserva.getFechaSalida()));
         
         System.out.print("\n⚠️ ¿Está seguro de cancelar esta reserva? (S/N): ");
         String confirmacion = scanner.nextLine();
@@ -484,18 +561,15 @@ public class ServicioHotel {
             return;
         }
         
-        // Guardamos el ID de la habitación antes de eliminar
-        int idHabitacion = reserva.getHabitacion().getId();
-        
-        // Eliminamos la reserva
+        // Eliminamos la reserva: sus fechas quedan libres en el índice
         reservaDAO.eliminarReserva(idReserva);
-        
-        // Liberamos la habitación
-        habitacionDAO.actualizarDisponibilidad(idHabitacion, true);
+        // La ocupación de ese tipo ha cambiado en esas fechas
+        motorPrecios.recalcular(reserva.getHabitacion().getTipo(),
+                                reserva.getFechaEntrada(), reserva.getFechaSalida());
         
         System.out.println("\n╔═══════════════════════════════════════╗");
         System.out.println("║   ✅ RESERVA CANCELADA CORRECTAMENTE  ║");
-        System.out.println("║   Habitación " + idHabitacion + " liberada              ║");
+        System.out.println("║   Las fechas vuelven a estar libres   ║");
         System.out.println("╚═══════════════════════════════════════╝");
     }
     
@@ -504,24 +578,131 @@ public class ServicioHotel {
     // ════════════════════════════════════════════════════════
     /**
      * Muestra todas las reservas registradas en el sistema.
+     * 
+     * Se leen de TAMANIO_PAGINA en TAMANIO_PAGINA: aunque haya
+     * millones de reservas, solo tenemos una página en memoria.
      */
     private void mostrarTodasReservas() {
         System.out.println("\n╔═══════════════════════════════════════════════════════════╗");
         System.out.println("║              📋 TODAS LAS RESERVAS                        ║");
         System.out.println("╚═══════════════════════════════════════════════════════════╝\n");
         
-        ArrayList<Reserva> reservas = reservaDAO.listarReservas();
+        PaginaReservas pagina = reservaDAO.listarPagina(TAMANIO_PAGINA, null);
         
-        if (reservas.isEmpty()) {
+        if (pagina.isVacia()) {
             System.out.println("⚠️ No hay reservas registradas en el sistema.");
             return;
         }
         
-        System.out.println("📊 Total de reservas: " + reservas.size());
+        int numPagina = 1;
         
-        // Mostramos cada reserva con su toString()
-        for (Reserva reserva : reservas) {
-            System.out.println(reserva);
+        while (true) {
+            System.out.println("📄 Página " + numPagina);
+            
+            // Mostramos cada reserva con su toString()
+            for (Reserva reserva : pagina.getReservas()) {
+                System.out.println(reserva);
+            }
+            
+            if (!pagina.hayMas()) {
+                System.out.println("\n✅ No hay más reservas.");
+                return;
+            }
+            
+            System.out.print("\n[Enter] Página siguiente   [0] Volver al menú: ");
+            if (scanner.nextLine().trim().equals("0")) {
+                return;
+            }
+            
+            pagina = reservaDAO.listarPagina(TAMANIO_PAGINA, pagina.getSiguiente());
+            numPagina++;
+        }
+    }
+    
+    // ════════════════════════════════════════════════════════
+    // 6️⃣ OPCIÓN 6: Informe de ocupación e ingresos
+    // ════════════════════════════════════════════════════════
+    /**
+     * Muestra ocupación, ADR y RevPAR de un periodo.
+     * 
+     * 📌 PROCESO:
+     * ─────────────────────────────────
+     *   1. Pedimos el periodo (primer y último día, ambos incluidos)
+     *   2. AnaliticaHotel calcula los indicadores
+     *   3. Mostramos el total, por tipo, por mes y, si el periodo
+     *      es corto, también día a día
+     */
+    private void mostrarInformeOcupacion() {
+        System.out.println("\n╔═══════════════════════════════════════════════════════════╗");
+        System.out.println("║           📈 INFORME DE OCUPACIÓN E INGRESOS              ║");
+        System.out.println("╚═══════════════════════════════════════════════════════════╝\n");
+        
+        LocalDate desde;
+        LocalDate hasta;
+        try {
+            System.out.println("📅 Introduce el periodo (formato: dd/MM/yyyy)");
+            desde = leerFecha("   Primer día: ");
+            hasta = leerFecha("   Último día: ").plusDays(1);
+        } catch (DateTimeParseException e) {
+            System.out.println("\n❌ Error en el formato de fecha. Use dd/MM/yyyy");
+            return;
+        }
+        
+        if (!desde.isBefore(hasta)) {
+            System.out.println("\n❌ El último día no puede ser anterior al primero.");
+            return;
+        }
+        
+        AnaliticaHotel.Informe informe = analitica.calcular(desde, hasta);
+        if (informe == null) {
+            System.out.println("\n❌ No se pudo calcular el informe.");
+            return;
+        }
+        
+        System.out.println("\n📊 " + informe.getTotal());
+        
+        System.out.println("\n🛏️ Por tipo de habitación:");
+        for (AnaliticaHotel.Indicadores i : informe.getPorTipo().values()) {
+            System.out.println("   " + i);
+        }
+        
+        System.out.println("\n📆 Por mes:");
+        for (AnaliticaHotel.Indicadores i : informe.getPorMes()) {
+            System.out.println("   " + i);
+        }
+        
+        // Día a día solo si cabe en pantalla
+        if (informe.getPorDia().size() <= 31) {
+            System.out.println("\n📅 Por día:");
+            for (AnaliticaHotel.Indicadores i : informe.getPorDia()) {
+                System.out.println("   " + i);
+            }
+        }
+    }
+    
+    // ════════════════════════════════════════════════════════
+    // 7️⃣ OPCIÓN 7: Reoptimizar habitaciones
+    // ════════════════════════════════════════════════════════
+    /**
+     * Recoloca las reservas futuras de cada tipo para quitar
+     * noches sueltas (ver AsignadorHabitaciones). Normalmente lo
+     * hace ServicioHotelAsync cada noche; aquí se lanza a mano.
+     */
+    private void reoptimizarHabitaciones() {
+        System.out.println("\n╔═══════════════════════════════════════════════════════════╗");
+        System.out.println("║              🔀 REOPTIMIZAR HABITACIONES                  ║");
+        System.out.println("╚═══════════════════════════════════════════════════════════╝\n");
+        
+        if (!indiceCargado()) {
+            return;
+        }
+        
+        // Las reservas que empiezan hoy no se mueven
+        LocalDate manana = LocalDate.now().plusDays(1);
+        
+        for (Map.Entry<String, AsignadorHabitaciones.Plan> plan
+                : asignador.reoptimizar(manana).entrySet()) {
+            System.out.println("   🛏️ " + plan.getKey() + ": " + plan.getValue());
         }
     }
     
@@ -529,6 +710,133 @@ public class ServicioHotel {
     // 🛠️ MÉTODOS AUXILIARES
     // ════════════════════════════════════════════════════════
     
+    /**
+     * El asignador trabaja solo con el índice de disponibilidad:
+     * si no se pudo cargar al arrancar, se reintenta aquí. Con el
+     * índice vacío todas las habitaciones parecerían libres.
+     * 
+     * @return true si el índice está cargado
+     */
+    private boolean indiceCargado() {
+        if (IndiceDisponibilidad.getInstancia().isCargado() || reservaDAO.cargarIndiceDisponibilidad()) {
+            return true;
+        }
+        System.out.println("\n❌ No se pudo cargar la ocupación de las habitaciones. Inténtalo más tarde.");
+        return false;
+    }
+    
+    /**
+     * Elige una habitación del tipo pedido con el AsignadorHabitaciones.
+     * 
+     * Si ninguna está libre la estancia entera, se prueba a mover
+     * reservas futuras del mismo tipo para hacer sitio (el tipo
+     * puede tener plazas todas las noches, pero repartidas).
+     * Esos cambios se guardan aunque luego no se confirme la
+     * reserva: el calendario queda igual de válido.
+     * 
+     * @return La habitación elegida, o null si el tipo está lleno
+     */
+    private Habitacion asignarPorTipo(String tipo, LocalDate entrada, LocalDate salida) {
+        if (!indiceCargado()) {
+            return null;
+        }
+        
+        Map<Integer, Habitacion> delTipo = new LinkedHashMap<>();
+        for (Habitacion h : habitacionDAO.listarTodas()) {
+            if (h.getTipo().equalsIgnoreCase(tipo)) {
+                delTipo.put(h.getId(), h);
+            }
+        }
+        
+        if (delTipo.isEmpty()) {
+            System.out.println("\n❌ No hay habitaciones de tipo: " + tipo);
+            return null;
+        }
+        
+        List<Integer> ids = new ArrayList<>(delTipo.keySet());
+        int id = asignador.elegirHabitacion(ids, entrada, salida);
+        
+        if (id < 0) {
+            // Ninguna libre entera: ¿cabría moviendo reservas futuras?
+            AsignadorHabitaciones.Plan plan = asignador.planificarDesdeIndice(
+                ids, LocalDate.now().plusDays(1), new AsignadorHabitaciones.Estancia(0, 0, entrada, salida));
+            
+            if (!plan.isCompleto()) {
+                System.out.println("\n⚠️ No quedan habitaciones de tipo " + tipo + " en esas fechas.");
+                return null;
+            }
+            
+            Map<Integer, Integer> cambios = new LinkedHashMap<>(plan.getCambios());
+            cambios.remove(0);  // La estancia nueva aún no existe en la BD
+            
+            if (!reservaDAO.reasignarHabitaciones(cambios)) {
+                System.out.println("\n❌ No se pudo hacer sitio: otro usuario ha cambiado las reservas.");
+                return null;
+            }
+            
+            System.out.println("\n🔀 Se han cambiado de habitación " + cambios.size()
+                             + " reservas futuras para hacer sitio.");
+            id = plan.getAsignacion().get(0);
+        }
+        
+        System.out.println("\n🧩 Habitación asignada: " + id);
+        return delTipo.get(id);
+    }
+    
+    
+    /**
+     * Muestra la tabla de reservas página a página y pide un ID.
+     * 
+     * Con Enter se pasa a la página siguiente; con un número
+     * se elige esa reserva.
+     * 
+     * @return ID introducido, o null si no hay reservas
+     */
+    private Integer elegirReservaPaginando() {
+        PaginaReservas pagina = reservaDAO.listarPagina(TAMANIO_PAGINA, null);
+        
+        if (pagina.isVacia()) {
+            System.out.println("⚠️ No hay reservas en el sistema.");
+            return null;
+        }
+        
+        System.out.println("📋 Reservas actuales:");
+        
+        while (true) {
+            System.out.println("┌────────┬──────────────────────┬────────────┬────────────┐");
+            System.out.println("│   ID   │       Cliente        │  Entrada   │   Salida   │");
+            System.out.println("├────────┼──────────────────────┼────────────┼────────────┤");
+            
+            for (Reserva r : pagina.getReservas()) {
+                System.out.printf("│  %3d   │ %-20s │ %10s │ %10s │%n",
+                    r.getId(),
+                    r.getCliente().getNombre().substring(0, Math.min(20, r.getCliente().getNombre().length())),
+                    FORMATO_FECHA.format(r.getFechaEntrada()),
+                    FORMATO_FECHA.format(r.getFechaSalida())
+                );
+            }
+            System.out.println("└────────┴──────────────────────┴────────────┴────────────┘");
+            
+            if (!pagina.hayMas()) {
+                return leerEntero("\n🔢 ID de la reserva a cancelar: ");
+            }
+            
+            System.out.print("\n🔢 ID de la reserva a cancelar ([Enter] = página siguiente): ");
+            String linea = scanner.nextLine().trim();
+            
+            if (linea.isEmpty()) {
+                pagina = reservaDAO.listarPagina(TAMANIO_PAGINA, pagina.getSiguiente());
+                continue;
+            }
+            
+            try {
+                return Integer.parseInt(linea);
+            } catch (NumberFormatException e) {
+                System.out.println("⚠️ Por favor, introduzca un número válido.");
+            }
+        }
+    }
+    
     /**
      * Lee un número entero del teclado.
      * Maneja errores si el usuario introduce texto.
@@ -553,11 +861,12 @@ public class ServicioHotel {
      * 
      * @param mensaje El mensaje a mostrar al usuario
      * @return La fecha introducida
-     * @throws ParseException Si el formato es incorrecto
+     * @throws DateTimeParseException Si el formato es incorrecto
+     *         o la fecha no existe (p. ej. 31/02)
      */
-    private Date leerFecha(String mensaje) throws ParseException {
+    private LocalDate leerFecha(String mensaje) throws DateTimeParseException {
         System.out.print(mensaje);
-        String fechaStr = scanner.nextLine();
-        return formatoFecha.parse(fechaStr);
+        String fechaStr = scanner.nextLine().trim();
+        return LocalDate.parse(fechaStr, FORMATO_FECHA);
     }
 }
@@ -0,0 +1,259 @@
+package hotel.servicio;
+
+import hotel.dao.*;
+import hotel.modelo.Cliente;
+import hotel.modelo.Habitacion;
+import hotel.modelo.Reserva;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * ============================================================
+ * ⚡ CLASE: ServicioHotelAsync (Fachada asíncrona)
+ * ============================================================
+ *
+ * 📚 ¿POR QUÉ ASÍNCRONO?
+ * ─────────────────────────────────
+ * ServicioHotel atiende a UN recepcionista desde la consola:
+ * mientras el DAO espera a la BD, el programa está parado.
+ *
+ * Esta fachada ejecuta cada operación en un hilo aparte y
+ * devuelve enseguida un CompletableFuture ("te lo doy cuando
+ * esté"). Así un front-end (HTTP, sockets...) puede atender
+ * muchas sesiones de recepción a la vez:
+ *
+ *   servicio.reservar(r)
+ *       .thenAccept(res -> System.out.println("Resultado: " + res));
+ *
+ * 📌 LIMITAR LA CONCURRENCIA:
+ * ─────────────────────────────────
+ * La BD solo tiene ConexionBD.getPoolMaximo() conexiones. Si
+ * lanzáramos 500 operaciones a la vez, 490 se quedarían
+ * esperando en el pool y acabarían con "Pool agotado".
+ *
+ * Por eso hay tantos hilos como conexiones y una COLA acotada
+ * delante. Si la cola se llena, la operación se rechaza al
+ * momento (el future termina con RejectedExecutionException)
+ * en lugar de colgarse.
+ *
+ *   peticiones ──▶ [ cola (capacidad N) ] ──▶ hilos = conexiones ──▶ BD
+ *
+ * 📌 NOTA SOBRE HILOS VIRTUALES:
+ * ─────────────────────────────────
+ * El proyecto compila con Java 17, que no tiene hilos virtuales.
+ * Con Java 21 bastaría con cambiar el ejecutor de crearEjecutor()
+ * por uno de hilos virtuales y limitar con un Semaphore.
+ *
+ * ============================================================
+ */
+public class ServicioHotelAsync implements AutoCloseable {
+
+    // ════════════════════════════════════════════════════════
+    // 📦 ATRIBUTOS
+    // ════════════════════════════════════════════════════════
+
+    private final ClienteDAO clienteDAO = new ClienteDAO();
+    private final HabitacionDAO habitacionDAO = new HabitacionDAO();
+    private final ReservaDAO reservaDAO = new ReservaDAO();
+
+    private final ThreadPoolExecutor ejecutor;
+    
+    // Tareas periódicas (reoptimización nocturna); se crea al programar la primera
+    private ScheduledExecutorService programador = null;
+
+    // ════════════════════════════════════════════════════════
+    // 🔧 CONSTRUCTORES
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Fachada con tantos hilos como conexiones del pool y una
+     * cola de 1.000 operaciones pendientes.
+     */
+    public ServicioHotelAsync() {
+        this(ConexionBD.getPoolMaximo(), 1_000);
+    }
+
+    /**
+     * @param concurrencia Operaciones ejecutándose a la vez (≤ conexiones del pool)
+     * @param capacidadCola Operaciones que pueden esperar turno
+     */
+    public ServicioHotelAsync(int concurrencia, int capacidadCola) {
+        if (concurrencia < 1 || capacidadCola < 1) {
+            throw new IllegalArgumentException("Concurrencia y cola deben ser >= 1");
+        }
+        this.ejecutor = crearEjecutor(concurrencia, capacidadCola);
+    }
+
+    private static ThreadPoolExecutor crearEjecutor(int concurrencia, int capacidadCola) {
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory fabrica = tarea -> {
+            Thread t = new Thread(tarea, "recepcion-" + contador.incrementAndGet());
+            t.setDaemon(true);  // No impide que la aplicación termine
+            return t;
+        };
+
+        return new ThreadPoolExecutor(
+            concurrencia, concurrencia,
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(capacidadCola),
+            fabrica,
+            new ThreadPoolExecutor.AbortPolicy()  // Cola llena → se rechaza
+        );
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 👤 CLIENTES
+    // ════════════════════════════════════════════════════════
+
+    public CompletableFuture<Cliente> buscarCliente(int id) {
+        return ejecutar(() -> clienteDAO.buscarPorId(id));
+    }
+
+    /**
+     * Registra un cliente; el future devuelve el cliente con su ID.
+     */
+    public CompletableFuture<Cliente> registrarCliente(Cliente cliente) {
+        return ejecutar(() -> {
+            clienteDAO.insertarCliente(cliente);
+            return cliente;
+        });
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 🏠 HABITACIONES
+    // ════════════════════════════════════════════════════════
+
+    public CompletableFuture<Habitacion> buscarHabitacion(int id) {
+        return ejecutar(() -> habitacionDAO.obtenerPorId(id));
+    }
+
+    public CompletableFuture<List<Habitacion>> listarDisponibles(LocalDate entrada, LocalDate salida) {
+        return ejecutar(() -> habitacionDAO.listarDisponibles(entrada, salida));
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 📅 RESERVAS
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Reserva en una transacción (ver ReservaDAO.reservarAtomicamente).
+     */
+    public CompletableFuture<ResultadoReserva> reservar(Reserva reserva) {
+        return ejecutar(() -> reservaDAO.reservarAtomicamente(reserva));
+    }
+
+    public CompletableFuture<Void> cancelarReserva(int idReserva) {
+        return ejecutar(() -> {
+            reservaDAO.eliminarReserva(idReserva);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Reserva> buscarReserva(int id) {
+        return ejecutar(() -> reservaDAO.buscarPorId(id));
+    }
+
+    public CompletableFuture<PaginaReservas> listarPagina(int tamanio, PaginaReservas.Cursor despuesDe) {
+        return ejecutar(() -> reservaDAO.listarPagina(tamanio, despuesDe));
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 🔀 ASIGNACIÓN DE HABITACIONES
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Recoloca las reservas a partir de mañana (ver AsignadorHabitaciones).
+     */
+    public CompletableFuture<Map<String, AsignadorHabitaciones.Plan>> reoptimizar(AsignadorHabitaciones asignador) {
+        return ejecutar(() -> asignador.reoptimizar(LocalDate.now().plusDays(1)));
+    }
+
+    /**
+     * Lanza reoptimizar() todos los días a la hora indicada.
+     * La tarea pasa por la misma cola que el resto de operaciones.
+     *
+     * @param asignador Asignador a usar
+     * @param hora      Hora del día (p. ej. 03:00, con poca actividad)
+     */
+    public synchronized void programarReoptimizacionNocturna(AsignadorHabitaciones asignador, LocalTime hora) {
+        if (programador == null) {
+            programador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+                Thread t = new Thread(tarea, "reoptimizacion-nocturna");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime primera = ahora.toLocalDate().atTime(hora);
+        if (!primera.isAfter(ahora)) {
+            primera = primera.plusDays(1);
+        }
+
+        programador.scheduleAtFixedRate(
+            () -> reoptimizar(asignador).thenAccept(planes -> planes.forEach(
+                (tipo, plan) -> System.out.println("🔀 Reoptimización " + tipo + ": " + plan))),
+            Duration.between(ahora, primera).toMillis(),
+            TimeUnit.DAYS.toMillis(1),
+            TimeUnit.MILLISECONDS);
+    }
+
+    // ════════════════════════════════════════════════════════
+    // 🛠️ MÉTODOS AUXILIARES
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Lanza una operación en el ejecutor.
+     * Si la cola está llena, el future ya viene terminado con error.
+     */
+    private <T> CompletableFuture<T> ejecutar(Supplier<T> operacion) {
+        try {
+            return CompletableFuture.supplyAsync(operacion, ejecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * @return Operaciones esperando turno en la cola
+     */
+    public int getPendientes() {
+        return ejecutor.getQueue().size();
+    }
+
+    /**
+     * @return Operaciones ejecutándose ahora mismo
+     */
+    public int getEnCurso() {
+        return ejecutor.getActiveCount();
+    }
+
+    /**
+     * Deja de aceptar operaciones y espera a que acaben las lanzadas.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (programador != null) {
+                programador.shutdownNow();
+            }
+        }
+        ejecutor.shutdown();
+        try {
+            if (!ejecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                ejecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            ejecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
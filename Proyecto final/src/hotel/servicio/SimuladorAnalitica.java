@@ -0,0 +1,218 @@
+package hotel.servicio;
+
+import hotel.dao.ClienteDAO;
+import hotel.dao.ConexionBD;
+import hotel.dao.ImportadorMasivo;
+import hotel.dao.PerfilBD;
+import hotel.modelo.Cliente;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * ============================================================
+ * 🧪 CLASE: SimuladorAnalitica (Banco de pruebas de AnaliticaHotel)
+ * ============================================================
+ *
+ * Genera UN AÑO de estancias para H habitaciones (500 por
+ * defecto, ~80% de ocupación) y mide cuánto tarda AnaliticaHotel
+ * en sacar ocupación, ADR y RevPAR por día, mes y tipo:
+ *
+ *   1. EN MEMORIA: calcular() sobre las estancias ya en arrays,
+ *      varias rondas (sin base de datos)
+ *   2. DESDE LA BD (solo con el argumento "bd"): importa las
+ *      estancias en una BD embebida nueva y mide calcular()
+ *      leyendo en streaming con AnaliticaDAO
+ *
+ * Comprueba que las noches vendidas y los ingresos del informe
+ * coinciden con los de las estancias generadas, y que cada
+ * cálculo tarda menos de 1 segundo. Sale con código 1 si no.
+ *
+ * 📌 USO:
+ * ─────────────────────────────────
+ *   java -cp bin hotel.servicio.SimuladorAnalitica 500 5
+ *        (500 habitaciones, 5 rondas)
+ *   java -cp "bin;lib/*" hotel.servicio.SimuladorAnalitica 500 5 bd
+ *        (además, desde H2; -Dhotel.bd=sqlite para SQLite)
+ *
+ * ⚠️ El modo "bd" necesita el .jar de H2 o SQLite en lib/.
+ *
+ * ============================================================
+ */
+public class SimuladorAnalitica {
+
+    private static final String[] TIPOS = { "individual", "doble", "suite" };
+    private static final double[] PRECIOS = { 55.0, 80.0, 150.0 };
+    private static final long LIMITE_MS = 1_000;
+
+    public static void main(String[] args) throws Exception {
+        int habitaciones = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int rondas = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        boolean conBD = args.length > 2 && args[2].equalsIgnoreCase("bd");
+
+        LocalDate desde = LocalDate.now().withDayOfYear(1);
+        LocalDate hasta = desde.plusYears(1);
+
+        // Habitación h es del tipo h % 3
+        int[] porTipo = new int[TIPOS.length];
+        for (int h = 0; h < habitaciones; h++) {
+            porTipo[h % TIPOS.length]++;
+        }
+
+        StringBuilder csv = new StringBuilder("idCliente;idHabitacion;fechaEntrada;fechaSalida;total\n");
+        AnaliticaHotel.Estancias estancias = new AnaliticaHotel.Estancias();
+        double[] esperado = generar(habitaciones, desde, hasta, estancias, csv);
+
+        System.out.printf("🧪 %d habitaciones, %s → %s: %,d estancias, %,.0f noches vendidas%n",
+                          habitaciones, desde, hasta, estancias.tamanio(), esperado[0]);
+
+        // --------------------------------------------------------
+        // 1. En memoria
+        // --------------------------------------------------------
+        boolean ok = true;
+        long peor = 0;
+        AnaliticaHotel.Informe informe = null;
+        for (int r = 1; r <= rondas; r++) {
+            long t0 = System.nanoTime();
+            informe = AnaliticaHotel.calcular(desde, hasta, TIPOS, porTipo, estancias);
+            long ms = (System.nanoTime() - t0) / 1_000_000;
+            peor = r > 1 ? Math.max(peor, ms) : peor;  // La 1ª calienta el JIT
+            System.out.println("   En memoria, ronda " + r + ": " + ms + " ms");
+        }
+        System.out.println("   " + informe.getTotal());
+        ok &= comprobar("En memoria", informe, esperado);
+        if (rondas > 1 && peor >= LIMITE_MS) {
+            System.out.println("   ❌ En memoria tarda " + peor + " ms (límite " + LIMITE_MS + " ms)");
+            ok = false;
+        }
+
+        // --------------------------------------------------------
+        // 2. Desde la BD
+        // --------------------------------------------------------
+        if (conBD) {
+            ok &= desdeBD(habitaciones, desde, hasta, csv.toString(), esperado, rondas);
+        }
+
+        if (!ok) {
+            System.out.println("❌ ¡HAY COMPROBACIONES FALLIDAS!");
+            System.exit(1);
+        }
+        System.out.println("✅ Todas las comprobaciones OK");
+    }
+
+    /**
+     * Estancias seguidas de 1 a 7 noches por habitación, con
+     * huecos de 0 a 2 días (≈ 80% de ocupación). Las rellena a la
+     * vez en memoria y en CSV (para el modo "bd").
+     *
+     * @return {noches vendidas, ingresos} dentro del periodo
+     */
+    private static double[] generar(int habitaciones, LocalDate desde, LocalDate hasta,
+                                    AnaliticaHotel.Estancias estancias, StringBuilder csv) {
+        Random azar = new Random(42);  // Semilla fija: resultados repetibles
+        long primerDia = desde.toEpochDay();
+        long finPeriodo = hasta.toEpochDay();
+        double noches = 0;
+        double ingresos = 0;
+
+        for (int h = 0; h < habitaciones; h++) {
+            int t = h % TIPOS.length;
+            long dia = primerDia + azar.nextInt(3);
+            while (dia < finPeriodo) {
+                long entrada = dia;
+                long salida = entrada + 1 + azar.nextInt(7);
+                double total = Math.round((salida - entrada) * PRECIOS[t] * (0.8 + azar.nextDouble() * 0.6) * 100)
+                               / 100.0;
+                LocalDate e = LocalDate.ofEpochDay(entrada);
+                LocalDate s = LocalDate.ofEpochDay(salida);
+                estancias.agregar(t, e, s, total);
+                csv.append(1).append(';').append(6 + h).append(';')
+                   .append(e).append(';').append(s).append(';').append(total).append('\n');
+
+                // Solo cuentan las noches dentro del periodo
+                long dentro = Math.min(salida, finPeriodo) - entrada;
+                noches += dentro;
+                ingresos += total / (salida - entrada) * dentro;
+
+                dia = salida + azar.nextInt(3);
+            }
+        }
+        return new double[] { noches, ingresos };
+    }
+
+    /**
+     * Importa las estancias en una BD embebida nueva y mide el
+     * cálculo completo (lectura en streaming + agregación).
+     */
+    private static boolean desdeBD(int habitaciones, LocalDate desde, LocalDate hasta, String csv,
+                                   double[] esperado, int rondas) throws Exception {
+        PerfilBD perfil = PerfilBD.desdeEntorno().isEmbebida() ? PerfilBD.desdeEntorno() : PerfilBD.H2;
+        Path dir = Files.createTempDirectory("hotel-analitica");
+        String url = perfil == PerfilBD.H2
+            ? "jdbc:h2:" + dir.resolve("hoteldb").toAbsolutePath() + ";MODE=MSSQLServer;DATABASE_TO_UPPER=FALSE"
+            : "jdbc:sqlite:" + dir.resolve("hotel.db").toAbsolutePath();
+        ConexionBD.configurarPerfil(perfil, url, perfil.getUsuarioPorDefecto(), perfil.getPasswordPorDefecto());
+
+        try {
+            // Habitaciones 6.. (las 5 de ejemplo ya existen, sin reservas)
+            StringBuilder csvHab = new StringBuilder("tipo;precio;disponible\n");
+            for (int h = 0; h < habitaciones; h++) {
+                csvHab.append(TIPOS[h % TIPOS.length]).append(';').append(PRECIOS[h % TIPOS.length]).append(";1\n");
+            }
+            ImportadorMasivo importador = new ImportadorMasivo();
+            importador.importarHabitaciones(new StringReader(csvHab.toString()));
+            new ClienteDAO().insertarCliente(new Cliente(0, "Cliente analítica", "600000000", "analitica@hotel.test"));
+            ImportadorMasivo.ResultadoImportacion r = importador.importarReservas(new StringReader(csv));
+            System.out.println("   BD " + perfil + ": " + r);
+
+            AnaliticaHotel analitica = new AnaliticaHotel();
+            AnaliticaHotel.Informe informe = null;
+            long peor = 0;
+            for (int i = 1; i <= rondas; i++) {
+                long t0 = System.nanoTime();
+                informe = analitica.calcular(desde, hasta);
+                long ms = (System.nanoTime() - t0) / 1_000_000;
+                peor = i > 1 ? Math.max(peor, ms) : peor;
+                System.out.println("   Desde la BD, ronda " + i + ": " + ms + " ms");
+            }
+            if (informe == null) {
+                System.out.println("   ❌ No se pudieron leer las estancias");
+                return false;
+            }
+            boolean ok = comprobar("Desde la BD", informe, esperado);
+            if (rondas > 1 && peor >= LIMITE_MS) {
+                System.out.println("   ❌ Desde la BD tarda " + peor + " ms (límite " + LIMITE_MS + " ms)");
+                ok = false;
+            }
+            return ok;
+        } finally {
+            ConexionBD.cerrarConexion();
+            borrar(dir);
+        }
+    }
+
+    private static boolean comprobar(String nombre, AnaliticaHotel.Informe informe, double[] esperado) {
+        AnaliticaHotel.Indicadores total = informe.getTotal();
+        boolean ok = total.getNochesVendidas() == (long) esperado[0]
+                     && Math.abs(total.getIngresos() - esperado[1]) < 1e-6 * Math.max(1, esperado[1]);
+        if (!ok) {
+            System.out.printf("   ❌ %s: %d noches y %.2f € (esperadas %.0f y %.2f €)%n", nombre,
+                              total.getNochesVendidas(), total.getIngresos(), esperado[0], esperado[1]);
+        }
+        return ok;
+    }
+
+    private static void borrar(Path dir) throws IOException {
+        try (Stream<Path> s = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) s.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
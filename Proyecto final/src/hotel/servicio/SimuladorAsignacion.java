@@ -0,0 +1,152 @@
+package hotel.servicio;
+
+import hotel.dao.IndiceDisponibilidad;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * ============================================================
+ * 🧪 CLASE: SimuladorAsignacion (Banco de pruebas del asignador)
+ * ============================================================
+ *
+ * Mide el AsignadorHabitaciones SIN base de datos, con un hotel
+ * inventado de H habitaciones del mismo tipo durante D días:
+ *
+ *   1. Genera reservas como si las hubiera colocado un recepcionista
+ *      a ojo (con noches sueltas aquí y allá)
+ *   2. REOPTIMIZAR: planificar() las recoloca todas de golpe
+ *   3. AL RESERVAR: vuelve a meterlas una a una, en orden de
+ *      llegada al azar, con elegirHabitacion() (best fit) y,
+ *      para comparar, con una habitación libre cualquiera
+ *
+ * Muestra los huecos invendibles de cada caso y lo que tarda.
+ *
+ * 📌 USO:
+ * ─────────────────────────────────
+ *   java -cp bin hotel.servicio.SimuladorAsignacion 1000 365
+ *        (1.000 habitaciones, 365 días)
+ *
+ * ⚠️ Usa el IndiceDisponibilidad compartido: no lanzar dentro
+ * de la aplicación.
+ *
+ * ============================================================
+ */
+public class SimuladorAsignacion {
+
+    public static void main(String[] args) {
+        int habitaciones = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int dias = args.length > 1 ? Integer.parseInt(args[1]) : 365;
+
+        Random azar = new Random(42);  // Semilla fija: resultados repetibles
+        long hoy = LocalDate.now().toEpochDay();
+
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 1; i <= habitaciones; i++) {
+            ids.add(i);
+        }
+
+        List<AsignadorHabitaciones.Estancia> estancias = generar(ids, hoy, dias, azar);
+        AsignadorHabitaciones asignador = new AsignadorHabitaciones();
+
+        System.out.println("🧪 " + habitaciones + " habitaciones × " + dias + " días: "
+                           + estancias.size() + " reservas");
+        System.out.println("   A ojo:           " + asignador.contarHuecosInvendibles(estancias, null, hoy)
+                           + " huecos invendibles");
+
+        // --------------------------------------------------------
+        // Reoptimización de todo el calendario
+        // --------------------------------------------------------
+        long t0 = System.nanoTime();
+        AsignadorHabitaciones.Plan plan = asignador.planificar(ids, estancias, hoy);
+        long msPlan = (System.nanoTime() - t0) / 1_000_000;
+
+        System.out.println("   Reoptimizado:    " + plan.getHuecosDespues() + " huecos invendibles, "
+                           + plan.getCambios().size() + " cambios, "
+                           + plan.getSinHabitacion().size() + " sin habitación (" + msPlan + " ms)");
+
+        // --------------------------------------------------------
+        // Reservas una a una, en orden de llegada al azar
+        // --------------------------------------------------------
+        List<AsignadorHabitaciones.Estancia> llegadas = new ArrayList<>(estancias);
+        Collections.shuffle(llegadas, azar);
+
+        colocarUnaAUna("Al azar", llegadas, ids, null, azar, asignador, hoy);
+        colocarUnaAUna("Best fit", llegadas, ids, asignador, azar, asignador, hoy);
+
+        IndiceDisponibilidad.getInstancia().limpiar();
+    }
+
+    /**
+     * Rellena el calendario de cada habitación con estancias de
+     * 1 a 7 noches separadas por 0 a 3 noches libres.
+     */
+    private static List<AsignadorHabitaciones.Estancia> generar(List<Integer> ids, long hoy, int dias,
+                                                                 Random azar) {
+        List<AsignadorHabitaciones.Estancia> estancias = new ArrayList<>();
+        int idReserva = 1;
+
+        for (Integer id : ids) {
+            long dia = hoy + azar.nextInt(4);
+            while (true) {
+                long salida = dia + 1 + azar.nextInt(7);
+                if (salida > hoy + dias) {
+                    break;
+                }
+                estancias.add(new AsignadorHabitaciones.Estancia(idReserva++, id, dia, salida));
+                dia = salida + (azar.nextBoolean() ? 0 : 1 + azar.nextInt(3));
+            }
+        }
+
+        return estancias;
+    }
+
+    /**
+     * Mete las estancias en el índice de una en una.
+     *
+     * @param elegir Asignador para elegir habitación, o null para
+     *               elegir al azar entre las libres
+     */
+    private static void colocarUnaAUna(String nombre, List<AsignadorHabitaciones.Estancia> llegadas,
+                                       List<Integer> ids, AsignadorHabitaciones elegir, Random azar,
+                                       AsignadorHabitaciones medidor, long hoy) {
+        IndiceDisponibilidad indice = IndiceDisponibilidad.getInstancia();
+        indice.limpiar();
+
+        Map<Integer, Integer> asignacion = new HashMap<>();
+        int rechazadas = 0;
+        long t0 = System.nanoTime();
+
+        for (AsignadorHabitaciones.Estancia e : llegadas) {
+            LocalDate entrada = LocalDate.ofEpochDay(e.getEntrada());
+            LocalDate salida = LocalDate.ofEpochDay(e.getSalida());
+
+            int id;
+            if (elegir != null) {
+                id = elegir.elegirHabitacion(ids, entrada, salida);
+            } else {
+                // La primera libre empezando por una habitación al azar
+                int inicio = azar.nextInt(ids.size());
+                List<Integer> orden = new ArrayList<>(ids.subList(inicio, ids.size()));
+                orden.addAll(ids.subList(0, inicio));
+                id = indice.elegirLibre(orden, entrada, salida, (antes, despues) -> 0);
+            }
+
+            if (id < 0) {
+                rechazadas++;  // Ninguna libre la estancia entera
+                continue;
+            }
+            indice.agregar(e.getIdReserva(), id, entrada, salida);
+            asignacion.put(e.getIdReserva(), id);
+        }
+
+        long ms = (System.nanoTime() - t0) / 1_000_000;
+        System.out.printf("   %-16s %d huecos invendibles, %d rechazadas (%d ms)%n", nombre + ":",
+                          medidor.contarHuecosInvendibles(llegadas, asignacion, hoy), rechazadas, ms);
+    }
+}
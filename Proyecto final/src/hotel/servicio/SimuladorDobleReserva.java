@@ -0,0 +1,192 @@
+package hotel.servicio;
+
+import hotel.dao.ConexionBD;
+import hotel.dao.DiarioEventos;
+import hotel.dao.HabitacionDAO;
+import hotel.dao.ClienteDAO;
+import hotel.dao.IndiceDisponibilidad;
+import hotel.dao.PerfilBD;
+import hotel.dao.ReservaDAO;
+import hotel.dao.ResultadoReserva;
+import hotel.modelo.Cliente;
+import hotel.modelo.Habitacion;
+import hotel.modelo.Reserva;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * ============================================================
+ * 🧪 CLASE: SimuladorDobleReserva (Prueba de estrés)
+ * ============================================================
+ *
+ * Comprueba que reservarAtomicamente() no permite dobles
+ * reservas: en cada ronda, N hilos intentan A LA VEZ reservar
+ * la MISMA habitación para estancias que se solapan entre sí
+ * (3 noches, empezando el mismo día o uno o dos días después).
+ *
+ * En cada ronda debe pasar exactamente esto:
+ *   • UNA reserva CREADA y el resto CONFLICTO (o ERROR si la
+ *     BD rechaza la espera, p. ej. SQLite ocupada)
+ *   • UNA fila en la tabla Reservas para esas fechas
+ *   • El IndiceDisponibilidad da la habitación por ocupada
+ *
+ * Trabaja contra una BD embebida NUEVA en un directorio
+ * temporal (H2 por defecto, o SQLite con -Dhotel.bd=sqlite):
+ * no toca la BD de clase. Sale con código 1 si alguna ronda
+ * no cumple lo anterior.
+ *
+ * 📌 USO:
+ * ─────────────────────────────────
+ *   java -cp "bin;lib/*" hotel.servicio.SimuladorDobleReserva 50 20
+ *        (50 hilos, 20 rondas)
+ *
+ * ⚠️ Necesita el .jar de H2 o SQLite en lib/.
+ *
+ * ============================================================
+ */
+public class SimuladorDobleReserva {
+
+    private static final int NOCHES = 3;
+
+    public static void main(String[] args) throws Exception {
+        int hilos = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int rondas = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        Path dir = Files.createTempDirectory("hotel-estres");
+        PerfilBD perfil = PerfilBD.desdeEntorno().isEmbebida() ? PerfilBD.desdeEntorno() : PerfilBD.H2;
+        String url = perfil == PerfilBD.H2
+            ? "jdbc:h2:" + dir.resolve("hoteldb").toAbsolutePath() + ";MODE=MSSQLServer;DATABASE_TO_UPPER=FALSE"
+            : "jdbc:sqlite:" + dir.resolve("hotel.db").toAbsolutePath();
+        ConexionBD.configurarPerfil(perfil, url, perfil.getUsuarioPorDefecto(), perfil.getPasswordPorDefecto());
+        ConexionBD.configurarPool(1, Math.min(hilos, 20), 30_000);
+        DiarioEventos.configurar(dir.resolve("diario_reservas.dat"));
+
+        System.out.println("🧪 " + hilos + " hilos × " + rondas + " rondas contra " + perfil
+                           + " (pool de " + ConexionBD.getPoolMaximo() + " conexiones)");
+
+        int rondasMal = 0;
+        try {
+            Cliente cliente = new Cliente(0, "Cliente estrés", "600000000", "estres@hotel.test");
+            new ClienteDAO().insertarCliente(cliente);
+            List<Habitacion> habitaciones = new HabitacionDAO().listarTodas();
+            if (habitaciones.isEmpty() || cliente.getId() == 0) {
+                throw new IllegalStateException("No se pudo preparar la BD de pruebas");
+            }
+            Habitacion habitacion = habitaciones.get(0);
+            ReservaDAO reservaDAO = new ReservaDAO();
+            LocalDate base = LocalDate.now().plusDays(30);
+
+            long inicio = System.nanoTime();
+            for (int r = 0; r < rondas; r++) {
+                LocalDate dia = base.plusDays(10L * r);
+                ConcurrentHashMap<ResultadoReserva, AtomicInteger> resultados = new ConcurrentHashMap<>();
+
+                aLaVez(hilos, h -> {
+                    LocalDate entrada = dia.plusDays(h % NOCHES);
+                    Reserva reserva = new Reserva(cliente, habitacion, entrada, entrada.plusDays(NOCHES));
+                    resultados.computeIfAbsent(reservaDAO.reservarAtomicamente(reserva),
+                                               k -> new AtomicInteger()).incrementAndGet();
+                });
+
+                int creadas = contar(resultados, ResultadoReserva.CREADA);
+                int filas = contarFilas(habitacion.getId(), dia, dia.plusDays(2L * NOCHES));
+                boolean ocupada = !IndiceDisponibilidad.getInstancia()
+                    .estaLibre(habitacion.getId(), dia.plusDays(NOCHES - 1), dia.plusDays(NOCHES));
+
+                if (creadas != 1 || filas != 1 || !ocupada) {
+                    rondasMal++;
+                    System.out.println("   ❌ Ronda " + r + ": " + resultados + ", " + filas
+                                       + " filas en la BD, índice " + (ocupada ? "ocupada" : "LIBRE"));
+                }
+            }
+            long ms = (System.nanoTime() - inicio) / 1_000_000;
+
+            System.out.println("\n📊 RESULTADOS");
+            System.out.println("   Intentos:       " + (hilos * rondas) + " en " + ms + " ms");
+            System.out.println("   Rondas con 1 sola reserva: " + (rondas - rondasMal) + " de " + rondas);
+        } finally {
+            DiarioEventos.cerrarInstancia();
+            ConexionBD.cerrarConexion();
+            borrar(dir);
+        }
+
+        if (rondasMal > 0) {
+            System.out.println("❌ ¡HAY DOBLES RESERVAS!");
+            System.exit(1);
+        }
+        System.out.println("✅ Ninguna doble reserva");
+    }
+
+    private interface Intento {
+        void ejecutar(int hilo);
+    }
+
+    /**
+     * Arranca un hilo por intento, los suelta todos a la vez
+     * (CountDownLatch) y espera a que terminen.
+     */
+    private static void aLaVez(int hilos, Intento intento) throws InterruptedException {
+        CountDownLatch salida = new CountDownLatch(1);
+        Thread[] ts = new Thread[hilos];
+        for (int i = 0; i < hilos; i++) {
+            int h = i;
+            ts[i] = new Thread(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                intento.ejecutar(h);
+            }, "estres-" + h);
+            ts[i].start();
+        }
+        salida.countDown();
+        for (Thread t : ts) {
+            t.join();
+        }
+    }
+
+    private static int contar(ConcurrentHashMap<ResultadoReserva, AtomicInteger> resultados,
+                              ResultadoReserva resultado) {
+        AtomicInteger n = resultados.get(resultado);
+        return n == null ? 0 : n.get();
+    }
+
+    /**
+     * Reservas de la habitación que se solapan con [desde, hasta),
+     * contadas en la BD (no en el índice).
+     */
+    private static int contarFilas(int idHabitacion, LocalDate desde, LocalDate hasta) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM Reservas WHERE idHabitacion = ? AND fechaEntrada < ? AND fechaSalida > ?";
+        try (Connection conn = ConexionBD.getConexion();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, idHabitacion);
+            stmt.setObject(2, hasta);
+            stmt.setObject(3, desde);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    private static void borrar(Path dir) throws IOException {
+        try (Stream<Path> s = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) s.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
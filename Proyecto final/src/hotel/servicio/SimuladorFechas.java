@@ -0,0 +1,226 @@
+package hotel.servicio;
+
+import hotel.modelo.Cliente;
+import hotel.modelo.Habitacion;
+import hotel.modelo.Reserva;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ============================================================
+ * 🧪 CLASE: SimuladorFechas (Fechas: rendimiento e hilos)
+ * ============================================================
+ *
+ * Comprueba y mide el camino de las fechas de una reserva, SIN
+ * base de datos:
+ *
+ *   1. PARSEAR Y COTIZAR: N pares de fechas "dd/MM/yyyy" (1.000.000
+ *      por defecto) → LocalDate con Reserva.FORMATO_FECHA →
+ *      Reserva → calcularImporteTotal(). Para comparar, lo mismo
+ *      con el camino antiguo: SimpleDateFormat + java.util.Date
+ *      + resta de milisegundos
+ *   2. CAMBIO DE HORA: estancias que cruzan el cambio de horario
+ *      (Europe/Madrid) deben cobrar las noches del calendario. El
+ *      camino antiguo se muestra solo como referencia
+ *   3. MUCHOS HILOS: H hilos (16 por defecto) formatean y vuelven
+ *      a parsear fechas al azar con el MISMO FORMATO_FECHA
+ *      compartido; ninguna puede salir cambiada. Para comparar,
+ *      lo mismo con UN SimpleDateFormat compartido
+ *
+ * Sale con código 1 si alguna comprobación falla.
+ *
+ * 📌 USO:
+ * ─────────────────────────────────
+ *   java -cp bin hotel.servicio.SimuladorFechas 1000000 16
+ *        (1.000.000 de reservas, 16 hilos)
+ *
+ * ⚠️ Las primeras rondas calientan el JIT: fijarse en las últimas.
+ *
+ * ============================================================
+ */
+public class SimuladorFechas {
+
+    private static final int RONDAS = 5;
+    private static final int POR_HILO = 100_000;
+    private static final long MS_DIA = 24L * 60 * 60 * 1000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int reservas = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int hilos = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+
+        // El camino antiguo dependía de la zona horaria del equipo
+        TimeZone.setDefault(TimeZone.getTimeZone("Europe/Madrid"));
+
+        Cliente cliente = new Cliente(1, "Cliente", "600000000", "cliente@hotel.test");
+        Habitacion habitacion = new Habitacion(1, "doble", 80.0, true);
+
+        // Textos generados de antemano: no se mide el Random
+        Random azar = new Random(42);  // Semilla fija: resultados repetibles
+        long hoy = LocalDate.now().toEpochDay();
+        String[] entradas = new String[reservas];
+        String[] salidas = new String[reservas];
+        for (int i = 0; i < reservas; i++) {
+            LocalDate entrada = LocalDate.ofEpochDay(hoy + azar.nextInt(730));
+            entradas[i] = Reserva.FORMATO_FECHA.format(entrada);
+            salidas[i] = Reserva.FORMATO_FECHA.format(entrada.plusDays(1 + azar.nextInt(14)));
+        }
+
+        System.out.println("🧪 " + reservas + " reservas, " + hilos + " hilos");
+        boolean ok = true;
+
+        // --------------------------------------------------------
+        // 1. Parsear y cotizar
+        // --------------------------------------------------------
+        double suma = 0;
+        for (int r = 1; r <= RONDAS; r++) {
+            long t0 = System.nanoTime();
+            for (int i = 0; i < reservas; i++) {
+                Reserva reserva = new Reserva(cliente, habitacion,
+                                              LocalDate.parse(entradas[i], Reserva.FORMATO_FECHA),
+                                              LocalDate.parse(salidas[i], Reserva.FORMATO_FECHA));
+                suma += reserva.getImporteTotal();
+            }
+            long nsNuevo = System.nanoTime() - t0;
+
+            SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
+            t0 = System.nanoTime();
+            try {
+                for (int i = 0; i < reservas; i++) {
+                    suma += importeAntiguo(sdf.parse(entradas[i]), sdf.parse(salidas[i]), habitacion);
+                }
+            } catch (ParseException e) {
+                throw new IllegalStateException(e);
+            }
+            long nsAntiguo = System.nanoTime() - t0;
+
+            System.out.printf("   Ronda %d: LocalDate %6.1f ns/reserva   SimpleDateFormat+Date %6.1f ns/reserva%n",
+                              r, (double) nsNuevo / reservas, (double) nsAntiguo / reservas);
+        }
+        System.out.printf("   (suma de importes: %.2f)%n", suma);  // Que el JIT no se salte el bucle
+
+        // --------------------------------------------------------
+        // 2. Cambio de hora
+        // --------------------------------------------------------
+        String[][] cambiosHora = {
+            { "29/03/2025", "31/03/2025", "2" },   // Domingo 30/03: 23 horas
+            { "25/10/2025", "27/10/2025", "2" },   // Domingo 26/10: 25 horas
+            { "30/03/2025", "31/03/2025", "1" }
+        };
+        for (String[] caso : cambiosHora) {
+            Reserva reserva = new Reserva(cliente, habitacion,
+                                          LocalDate.parse(caso[0], Reserva.FORMATO_FECHA),
+                                          LocalDate.parse(caso[1], Reserva.FORMATO_FECHA));
+            double esperado = Integer.parseInt(caso[2]) * habitacion.getPrecioPorNoche();
+            double antiguo;
+            try {
+                SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
+                antiguo = importeAntiguo(sdf.parse(caso[0]), sdf.parse(caso[1]), habitacion);
+            } catch (ParseException e) {
+                throw new IllegalStateException(e);
+            }
+            boolean bien = reserva.getImporteTotal() == esperado;
+            System.out.printf("   %s → %s: %.2f € (esperado %.2f €, camino antiguo %.2f €) %s%n",
+                              caso[0], caso[1], reserva.getImporteTotal(), esperado, antiguo, bien ? "" : "❌");
+            ok &= bien;
+        }
+
+        // --------------------------------------------------------
+        // 3. Muchos hilos con el formato compartido
+        // --------------------------------------------------------
+        int malas = aLaVez(hilos, h -> {
+            Random r = new Random(h);
+            int mal = 0;
+            for (int i = 0; i < POR_HILO; i++) {
+                LocalDate fecha = LocalDate.ofEpochDay(hoy + r.nextInt(3650));
+                try {
+                    if (!LocalDate.parse(Reserva.FORMATO_FECHA.format(fecha), Reserva.FORMATO_FECHA).equals(fecha)) {
+                        mal++;
+                    }
+                } catch (DateTimeParseException e) {
+                    mal++;
+                }
+            }
+            return mal;
+        });
+        System.out.println("   FORMATO_FECHA compartido: " + malas + " de " + (hilos * POR_HILO)
+                           + " fechas cambiadas");
+        ok &= malas == 0;
+
+        SimpleDateFormat compartido = new SimpleDateFormat("dd/MM/yyyy");
+        int malasAntiguo = aLaVez(hilos, h -> {
+            Random r = new Random(h);
+            int mal = 0;
+            for (int i = 0; i < POR_HILO; i++) {
+                Date fecha = new Date((hoy + r.nextInt(3650)) * MS_DIA + MS_DIA / 2);
+                try {
+                    String texto = compartido.format(fecha);
+                    if (!texto.equals(compartido.format(compartido.parse(texto)))) {
+                        mal++;
+                    }
+                } catch (ParseException | RuntimeException e) {
+                    mal++;
+                }
+            }
+            return mal;
+        });
+        System.out.println("   SimpleDateFormat compartido (antes): " + malasAntiguo + " de "
+                           + (hilos * POR_HILO) + " fechas cambiadas o con error");
+
+        if (!ok) {
+            System.out.println("❌ ¡HAY COMPROBACIONES FALLIDAS!");
+            System.exit(1);
+        }
+        System.out.println("✅ Todas las comprobaciones OK");
+    }
+
+    /**
+     * Como calculaba el importe la Reserva con java.util.Date:
+     * milisegundos entre fechas / milisegundos de un día.
+     */
+    private static double importeAntiguo(Date entrada, Date salida, Habitacion habitacion) {
+        long noches = (salida.getTime() - entrada.getTime()) / MS_DIA;
+        if (noches <= 0) {
+            noches = 1;
+        }
+        return noches * habitacion.getPrecioPorNoche();
+    }
+
+    private interface Tarea {
+        int ejecutar(int hilo);
+    }
+
+    /**
+     * Arranca un hilo por tarea, los suelta todos a la vez y
+     * devuelve la suma de lo que devuelven.
+     */
+    private static int aLaVez(int hilos, Tarea tarea) throws InterruptedException {
+        CountDownLatch salida = new CountDownLatch(1);
+        AtomicInteger suma = new AtomicInteger();
+        Thread[] ts = new Thread[hilos];
+        for (int i = 0; i < hilos; i++) {
+            int h = i;
+            ts[i] = new Thread(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                suma.addAndGet(tarea.ejecutar(h));
+            }, "fechas-" + h);
+            ts[i].start();
+        }
+        salida.countDown();
+        for (Thread t : ts) {
+            t.join();
+        }
+        return suma.get();
+    }
+}
@@ -0,0 +1,193 @@
+package hotel.servicio;
+
+import hotel.dao.ClienteDAO;
+import hotel.dao.ConexionBD;
+import hotel.dao.DiarioEventos;
+import hotel.dao.ImportadorMasivo;
+import hotel.dao.IndiceDisponibilidad;
+import hotel.dao.PerfilBD;
+import hotel.dao.ReproductorDiario;
+import hotel.dao.ReservaDAO;
+import hotel.modelo.Cliente;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * ============================================================
+ * 🧪 CLASE: SimuladorImportacion (Rendimiento de la carga masiva)
+ * ============================================================
+ *
+ * Importa N reservas (100.000 por defecto) con ImportadorMasivo
+ * en una BD embebida NUEVA para cada configuración:
+ *
+ *   • fila a fila:   lote de 1 y commit en cada fila (solo las
+ *                    primeras N/10, si no tarda demasiado)
+ *   • lotes de 500:  commit cada 5.000 (valores por defecto)
+ *   • lotes de 2000: commit cada 20.000
+ *
+ * El CSV (generado en memoria, semilla fija) trae 1 de cada
+ * 100 filas solapada a propósito con la anterior de su
+ * habitación. En cada configuración se comprueba que:
+ *   • esas filas, y solo esas, salen como errores
+ *   • la tabla Reservas, el IndiceDisponibilidad y el diario de
+ *     eventos (ReproductorDiario) tienen las mismas reservas
+ * Sale con código 1 si algo no cuadra.
+ *
+ * 📌 USO:
+ * ─────────────────────────────────
+ *   java -cp "bin;lib/*" hotel.servicio.SimuladorImportacion 100000 200
+ *        (100.000 reservas, 200 habitaciones; -Dhotel.bd=sqlite
+ *        para probar con SQLite, H2 si no)
+ *
+ * ⚠️ Necesita el .jar de H2 o SQLite en lib/.
+ *
+ * ============================================================
+ */
+public class SimuladorImportacion {
+
+    private static final int CLIENTES = 100;
+    private static final int SOLAPE_CADA = 100;
+
+    public static void main(String[] args) throws Exception {
+        int reservas = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int habitaciones = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        PerfilBD perfil = PerfilBD.desdeEntorno().isEmbebida() ? PerfilBD.desdeEntorno() : PerfilBD.H2;
+        System.out.println("🧪 Importando " + reservas + " reservas en " + habitaciones
+                           + " habitaciones (" + perfil + ")");
+
+        boolean ok = medir(perfil, "fila a fila", 1, 1, Math.max(1, reservas / 10), habitaciones)
+                   & medir(perfil, "lotes de 500", 500, 5_000, reservas, habitaciones)
+                   & medir(perfil, "lotes de 2000", 2_000, 20_000, reservas, habitaciones);
+
+        if (!ok) {
+            System.out.println("❌ ¡HAY COMPROBACIONES FALLIDAS!");
+            System.exit(1);
+        }
+        System.out.println("✅ Todas las comprobaciones OK");
+    }
+
+    /**
+     * Una configuración en una BD nueva: prepara habitaciones y
+     * clientes, importa y comprueba.
+     */
+    private static boolean medir(PerfilBD perfil, String nombre, int tamanioLote, int commitCada,
+                                 int reservas, int habitaciones) throws Exception {
+        Path dir = Files.createTempDirectory("hotel-importacion");
+        String url = perfil == PerfilBD.H2
+            ? "jdbc:h2:" + dir.resolve("hoteldb").toAbsolutePath() + ";MODE=MSSQLServer;DATABASE_TO_UPPER=FALSE"
+            : "jdbc:sqlite:" + dir.resolve("hotel.db").toAbsolutePath();
+        ConexionBD.configurarPerfil(perfil, url, perfil.getUsuarioPorDefecto(), perfil.getPasswordPorDefecto());
+        Path diario = dir.resolve("diario_reservas.dat");
+        DiarioEventos.configurar(diario);
+
+        try {
+            // Habitaciones 6.. (las 5 de ejemplo ya existen) y clientes
+            StringBuilder csvHab = new StringBuilder("tipo;precio;disponible\n");
+            for (int i = 0; i < habitaciones; i++) {
+                csvHab.append(i % 3 == 0 ? "suite" : "doble").append(";80.00;1\n");
+            }
+            ImportadorMasivo importador = new ImportadorMasivo(tamanioLote, commitCada);
+            importador.importarHabitaciones(new StringReader(csvHab.toString()));
+            ClienteDAO clienteDAO = new ClienteDAO();
+            for (int i = 0; i < CLIENTES; i++) {
+                clienteDAO.insertarCliente(new Cliente(0, "Cliente " + i, "600000000", "c" + i + "@hotel.test"));
+            }
+            // Índice cargado desde esta BD (vacía de reservas)
+            new ReservaDAO().cargarIndiceDisponibilidad();
+
+            int[] solapadas = new int[1];
+            String csv = generar(reservas, habitaciones, solapadas);
+
+            ImportadorMasivo.ResultadoImportacion r = importador.importarReservas(new StringReader(csv));
+            DiarioEventos.cerrarInstancia();
+
+            long enTabla = contarReservas();
+            int enIndice = IndiceDisponibilidad.getInstancia().tamanio();
+            int enDiario = ReproductorDiario.reproducir(diario).getReservas().size();
+
+            System.out.printf("   %-14s %,8d filas en %,6d ms  %,9.0f filas/s  errores %d (esperados %d)%n",
+                              nombre, r.getFilasInsertadas(), r.getDuracionMs(), r.getFilasPorSegundo(),
+                              r.getErrores().size(), solapadas[0]);
+
+            boolean ok = r.getErrores().size() == solapadas[0]
+                         && r.getFilasInsertadas() == reservas - solapadas[0]
+                         && enTabla == r.getFilasInsertadas()
+                         && enIndice == enTabla
+                         && enDiario == enTabla;
+            if (!ok) {
+                System.out.println("      ❌ tabla " + enTabla + ", índice " + enIndice + ", diario " + enDiario
+                                   + (r.getErrores().isEmpty() ? "" : ", primer error: " + r.getErrores().get(0)));
+            }
+            return ok;
+        } finally {
+            DiarioEventos.cerrarInstancia();
+            ConexionBD.cerrarConexion();
+            borrar(dir);
+        }
+    }
+
+    /**
+     * CSV de reservas: estancias seguidas de 1 a 4 noches por
+     * habitación (con huecos de 0 a 2 días); 1 de cada
+     * SOLAPE_CADA filas repite las fechas de la anterior de su
+     * habitación (debe rechazarse).
+     */
+    private static String generar(int reservas, int habitaciones, int[] solapadas) {
+        Random azar = new Random(7);
+        long[] siguienteLibre = new long[habitaciones];
+        long[] ultimaEntrada = new long[habitaciones];
+        long hoy = LocalDate.now().toEpochDay();
+        Arrays.fill(siguienteLibre, hoy);
+
+        StringBuilder csv = new StringBuilder("idCliente;idHabitacion;fechaEntrada;fechaSalida;total\n");
+        for (int i = 0; i < reservas; i++) {
+            int h = azar.nextInt(habitaciones);
+            long entrada;
+            long salida;
+            if (i % SOLAPE_CADA == SOLAPE_CADA - 1 && siguienteLibre[h] > hoy) {
+                entrada = ultimaEntrada[h];
+                salida = entrada + 1;
+                solapadas[0]++;
+            } else {
+                entrada = siguienteLibre[h] + azar.nextInt(3);
+                salida = entrada + 1 + azar.nextInt(4);
+                ultimaEntrada[h] = entrada;
+                siguienteLibre[h] = salida;
+            }
+            csv.append(1 + azar.nextInt(CLIENTES)).append(';')
+               .append(6 + h).append(';')
+               .append(LocalDate.ofEpochDay(entrada)).append(';')
+               .append(LocalDate.ofEpochDay(salida)).append(";\n");
+        }
+        return csv.toString();
+    }
+
+    private static long contarReservas() throws SQLException {
+        try (Connection conn = ConexionBD.getConexion();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM Reservas")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static void borrar(Path dir) throws IOException {
+        try (Stream<Path> s = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) s.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package hotel.servicio;
+
+import hotel.dao.ClienteDAO;
+import hotel.dao.ConexionBD;
+import hotel.dao.ImportadorMasivo;
+import hotel.dao.PerfilBD;
+import hotel.dao.ReservaDAO;
+import hotel.modelo.Cliente;
+import hotel.modelo.Habitacion;
+import hotel.modelo.Reserva;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * ============================================================
+ * 🧪 CLASE: SimuladorListado (N+1 consultas frente a JOIN)
+ * ============================================================
+ *
+ * Compara las dos formas de cargar "Mostrar todas las reservas"
+ * con 10.000 y 100.000 reservas (una BD embebida nueva para
+ * cada tamaño):
+ *
+ *   • ANTES (N+1): SELECT * FROM Reservas y, por cada fila, una
+ *     consulta del cliente y otra de la habitación, cada una con
+ *     su conexión del pool, como hacía el ReservaDAO original
+ *     → 2N+1 idas y vueltas a la BD
+ *   • AHORA (JOIN): ReservaDAO.listarReservas(), una sola
+ *     consulta Reservas JOIN Clientes JOIN Habitaciones
+ *
+ * Muestra idas y vueltas y el mejor tiempo de 3 pasadas. Comprueba
+ * que las dos formas devuelven las mismas reservas y que el JOIN
+ * crea UN objeto por cliente y por habitación (mapa de
+ * identidad). Sale con código 1 si algo no cuadra.
+ *
+ * 📌 USO:
+ * ─────────────────────────────────
+ *   java -cp "bin;lib/*" hotel.servicio.SimuladorListado 10000 100000
+ *        (tamaños a probar; -Dhotel.bd=sqlite para probar con
+ *        SQLite, H2 si no)
+ *
+ * ⚠️ Necesita el .jar de H2 o SQLite en lib/.
+ *
+ * ============================================================
+ */
+public class SimuladorListado {
+
+    private static final int HABITACIONES = 500;
+    private static final int CLIENTES = 1_000;
+    private static final int PASADAS = 3;
+
+    public static void main(String[] args) throws Exception {
+        List<Integer> tamanios = new ArrayList<>();
+        for (String a : args) {
+            tamanios.add(Integer.parseInt(a));
+        }
+        if (tamanios.isEmpty()) {
+            Collections.addAll(tamanios, 10_000, 100_000);
+        }
+
+        PerfilBD perfil = PerfilBD.desdeEntorno().isEmbebida() ? PerfilBD.desdeEntorno() : PerfilBD.H2;
+        System.out.println("🧪 Listado de reservas: N+1 frente a JOIN (" + perfil + ")");
+
+        boolean ok = true;
+        for (int reservas : tamanios) {
+            ok &= medir(perfil, reservas);
+        }
+
+        if (!ok) {
+            System.out.println("❌ ¡HAY COMPROBACIONES FALLIDAS!");
+            System.exit(1);
+        }
+        System.out.println("✅ Todas las comprobaciones OK");
+    }
+
+    /**
+     * Un tamaño en una BD nueva: prepara datos, mide y compara.
+     */
+    private static boolean medir(PerfilBD perfil, int reservas) throws Exception {
+        Path dir = Files.createTempDirectory("hotel-listado");
+        String url = perfil == PerfilBD.H2
+            ? "jdbc:h2:" + dir.resolve("hoteldb").toAbsolutePath() + ";MODE=MSSQLServer;DATABASE_TO_UPPER=FALSE"
+            : "jdbc:sqlite:" + dir.resolve("hotel.db").toAbsolutePath();
+        ConexionBD.configurarPerfil(perfil, url, perfil.getUsuarioPorDefecto(), perfil.getPasswordPorDefecto());
+
+        try {
+            preparar(reservas);
+            ReservaDAO reservaDAO = new ReservaDAO();
+
+            long mejorAntes = Long.MAX_VALUE;
+            long mejorAhora = Long.MAX_VALUE;
+            long[] consultas = new long[1];
+            List<Reserva> antes = null;
+            List<Reserva> ahora = null;
+            for (int p = 0; p < PASADAS; p++) {
+                consultas[0] = 0;
+                long t0 = System.nanoTime();
+                antes = listarNMas1(consultas);
+                mejorAntes = Math.min(mejorAntes, System.nanoTime() - t0);
+
+                t0 = System.nanoTime();
+                ahora = reservaDAO.listarReservas();
+                mejorAhora = Math.min(mejorAhora, System.nanoTime() - t0);
+            }
+
+            System.out.printf("   %,7d reservas  N+1: %,7d consultas %,7d ms   JOIN: 1 consulta %,6d ms   (×%.1f)%n",
+                              reservas, consultas[0], mejorAntes / 1_000_000, mejorAhora / 1_000_000,
+                              (double) mejorAntes / mejorAhora);
+
+            return comprobar(reservas, antes, ahora);
+        } finally {
+            ConexionBD.cerrarConexion();
+            borrar(dir);
+        }
+    }
+
+    /**
+     * Habitaciones, clientes y reservas sin solapes (estancias
+     * seguidas de 1 a 3 noches por habitación).
+     */
+    private static void preparar(int reservas) throws SQLException {
+        StringBuilder csvHab = new StringBuilder("tipo;precio;disponible\n");
+        for (int i = 0; i < HABITACIONES; i++) {
+            csvHab.append(i % 3 == 0 ? "suite" : "doble").append(";80.00;1\n");
+        }
+        ImportadorMasivo importador = new ImportadorMasivo();
+        importador.importarHabitaciones(new StringReader(csvHab.toString()));
+
+        ClienteDAO clienteDAO = new ClienteDAO();
+        for (int i = 0; i < CLIENTES; i++) {
+            clienteDAO.insertarCliente(new Cliente(0, "Cliente " + i, "600000000", "c" + i + "@hotel.test"));
+        }
+
+        List<Integer> idsHabitacion = new ArrayList<>();
+        try (Connection conn = ConexionBD.getConexion();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id FROM Habitaciones ORDER BY id")) {
+            while (rs.next()) {
+                idsHabitacion.add(rs.getInt(1));
+            }
+        }
+
+        Random azar = new Random(11);
+        long hoy = LocalDate.now().toEpochDay();
+        long[] siguienteLibre = new long[idsHabitacion.size()];
+        Arrays.fill(siguienteLibre, hoy);
+        StringBuilder csv = new StringBuilder("idCliente;idHabitacion;fechaEntrada;fechaSalida;total\n");
+        for (int i = 0; i < reservas; i++) {
+            int h = i % idsHabitacion.size();
+            long entrada = siguienteLibre[h];
+            long salida = entrada + 1 + azar.nextInt(3);
+            siguienteLibre[h] = salida;
+            csv.append(1 + azar.nextInt(CLIENTES)).append(';')
+               .append(idsHabitacion.get(h)).append(';')
+               .append(LocalDate.ofEpochDay(entrada)).append(';')
+               .append(LocalDate.ofEpochDay(salida)).append(";\n");
+        }
+        ImportadorMasivo.ResultadoImportacion r = importador.importarReservas(new StringReader(csv.toString()));
+        if (r.getFilasInsertadas() != reservas) {
+            throw new IllegalStateException("Solo se importaron " + r.getFilasInsertadas() + " reservas: "
+                                            + r.getErrores());
+        }
+    }
+
+    /**
+     * Lo que hacía listarReservas() antes del JOIN: una consulta
+     * para las reservas y dos más por cada fila.
+     */
+    private static List<Reserva> listarNMas1(long[] consultas) throws SQLException {
+        List<Reserva> reservas = new ArrayList<>();
+        try (Connection conn = ConexionBD.getConexion();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM Reservas ORDER BY fechaEntrada DESC")) {
+            consultas[0]++;
+            while (rs.next()) {
+                Cliente cliente = buscarCliente(rs.getInt("idCliente"));
+                Habitacion habitacion = buscarHabitacion(rs.getInt("idHabitacion"));
+                consultas[0] += 2;
+                if (cliente != null && habitacion != null) {
+                    Reserva reserva = new Reserva(rs.getInt("id"), cliente, habitacion,
+                                                  rs.getObject("fechaEntrada", LocalDate.class),
+                                                  rs.getObject("fechaSalida", LocalDate.class));
+                    reserva.setImporteTotal(rs.getDouble("total"));
+                    reservas.add(reserva);
+                }
+            }
+        }
+        return reservas;
+    }
+
+    private static Cliente buscarCliente(int id) throws SQLException {
+        try (Connection conn = ConexionBD.getConexion();
+             PreparedStatement stmt = conn.prepareStatement("SELECT * FROM Clientes WHERE id = ?")) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next()
+                    ? new Cliente(id, rs.getString("nombre"), rs.getString("telefono"), rs.getString("email"))
+                    : null;
+            }
+        }
+    }
+
+    private static Habitacion buscarHabitacion(int id) throws SQLException {
+        try (Connection conn = ConexionBD.getConexion();
+             PreparedStatement stmt = conn.prepareStatement("SELECT * FROM Habitaciones WHERE id = ?")) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next()
+                    ? new Habitacion(id, rs.getString("tipo"), rs.getDouble("precio"), rs.getBoolean("disponible"))
+                    : null;
+            }
+        }
+    }
+
+    /**
+     * Mismas reservas por los dos caminos y un solo objeto por
+     * cliente y por habitación en el del JOIN.
+     */
+    private static boolean comprobar(int reservas, List<Reserva> antes, List<Reserva> ahora) {
+        Set<Integer> idsAntes = new HashSet<>();
+        for (Reserva r : antes) {
+            idsAntes.add(r.getId());
+        }
+        Set<Integer> idsAhora = new HashSet<>();
+        Set<Integer> idsCliente = new HashSet<>();
+        Set<Integer> idsHabitacion = new HashSet<>();
+        Set<Cliente> objetosCliente = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<Habitacion> objetosHabitacion = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Reserva r : ahora) {
+            idsAhora.add(r.getId());
+            idsCliente.add(r.getCliente().getId());
+            idsHabitacion.add(r.getHabitacion().getId());
+            objetosCliente.add(r.getCliente());
+            objetosHabitacion.add(r.getHabitacion());
+        }
+
+        boolean ok = ahora.size() == reservas && idsAhora.equals(idsAntes)
+                     && objetosCliente.size() == idsCliente.size()
+                     && objetosHabitacion.size() == idsHabitacion.size();
+        if (!ok) {
+            System.out.println("      ❌ N+1 " + antes.size() + " reservas, JOIN " + ahora.size()
+                               + "; clientes " + objetosCliente.size() + " objetos / " + idsCliente.size()
+                               + " ids, habitaciones " + objetosHabitacion.size() + " objetos / "
+                               + idsHabitacion.size() + " ids");
+        }
+        return ok;
+    }
+
+    private static void borrar(Path dir) throws IOException {
+        try (Stream<Path> s = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) s.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
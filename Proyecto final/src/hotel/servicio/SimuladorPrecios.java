@@ -0,0 +1,220 @@
+package hotel.servicio;
+
+import hotel.modelo.Habitacion;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * ============================================================
+ * 🧪 CLASE: SimuladorPrecios (Banco de pruebas del MotorPrecios)
+ * ============================================================
+ *
+ * Mide el MotorPrecios SIN base de datos, con un hotel inventado
+ * de 4 tipos de habitación y una ocupación al azar:
+ *
+ *   1. COTIZAR: N estancias (1.000.000 por defecto) de 1 a 14
+ *      noches dentro del calendario, repetido varias rondas.
+ *      Muestra ns por cotización y bytes reservados por
+ *      cotización (debe ser 0)
+ *   2. COMPROBAR: 10.000 de ellas, y otras tantas fuera del
+ *      calendario, se recalculan noche a noche con las reglas
+ *      "a mano" y deben dar lo mismo
+ *   3. RECOTIZAR: abre 100.000 cotizaciones y mide lo que tarda
+ *      aplicar unas reglas nuevas (que las recalcula todas)
+ *
+ * Sale con código 1 si alguna comprobación falla.
+ *
+ * 📌 USO:
+ * ─────────────────────────────────
+ *   java -cp bin hotel.servicio.SimuladorPrecios 1000000 5
+ *        (1.000.000 de estancias, 5 rondas)
+ *
+ * ⚠️ Las primeras rondas calientan el JIT: fijarse en las últimas.
+ *
+ * ============================================================
+ */
+public class SimuladorPrecios {
+
+    private static final String[] TIPOS = { "individual", "doble", "suite", "familiar" };
+    private static final double[] PRECIOS = { 55.0, 80.0, 150.0, 110.0 };
+    private static final int HABITACIONES_POR_TIPO = 50;
+    private static final int HORIZONTE = 365;
+    private static final int COMPROBADAS = 10_000;
+    private static final int ABIERTAS = 100_000;
+
+    public static void main(String[] args) {
+        int estancias = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rondas = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Random azar = new Random(42);  // Semilla fija: resultados repetibles
+        LocalDate hoy = LocalDate.now();
+        long primerDia = hoy.toEpochDay();
+
+        MotorPrecios.Reglas reglas = reglas(1.30);
+        Map<String, int[]> ocupadas = ocupacion(azar);
+        Map<String, Integer> habitaciones = new HashMap<>();
+        for (String tipo : TIPOS) {
+            habitaciones.put(tipo, HABITACIONES_POR_TIPO);
+        }
+        MotorPrecios motor = new MotorPrecios(HORIZONTE);
+        motor.aplicarReglas(reglas, hoy, habitaciones, ocupadas);
+
+        // Estancias generadas de antemano: no se mide el Random
+        int[] tipo = new int[estancias];
+        long[] entrada = new long[estancias];
+        long[] salida = new long[estancias];
+        for (int i = 0; i < estancias; i++) {
+            tipo[i] = azar.nextInt(TIPOS.length);
+            entrada[i] = primerDia + azar.nextInt(HORIZONTE - 14);
+            salida[i] = entrada[i] + 1 + azar.nextInt(14);
+        }
+
+        System.out.println("🧪 " + estancias + " estancias, " + TIPOS.length + " tipos, calendario de "
+                           + HORIZONTE + " días");
+
+        // --------------------------------------------------------
+        // 1. Cotizar
+        // --------------------------------------------------------
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean memoria = mx instanceof com.sun.management.ThreadMXBean
+            ? (com.sun.management.ThreadMXBean) mx : null;
+
+        double suma = 0;
+        double bytesPorCotizacion = 0;
+        for (int r = 1; r <= rondas; r++) {
+            long id = Thread.currentThread().getId();
+            long bytes0 = memoria != null ? memoria.getThreadAllocatedBytes(id) : 0;
+            long t0 = System.nanoTime();
+            for (int i = 0; i < estancias; i++) {
+                suma += motor.cotizar(TIPOS[tipo[i]], PRECIOS[tipo[i]], entrada[i], salida[i]);
+            }
+            long ns = System.nanoTime() - t0;
+            long bytes = memoria != null ? memoria.getThreadAllocatedBytes(id) - bytes0 : 0;
+            bytesPorCotizacion = (double) bytes / estancias;
+
+            System.out.printf("   Ronda %d: %,6d ms  %6.1f ns/cotización  %,12.0f cotizaciones/s  %.2f bytes/cotización%n",
+                              r, ns / 1_000_000, (double) ns / estancias, estancias * 1e9 / ns,
+                              bytesPorCotizacion);
+        }
+        System.out.printf("   (suma de importes: %.2f)%n", suma);  // Que el JIT no se salte el bucle
+
+        boolean ok = true;
+        if (memoria != null && bytesPorCotizacion >= 1) {
+            System.out.println("   ❌ Cotizar reserva memoria: " + bytesPorCotizacion + " bytes/cotización");
+            ok = false;
+        }
+
+        // --------------------------------------------------------
+        // 2. Comprobar contra el cálculo noche a noche
+        // --------------------------------------------------------
+        // Desplazadas 300 días, muchas terminan fuera del calendario
+        int comprobadas = Math.min(COMPROBADAS, estancias);
+        int distintas = 0;
+        for (long desplazamiento : new long[] { 0, 300 }) {
+            for (int i = 0; i < comprobadas; i++) {
+                int t = tipo[i];
+                long e = entrada[i] + desplazamiento;
+                long s = salida[i] + desplazamiento;
+                double esperado = aMano(reglas, HABITACIONES_POR_TIPO, ocupadas.get(TIPOS[t]),
+                                        primerDia, PRECIOS[t], e, s);
+                if (Math.abs(esperado - motor.cotizar(TIPOS[t], PRECIOS[t], e, s)) > 0.005) {
+                    distintas++;
+                }
+            }
+        }
+        System.out.println("   Comprobadas " + (2 * comprobadas) + " a mano: " + distintas + " distintas");
+        ok &= distintas == 0;
+
+        // --------------------------------------------------------
+        // 3. Recotizar las abiertas al cambiar las reglas
+        // --------------------------------------------------------
+        List<MotorPrecios.Cotizacion> abiertas = new ArrayList<>();
+        for (int i = 0; i < ABIERTAS; i++) {
+            int t = i % TIPOS.length;
+            Habitacion h = new Habitacion(i + 1, TIPOS[t], PRECIOS[t], true);
+            abiertas.add(motor.abrirCotizacion(h, LocalDate.ofEpochDay(entrada[i % estancias]),
+                                               LocalDate.ofEpochDay(salida[i % estancias])));
+        }
+        MotorPrecios.Reglas nuevas = reglas(1.50);
+        long t0 = System.nanoTime();
+        motor.aplicarReglas(nuevas, hoy, habitaciones, ocupadas);
+        long msRecotizar = (System.nanoTime() - t0) / 1_000_000;
+
+        int malRecotizadas = 0;
+        for (int i = 0; i < ABIERTAS; i++) {
+            MotorPrecios.Cotizacion c = abiertas.get(i);
+            long e = c.getEntrada().toEpochDay();
+            long s = c.getSalida().toEpochDay();
+            int t = i % TIPOS.length;
+            double esperado = aMano(nuevas, HABITACIONES_POR_TIPO, ocupadas.get(TIPOS[t]),
+                                    primerDia, PRECIOS[t], e, s);
+            if (Math.abs(esperado - c.getImporte()) > 0.005) {
+                malRecotizadas++;
+            }
+            motor.cerrarCotizacion(c);
+        }
+        System.out.println("   Nuevas reglas con " + ABIERTAS + " cotizaciones abiertas: " + msRecotizar
+                           + " ms, " + malRecotizadas + " mal recotizadas");
+        ok &= malRecotizadas == 0 && motor.getCotizacionesAbiertas() == 0;
+
+        if (!ok) {
+            System.out.println("❌ ¡HAY COMPROBACIONES FALLIDAS!");
+            System.exit(1);
+        }
+        System.out.println("✅ Todas las comprobaciones OK");
+    }
+
+    /**
+     * Verano, Navidad (cruza el año), fin de semana y dos tramos
+     * de ocupación.
+     */
+    private static MotorPrecios.Reglas reglas(double factorVerano) {
+        return new MotorPrecios.Reglas()
+            .agregarTemporada(MonthDay.of(6, 15), MonthDay.of(9, 15), factorVerano)
+            .agregarTemporada(MonthDay.of(12, 20), MonthDay.of(1, 6), 1.20)
+            .setFactorFinDeSemana(1.15)
+            .agregarTramoOcupacion(60, 1.05)
+            .agregarTramoOcupacion(80, 1.10);
+    }
+
+    /**
+     * Habitaciones ocupadas de cada tipo, día a día, al azar.
+     */
+    private static Map<String, int[]> ocupacion(Random azar) {
+        Map<String, int[]> ocupadas = new HashMap<>();
+        for (String tipo : TIPOS) {
+            int[] dias = new int[HORIZONTE];
+            for (int d = 0; d < HORIZONTE; d++) {
+                dias[d] = azar.nextInt(HABITACIONES_POR_TIPO + 1);
+            }
+            ocupadas.put(tipo, dias);
+        }
+        return ocupadas;
+    }
+
+    /**
+     * Mismo importe que cotizar(), calculado noche a noche sin
+     * el calendario.
+     */
+    private static double aMano(MotorPrecios.Reglas reglas, int habitaciones, int[] ocupadas,
+                                long primerDia, double precioBase, long entrada, long salida) {
+        double suma = 0;
+        for (long dia = entrada; dia < salida; dia++) {
+            double factor = reglas.factorFijo(LocalDate.ofEpochDay(dia));
+            long pos = dia - primerDia;
+            if (pos >= 0 && pos < HORIZONTE) {
+                factor *= reglas.factorOcupacion(ocupadas[(int) pos] * 100.0 / habitaciones);
+            }
+            suma += factor;
+        }
+        return Math.round(suma * precioBase * 100) / 100.0;
+    }
+}
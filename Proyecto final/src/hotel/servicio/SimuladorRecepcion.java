@@ -0,0 +1,264 @@
+package hotel.servicio;
+
+import hotel.dao.ConexionBD;
+import hotel.dao.DiarioEventos;
+import hotel.dao.ImportadorMasivo;
+import hotel.dao.PerfilBD;
+import hotel.dao.ResultadoReserva;
+import hotel.modelo.Cliente;
+import hotel.modelo.Habitacion;
+import hotel.modelo.Reserva;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * ============================================================
+ * 🧪 CLASE: SimuladorRecepcion (Generador de carga)
+ * ============================================================
+ *
+ * Simula N recepcionistas trabajando A LA VEZ contra la base
+ * de datos a través de ServicioHotelAsync. Cada uno repite:
+ *
+ *   1. Consultar habitaciones libres para unas fechas al azar
+ *   2. Reservar una de ellas
+ *   3. A veces (1 de cada 4), cancelar la reserva
+ *
+ * Al final muestra cuántas operaciones se hicieron y su
+ * latencia (p50 = la mitad tardó menos; p99 = el 99% tardó menos).
+ *
+ * Trabaja contra una BD embebida NUEVA en un directorio
+ * temporal (H2 por defecto, o SQLite con -Dhotel.bd=sqlite), con
+ * el diario de eventos en ese mismo directorio: no toca la BD de
+ * clase ni deja ficheros.
+ *
+ * 📌 CUENTA COMO ERROR:
+ * ─────────────────────────────────
+ *   • Una excepción en cualquier operación
+ *   • Una reserva con resultado ERROR
+ *   • Un cliente que se queda sin ID (el DAO falló en silencio)
+ *   • Una consulta sin habitaciones libres: con 100 habitaciones
+ *     más las de ejemplo no se llenan nunca, así que una lista
+ *     vacía es un fallo del DAO, no un hotel lleno
+ *   • Que al final la tabla Reservas no tenga creadas − canceladas
+ *     filas (una cancelación o inserción perdida)
+ * Sale con código 1 si hay algún error.
+ *
+ * 📌 USO:
+ * ─────────────────────────────────
+ *   java -cp "bin;lib/*" hotel.servicio.SimuladorRecepcion 50 20
+ *        (50 recepcionistas, 20 reservas cada uno)
+ *
+ * ⚠️ Necesita el .jar de H2 o SQLite en lib/.
+ *
+ * ============================================================
+ */
+public class SimuladorRecepcion {
+
+    private static final int HABITACIONES = 100;
+
+    public static void main(String[] args) throws Exception {
+        int recepcionistas = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int iteraciones = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        Path dir = Files.createTempDirectory("hotel-recepcion");
+        PerfilBD perfil = PerfilBD.desdeEntorno().isEmbebida() ? PerfilBD.desdeEntorno() : PerfilBD.H2;
+        String url = perfil == PerfilBD.H2
+            ? "jdbc:h2:" + dir.resolve("hoteldb").toAbsolutePath() + ";MODE=MSSQLServer;DATABASE_TO_UPPER=FALSE"
+            : "jdbc:sqlite:" + dir.resolve("hotel.db").toAbsolutePath();
+        ConexionBD.configurarPerfil(perfil, url, perfil.getUsuarioPorDefecto(), perfil.getPasswordPorDefecto());
+        DiarioEventos.configurar(dir.resolve("diario_reservas.dat"));
+
+        System.out.println("🧪 Simulando " + recepcionistas + " recepcionistas × "
+                           + iteraciones + " reservas contra " + perfil + " (pool de "
+                           + ConexionBD.getPoolMaximo() + " conexiones)");
+
+        ConcurrentLinkedQueue<Long> latencias = new ConcurrentLinkedQueue<>();
+        AtomicInteger creadas = new AtomicInteger();
+        AtomicInteger canceladas = new AtomicInteger();
+        AtomicInteger conflictos = new AtomicInteger();
+        AtomicInteger errores = new AtomicInteger();
+
+        try {
+            prepararHabitaciones();
+
+            try (ServicioHotelAsync servicio = new ServicioHotelAsync()) {
+                CountDownLatch fin = new CountDownLatch(recepcionistas);
+                long inicio = System.nanoTime();
+
+                for (int i = 0; i < recepcionistas; i++) {
+                    int numero = i + 1;
+                    Thread recepcionista = new Thread(() -> {
+                        try {
+                            simularRecepcionista(servicio, numero, iteraciones, latencias,
+                                                 creadas, canceladas, conflictos, errores);
+                        } catch (RuntimeException e) {
+                            errores.incrementAndGet();
+                            System.err.println("❌ Recepcionista " + numero + ": " + e.getMessage());
+                        } finally {
+                            fin.countDown();
+                        }
+                    }, "simulador-" + numero);
+                    recepcionista.start();
+                }
+
+                fin.await();
+                long totalMs = (System.nanoTime() - inicio) / 1_000_000;
+
+                // Lo que dicen los contadores debe estar en la BD
+                int filas = contarReservas();
+                int esperadas = creadas.get() - canceladas.get();
+                if (filas != esperadas) {
+                    errores.incrementAndGet();
+                    System.err.println("❌ La tabla Reservas tiene " + filas + " filas (esperadas "
+                                       + esperadas + ")");
+                }
+
+                mostrarResultados(latencias, totalMs, creadas.get(), canceladas.get(),
+                                  conflictos.get(), errores.get());
+            }
+        } finally {
+            System.out.println("📔 " + DiarioEventos.getInstancia());
+            DiarioEventos.cerrarInstancia();
+            ConexionBD.cerrarConexion();
+            borrar(dir);
+        }
+
+        if (errores.get() > 0) {
+            System.out.println("❌ ¡HA HABIDO ERRORES!");
+            System.exit(1);
+        }
+        System.out.println("✅ Sin errores");
+    }
+
+    /**
+     * Trabajo de un recepcionista: consulta, reserva y a veces cancela.
+     */
+    private static void simularRecepcionista(ServicioHotelAsync servicio, int numero, int iteraciones,
+                                             ConcurrentLinkedQueue<Long> latencias,
+                                             AtomicInteger creadas, AtomicInteger canceladas,
+                                             AtomicInteger conflictos, AtomicInteger errores) {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+
+        Cliente cliente = medir(latencias, () -> servicio.registrarCliente(
+            new Cliente(0, "Cliente simulado " + numero, "600000000", "sim" + numero + "@hotel.test")).join());
+        if (cliente.getId() == 0) {
+            throw new IllegalStateException("No se pudo registrar el cliente");
+        }
+
+        for (int i = 0; i < iteraciones; i++) {
+            LocalDate entrada = LocalDate.now().plusDays(1 + azar.nextInt(365));
+            LocalDate salida = entrada.plusDays(1 + azar.nextInt(7));
+
+            List<Habitacion> libres = medir(latencias,
+                () -> servicio.listarDisponibles(entrada, salida).join());
+            if (libres.isEmpty()) {
+                errores.incrementAndGet();  // Ver cabecera: el hotel nunca se llena
+                continue;
+            }
+
+            Habitacion habitacion = libres.get(azar.nextInt(libres.size()));
+            Reserva reserva = new Reserva(cliente, habitacion, entrada, salida);
+
+            ResultadoReserva resultado = medir(latencias, () -> servicio.reservar(reserva).join());
+            if (resultado == ResultadoReserva.CREADA) {
+                creadas.incrementAndGet();
+                if (azar.nextInt(4) == 0) {
+                    medir(latencias, () -> servicio.cancelarReserva(reserva.getId()).join());
+                    canceladas.incrementAndGet();
+                }
+            } else if (resultado == ResultadoReserva.CONFLICTO) {
+                conflictos.incrementAndGet();
+            } else {
+                errores.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Añade HABITACIONES habitaciones a las de ejemplo.
+     */
+    private static void prepararHabitaciones() {
+        StringBuilder csv = new StringBuilder("tipo;precio;disponible\n");
+        for (int i = 0; i < HABITACIONES; i++) {
+            csv.append(i % 3 == 0 ? "suite" : "doble").append(";80.00;1\n");
+        }
+        ImportadorMasivo.ResultadoImportacion r = new ImportadorMasivo()
+            .importarHabitaciones(new StringReader(csv.toString()));
+        if (r.getFilasInsertadas() != HABITACIONES) {
+            throw new IllegalStateException("No se pudo preparar la BD de pruebas: " + r.getErrores());
+        }
+    }
+
+    private static int contarReservas() throws SQLException {
+        try (Connection conn = ConexionBD.getConexion();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM Reservas")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * Ejecuta una operación y guarda lo que ha tardado.
+     */
+    private static <T> T medir(ConcurrentLinkedQueue<Long> latencias, Supplier<T> op) {
+        long t0 = System.nanoTime();
+        try {
+            return op.get();
+        } finally {
+            latencias.add(System.nanoTime() - t0);
+        }
+    }
+
+    private static void mostrarResultados(ConcurrentLinkedQueue<Long> latencias, long totalMs,
+                                          int creadas, int canceladas, int conflictos, int errores) {
+        long[] ordenadas = latencias.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(ordenadas);
+
+        System.out.println("\n📊 RESULTADOS");
+        System.out.println("   Operaciones:   " + ordenadas.length + " en " + totalMs + " ms ("
+                           + (totalMs == 0 ? ordenadas.length : ordenadas.length * 1000L / totalMs) + " op/s)");
+        System.out.println("   Reservas:      " + creadas + " creadas, " + canceladas + " canceladas, "
+                           + conflictos + " conflictos");
+        System.out.println("   Errores:       " + errores);
+        System.out.printf("   Latencia p50:  %.2f ms%n", percentil(ordenadas, 50));
+        System.out.printf("   Latencia p99:  %.2f ms%n", percentil(ordenadas, 99));
+        System.out.printf("   Latencia máx:  %.2f ms%n", percentil(ordenadas, 100));
+    }
+
+    /**
+     * Percentil p (0-100) de un array ordenado, en milisegundos.
+     */
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int pos = (int) Math.ceil(p / 100.0 * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, Math.min(pos, ordenadas.length - 1))] / 1_000_000.0;
+    }
+
+    private static void borrar(Path dir) throws IOException {
+        try (Stream<Path> s = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) s.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
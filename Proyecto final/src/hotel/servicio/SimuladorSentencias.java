@@ -0,0 +1,215 @@
+package hotel.servicio;
+
+import hotel.dao.ConexionBD;
+import hotel.dao.HabitacionDAO;
+import hotel.dao.PerfilBD;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+/**
+ * ============================================================
+ * 🧪 CLASE: SimuladorSentencias (Caché de sentencias on/off)
+ * ============================================================
+ *
+ * Repite N veces HabitacionDAO.obtenerPorId() (pedir conexión →
+ * prepareStatement → executeQuery → close), con la
+ * CacheSentencias DESACTIVADA (0) y ACTIVADA (32), en una BD
+ * embebida nueva. Antes de cada llamada se invalida esa
+ * habitación en la caché de lectura, para que TODAS vayan a la
+ * BD. Alterna 3 pasadas de cada modo y muestra la mejor:
+ * consultas/s, latencia media y tasa de aciertos de la caché.
+ *
+ * Falla si con la caché activada salen menos consultas/s que sin
+ * ella. Con la caché activada comprueba además que:
+ *   • Una sentencia devuelta con maxRows, fetchSize y
+ *     queryTimeout cambiados vuelve con los valores iniciales
+ *   • El ResultSet que se dejó abierto queda cerrado
+ *   • Dos prepareStatement() de la misma SQL en la misma
+ *     conexión dan sentencias distintas que funcionan a la vez
+ * Sale con código 1 si algo no cuadra.
+ *
+ * 📌 USO:
+ * ─────────────────────────────────
+ *   java -cp "bin;lib/*" hotel.servicio.SimuladorSentencias 200000 4
+ *        (200.000 consultas, 4 hilos; -Dhotel.bd=sqlite para
+ *        probar con SQLite, H2 si no)
+ *
+ * ⚠️ Necesita el .jar de H2 o SQLite en lib/.
+ *
+ * ============================================================
+ */
+public class SimuladorSentencias {
+
+    private static final int HABITACIONES = 5;  // Las de ejemplo de EsquemaBD
+    private static final int PASADAS = 3;       // Se queda con la mejor
+
+    public static void main(String[] args) throws Exception {
+        int consultas = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int hilos = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        PerfilBD perfil = PerfilBD.desdeEntorno().isEmbebida() ? PerfilBD.desdeEntorno() : PerfilBD.H2;
+        System.out.println("🧪 " + consultas + " consultas en " + hilos + " hilos (" + perfil + ")");
+
+        Path dir = Files.createTempDirectory("hotel-sentencias");
+        String url = perfil == PerfilBD.H2
+            ? "jdbc:h2:" + dir.resolve("hoteldb").toAbsolutePath() + ";MODE=MSSQLServer;DATABASE_TO_UPPER=FALSE"
+            : "jdbc:sqlite:" + dir.resolve("hotel.db").toAbsolutePath();
+        ConexionBD.configurarPerfil(perfil, url, perfil.getUsuarioPorDefecto(), perfil.getPasswordPorDefecto());
+        ConexionBD.configurarPool(1, hilos, 30_000);
+
+        boolean ok = true;
+        int[] tamanios = { 0, 32 };
+        long[] mejor = { Long.MAX_VALUE, Long.MAX_VALUE };
+        double[] aciertos = new double[2];
+        try {
+            // Pasadas alternas sin caché / con caché en la MISMA BD:
+            // ni el orden ni el JIT favorecen a ninguna de las dos
+            for (int p = 0; p < PASADAS; p++) {
+                for (int i = 0; i < tamanios.length; i++) {
+                    ConexionBD.configurarCacheSentencias(tamanios[i]);  // Pool nuevo
+                    repetir(Math.min(consultas, 20_000), hilos);         // Calentamiento
+
+                    long inicio = System.nanoTime();
+                    repetir(consultas, hilos);
+                    mejor[i] = Math.min(mejor[i], System.nanoTime() - inicio);
+                    aciertos[i] = ConexionBD.getPool().getTasaAciertosSentencias();
+                }
+            }
+
+            for (int i = 0; i < tamanios.length; i++) {
+                System.out.printf("   Caché %-3s %,7d ms  %,10.0f consultas/s  %6.1f µs/consulta  aciertos %.1f%%%n",
+                                  tamanios[i] == 0 ? "off" : "on", mejor[i] / 1_000_000,
+                                  consultas * 1e9 / mejor[i], mejor[i] / 1_000.0 / consultas * hilos,
+                                  aciertos[i]);
+            }
+            if (mejor[1] > mejor[0]) {
+                System.out.printf("   ❌ Con la caché: %,.0f consultas/s; sin ella: %,.0f%n",
+                                  consultas * 1e9 / mejor[1], consultas * 1e9 / mejor[0]);
+                ok = false;
+            }
+
+            // La última pasada dejó la caché activada
+            ok &= comprobarLimpieza();
+        } finally {
+            ConexionBD.cerrarConexion();
+            ConexionBD.configurarCacheSentencias(32);
+            borrar(dir);
+        }
+
+        if (!ok) {
+            System.out.println("❌ ¡HAY COMPROBACIONES FALLIDAS!");
+            System.exit(1);
+        }
+        System.out.println("✅ Todas las comprobaciones OK");
+    }
+
+    /**
+     * Reparte las consultas entre los hilos y espera a que acaben.
+     */
+    private static void repetir(int consultas, int hilos) throws InterruptedException {
+        CountDownLatch fin = new CountDownLatch(hilos);
+        String[] error = new String[1];
+        HabitacionDAO dao = new HabitacionDAO();
+        for (int h = 0; h < hilos; h++) {
+            int desde = consultas * h / hilos;
+            int hasta = consultas * (h + 1) / hilos;
+            new Thread(() -> {
+                try {
+                    for (int i = desde; i < hasta; i++) {
+                        int id = 1 + i % HABITACIONES;
+                        HabitacionDAO.getCache().invalidar(id);  // Que vaya a la BD
+                        if (dao.obtenerPorId(id) == null) {
+                            error[0] = "No se encontró la habitación " + id;
+                            return;
+                        }
+                    }
+                } finally {
+                    fin.countDown();
+                }
+            }, "sentencias-" + h).start();
+        }
+        fin.await();
+        if (error[0] != null) {
+            throw new IllegalStateException("Consulta fallida: " + error[0]);
+        }
+    }
+
+    /**
+     * Comprobaciones de la caché activada (ver cabecera).
+     */
+    private static boolean comprobarLimpieza() throws SQLException {
+        String sql = "SELECT id FROM Habitaciones WHERE id >= ? ORDER BY id";
+        boolean ok = true;
+
+        try (Connection conn = ConexionBD.getConexion()) {
+            int maxRows;
+            int fetchSize;
+            int queryTimeout;
+            ResultSet abierto;
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                maxRows = stmt.getMaxRows();
+                fetchSize = stmt.getFetchSize();
+                queryTimeout = stmt.getQueryTimeout();
+                stmt.setMaxRows(1);
+                stmt.setFetchSize(1);
+                stmt.setQueryTimeout(7);
+                stmt.setInt(1, 1);
+                abierto = stmt.executeQuery();  // Sin cerrar a propósito
+            }
+            if (!abierto.isClosed()) {
+                System.out.println("      ❌ El ResultSet sigue abierto tras cerrar la sentencia");
+                ok = false;
+            }
+
+            try (PreparedStatement fuera = conn.prepareStatement(sql);
+                 PreparedStatement dentro = conn.prepareStatement(sql)) {
+                if (fuera.getMaxRows() != maxRows || fuera.getFetchSize() != fetchSize
+                    || fuera.getQueryTimeout() != queryTimeout) {
+                    System.out.println("      ❌ La sentencia reutilizada conserva maxRows/fetchSize/queryTimeout");
+                    ok = false;
+                }
+
+                // Las dos a la vez, con parámetros distintos
+                fuera.setInt(1, 1);
+                dentro.setInt(1, HABITACIONES);
+                int filasFuera = 0;
+                int filasDentro = 0;
+                try (ResultSet rsFuera = fuera.executeQuery()) {
+                    while (rsFuera.next()) {
+                        filasFuera++;
+                        if (filasFuera == 1) {
+                            try (ResultSet rsDentro = dentro.executeQuery()) {
+                                while (rsDentro.next()) {
+                                    filasDentro++;
+                                }
+                            }
+                        }
+                    }
+                }
+                if (fuera == dentro || filasFuera != HABITACIONES || filasDentro != 1) {
+                    System.out.println("      ❌ Misma SQL anidada: " + filasFuera + " y " + filasDentro
+                                       + " filas (esperadas " + HABITACIONES + " y 1)");
+                    ok = false;
+                }
+            }
+        }
+        return ok;
+    }
+
+    private static void borrar(Path dir) throws IOException {
+        try (Stream<Path> s = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) s.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}